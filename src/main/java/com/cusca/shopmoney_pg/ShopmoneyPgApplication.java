@@ -3,9 +3,11 @@ package com.cusca.shopmoney_pg;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class ShopmoneyPgApplication {
 
 	public static void main(String[] args) {
@@ -1,11 +1,16 @@
 package com.cusca.shopmoney_pg.controllers;
 
 import com.cusca.shopmoney_pg.models.dto.request.AbonoRequest;
+import com.cusca.shopmoney_pg.models.dto.request.AplicarAbonosLoteRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateAbonoRequest;
 import com.cusca.shopmoney_pg.models.dto.response.AbonoResponse;
+import com.cusca.shopmoney_pg.models.dto.response.AplicacionAbonosLoteResponse;
+import com.cusca.shopmoney_pg.models.dto.response.AsignacionAbonoResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
 import com.cusca.shopmoney_pg.models.enums.EstadoAbono;
 import com.cusca.shopmoney_pg.models.enums.MetodoPago;
 import com.cusca.shopmoney_pg.services.finance.IAbonoService;
+import com.cusca.shopmoney_pg.services.idempotency.IdempotenciaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,13 +23,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/abonos")
@@ -32,20 +40,25 @@ import java.time.LocalDate;
 @Tag(name = "Abonos", description = "Gestión de abonos y pagos de clientes")
 public class AbonoController {
     private final IAbonoService abonoService;
+    private final IdempotenciaService idempotenciaService;
 
     // ENDPOINTS PARA ADMINISTRADORES
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Crear nuevo abono", description = "Permite crear un nuevo abono para una cuenta de cliente - Solo ADMIN")
+    @Operation(summary = "Crear nuevo abono", description = "Permite crear un nuevo abono para una cuenta de cliente. Con Idempotency-Key los reintentos devuelven el abono ya creado - Solo ADMIN")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Abono creado exitosamente"),
             @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
-            @ApiResponse(responseCode = "404", description = "Cuenta de cliente no encontrada")
+            @ApiResponse(responseCode = "404", description = "Cuenta de cliente no encontrada"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key reutilizada con otros datos o aún en proceso")
     })
-    public ResponseEntity<AbonoResponse> crear(@Valid @RequestBody AbonoRequest request) {
-        AbonoResponse response = abonoService.crear(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<AbonoResponse> crear(
+            @Valid @RequestBody AbonoRequest request,
+            @RequestHeader(value = IdempotenciaService.ENCABEZADO, required = false)
+            @Parameter(description = "Clave única generada por el cliente para reintentar sin duplicar el abono") String claveIdempotencia) {
+        return idempotenciaService.ejecutar("abonos.crear", claveIdempotencia, request, AbonoResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(abonoService.crear(request)));
     }
 
     @GetMapping
@@ -172,6 +185,45 @@ public class AbonoController {
         return ResponseEntity.ok(abonos);
     }
 
+    @PostMapping(value = "/importar-extracto", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar extracto bancario", description = "Registra los abonos de un archivo CSV del banco (referencia, monto, fecha, metodo_pago, observaciones). " +
+            "La referencia puede ser el número de cuenta o el DUI del titular. Con aplicar=true los abonos se aplican al saldo - Solo ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación procesada, revisar errores por fila"),
+            @ApiResponse(responseCode = "400", description = "Archivo vacío o sin las columnas requeridas")
+    })
+    public ResponseEntity<ImportacionResponse> importarExtracto(
+            @RequestPart("archivo") MultipartFile archivo,
+            @RequestParam(defaultValue = "false") boolean aplicar) {
+        ImportacionResponse response = abonoService.importarExtractoBancario(archivo, aplicar);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/asignaciones")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Asignaciones de un abono", description = "Obtiene las ventas a crédito que cubrió un abono y el monto asignado a cada una - Solo ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Asignaciones obtenidas"),
+            @ApiResponse(responseCode = "404", description = "Abono no encontrado")
+    })
+    public ResponseEntity<List<AsignacionAbonoResponse>> buscarAsignaciones(@PathVariable Long id) {
+        List<AsignacionAbonoResponse> asignaciones = abonoService.buscarAsignaciones(id);
+        return ResponseEntity.ok(asignaciones);
+    }
+
+    @PostMapping("/aplicar-lote")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Aplicar abonos por lote", description = "Aplica abonos PENDIENTES por IDs o por filtro, actualizando cada cuenta una sola vez - Solo ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote procesado, ver errores por abono"),
+            @ApiResponse(responseCode = "400", description = "Más de 1000 abonos en el lote")
+    })
+    public ResponseEntity<AplicacionAbonosLoteResponse> aplicarLote(@Valid @RequestBody AplicarAbonosLoteRequest request) {
+        AplicacionAbonosLoteResponse response = abonoService.aplicarLote(request);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}/aplicar")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Aplicar abono", description = "Aplica un abono pendiente a la cuenta del cliente - Solo ADMIN")
@@ -1,13 +1,17 @@
 package com.cusca.shopmoney_pg.controllers;
 
 import com.cusca.shopmoney_pg.models.dto.request.CategoriaRequest;
+import com.cusca.shopmoney_pg.models.dto.response.CategoriaMenuResponse;
 import com.cusca.shopmoney_pg.models.dto.response.CategoriaResponse;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
 import com.cusca.shopmoney_pg.services.catalog.ICategoriaService;
+import com.cusca.shopmoney_pg.utils.http.EtagUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -18,12 +22,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/categorias")
 @RequiredArgsConstructor
 @Tag(name = "Categorías", description = "Gestión de categorías de productos")
 public class CategoriaController {
     private final ICategoriaService categoriaService;
+    private final VersionRecursosService versionRecursosService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -43,9 +50,19 @@ public class CategoriaController {
     @Operation(summary = "Listar categorías", description = "Obtiene todas las categorías con paginación")
     @ApiResponse(responseCode = "200", description = "Categorías obtenidas exitosamente")
     public ResponseEntity<Page<CategoriaResponse>> listarTodas(
-            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable) {
-        Page<CategoriaResponse> categorias = categoriaService.listarTodos(pageable);
-        return ResponseEntity.ok(categorias);
+            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable,
+            HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> categoriaService.listarTodos(pageable));
+    }
+
+    @GetMapping("/menu")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    @Operation(summary = "Menú de categorías", description = "Obtiene todas las categorías con el total de productos y los productos disponibles")
+    @ApiResponse(responseCode = "200", description = "Menú obtenido exitosamente")
+    public ResponseEntity<List<CategoriaMenuResponse>> obtenerMenu(HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                categoriaService::obtenerMenu);
     }
 
     @GetMapping("/{id}")
@@ -55,10 +72,9 @@ public class CategoriaController {
             @ApiResponse(responseCode = "200", description = "Categoría encontrada"),
             @ApiResponse(responseCode = "404", description = "Categoría no encontrada")
     })
-    public ResponseEntity<CategoriaResponse> obtenerPorId(@PathVariable Long id) {
-        return categoriaService.buscarPorId(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<CategoriaResponse> obtenerPorId(@PathVariable Long id, HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> categoriaService.buscarPorId(id).orElse(null));
     }
 
     @GetMapping("/nombre/{nombre}")
@@ -68,10 +84,9 @@ public class CategoriaController {
             @ApiResponse(responseCode = "200", description = "Categoría encontrada"),
             @ApiResponse(responseCode = "404", description = "Categoría no encontrada")
     })
-    public ResponseEntity<CategoriaResponse> obtenerPorNombre(@PathVariable String nombre) {
-        return categoriaService.buscarPorNombre(nombre)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<CategoriaResponse> obtenerPorNombre(@PathVariable String nombre, HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> categoriaService.buscarPorNombre(nombre).orElse(null));
     }
 
     @PutMapping("/{id}")
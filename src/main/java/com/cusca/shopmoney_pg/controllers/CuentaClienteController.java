@@ -2,6 +2,7 @@ package com.cusca.shopmoney_pg.controllers;
 
 import com.cusca.shopmoney_pg.models.dto.request.CuentaClienteRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateCuentaClienteRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ClienteBusquedaResponse;
 import com.cusca.shopmoney_pg.models.dto.response.CuentaClienteResponse;
 import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
 import com.cusca.shopmoney_pg.services.account.ICuentaClienteService;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/cuentas")
@@ -57,6 +59,29 @@ public class CuentaClienteController {
         return ResponseEntity.ok(cuentas);
     }
 
+    @GetMapping("/buscar-clientes")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Búsqueda rápida de clientes", description = "Busca clientes con cuenta por nombre, email, teléfono o DUI (mínimo 3 caracteres) y devuelve las mejores coincidencias con su saldo disponible (Solo ADMIN)")
+    @ApiResponse(responseCode = "200", description = "Coincidencias obtenidas exitosamente")
+    public ResponseEntity<List<ClienteBusquedaResponse>> buscarClientes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        List<ClienteBusquedaResponse> clientes = cuentaClienteService.buscarClientes(q, limite);
+        return ResponseEntity.ok(clientes);
+    }
+
+    @GetMapping("/lote")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Obtener varias cuentas por ID", description = "Obtiene en una sola llamada las cuentas indicadas (?ids=1,2,3), en el mismo orden. Máximo 100 IDs (Solo ADMIN)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cuentas encontradas (los IDs inexistentes se omiten)"),
+            @ApiResponse(responseCode = "400", description = "Se excedió el máximo de IDs")
+    })
+    public ResponseEntity<List<CuentaClienteResponse>> obtenerPorIds(@RequestParam List<Long> ids) {
+        List<CuentaClienteResponse> cuentas = cuentaClienteService.buscarPorIds(ids);
+        return ResponseEntity.ok(cuentas);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Obtener cuenta por ID", description = "Obtiene una cuenta específica por su ID (Solo ADMIN)")
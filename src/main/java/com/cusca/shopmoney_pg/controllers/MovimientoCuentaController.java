@@ -1,25 +1,35 @@
 package com.cusca.shopmoney_pg.controllers;
 
+import com.cusca.shopmoney_pg.models.dto.response.EstadoCuentaMensualResponse;
 import com.cusca.shopmoney_pg.models.dto.response.MovimientoCuentaResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ReporteAntiguedadResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ReporteConciliacionResponse;
 import com.cusca.shopmoney_pg.models.enums.TipoMovimiento;
 import com.cusca.shopmoney_pg.models.enums.TipoReferencia;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.services.finance.ConciliacionService;
 import com.cusca.shopmoney_pg.services.finance.IMovimientoCuentaService;
+import com.cusca.shopmoney_pg.services.finance.IReporteAntiguedadService;
+import com.cusca.shopmoney_pg.utils.http.EtagUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 
 @RestController
 @RequestMapping("/api/movimientos-cuenta")
@@ -28,6 +38,9 @@ import java.time.LocalDate;
 @PreAuthorize("hasRole('ADMIN')")
 public class MovimientoCuentaController {
     private final IMovimientoCuentaService movimientoCuentaService;
+    private final VersionRecursosService versionRecursosService;
+    private final IReporteAntiguedadService reporteAntiguedadService;
+    private final ConciliacionService conciliacionService;
 
     // CONSULTAS BASICAS
 
@@ -143,11 +156,41 @@ public class MovimientoCuentaController {
             @PathVariable Long cuentaClienteId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            HttpServletRequest httpRequest) {
+        // Solo los periodos cerrados son estables; el periodo en curso siempre se consulta
+        if (fechaFin.isBefore(LocalDate.now())) {
+            return EtagUtils.responder(httpRequest, versionRecursosService.etagCuenta(cuentaClienteId),
+                    () -> movimientoCuentaService.obtenerEstadoCuenta(cuentaClienteId, fechaInicio, fechaFin, pageable));
+        }
+
         Page<MovimientoCuentaResponse> estadoCuenta = movimientoCuentaService.obtenerEstadoCuenta(cuentaClienteId, fechaInicio, fechaFin, pageable);
         return ResponseEntity.ok(estadoCuenta);
     }
 
+    @GetMapping("/cuenta-cliente/{cuentaClienteId}/estado-cuenta-mensual")
+    @Operation(summary = "Estado de cuenta mensual", description = "Obtiene saldo inicial, cargos, abonos y saldo final de un mes junto con sus movimientos - Solo ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado de cuenta obtenido exitosamente"),
+        @ApiResponse(responseCode = "304", description = "El estado de cuenta no ha cambiado"),
+        @ApiResponse(responseCode = "400", description = "Periodo futuro"),
+        @ApiResponse(responseCode = "404", description = "Cuenta de cliente no encontrada")
+    })
+    public ResponseEntity<EstadoCuentaMensualResponse> obtenerEstadoCuentaMensual(
+            @PathVariable Long cuentaClienteId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") @Parameter(description = "Periodo en formato yyyy-MM") YearMonth periodo,
+            @PageableDefault(size = 20) Pageable pageable,
+            HttpServletRequest httpRequest) {
+        // Los meses anteriores ya no cambian salvo ajustes, que incrementan la versión de la cuenta
+        if (periodo.isBefore(YearMonth.now())) {
+            return EtagUtils.responder(httpRequest, versionRecursosService.etagCuenta(cuentaClienteId),
+                    () -> movimientoCuentaService.obtenerEstadoCuentaMensual(cuentaClienteId, periodo, pageable));
+        }
+
+        EstadoCuentaMensualResponse estadoCuenta = movimientoCuentaService.obtenerEstadoCuentaMensual(cuentaClienteId, periodo, pageable);
+        return ResponseEntity.ok(estadoCuenta);
+    }
+
     // ESTADÍSTICAS Y REPORTES
 
     @GetMapping("/estadisticas/cargos-del-dia")
@@ -200,6 +243,41 @@ public class MovimientoCuentaController {
         return ResponseEntity.ok(resumen);
     }
 
+    @GetMapping("/reportes/antiguedad-saldos")
+    @Operation(summary = "Antigüedad de saldos", description = "Distribuye el saldo pendiente de cada cuenta en tramos de 0-30, 31-60, 61-90 y más de 90 días - Solo ADMIN")
+    public ResponseEntity<ReporteAntiguedadResponse> obtenerAntiguedadSaldos() {
+        ReporteAntiguedadResponse reporte = reporteAntiguedadService.generarReporte();
+        return ResponseEntity.ok(reporte);
+    }
+
+    @PostMapping("/reportes/conciliacion")
+    @Operation(summary = "Ejecutar conciliación", description = "Reproduce los movimientos de todas las cuentas y los compara con el saldo registrado - Solo ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Conciliación completada"),
+        @ApiResponse(responseCode = "409", description = "Ya hay una conciliación en curso")
+    })
+    public ResponseEntity<ReporteConciliacionResponse> ejecutarConciliacion() {
+        ReporteConciliacionResponse reporte = conciliacionService.conciliar();
+        if (reporte == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(reporte);
+    }
+
+    @GetMapping("/reportes/conciliacion")
+    @Operation(summary = "Última conciliación", description = "Obtiene el reporte de diferencias de la última conciliación ejecutada - Solo ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reporte obtenido"),
+        @ApiResponse(responseCode = "404", description = "Aún no se ha ejecutado ninguna conciliación")
+    })
+    public ResponseEntity<ReporteConciliacionResponse> obtenerUltimaConciliacion() {
+        ReporteConciliacionResponse reporte = conciliacionService.obtenerUltimoReporte();
+        if (reporte == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(reporte);
+    }
+
     // CLASE AUXILIAR PARA RESÚMENES
 
     public static class ResumenFinanciero {
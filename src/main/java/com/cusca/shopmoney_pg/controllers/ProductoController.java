@@ -1,17 +1,24 @@
 package com.cusca.shopmoney_pg.controllers;
 
+import com.cusca.shopmoney_pg.models.dto.request.AjusteExistenciasRequest;
 import com.cusca.shopmoney_pg.models.dto.request.ProductoImagenRequest;
 import com.cusca.shopmoney_pg.models.dto.request.ProductoRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateProductoRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateProductoImagen;
+import com.cusca.shopmoney_pg.models.dto.response.ExistenciasProductoResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
 import com.cusca.shopmoney_pg.models.dto.response.ProductoResponse;
 import com.cusca.shopmoney_pg.models.enums.EstadoProducto;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.services.catalog.IInventarioService;
 import com.cusca.shopmoney_pg.services.catalog.IProductoService;
+import com.cusca.shopmoney_pg.utils.http.EtagUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -28,6 +35,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/productos")
@@ -35,6 +43,8 @@ import java.math.BigDecimal;
 @Tag(name = "Productos", description = "Gestión de productos del catálogo")
 public class ProductoController {
     private final IProductoService productoService;
+    private final VersionRecursosService versionRecursosService;
+    private final IInventarioService inventarioService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -49,13 +59,38 @@ public class ProductoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar productos", description = "Carga masiva de productos desde un archivo CSV (con encabezados) o NDJSON. Reporta los errores por fila")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación procesada, revisar errores por fila"),
+            @ApiResponse(responseCode = "400", description = "Archivo vacío o formato no soportado")
+    })
+    public ResponseEntity<ImportacionResponse> importar(@RequestPart("archivo") MultipartFile archivo) {
+        ImportacionResponse response = productoService.importarProductos(archivo);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
     @Operation(summary = "Listar productos", description = "Obtiene todos los productos con paginación")
     @ApiResponse(responseCode = "200", description = "Productos obtenidos exitosamente")
     public ResponseEntity<Page<ProductoResponse>> listarTodos(
-            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable) {
-        Page<ProductoResponse> productos = productoService.listarTodos(pageable);
+            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable,
+            HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> productoService.listarTodos(pageable));
+    }
+
+    @GetMapping("/lote")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    @Operation(summary = "Obtener varios productos por ID", description = "Obtiene en una sola llamada los productos indicados (?ids=1,2,3), en el mismo orden. Máximo 100 IDs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos encontrados (los IDs inexistentes se omiten)"),
+            @ApiResponse(responseCode = "400", description = "Se excedió el máximo de IDs")
+    })
+    public ResponseEntity<List<ProductoResponse>> obtenerPorIds(@RequestParam List<Long> ids) {
+        List<ProductoResponse> productos = productoService.buscarPorIds(ids);
         return ResponseEntity.ok(productos);
     }
 
@@ -66,10 +101,9 @@ public class ProductoController {
             @ApiResponse(responseCode = "200", description = "Producto encontrado"),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado")
     })
-    public ResponseEntity<ProductoResponse> obtenerPorId(@PathVariable Long id) {
-        return productoService.buscarPorId(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProductoResponse> obtenerPorId(@PathVariable Long id, HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> productoService.buscarPorId(id).orElse(null));
     }
 
     @GetMapping("/nombre")
@@ -78,9 +112,10 @@ public class ProductoController {
     @ApiResponse(responseCode = "200", description = "Búsqueda completada exitosamente")
     public ResponseEntity<Page<ProductoResponse>> buscarPorNombreContaining(
             @RequestParam String nombre,
-            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable) {
-        Page<ProductoResponse> productos = productoService.buscarPorNombreContaining(nombre, pageable);
-        return ResponseEntity.ok(productos);
+            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable,
+            HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> productoService.buscarPorNombreContaining(nombre, pageable));
     }
 
     @GetMapping("/estado/{estado}")
@@ -89,9 +124,10 @@ public class ProductoController {
     @ApiResponse(responseCode = "200", description = "Productos obtenidos exitosamente")
     public ResponseEntity<Page<ProductoResponse>> obtenerPorEstado(
             @PathVariable EstadoProducto estado,
-            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable) {
-        Page<ProductoResponse> productos = productoService.buscarPorEstado(estado, pageable);
-        return ResponseEntity.ok(productos);
+            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable,
+            HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> productoService.buscarPorEstado(estado, pageable));
     }
 
     @GetMapping("/categoria/{categoriaId}")
@@ -103,9 +139,10 @@ public class ProductoController {
     })
     public ResponseEntity<Page<ProductoResponse>> obtenerPorCategoria(
             @PathVariable Long categoriaId,
-            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable) {
-        Page<ProductoResponse> productos = productoService.buscarPorCategoria(categoriaId, pageable);
-        return ResponseEntity.ok(productos);
+            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable,
+            HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> productoService.buscarPorCategoria(categoriaId, pageable));
     }
 
     @GetMapping("/precio")
@@ -115,9 +152,10 @@ public class ProductoController {
     public ResponseEntity<Page<ProductoResponse>> buscarPorRangoPrecio(
             @RequestParam BigDecimal precioMin,
             @RequestParam BigDecimal precioMax,
-            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable) {
-        Page<ProductoResponse> productos = productoService.buscarPorRangoPrecio(precioMin, precioMax, pageable);
-        return ResponseEntity.ok(productos);
+            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable,
+            HttpServletRequest httpRequest) {
+        return EtagUtils.responder(httpRequest, versionRecursosService.etagCatalogo(),
+                () -> productoService.buscarPorRangoPrecio(precioMin, precioMax, pageable));
     }
 
     @GetMapping("/mas-vendidos")
@@ -146,6 +184,47 @@ public class ProductoController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/existencias")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Consultar existencias", description = "Obtiene las existencias disponibles del producto (suma de sus fragmentos)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Existencias obtenidas exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+    })
+    public ResponseEntity<ExistenciasProductoResponse> consultarExistencias(@PathVariable Long id) {
+        ExistenciasProductoResponse response = inventarioService.consultar(id);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/{id}/existencias")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Ajustar existencias",
+            description = "Fija la cantidad disponible y activa el control de inventario. Para productos de alta demanda " +
+                    "use varios fragmentos: las cajas descuentan fragmentos distintos sin esperarse entre sí")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Existencias ajustadas exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cantidad o número de fragmentos inválido"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+    })
+    public ResponseEntity<ExistenciasProductoResponse> ajustarExistencias(
+            @PathVariable Long id,
+            @Valid @RequestBody AjusteExistenciasRequest request) {
+        ExistenciasProductoResponse response = inventarioService.ajustar(id, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}/existencias")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Desactivar control de inventario", description = "Elimina las existencias del producto; se podrá vender sin límite")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Control de inventario desactivado"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+    })
+    public ResponseEntity<Void> eliminarControlExistencias(@PathVariable Long id) {
+        inventarioService.eliminarControl(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Eliminar producto", description = "Elimina un producto existente")
@@ -0,0 +1,92 @@
+package com.cusca.shopmoney_pg.controllers;
+
+import com.cusca.shopmoney_pg.models.dto.request.PromocionRequest;
+import com.cusca.shopmoney_pg.models.dto.response.PromocionResponse;
+import com.cusca.shopmoney_pg.services.pricing.IPromocionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/promociones")
+@RequiredArgsConstructor
+@Tag(name = "Promociones", description = "Descuentos por producto, categoría y volumen aplicados al precio de las ventas")
+public class PromocionController {
+    private final IPromocionService promocionService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Crear promoción",
+            description = "Crea un descuento porcentual. Si varias promociones aplican a una línea se usa la de mayor descuento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Promoción creada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "404", description = "Producto o categoría no encontrado")
+    })
+    public ResponseEntity<PromocionResponse> crear(@Valid @RequestBody PromocionRequest request) {
+        PromocionResponse response = promocionService.crear(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Listar promociones", description = "Obtiene las promociones con paginación, opcionalmente filtradas por activa")
+    @ApiResponse(responseCode = "200", description = "Promociones obtenidas exitosamente")
+    public ResponseEntity<Page<PromocionResponse>> listar(
+            @RequestParam(required = false) Boolean activa,
+            @PageableDefault(size = 10) @Parameter(description = "Parámetros de paginación") Pageable pageable) {
+        Page<PromocionResponse> promociones = activa != null
+                ? promocionService.buscarPorActiva(activa, pageable)
+                : promocionService.listarTodos(pageable);
+        return ResponseEntity.ok(promociones);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Obtener promoción por ID", description = "Obtiene una promoción específica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Promoción encontrada"),
+            @ApiResponse(responseCode = "404", description = "Promoción no encontrada")
+    })
+    public ResponseEntity<PromocionResponse> buscarPorId(@PathVariable Long id) {
+        return promocionService.buscarPorId(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Actualizar promoción", description = "Reemplaza los datos de la promoción; las ventas siguientes usan el nuevo descuento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Promoción actualizada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "404", description = "Promoción, producto o categoría no encontrado")
+    })
+    public ResponseEntity<PromocionResponse> actualizar(@PathVariable Long id, @Valid @RequestBody PromocionRequest request) {
+        PromocionResponse response = promocionService.actualizar(id, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Eliminar promoción", description = "Elimina la promoción; las ventas ya registradas conservan su descuento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Promoción eliminada exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Promoción no encontrada")
+    })
+    public ResponseEntity<Void> eliminar(@PathVariable Long id) {
+        promocionService.eliminar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
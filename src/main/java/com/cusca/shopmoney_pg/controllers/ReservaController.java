@@ -0,0 +1,70 @@
+package com.cusca.shopmoney_pg.controllers;
+
+import com.cusca.shopmoney_pg.models.dto.request.ReservaCarritoRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ReservaCarritoResponse;
+import com.cusca.shopmoney_pg.services.catalog.IReservaExistenciasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservas")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Reservas", description = "Existencias apartadas por carrito mientras se confirma la venta")
+public class ReservaController {
+    private final IReservaExistenciasService reservaExistenciasService;
+
+    @PutMapping("/{carrito}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    @Operation(summary = "Reservar existencias del carrito",
+            description = "Aparta las cantidades del carrito por un tiempo limitado y renueva su vencimiento, " +
+                    "sin pasar del tiempo máximo contado desde la primera reserva. Cada llamada envía el carrito " +
+                    "completo; las cantidades quitadas vuelven al inventario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva creada o actualizada"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos o existencias insuficientes"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "El identificador de carrito pertenece a otro usuario, " +
+                    "o se excede la cantidad por producto, los carritos activos por usuario o el tiempo máximo de reserva")
+    })
+    public ResponseEntity<ReservaCarritoResponse> reservar(
+            @PathVariable @Size(max = 100) @Parameter(description = "Identificador del carrito generado por el cliente") String carrito,
+            @Valid @RequestBody ReservaCarritoRequest request) {
+        ReservaCarritoResponse response = reservaExistenciasService.reservar(carrito, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{carrito}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    @Operation(summary = "Consultar reserva del carrito", description = "Obtiene las cantidades apartadas y su vencimiento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva encontrada"),
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada o vencida")
+    })
+    public ResponseEntity<ReservaCarritoResponse> consultar(@PathVariable String carrito) {
+        ReservaCarritoResponse response = reservaExistenciasService.consultar(carrito);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{carrito}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    @Operation(summary = "Liberar reserva del carrito", description = "Devuelve al inventario todo lo apartado por el carrito")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reserva liberada"),
+            @ApiResponse(responseCode = "404", description = "Reserva no encontrada")
+    })
+    public ResponseEntity<Void> liberar(@PathVariable String carrito) {
+        reservaExistenciasService.liberar(carrito);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,9 +1,12 @@
 package com.cusca.shopmoney_pg.controllers;
 
+import com.cusca.shopmoney_pg.models.dto.request.OnboardingClientesRequest;
 import com.cusca.shopmoney_pg.models.dto.request.UsuarioRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateUsuarioRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
 import com.cusca.shopmoney_pg.models.dto.response.UsuarioResponse;
 import com.cusca.shopmoney_pg.models.enums.EstadoUsuario;
+import com.cusca.shopmoney_pg.services.account.IOnboardingClienteService;
 import com.cusca.shopmoney_pg.services.auth.IUserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -24,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Gestión de Usuarios", description = "Endpoints para administrar usuarios del sistema")
 public class UsuarioController {
     private final IUserService usuarioService;
+    private final IOnboardingClienteService onboardingClienteService;
 
     @PostMapping
     @Operation(
@@ -40,6 +44,22 @@ public class UsuarioController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/onboarding")
+    @Operation(
+            summary = "Alta masiva de clientes",
+            description = "Registra en lote clientes con su cuenta de crédito y saldo inicial. " +
+                    "Las filas inválidas o duplicadas se reportan sin detener el resto (Solo Administradores)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote procesado, ver errores por fila"),
+            @ApiResponse(responseCode = "400", description = "Solicitud vacía o con más de 5000 clientes"),
+            @ApiResponse(responseCode = "403", description = "Acceso denegado")
+    })
+    public ResponseEntity<ImportacionResponse> registrarClientes(@Valid @RequestBody OnboardingClientesRequest request) {
+        ImportacionResponse response = onboardingClienteService.registrarClientes(request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     @Operation(
             summary = "Listar usuarios",
@@ -1,12 +1,19 @@
 package com.cusca.shopmoney_pg.controllers;
 
+import com.cusca.shopmoney_pg.models.dto.request.SincronizacionVentasRequest;
 import com.cusca.shopmoney_pg.models.dto.request.VentaRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateVentaRequest;
+import com.cusca.shopmoney_pg.models.dto.response.CotizacionVentaResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ResumenVentasDiarioResponse;
+import com.cusca.shopmoney_pg.models.dto.response.SincronizacionVentasResponse;
 import com.cusca.shopmoney_pg.models.dto.response.VentaResponse;
 import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
 import com.cusca.shopmoney_pg.models.enums.TipoVenta;
+import com.cusca.shopmoney_pg.services.sales.IReporteVentasService;
+import com.cusca.shopmoney_pg.services.sales.ISincronizacionVentasService;
 import com.cusca.shopmoney_pg.services.sales.IVentaService;
 import com.cusca.shopmoney_pg.services.account.ICuentaClienteService;
+import com.cusca.shopmoney_pg.services.idempotency.IdempotenciaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -27,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/ventas")
@@ -34,20 +42,55 @@ import java.time.LocalDateTime;
 @Tag(name = "Ventas", description = "Gestión de ventas y facturación")
 public class VentaController {
     private final IVentaService ventaService;
+    private final IdempotenciaService idempotenciaService;
+    private final ISincronizacionVentasService sincronizacionVentasService;
+    private final IReporteVentasService reporteVentasService;
 
     // ENDPOINTS PARA ADMINISTRADORES
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Crear nueva venta", description = "Permite crear una nueva venta (crédito o contado) - Solo ADMIN")
+    @Operation(summary = "Crear nueva venta", description = "Permite crear una nueva venta (crédito o contado). Con Idempotency-Key los reintentos devuelven la venta ya creada - Solo ADMIN")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Venta creada exitosamente"),
         @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos o crédito insuficiente"),
+        @ApiResponse(responseCode = "404", description = "Cuenta de cliente o producto no encontrado"),
+        @ApiResponse(responseCode = "409", description = "Idempotency-Key reutilizada con otros datos o aún en proceso")
+    })
+    public ResponseEntity<VentaResponse> crear(
+            @Valid @RequestBody VentaRequest request,
+            @RequestHeader(value = IdempotenciaService.ENCABEZADO, required = false)
+            @Parameter(description = "Clave única generada por el cliente para reintentar sin duplicar la venta") String claveIdempotencia) {
+        return idempotenciaService.ejecutar("ventas.crear", claveIdempotencia, request, VentaResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(ventaService.crear(request)));
+    }
+
+    @PostMapping("/cotizar")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Cotizar venta",
+            description = "Calcula subtotal, descuentos, impuesto y total con los precios vigentes sin registrar nada. " +
+                    "En ventas a crédito indica si el crédito disponible de la cuenta cubre el total - Solo ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cotización calculada"),
+        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
         @ApiResponse(responseCode = "404", description = "Cuenta de cliente o producto no encontrado")
     })
-    public ResponseEntity<VentaResponse> crear(@Valid @RequestBody VentaRequest request) {
-        VentaResponse response = ventaService.crear(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<CotizacionVentaResponse> cotizar(@Valid @RequestBody VentaRequest request) {
+        return ResponseEntity.ok(ventaService.cotizar(request));
+    }
+
+    @PostMapping("/sincronizar")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Sincronizar ventas registradas sin conexión",
+            description = "Registra en bloques las ventas acumuladas por un punto de venta, en el orden enviado. " +
+                    "Las ventas con un idExterno ya sincronizado se reportan como DUPLICADA y no se vuelven a crear. Máximo 1000 ventas - Solo ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado, ver el resultado de cada venta"),
+        @ApiResponse(responseCode = "400", description = "Solicitud vacía, inválida o con más de 1000 ventas")
+    })
+    public ResponseEntity<SincronizacionVentasResponse> sincronizar(@Valid @RequestBody SincronizacionVentasRequest request) {
+        SincronizacionVentasResponse response = sincronizacionVentasService.sincronizar(request);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping
@@ -60,6 +103,18 @@ public class VentaController {
         return ResponseEntity.ok(ventas);
     }
 
+    @GetMapping("/lote")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Obtener varias ventas por ID", description = "Obtiene en una sola llamada las ventas indicadas (?ids=1,2,3) con sus detalles, en el mismo orden. Máximo 100 IDs - Solo ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ventas encontradas (los IDs inexistentes se omiten)"),
+        @ApiResponse(responseCode = "400", description = "Se excedió el máximo de IDs")
+    })
+    public ResponseEntity<List<VentaResponse>> obtenerPorIds(@RequestParam List<Long> ids) {
+        List<VentaResponse> ventas = ventaService.buscarPorIds(ids);
+        return ResponseEntity.ok(ventas);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Obtener venta por ID", description = "Obtiene una venta específica por su ID - Solo ADMIN")
@@ -132,6 +187,39 @@ public class VentaController {
         return ResponseEntity.ok(ventas);
     }
 
+    @GetMapping("/reportes/resumen-diario")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Resumen diario de ventas",
+            description = "Ventas, unidades y montos por día, tipo y estado leídos del resumen precalculado. " +
+                    "Con porCategoria=true devuelve el desglose por categoría de los productos - Solo ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resumen obtenido exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    public ResponseEntity<List<ResumenVentasDiarioResponse>> resumenDiario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(required = false) TipoVenta tipoVenta,
+            @RequestParam(required = false) EstadoVenta estado,
+            @RequestParam(defaultValue = "false") boolean porCategoria) {
+        return ResponseEntity.ok(reporteVentasService.resumenDiario(fechaInicio, fechaFin, tipoVenta, estado, porCategoria));
+    }
+
+    @PostMapping("/reportes/resumen-diario/reconstruir")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconstruir resumen diario",
+            description = "Recalcula el resumen del rango desde las ventas registradas. Para la carga inicial o para corregirlo - Solo ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resumen reconstruido, devuelve el resumen del rango"),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    public ResponseEntity<List<ResumenVentasDiarioResponse>> reconstruirResumenDiario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+        reporteVentasService.reconstruirResumenDiario(fechaInicio, fechaFin);
+        return ResponseEntity.ok(reporteVentasService.resumenDiario(fechaInicio, fechaFin, null, null, false));
+    }
+
     @GetMapping("/monto")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Buscar ventas por rango de monto", description = "Obtiene ventas por rango de total - Solo ADMIN")
@@ -0,0 +1,22 @@
+package com.cusca.shopmoney_pg.models.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class AjusteExistenciasRequest {
+    @NotNull(message = "La cantidad es requerida")
+    @Min(value = 0, message = "La cantidad no puede ser negativa")
+    private Integer cantidad;
+
+    // Más fragmentos permiten más cajas descontando el mismo producto a la vez (productos de alta demanda)
+    @Min(value = 1, message = "Debe haber al menos un fragmento")
+    @Max(value = 64, message = "No se permiten más de 64 fragmentos")
+    private Integer fragmentos;
+}
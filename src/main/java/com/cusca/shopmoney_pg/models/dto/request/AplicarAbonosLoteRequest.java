@@ -0,0 +1,30 @@
+package com.cusca.shopmoney_pg.models.dto.request;
+
+import com.cusca.shopmoney_pg.models.enums.MetodoPago;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class AplicarAbonosLoteRequest {
+    // Si se envían IDs se ignoran los filtros; sin IDs se toman los abonos PENDIENTES que cumplan los filtros
+    @Size(max = 1000, message = "Se pueden aplicar como máximo 1000 abonos por lote")
+    private List<Long> abonosIds;
+
+    private Long cuentaClienteId;
+
+    private MetodoPago metodoPago;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fechaInicio;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fechaFin;
+}
@@ -0,0 +1,52 @@
+package com.cusca.shopmoney_pg.models.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ClienteOnboardingRequest {
+    // Datos del usuario (la unicidad de email y DUI se valida por lote en el service)
+    @NotBlank(message = "El nombre completo es requerido")
+    @Size(max = 255, message = "El nombre completo no debe exceder 255 caracteres")
+    private String nombreCompleto;
+
+    @NotBlank(message = "El email es requerido")
+    @Email(message = "El email debe tener un formato válido")
+    private String email;
+
+    @NotBlank(message = "La contraseña es requerida")
+    @Size(min = 6, message = "La contraseña debe tener al menos 6 caracteres")
+    private String password;
+
+    @Size(max = 20, message = "El teléfono no debe exceder 20 caracteres")
+    private String telefono;
+
+    private String direccion;
+
+    @Size(max = 50, message = "El DUI no debe exceder 50 caracteres")
+    private String dui;
+
+    @Past(message = "La fecha de nacimiento debe ser anterior a la fecha actual")
+    private LocalDate fechaNacimiento;
+
+    // Si no se indican roles se asigna CLIENTE
+    private List<Long> rolesIds;
+
+    // Datos de la cuenta de crédito
+    @NotNull(message = "El límite de crédito es requerido")
+    @DecimalMin(value = "0.00", message = "El límite de crédito no puede ser negativo")
+    private BigDecimal limiteCredito;
+
+    @DecimalMin(value = "0.00", message = "El saldo inicial no puede ser negativo")
+    private BigDecimal saldoInicial;
+
+    private LocalDate fechaApertura;
+}
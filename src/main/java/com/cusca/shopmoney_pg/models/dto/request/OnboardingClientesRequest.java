@@ -0,0 +1,19 @@
+package com.cusca.shopmoney_pg.models.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class OnboardingClientesRequest {
+    // Cada cliente se valida por separado para reportar errores por fila
+    @NotEmpty(message = "Debe incluir al menos un cliente")
+    @Size(max = 5000, message = "No se pueden registrar más de 5000 clientes por solicitud")
+    private List<ClienteOnboardingRequest> clientes;
+}
@@ -0,0 +1,43 @@
+package com.cusca.shopmoney_pg.models.dto.request;
+
+import com.cusca.shopmoney_pg.models.enums.AlcancePromocion;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class PromocionRequest {
+    @NotBlank(message = "El nombre de la promoción es requerido")
+    @Size(max = 150, message = "El nombre no debe exceder 150 caracteres")
+    private String nombre;
+
+    @NotNull(message = "El alcance es requerido")
+    private AlcancePromocion alcance;
+
+    // Requerido si el alcance es PRODUCTO
+    private Long productoId;
+
+    // Requerido si el alcance es CATEGORIA
+    private Long categoriaId;
+
+    @NotNull(message = "El porcentaje es requerido")
+    @DecimalMin(value = "0.01", message = "El porcentaje debe ser mayor a 0")
+    @DecimalMax(value = "100.00", message = "El porcentaje no puede ser mayor a 100")
+    @Digits(integer = 3, fraction = 2, message = "El porcentaje admite como máximo 2 decimales")
+    private BigDecimal porcentaje;
+
+    @Min(value = 1, message = "La cantidad mínima debe ser al menos 1")
+    private Integer cantidadMinima;
+
+    private LocalDateTime fechaInicio;
+
+    private LocalDateTime fechaFin;
+
+    private Boolean activa;
+}
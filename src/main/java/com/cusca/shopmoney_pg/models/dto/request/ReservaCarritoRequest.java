@@ -0,0 +1,21 @@
+package com.cusca.shopmoney_pg.models.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ReservaCarritoRequest {
+    // Contenido completo del carrito: reemplaza la reserva anterior. Una lista vacía libera todo
+    @NotNull(message = "Las líneas del carrito son requeridas")
+    @Size(max = 100, message = "El carrito no puede tener más de 100 líneas")
+    @Valid
+    private List<DetalleVentaRequest> lineas;
+}
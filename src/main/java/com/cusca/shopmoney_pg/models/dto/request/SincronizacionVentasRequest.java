@@ -0,0 +1,21 @@
+package com.cusca.shopmoney_pg.models.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class SincronizacionVentasRequest {
+    // En el orden en que se registraron en el dispositivo; el crédito se autoriza en ese orden
+    @NotEmpty(message = "Debe incluir al menos una venta")
+    @Size(max = 1000, message = "Se pueden sincronizar como máximo 1000 ventas por solicitud")
+    @Valid
+    private List<VentaOfflineRequest> ventas;
+}
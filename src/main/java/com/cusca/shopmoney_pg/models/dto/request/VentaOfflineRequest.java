@@ -0,0 +1,28 @@
+package com.cusca.shopmoney_pg.models.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class VentaOfflineRequest {
+    // Identificador generado por el dispositivo; permite reenviar el lote sin duplicar ventas
+    @NotBlank(message = "El identificador externo es requerido")
+    @Size(max = 100, message = "El identificador externo no debe exceder 100 caracteres")
+    private String idExterno;
+
+    // Fecha en que se registró la venta en el dispositivo (opcional)
+    private LocalDateTime fechaVenta;
+
+    @NotNull(message = "Los datos de la venta son requeridos")
+    @Valid
+    private VentaRequest venta;
+}
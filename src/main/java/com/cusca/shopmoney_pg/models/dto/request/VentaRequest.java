@@ -26,6 +26,10 @@ public class VentaRequest {
 
     private String observaciones;
 
+    // Carrito con existencias reservadas: lo apartado se usa para esta venta sin volver a verificar
+    @Size(max = 100, message = "El identificador del carrito no debe exceder 100 caracteres")
+    private String carritoId;
+
     @NotEmpty(message = "Debe incluir al menos un detalle de venta")
     @Valid
     private List<DetalleVentaRequest> detalleVentas;
@@ -20,6 +20,7 @@ public class AbonoResponse {
     private MetodoPago metodoPago;
     private String observaciones;
     private EstadoAbono estado;
+    private Long version;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
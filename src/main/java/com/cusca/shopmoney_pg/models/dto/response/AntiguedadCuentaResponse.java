@@ -0,0 +1,20 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class AntiguedadCuentaResponse {
+    private Long cuentaClienteId;
+    private String nombreCliente;
+    private BigDecimal saldoActual;
+    private BigDecimal de0a30Dias;
+    private BigDecimal de31a60Dias;
+    private BigDecimal de61a90Dias;
+    private BigDecimal masDe90Dias;
+}
@@ -0,0 +1,24 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class AplicacionAbonosLoteResponse {
+    private int solicitados;
+    private int aplicados;
+    private int cuentasActualizadas;
+    private BigDecimal montoAplicado = BigDecimal.ZERO;
+    private List<ErrorAbonoLoteResponse> errores = new ArrayList<>();
+
+    public void agregarError(Long abonoId, String mensaje) {
+        errores.add(new ErrorAbonoLoteResponse(abonoId, mensaje));
+    }
+}
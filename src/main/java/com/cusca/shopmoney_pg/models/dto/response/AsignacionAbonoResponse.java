@@ -0,0 +1,18 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class AsignacionAbonoResponse {
+    private Long abonoId;
+    private Long ventaId;
+    private BigDecimal monto;
+    private LocalDateTime fechaAsignacion;
+}
@@ -0,0 +1,15 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class CategoriaMenuResponse {
+    private Long id;
+    private String nombre;
+    private long totalProductos;
+    private long productosDisponibles;
+}
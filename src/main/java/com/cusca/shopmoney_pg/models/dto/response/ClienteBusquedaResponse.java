@@ -0,0 +1,22 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ClienteBusquedaResponse {
+    private Long usuarioId;
+    private String nombreCompleto;
+    private String email;
+    private String telefono;
+    private String dui;
+    private Long cuentaClienteId;
+    private EstadoCuenta estadoCuenta;
+    private BigDecimal saldoDisponible;
+}
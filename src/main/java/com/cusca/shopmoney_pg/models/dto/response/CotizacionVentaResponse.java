@@ -0,0 +1,22 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class CotizacionVentaResponse {
+    private BigDecimal subtotal;
+    private BigDecimal descuento;
+    private BigDecimal impuesto;
+    private BigDecimal total;
+    private List<LineaCotizacionResponse> lineas;
+    // Solo para ventas a crédito; null en ventas al contado
+    private BigDecimal creditoDisponible;
+    private Boolean creditoSuficiente;
+}
@@ -15,4 +15,5 @@ public class DetalleVentaResponse {
     private Integer cantidad;
     private BigDecimal precioUnitario;
     private BigDecimal subtotal;
+    private BigDecimal descuento;
 }
@@ -0,0 +1,20 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import com.cusca.shopmoney_pg.models.enums.TipoDiferenciaConciliacion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class DiferenciaConciliacionResponse {
+    private Long cuentaClienteId;
+    // Movimiento donde se detectó la diferencia; null cuando es contra el saldo de la cuenta
+    private Long movimientoId;
+    private TipoDiferenciaConciliacion tipo;
+    private BigDecimal esperado;
+    private BigDecimal registrado;
+}
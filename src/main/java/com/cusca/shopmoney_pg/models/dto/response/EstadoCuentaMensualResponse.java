@@ -0,0 +1,26 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class EstadoCuentaMensualResponse {
+    private Long cuentaClienteId;
+    private YearMonth periodo;
+    // true si los totales provienen del cierre mensual; false para el mes en curso
+    private boolean cerrado;
+    private BigDecimal saldoInicial;
+    private BigDecimal totalCargos;
+    private BigDecimal totalAbonos;
+    private BigDecimal totalAjustes;
+    private BigDecimal saldoFinal;
+    private Long cantidadMovimientos;
+    private Page<MovimientoCuentaResponse> movimientos;
+}
@@ -0,0 +1,16 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ExistenciasProductoResponse {
+    private Long productoId;
+    // false: el producto no lleva control de inventario y se vende sin límite
+    private boolean controlado;
+    private int disponible;
+    private int fragmentos;
+}
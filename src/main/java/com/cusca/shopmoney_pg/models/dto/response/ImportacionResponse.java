@@ -0,0 +1,21 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ImportacionResponse {
+    private int totalFilas;
+    private int importados;
+    private List<ErrorImportacionResponse> errores = new ArrayList<>();
+
+    public void agregarError(int fila, String mensaje) {
+        errores.add(new ErrorImportacionResponse(fila, mensaje));
+    }
+}
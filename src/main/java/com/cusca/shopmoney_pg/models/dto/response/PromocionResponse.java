@@ -0,0 +1,25 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import com.cusca.shopmoney_pg.models.enums.AlcancePromocion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class PromocionResponse {
+    private Long id;
+    private String nombre;
+    private AlcancePromocion alcance;
+    private Long productoId;
+    private Long categoriaId;
+    private BigDecimal porcentaje;
+    private Integer cantidadMinima;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private Boolean activa;
+}
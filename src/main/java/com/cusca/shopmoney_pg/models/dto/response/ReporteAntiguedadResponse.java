@@ -0,0 +1,24 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ReporteAntiguedadResponse {
+    private LocalDate fechaCorte;
+    private int totalCuentas;
+    private BigDecimal saldoTotal;
+    private BigDecimal de0a30Dias;
+    private BigDecimal de31a60Dias;
+    private BigDecimal de61a90Dias;
+    private BigDecimal masDe90Dias;
+    private List<AntiguedadCuentaResponse> cuentas = new ArrayList<>();
+}
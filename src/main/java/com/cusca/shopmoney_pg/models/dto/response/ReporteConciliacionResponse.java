@@ -0,0 +1,23 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ReporteConciliacionResponse {
+    private LocalDateTime fechaEjecucion;
+    private long duracionMs;
+    private long cuentasRevisadas;
+    private long movimientosRevisados;
+    private long cuentasConDiferencias;
+    // Se limita el detalle para acotar memoria; el conteo de cuentas siempre es completo
+    private boolean detalleTruncado;
+    private List<DiferenciaConciliacionResponse> diferencias = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ReservaCarritoResponse {
+    private String carrito;
+    // Cantidad apartada por ID de producto
+    private Map<Long, Integer> cantidades;
+    private LocalDateTime expiraEn;
+}
@@ -0,0 +1,19 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import com.cusca.shopmoney_pg.models.enums.ResultadoSincronizacion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ResultadoVentaOfflineResponse {
+    private String idExterno;
+    private ResultadoSincronizacion resultado;
+    private Long ventaId;
+    private BigDecimal total;
+    private String mensaje;
+}
@@ -0,0 +1,29 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.models.enums.TipoVenta;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ResumenVentasDiarioResponse {
+    private LocalDate fecha;
+    private TipoVenta tipoVenta;
+    private EstadoVenta estado;
+    // null en las filas de ventas completas; en el desglose por categoría, null también agrupa los productos sin categoría
+    private Long categoriaId;
+    private String nombreCategoria;
+    private long ventas;
+    private long unidades;
+    private BigDecimal subtotal;
+    private BigDecimal descuento;
+    // Solo en las filas de ventas completas: el IVA se calcula sobre la venta, no por línea
+    private BigDecimal impuesto;
+    private BigDecimal total;
+}
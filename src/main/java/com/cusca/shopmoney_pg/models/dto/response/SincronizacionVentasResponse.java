@@ -0,0 +1,20 @@
+package com.cusca.shopmoney_pg.models.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class SincronizacionVentasResponse {
+    private int recibidas;
+    private int creadas;
+    private int duplicadas;
+    private int rechazadas;
+    // Un resultado por venta, en el mismo orden de la solicitud
+    private List<ResultadoVentaOfflineResponse> resultados = new ArrayList<>();
+}
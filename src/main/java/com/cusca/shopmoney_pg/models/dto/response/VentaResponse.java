@@ -19,10 +19,14 @@ public class VentaResponse {
     private String clienteOcasional;
     private LocalDateTime fechaVenta;
     private BigDecimal subtotal;
+    private BigDecimal descuento;
+    private BigDecimal impuesto;
     private BigDecimal total;
     private TipoVenta tipoVenta;
     private EstadoVenta estado;
     private String observaciones;
+    private Long version;
+    private String idExterno;
 
     private List<DetalleVentaResponse> detalleVentas;
 }
@@ -45,6 +45,11 @@ public class AbonoEntity {
     @Builder.Default
     private EstadoAbono estado = EstadoAbono.APLICADO;
 
+    // Control de concurrencia optimista: las transiciones concurrentes fallan con 409 en vez de pisarse
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Embedded
     private CreateUpdateStamp createUpdateStamp;
 }
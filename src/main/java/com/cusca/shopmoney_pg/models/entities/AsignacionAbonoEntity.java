@@ -0,0 +1,37 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "asignaciones_abono", indexes = {
+        @Index(name = "idx_asignaciones_abono_venta", columnList = "venta_id"),
+        @Index(name = "idx_asignaciones_abono_abono", columnList = "abono_id")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AsignacionAbonoEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "abono_id", nullable = false)
+    @ToString.Exclude
+    private AbonoEntity abono;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "venta_id", nullable = false)
+    @ToString.Exclude
+    private VentaEntity venta;
+
+    @Column(name = "monto", nullable = false, precision = 10, scale = 2)
+    private BigDecimal monto;
+
+    @Column(name = "fecha_asignacion", nullable = false)
+    private LocalDateTime fechaAsignacion;
+}
@@ -0,0 +1,51 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "cierres_mensuales_cuenta",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"cuenta_cliente_id", "periodo"}))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CierreMensualCuentaEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cuenta_cliente_id", nullable = false)
+    @ToString.Exclude
+    private CuentaClienteEntity cuentaCliente;
+
+    // Primer día del mes cerrado
+    @Column(name = "periodo", nullable = false)
+    private LocalDate periodo;
+
+    @Column(name = "saldo_inicial", nullable = false, precision = 10, scale = 2)
+    private BigDecimal saldoInicial;
+
+    @Column(name = "total_cargos", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalCargos;
+
+    @Column(name = "total_abonos", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAbonos;
+
+    // Efecto neto de los ajustes sobre el saldo (puede ser negativo)
+    @Column(name = "total_ajustes", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAjustes;
+
+    @Column(name = "saldo_final", nullable = false, precision = 10, scale = 2)
+    private BigDecimal saldoFinal;
+
+    @Column(name = "cantidad_movimientos", nullable = false)
+    private Long cantidadMovimientos;
+
+    @Column(name = "fecha_cierre", nullable = false)
+    private LocalDateTime fechaCierre;
+}
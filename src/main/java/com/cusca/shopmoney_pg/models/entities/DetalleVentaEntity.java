@@ -31,6 +31,10 @@ public class DetalleVentaEntity {
     @Column(name = "precio_unitario", nullable = false, precision = 10, scale = 2)
     private BigDecimal precioUnitario;
 
+    // Precio unitario por cantidad, antes del descuento
     @Column(name = "subtotal", nullable = false, precision = 10, scale = 2)
     private BigDecimal subtotal;
+
+    @Column(name = "descuento", precision = 10, scale = 2, columnDefinition = "numeric(10,2) default 0")
+    private BigDecimal descuento;
 }
@@ -0,0 +1,37 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Check;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/*
+ * Existencias de un producto repartidas en fragmentos: el disponible es la suma de todos.
+ * Con varios fragmentos, ventas simultáneas del mismo producto descuentan filas distintas en vez de
+ * esperar por un único bloqueo. Un producto sin filas no lleva control de inventario.
+ */
+@Entity
+@Table(name = "existencias_producto",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"producto_id", "fragmento"}))
+@Check(constraints = "cantidad >= 0")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ExistenciaProductoEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private ProductoEntity producto;
+
+    @Column(name = "fragmento", nullable = false)
+    private Integer fragmento;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+}
@@ -0,0 +1,36 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "imagenes_pendientes_eliminacion")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ImagenPendienteEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "public_id", nullable = false)
+    private String publicId;
+
+    @Column(name = "imagen_url", nullable = false, columnDefinition = "TEXT")
+    private String imagenUrl;
+
+    @Builder.Default
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos = 0;
+
+    // Espera entre reintentos; null = se puede procesar de inmediato
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    @CreationTimestamp
+    @Column(name = "fecha_registro")
+    private LocalDateTime fechaRegistro;
+}
@@ -11,7 +11,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "movimientos_cuenta")
+@Table(name = "movimientos_cuenta",
+        indexes = @Index(name = "idx_movimientos_cuenta_fecha", columnList = "cuenta_cliente_id, fecha_movimiento"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -8,7 +8,8 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notificaciones")
+@Table(name = "notificaciones",
+        indexes = @Index(name = "idx_notificaciones_usuario_tipo", columnList = "usuario_id, tipo, fecha_envio"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -0,0 +1,64 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import com.cusca.shopmoney_pg.models.enums.AlcancePromocion;
+import com.cusca.shopmoney_pg.models.stamp.CreateUpdateStamp;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Descuento porcentual sobre un producto, una categoría o toda la tienda.
+// Con cantidadMinima mayor a 1 funciona como descuento por volumen de la línea.
+@Entity
+@Table(name = "promociones")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class PromocionEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "nombre", nullable = false, length = 150)
+    private String nombre;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alcance", nullable = false)
+    private AlcancePromocion alcance;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private ProductoEntity producto;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "categoria_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private CategoriaEntity categoria;
+
+    @Column(name = "porcentaje", nullable = false, precision = 5, scale = 2)
+    private BigDecimal porcentaje;
+
+    @Column(name = "cantidad_minima", nullable = false)
+    @Builder.Default
+    private Integer cantidadMinima = 1;
+
+    // Sin fechas la promoción aplica mientras esté activa
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    @Column(name = "activa", nullable = false)
+    @Builder.Default
+    private Boolean activa = true;
+
+    @Embedded
+    private CreateUpdateStamp createUpdateStamp;
+}
@@ -0,0 +1,53 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/*
+ * Existencias apartadas por un carrito mientras el cliente termina la compra.
+ * La cantidad ya se descontó de existencias_producto; al vencer se devuelve y al confirmar
+ * la venta se convierte en descuento definitivo.
+ */
+@Entity
+@Table(name = "reservas_existencias",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"carrito", "producto_id"}),
+        indexes = {
+                @Index(name = "idx_reservas_existencias_expira", columnList = "expira_en"),
+                @Index(name = "idx_reservas_existencias_propietario", columnList = "propietario, expira_en")
+        })
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ReservaExistenciaEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Identificador del carrito generado por el cliente
+    @Column(name = "carrito", nullable = false, length = 100)
+    private String carrito;
+
+    // Usuario que creó la reserva; solo él o un administrador pueden modificarla
+    @Column(name = "propietario", nullable = false)
+    private String propietario;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private ProductoEntity producto;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+
+    // Primera reserva del carrito; se conserva al renovar y acota el tiempo total de la reserva
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+}
@@ -0,0 +1,36 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Respuesta guardada de una solicitud POST con encabezado Idempotency-Key
+@Entity
+@Table(name = "solicitudes_idempotentes",
+        indexes = @Index(name = "idx_solicitudes_idempotentes_expira", columnList = "expira_en"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class SolicitudIdempotenteEntity {
+    // Operación + usuario + clave enviada por el cliente
+    @Id
+    @Column(name = "clave", length = 255)
+    private String clave;
+
+    // SHA-256 del cuerpo de la solicitud original, para detectar claves reutilizadas con otros datos
+    @Column(name = "huella", nullable = false, length = 64)
+    private String huella;
+
+    @Column(name = "codigo_estado")
+    private Integer codigoEstado;
+
+    @Column(name = "cuerpo", columnDefinition = "TEXT")
+    private String cuerpo;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+}
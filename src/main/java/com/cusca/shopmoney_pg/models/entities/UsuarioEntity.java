@@ -10,7 +10,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios",
+        indexes = @Index(name = "idx_usuarios_updated_at", columnList = "updated_at"))
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
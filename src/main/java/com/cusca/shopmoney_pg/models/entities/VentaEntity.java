@@ -36,6 +36,14 @@ public class VentaEntity {
     @Column(name = "subtotal", nullable = false, precision = 10, scale = 2)
     private BigDecimal subtotal;
 
+    // Suma de los descuentos de promociones de las líneas
+    @Column(name = "descuento", precision = 10, scale = 2, columnDefinition = "numeric(10,2) default 0")
+    private BigDecimal descuento;
+
+    @Column(name = "impuesto", precision = 10, scale = 2, columnDefinition = "numeric(10,2) default 0")
+    private BigDecimal impuesto;
+
+    // subtotal - descuento + impuesto
     @Column(name = "total", nullable = false, precision = 10, scale = 2)
     private BigDecimal total;
 
@@ -52,6 +60,19 @@ public class VentaEntity {
     @Column(name = "observaciones", columnDefinition = "TEXT")
     private String observaciones;
 
+    // Indica si la venta descontó inventario, para reponerlo solo en ese caso al cancelar
+    @Column(name = "existencias_descontadas")
+    private Boolean existenciasDescontadas;
+
+    // Identificador generado por el punto de venta en ventas sincronizadas sin conexión
+    @Column(name = "id_externo", unique = true, length = 100)
+    private String idExterno;
+
+    // Control de concurrencia optimista: las transiciones concurrentes fallan con 409 en vez de pisarse
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(mappedBy = "venta", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     @ToString.Exclude
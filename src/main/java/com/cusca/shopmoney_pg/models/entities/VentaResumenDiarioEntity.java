@@ -0,0 +1,61 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.models.enums.TipoVenta;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/*
+ * Ventas acumuladas por día, tipo, estado y categoría. Se mantiene con upserts en la misma transacción
+ * que crea la venta o cambia su estado, así los reportes leen unas pocas filas por día en vez de
+ * recorrer ventas y detalle_ventas.
+ * categoria_id = 0 es la fila de la venta completa (con impuesto y total); -1 agrupa los productos sin
+ * categoría. Las filas por categoría solo llevan unidades, subtotal y descuento de sus líneas.
+ */
+@Entity
+@Table(name = "ventas_resumen_diario",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"fecha", "tipo_venta", "estado", "categoria_id"}))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class VentaResumenDiarioEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_venta", nullable = false)
+    private TipoVenta tipoVenta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private EstadoVenta estado;
+
+    // Sin llave foránea: el histórico se conserva aunque la categoría se elimine
+    @Column(name = "categoria_id", nullable = false)
+    private Long categoriaId;
+
+    @Column(name = "ventas", nullable = false)
+    private Long ventas;
+
+    @Column(name = "unidades", nullable = false)
+    private Long unidades;
+
+    @Column(name = "subtotal", nullable = false, precision = 14, scale = 2)
+    private BigDecimal subtotal;
+
+    @Column(name = "descuento", nullable = false, precision = 14, scale = 2)
+    private BigDecimal descuento;
+
+    @Column(name = "impuesto", nullable = false, precision = 14, scale = 2)
+    private BigDecimal impuesto;
+
+    @Column(name = "total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+}
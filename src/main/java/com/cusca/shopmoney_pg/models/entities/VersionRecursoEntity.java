@@ -0,0 +1,23 @@
+package com.cusca.shopmoney_pg.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+ * Contador de versión por recurso ("catalogo", "cuenta:<id>") usado para los ETags.
+ * Vive en la base de datos para que todas las instancias emitan el mismo ETag y sobreviva a reinicios;
+ * lo escribe VersionRecursosService con un upsert dentro de la misma transacción que el cambio.
+ */
+@Entity
+@Table(name = "versiones_recursos")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class VersionRecursoEntity {
+    @Id
+    @Column(name = "recurso", length = 64)
+    private String recurso;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
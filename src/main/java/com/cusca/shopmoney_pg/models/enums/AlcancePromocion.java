@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.models.enums;
+
+public enum AlcancePromocion {
+    PRODUCTO,
+    CATEGORIA,
+    GENERAL
+}
@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.models.enums;
+
+public enum TipoDiferenciaConciliacion {
+    CADENA_ROTA,
+    CALCULO_INCORRECTO,
+    SALDO_ACTUAL
+}
@@ -5,12 +5,15 @@ import com.cusca.shopmoney_pg.models.enums.EstadoAbono;
 import com.cusca.shopmoney_pg.models.enums.MetodoPago;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AbonoRepository extends JpaRepository<AbonoEntity, Long> {
@@ -40,4 +43,24 @@ public interface AbonoRepository extends JpaRepository<AbonoEntity, Long> {
                                            @Param("fechaInicio") LocalDateTime fechaInicio,
                                            @Param("fechaFin") LocalDateTime fechaFin,
                                            Pageable pageable);
+
+    // Aplicación por lote: selección por filtro, cuentas involucradas y bloqueo de los abonos a aplicar
+    @Query("SELECT a.id FROM AbonoEntity a WHERE a.estado = :estado " +
+            "AND (:cuentaClienteId IS NULL OR a.cuentaCliente.id = :cuentaClienteId) " +
+            "AND (:metodoPago IS NULL OR a.metodoPago = :metodoPago) " +
+            "AND a.fechaAbono >= :fechaInicio AND a.fechaAbono < :fechaFin " +
+            "ORDER BY a.id")
+    List<Long> findIdsPorFiltro(@Param("estado") EstadoAbono estado,
+                                @Param("cuentaClienteId") Long cuentaClienteId,
+                                @Param("metodoPago") MetodoPago metodoPago,
+                                @Param("fechaInicio") LocalDateTime fechaInicio,
+                                @Param("fechaFin") LocalDateTime fechaFin,
+                                Pageable pageable);
+
+    @Query("SELECT DISTINCT a.cuentaCliente.id FROM AbonoEntity a WHERE a.id IN :ids")
+    List<Long> findCuentasDeAbonos(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AbonoEntity a WHERE a.id IN :ids AND a.estado = :estado ORDER BY a.fechaAbono, a.id")
+    List<AbonoEntity> bloquearPorIdsYEstado(@Param("ids") Collection<Long> ids, @Param("estado") EstadoAbono estado);
 }
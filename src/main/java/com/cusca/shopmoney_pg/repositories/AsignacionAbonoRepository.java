@@ -0,0 +1,30 @@
+package com.cusca.shopmoney_pg.repositories;
+
+import com.cusca.shopmoney_pg.models.entities.AsignacionAbonoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AsignacionAbonoRepository extends JpaRepository<AsignacionAbonoEntity, Long> {
+    @Query("SELECT a.abono.id AS abonoId, a.venta.id AS ventaId, a.monto AS monto, a.fechaAsignacion AS fechaAsignacion " +
+            "FROM AsignacionAbonoEntity a WHERE a.abono.id = :abonoId ORDER BY a.id")
+    List<AsignacionResumen> findResumenPorAbono(@Param("abonoId") Long abonoId);
+
+    @Query("SELECT a.abono.id AS abonoId, a.venta.id AS ventaId, a.monto AS monto, a.fechaAsignacion AS fechaAsignacion " +
+            "FROM AsignacionAbonoEntity a WHERE a.venta.id = :ventaId ORDER BY a.id")
+    List<AsignacionResumen> findResumenPorVenta(@Param("ventaId") Long ventaId);
+
+    @Query("SELECT COALESCE(SUM(a.monto), 0) FROM AsignacionAbonoEntity a WHERE a.venta.id = :ventaId")
+    BigDecimal sumarMontoPorVenta(@Param("ventaId") Long ventaId);
+
+    interface AsignacionResumen {
+        Long getAbonoId();
+        Long getVentaId();
+        BigDecimal getMonto();
+        LocalDateTime getFechaAsignacion();
+    }
+}
@@ -1,10 +1,14 @@
 package com.cusca.shopmoney_pg.repositories;
 
 import com.cusca.shopmoney_pg.models.entities.CategoriaEntity;
+import com.cusca.shopmoney_pg.models.enums.EstadoProducto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoriaRepository extends JpaRepository<CategoriaEntity, Long> {
@@ -19,4 +23,17 @@ public interface CategoriaRepository extends JpaRepository<CategoriaEntity, Long
 
     // Listar todas las categorías paginadas
     Page<CategoriaEntity> findAll(Pageable pageable);
+
+    // Conteo de productos (totales y disponibles) por categoría en una sola consulta
+    @Query("SELECT c.id AS id, c.nombre AS nombre, COUNT(p.id) AS total, " +
+            "COALESCE(SUM(CASE WHEN p.estado = :disponible THEN 1 ELSE 0 END), 0) AS disponibles " +
+            "FROM CategoriaEntity c LEFT JOIN c.productos p GROUP BY c.id, c.nombre")
+    List<ConteoProductosCategoria> contarProductosPorCategoria(@Param("disponible") EstadoProducto disponible);
+
+    interface ConteoProductosCategoria {
+        Long getId();
+        String getNombre();
+        Long getTotal();
+        Long getDisponibles();
+    }
 }
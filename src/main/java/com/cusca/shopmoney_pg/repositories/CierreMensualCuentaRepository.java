@@ -0,0 +1,50 @@
+package com.cusca.shopmoney_pg.repositories;
+
+import com.cusca.shopmoney_pg.models.entities.CierreMensualCuentaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CierreMensualCuentaRepository extends JpaRepository<CierreMensualCuentaEntity, Long> {
+    Optional<CierreMensualCuentaEntity> findByCuentaClienteIdAndPeriodo(Long cuentaClienteId, LocalDate periodo);
+
+    @Query("SELECT MAX(c.periodo) FROM CierreMensualCuentaEntity c")
+    LocalDate findUltimoPeriodoCerrado();
+
+    // Cuentas cerradas por una ejecución concreta de cerrarPeriodo (misma fecha de cierre)
+    @Query("SELECT c.cuentaCliente.id FROM CierreMensualCuentaEntity c WHERE c.periodo = :periodo AND c.fechaCierre = :fechaCierre")
+    List<Long> findCuentasCerradas(@Param("periodo") LocalDate periodo, @Param("fechaCierre") LocalDateTime fechaCierre);
+
+    /*
+     * Cierra un mes para todas las cuentas en una sola sentencia: saldo inicial del cierre anterior más
+     * los movimientos del mes. Solo genera fila si la cuenta tenía cierre previo o movimientos en el mes;
+     * ON CONFLICT lo hace idempotente ante reintentos o varias instancias.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO cierres_mensuales_cuenta (cuenta_cliente_id, periodo, saldo_inicial, total_cargos, " +
+            "total_abonos, total_ajustes, saldo_final, cantidad_movimientos, fecha_cierre) " +
+            "SELECT c.id, :periodo, COALESCE(p.saldo_final, 0), COALESCE(m.cargos, 0), COALESCE(m.abonos, 0), " +
+            "COALESCE(m.ajustes, 0), COALESCE(p.saldo_final, 0) + COALESCE(m.neto, 0), COALESCE(m.cantidad, 0), :fechaCierre " +
+            "FROM cuentas_cliente c " +
+            "LEFT JOIN cierres_mensuales_cuenta p ON p.cuenta_cliente_id = c.id AND p.periodo = :periodoAnterior " +
+            "LEFT JOIN (SELECT cuenta_cliente_id, " +
+            "SUM(CASE WHEN tipo_movimiento = 'CARGO' THEN monto ELSE 0 END) AS cargos, " +
+            "SUM(CASE WHEN tipo_movimiento = 'ABONO' THEN monto ELSE 0 END) AS abonos, " +
+            "SUM(CASE WHEN tipo_movimiento = 'AJUSTE' THEN saldo_nuevo - saldo_anterior ELSE 0 END) AS ajustes, " +
+            "SUM(saldo_nuevo - saldo_anterior) AS neto, COUNT(*) AS cantidad " +
+            "FROM movimientos_cuenta WHERE fecha_movimiento >= :inicio AND fecha_movimiento < :fin " +
+            "GROUP BY cuenta_cliente_id) m ON m.cuenta_cliente_id = c.id " +
+            "WHERE p.id IS NOT NULL OR m.cuenta_cliente_id IS NOT NULL " +
+            "ON CONFLICT (cuenta_cliente_id, periodo) DO NOTHING", nativeQuery = true)
+    int cerrarPeriodo(@Param("periodo") LocalDate periodo,
+                      @Param("periodoAnterior") LocalDate periodoAnterior,
+                      @Param("inicio") LocalDateTime inicio,
+                      @Param("fin") LocalDateTime fin,
+                      @Param("fechaCierre") LocalDateTime fechaCierre);
+}
@@ -4,10 +4,16 @@ import com.cusca.shopmoney_pg.models.entities.CuentaClienteEntity;
 import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CuentaClienteRepository extends JpaRepository<CuentaClienteEntity, Long> {
@@ -27,6 +33,62 @@ public interface CuentaClienteRepository extends JpaRepository<CuentaClienteEnti
     Page<CuentaClienteEntity> findBySaldoActualGreaterThan(BigDecimal saldo, Pageable pageable);
     Page<CuentaClienteEntity> findBySaldoActualLessThanEqual(BigDecimal saldo, Pageable pageable);
 
+    // SELECT ... FOR UPDATE de una cuenta: verificar crédito y cargar la venta sin que otra transacción cambie el saldo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CuentaClienteEntity c WHERE c.id = :id")
+    Optional<CuentaClienteEntity> findByIdParaActualizar(@Param("id") Long id);
+
+    // Bloqueo en orden de ID para actualizar saldos por lote sin riesgo de deadlocks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CuentaClienteEntity c WHERE c.id IN :ids ORDER BY c.id")
+    List<CuentaClienteEntity> bloquearPorIds(@Param("ids") Collection<Long> ids);
+
+    // Resolución por lote de referencias bancarias (número de cuenta o DUI del titular)
+    @Query("SELECT c.id AS cuentaId, u.dui AS dui, c.estado AS estado FROM CuentaClienteEntity c JOIN c.usuario u " +
+            "WHERE c.id IN :ids OR u.dui IN :duis")
+    List<CuentaReferencia> findPorIdsODuis(@Param("ids") Collection<Long> ids, @Param("duis") Collection<String> duis);
+
+    // Límite, saldo y estado para verificar crédito sin cargar la entidad
+    @Query("SELECT c.limiteCredito AS limiteCredito, c.saldoActual AS saldoActual, c.estado AS estado " +
+            "FROM CuentaClienteEntity c WHERE c.id = :id")
+    Optional<CreditoCuenta> findCreditoPorId(@Param("id") Long id);
+
     // Búsquedas por fecha de apertura
     Page<CuentaClienteEntity> findByFechaAperturaBetween(LocalDate fechaInicio, LocalDate fechaFin, Pageable pageable);
+
+    // Búsqueda rápida de clientes con cuenta (usa los índices GIN de trigramas, sin COUNT)
+    @Query(value = "SELECT u.id AS usuarioId, u.nombre_completo AS nombreCompleto, u.email AS email, " +
+            "u.telefono AS telefono, u.dui AS dui, c.id AS cuentaClienteId, c.estado AS estadoCuenta, " +
+            "c.limite_credito - c.saldo_actual AS saldoDisponible " +
+            "FROM cuentas_cliente c JOIN usuarios u ON u.id = c.usuario_id " +
+            "WHERE u.nombre_completo ILIKE :patron OR u.email ILIKE :patron " +
+            "OR u.telefono ILIKE :patron OR u.dui ILIKE :patron " +
+            "ORDER BY CASE WHEN u.nombre_completo ILIKE :prefijo THEN 0 ELSE 1 END, u.nombre_completo " +
+            "LIMIT :limite", nativeQuery = true)
+    List<ClienteBusqueda> buscarClientes(@Param("patron") String patron,
+                                         @Param("prefijo") String prefijo,
+                                         @Param("limite") int limite);
+
+    interface ClienteBusqueda {
+        Long getUsuarioId();
+        String getNombreCompleto();
+        String getEmail();
+        String getTelefono();
+        String getDui();
+        Long getCuentaClienteId();
+        String getEstadoCuenta();
+        BigDecimal getSaldoDisponible();
+    }
+
+    interface CreditoCuenta {
+        BigDecimal getLimiteCredito();
+        BigDecimal getSaldoActual();
+        EstadoCuenta getEstado();
+    }
+
+    interface CuentaReferencia {
+        Long getCuentaId();
+        String getDui();
+        EstadoCuenta getEstado();
+    }
 }
@@ -0,0 +1,28 @@
+package com.cusca.shopmoney_pg.repositories;
+
+import com.cusca.shopmoney_pg.models.entities.ImagenPendienteEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImagenPendienteRepository extends JpaRepository<ImagenPendienteEntity, Long> {
+    // Siguiente lote de eliminaciones pendientes que no han agotado sus reintentos y ya cumplieron su espera
+    @Query("SELECT i FROM ImagenPendienteEntity i WHERE i.intentos < :maxIntentos " +
+            "AND (i.proximoIntento IS NULL OR i.proximoIntento <= :ahora) ORDER BY i.id")
+    List<ImagenPendienteEntity> findListasParaProcesar(@Param("maxIntentos") Integer maxIntentos,
+                                                       @Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    // Registrar un intento fallido y cuándo volver a intentarlo
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImagenPendienteEntity i SET i.intentos = i.intentos + 1, i.proximoIntento = :proximoIntento " +
+            "WHERE i.id IN :ids")
+    int incrementarIntentos(@Param("ids") Collection<Long> ids, @Param("proximoIntento") LocalDateTime proximoIntento);
+}
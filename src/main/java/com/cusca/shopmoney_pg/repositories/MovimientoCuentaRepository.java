@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public interface MovimientoCuentaRepository extends JpaRepository<MovimientoCuentaEntity, Long> {
@@ -34,4 +35,26 @@ public interface MovimientoCuentaRepository extends JpaRepository<MovimientoCuen
 
     // Movimientos por referencia
     Page<MovimientoCuentaEntity> findByReferenciaTipoAndReferenciaId(TipoReferencia referenciaTipo, Long referenciaId, Pageable pageable);
+
+    // Totales de una cuenta en un rango [inicio, fin), resueltos en la base de datos
+    @Query(value = "SELECT COALESCE(SUM(CASE WHEN tipo_movimiento = 'CARGO' THEN monto ELSE 0 END), 0) AS \"totalCargos\", " +
+            "COALESCE(SUM(CASE WHEN tipo_movimiento = 'ABONO' THEN monto ELSE 0 END), 0) AS \"totalAbonos\", " +
+            "COALESCE(SUM(CASE WHEN tipo_movimiento = 'AJUSTE' THEN saldo_nuevo - saldo_anterior ELSE 0 END), 0) AS \"totalAjustes\", " +
+            "COALESCE(SUM(saldo_nuevo - saldo_anterior), 0) AS \"neto\", COUNT(*) AS \"cantidad\" " +
+            "FROM movimientos_cuenta WHERE cuenta_cliente_id = :cuentaId " +
+            "AND fecha_movimiento >= :inicio AND fecha_movimiento < :fin", nativeQuery = true)
+    ResumenMovimientos resumirPorCuentaYRango(@Param("cuentaId") Long cuentaId,
+                                             @Param("inicio") LocalDateTime inicio,
+                                             @Param("fin") LocalDateTime fin);
+
+    @Query("SELECT MIN(m.fechaMovimiento) FROM MovimientoCuentaEntity m")
+    LocalDateTime findFechaPrimerMovimiento();
+
+    interface ResumenMovimientos {
+        BigDecimal getTotalCargos();
+        BigDecimal getTotalAbonos();
+        BigDecimal getTotalAjustes();
+        BigDecimal getNeto();
+        Long getCantidad();
+    }
 }
@@ -6,8 +6,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProductoRepository extends JpaRepository<ProductoEntity, Long> {
@@ -16,6 +19,23 @@ public interface ProductoRepository extends JpaRepository<ProductoEntity, Long>
     boolean existsByNombre(String nombre);
     Optional<ProductoEntity> findByNombreIgnoreCase(String nombre);
 
+    // Nombres (en minúsculas) que ya existen dentro de un conjunto, para importaciones masivas
+    @Query("SELECT LOWER(p.nombre) FROM ProductoEntity p WHERE LOWER(p.nombre) IN :nombres")
+    List<String> findNombresExistentes(@Param("nombres") Collection<String> nombres);
+
+    // Consulta múltiple por IDs con la categoría en la misma consulta
+    @Query("SELECT p FROM ProductoEntity p LEFT JOIN FETCH p.categoria WHERE p.id IN :ids")
+    List<ProductoEntity> findAllByIdConCategoria(@Param("ids") Collection<Long> ids);
+
+    // Datos mínimos para calcular precios (cache de precios y cotizaciones)
+    @Query("SELECT p.id AS id, c.id AS categoriaId, p.precioUnitario AS precioUnitario " +
+            "FROM ProductoEntity p LEFT JOIN p.categoria c WHERE p.id IN :ids")
+    List<ProductoPrecio> findPreciosPorIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, c.id AS categoriaId, p.precioUnitario AS precioUnitario " +
+            "FROM ProductoEntity p LEFT JOIN p.categoria c")
+    List<ProductoPrecio> findTodosLosPrecios();
+
     // Búsquedas por estado
     Page<ProductoEntity> findByEstado(EstadoProducto estado, Pageable pageable);
 
@@ -30,4 +50,10 @@ public interface ProductoRepository extends JpaRepository<ProductoEntity, Long>
     @Query("SELECT p FROM ProductoEntity p JOIN p.detalleVentas dv " +
             "GROUP BY p ORDER BY SUM(dv.cantidad) DESC")
     Page<ProductoEntity> findProductosMasVendidos(Pageable pageable);
+
+    interface ProductoPrecio {
+        Long getId();
+        Long getCategoriaId();
+        BigDecimal getPrecioUnitario();
+    }
 }
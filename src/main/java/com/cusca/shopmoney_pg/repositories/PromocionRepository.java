@@ -0,0 +1,34 @@
+package com.cusca.shopmoney_pg.repositories;
+
+import com.cusca.shopmoney_pg.models.entities.PromocionEntity;
+import com.cusca.shopmoney_pg.models.enums.AlcancePromocion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PromocionRepository extends JpaRepository<PromocionEntity, Long> {
+    Page<PromocionEntity> findByActiva(Boolean activa, Pageable pageable);
+
+    // Promociones activas que no han terminado (incluye las futuras para saber cuándo recompilar)
+    @Query("SELECT p.alcance AS alcance, pr.id AS productoId, c.id AS categoriaId, p.porcentaje AS porcentaje, " +
+            "p.cantidadMinima AS cantidadMinima, p.fechaInicio AS fechaInicio, p.fechaFin AS fechaFin " +
+            "FROM PromocionEntity p LEFT JOIN p.producto pr LEFT JOIN p.categoria c " +
+            "WHERE p.activa = true AND (p.fechaFin IS NULL OR p.fechaFin > :ahora)")
+    List<ReglaPromocion> findNoVencidas(@Param("ahora") LocalDateTime ahora);
+
+    interface ReglaPromocion {
+        AlcancePromocion getAlcance();
+        Long getProductoId();
+        Long getCategoriaId();
+        BigDecimal getPorcentaje();
+        Integer getCantidadMinima();
+        LocalDateTime getFechaInicio();
+        LocalDateTime getFechaFin();
+    }
+}
@@ -0,0 +1,15 @@
+package com.cusca.shopmoney_pg.repositories;
+
+import com.cusca.shopmoney_pg.models.entities.SolicitudIdempotenteEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface SolicitudIdempotenteRepository extends JpaRepository<SolicitudIdempotenteEntity, String> {
+    @Modifying
+    @Query("DELETE FROM SolicitudIdempotenteEntity s WHERE s.expiraEn < :ahora")
+    int eliminarExpiradas(@Param("ahora") LocalDateTime ahora);
+}
@@ -8,6 +8,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<UsuarioEntity, Long> {
@@ -17,6 +21,14 @@ public interface UsuarioRepository extends JpaRepository<UsuarioEntity, Long> {
     boolean existsByEmail(String email);
     boolean existsByDui(String dui);
 
+    // Verificación por lote de emails y DUIs ya registrados; el email se compara tal como se guardó,
+    // igual que la restricción única de la columna y existsByEmail
+    @Query("SELECT u.email FROM UsuarioEntity u WHERE u.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.dui FROM UsuarioEntity u WHERE u.dui IN :duis")
+    List<String> findDuisExistentes(@Param("duis") Collection<String> duis);
+
     // Búsqueda por nombre
     Page<UsuarioEntity> findByNombreCompletoContainingIgnoreCase(String nombreCompleto, Pageable pageable);
 
@@ -41,4 +53,59 @@ public interface UsuarioRepository extends JpaRepository<UsuarioEntity, Long> {
             "LOWER(u.email) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
             "LOWER(u.telefono) LIKE LOWER(CONCAT('%', :busqueda, '%'))")
     Page<UsuarioEntity> findByBusquedaGeneral(@Param("busqueda") String busqueda, Pageable pageable);
+
+    // Listados de solo lectura: columnas del usuario y el ID de su cuenta en una sola consulta,
+    // sin cargar UsuarioEntity (evita la carga ansiosa del lado inverso cuentaCliente)
+    String SELECT_RESUMEN = "SELECT u.id AS id, u.nombreCompleto AS nombreCompleto, u.email AS email, " +
+            "u.telefono AS telefono, u.direccion AS direccion, u.dui AS dui, u.fechaNacimiento AS fechaNacimiento, " +
+            "u.estado AS estado, u.createUpdateStamp.createdAt AS createdAt, u.createUpdateStamp.updatedAt AS updatedAt, " +
+            "c.id AS cuentaClienteId FROM UsuarioEntity u LEFT JOIN u.cuentaCliente c ";
+
+    @Query(value = SELECT_RESUMEN,
+            countQuery = "SELECT COUNT(u) FROM UsuarioEntity u")
+    Page<UsuarioResumen> findResumenes(Pageable pageable);
+
+    @Query(value = SELECT_RESUMEN + "WHERE LOWER(u.nombreCompleto) LIKE LOWER(CONCAT('%', :nombre, '%'))",
+            countQuery = "SELECT COUNT(u) FROM UsuarioEntity u WHERE LOWER(u.nombreCompleto) LIKE LOWER(CONCAT('%', :nombre, '%'))")
+    Page<UsuarioResumen> findResumenesPorNombre(@Param("nombre") String nombre, Pageable pageable);
+
+    @Query(value = SELECT_RESUMEN + "WHERE u.estado = :estado",
+            countQuery = "SELECT COUNT(u) FROM UsuarioEntity u WHERE u.estado = :estado")
+    Page<UsuarioResumen> findResumenesPorEstado(@Param("estado") EstadoUsuario estado, Pageable pageable);
+
+    @Query(value = SELECT_RESUMEN + "JOIN u.roles r WHERE r.nombre = :nombreRol",
+            countQuery = "SELECT COUNT(u) FROM UsuarioEntity u JOIN u.roles r WHERE r.nombre = :nombreRol")
+    Page<UsuarioResumen> findResumenesPorRol(@Param("nombreRol") String nombreRol, Pageable pageable);
+
+    @Query(value = SELECT_RESUMEN + "WHERE c.id IS NOT NULL",
+            countQuery = "SELECT COUNT(c) FROM CuentaClienteEntity c")
+    Page<UsuarioResumen> findResumenesConCuenta(Pageable pageable);
+
+    @Query(value = SELECT_RESUMEN + "WHERE c.id IS NULL",
+            countQuery = "SELECT COUNT(u) FROM UsuarioEntity u LEFT JOIN u.cuentaCliente c WHERE c.id IS NULL")
+    Page<UsuarioResumen> findResumenesSinCuenta(Pageable pageable);
+
+    // Roles de un conjunto de usuarios en una sola consulta
+    @Query("SELECT u.id AS usuarioId, r.id AS id, r.nombre AS nombre FROM UsuarioEntity u JOIN u.roles r WHERE u.id IN :ids")
+    List<RolDeUsuario> findRolesDeUsuarios(@Param("ids") Collection<Long> ids);
+
+    interface UsuarioResumen {
+        Long getId();
+        String getNombreCompleto();
+        String getEmail();
+        String getTelefono();
+        String getDireccion();
+        String getDui();
+        LocalDate getFechaNacimiento();
+        EstadoUsuario getEstado();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Long getCuentaClienteId();
+    }
+
+    interface RolDeUsuario {
+        Long getUsuarioId();
+        Long getId();
+        String getNombre();
+    }
 }
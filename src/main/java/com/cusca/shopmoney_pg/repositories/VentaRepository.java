@@ -11,12 +11,22 @@ import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface VentaRepository extends JpaRepository<VentaEntity, Long> {
     // Ventas por cuenta de cliente
     Page<VentaEntity> findByCuentaClienteId(Long cuentaClienteId, Pageable pageable);
     Page<VentaEntity> findByCuentaClienteUsuarioId(Long usuarioId, Pageable pageable);
 
+    // Consulta múltiple por IDs con detalles y productos en la misma consulta
+    @Query("SELECT DISTINCT v FROM VentaEntity v LEFT JOIN FETCH v.detalleVentas dv LEFT JOIN FETCH dv.producto WHERE v.id IN :ids")
+    List<VentaEntity> findAllByIdConDetalles(@Param("ids") Collection<Long> ids);
+
+    // Ventas ya registradas por una sincronización anterior
+    @Query("SELECT v.idExterno AS idExterno, v.id AS id FROM VentaEntity v WHERE v.idExterno IN :idsExternos")
+    List<VentaSincronizada> findPorIdsExternos(@Param("idsExternos") Collection<String> idsExternos);
+
     // Ventas por tipo
     Page<VentaEntity> findByTipoVenta(TipoVenta tipoVenta, Pageable pageable);
 
@@ -48,4 +58,9 @@ public interface VentaRepository extends JpaRepository<VentaEntity, Long> {
 
     @Query("SELECT SUM(v.total) FROM VentaEntity v WHERE v.cuentaCliente.id = :clienteId")
     BigDecimal sumTotalByCliente(@Param("clienteId") Long clienteId);
+
+    interface VentaSincronizada {
+        String getIdExterno();
+        Long getId();
+    }
 }
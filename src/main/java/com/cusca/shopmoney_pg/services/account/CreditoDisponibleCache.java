@@ -0,0 +1,62 @@
+package com.cusca.shopmoney_pg.services.account;
+
+import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
+import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.utils.dinero.Dinero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Crédito disponible por cuenta, válido mientras no cambie la versión de la cuenta
+// (cada movimiento, cambio de límite o de estado la incrementa después del commit).
+// La versión solo ve los cambios hechos en esta instancia: los de otras instancias se ven al vencer
+// la entrada (app.credito.vigencia-ms). Es informativo: la venta a crédito vuelve a verificar el crédito con la
+// cuenta bloqueada (findByIdParaActualizar en VentaServiceImpl.procesarVentaCredito).
+@Service
+@RequiredArgsConstructor
+public class CreditoDisponibleCache {
+    private final CuentaClienteRepository cuentaClienteRepository;
+    private final VersionRecursosService versionRecursosService;
+
+    @Value("${app.credito.vigencia-ms:30000}")
+    private long vigenciaMs;
+
+    private final Map<Long, CreditoCuenta> creditos = new ConcurrentHashMap<>();
+
+    public Optional<CreditoCuenta> obtener(Long cuentaId) {
+        // La versión se lee antes que la cuenta: un cambio confirmado durante la lectura invalida la entrada
+        long version = versionRecursosService.versionCuenta(cuentaId);
+        long ahora = System.currentTimeMillis();
+        CreditoCuenta credito = creditos.get(cuentaId);
+        if (credito != null && credito.version() == version && ahora - credito.leidoEn() < vigenciaMs) {
+            return Optional.of(credito);
+        }
+
+        Optional<CreditoCuenta> leido = cuentaClienteRepository.findCreditoPorId(cuentaId)
+                .map(cuenta -> new CreditoCuenta(
+                        Dinero.de(cuenta.getLimiteCredito()).restar(Dinero.de(cuenta.getSaldoActual())),
+                        cuenta.getEstado(), version, ahora));
+        leido.ifPresentOrElse(valor -> creditos.put(cuentaId, valor), () -> creditos.remove(cuentaId));
+        return leido;
+    }
+
+    // Descarta las entradas vencidas para que la cache no crezca con cuentas que ya no se consultan
+    @Scheduled(fixedDelayString = "${app.credito.vigencia-ms:30000}",
+            initialDelayString = "${app.credito.vigencia-ms:30000}")
+    public void purgarVencidos() {
+        long limite = System.currentTimeMillis() - vigenciaMs;
+        creditos.values().removeIf(credito -> credito.leidoEn() <= limite);
+    }
+
+    public record CreditoCuenta(Dinero disponible, EstadoCuenta estado, long version, long leidoEn) {
+        public boolean cubre(Dinero monto) {
+            return estado == EstadoCuenta.ACTIVA && !disponible.esMenorQue(monto);
+        }
+    }
+}
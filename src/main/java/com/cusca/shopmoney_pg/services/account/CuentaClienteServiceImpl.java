@@ -2,6 +2,7 @@ package com.cusca.shopmoney_pg.services.account;
 
 import com.cusca.shopmoney_pg.models.dto.request.CuentaClienteRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateCuentaClienteRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ClienteBusquedaResponse;
 import com.cusca.shopmoney_pg.models.dto.response.CuentaClienteResponse;
 import com.cusca.shopmoney_pg.models.entities.CuentaClienteEntity;
 import com.cusca.shopmoney_pg.models.entities.UsuarioEntity;
@@ -10,6 +11,7 @@ import com.cusca.shopmoney_pg.models.enums.TipoMovimiento;
 import com.cusca.shopmoney_pg.models.enums.TipoReferencia;
 import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository;
 import com.cusca.shopmoney_pg.repositories.UsuarioRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
 import com.cusca.shopmoney_pg.services.finance.IMovimientoCuentaService;
 import com.cusca.shopmoney_pg.utils.exceptions.InvalidAccountStateException;
 import com.cusca.shopmoney_pg.utils.exceptions.InvalidAmountException;
@@ -17,7 +19,10 @@ import com.cusca.shopmoney_pg.utils.exceptions.InsufficientBalanceException;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceAlreadyExistsException;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
 import com.cusca.shopmoney_pg.utils.exceptions.UserHasPendingBalanceException;
+import com.cusca.shopmoney_pg.utils.lotes.LoteUtils;
 import com.cusca.shopmoney_pg.utils.mappers.CuentaClienteMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -26,16 +31,22 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class CuentaClienteServiceImpl implements ICuentaClienteService {
+    private static final int LONGITUD_MINIMA_BUSQUEDA = 3;
+    private static final int LIMITE_MAXIMO_BUSQUEDA = 20;
+
     private final CuentaClienteRepository cuentaClienteRepository;
     private final UsuarioRepository usuarioRepository;
     private final CuentaClienteMapper cuentaClienteMapper;
     private final IMovimientoCuentaService movimientoCuentaService;
+    private final VersionRecursosService versionRecursosService;
+    private final EntityManager entityManager;
 
     @Override
     public CuentaClienteResponse crear(CuentaClienteRequest request) {
@@ -83,6 +94,7 @@ public class CuentaClienteServiceImpl implements ICuentaClienteService {
 
         cuentaClienteMapper.updateEntity(request, cuentaCliente);
         CuentaClienteEntity cuentaActualizada = cuentaClienteRepository.save(cuentaCliente);
+        versionRecursosService.incrementarCuenta(id);
 
         return cuentaClienteMapper.toResponse(cuentaActualizada);
     }
@@ -102,6 +114,7 @@ public class CuentaClienteServiceImpl implements ICuentaClienteService {
         }
 
         cuentaClienteRepository.deleteById(id);
+        versionRecursosService.incrementarCuenta(id);
     }
 
     @Override
@@ -223,11 +236,12 @@ public class CuentaClienteServiceImpl implements ICuentaClienteService {
     @Override
     public CuentaClienteResponse cargarSaldoConReferencia(Long id, BigDecimal monto, String concepto, Long usuarioId,
                                                          TipoReferencia tipoReferencia, Long referenciaId) {
+        validarEscala(monto);
         if (monto.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidAmountException("El monto a cargar debe ser mayor que cero");
         }
 
-        CuentaClienteEntity cuenta = buscarEntidadPorId(id);
+        CuentaClienteEntity cuenta = bloquearEntidadPorId(id);
         BigDecimal saldoAnterior = cuenta.getSaldoActual();
         BigDecimal saldoNuevo = saldoAnterior.add(monto);
 
@@ -249,11 +263,12 @@ public class CuentaClienteServiceImpl implements ICuentaClienteService {
     @Override
     public CuentaClienteResponse abonarSaldoConReferencia(Long id, BigDecimal monto, String concepto, Long usuarioId,
                                                          TipoReferencia tipoReferencia, Long referenciaId) {
+        validarEscala(monto);
         if (monto.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidAmountException("El monto a abonar debe ser mayor que cero");
         }
 
-        CuentaClienteEntity cuenta = buscarEntidadPorId(id);
+        CuentaClienteEntity cuenta = bloquearEntidadPorId(id);
         BigDecimal saldoAnterior = cuenta.getSaldoActual();
         BigDecimal saldoNuevo = saldoAnterior.subtract(monto);
 
@@ -277,6 +292,7 @@ public class CuentaClienteServiceImpl implements ICuentaClienteService {
         CuentaClienteEntity cuenta = buscarEntidadPorId(id);
         cuenta.setEstado(nuevoEstado);
         CuentaClienteEntity cuentaActualizada = cuentaClienteRepository.save(cuenta);
+        versionRecursosService.incrementarCuenta(id);
 
         return cuentaClienteMapper.toResponse(cuentaActualizada);
     }
@@ -317,10 +333,66 @@ public class CuentaClienteServiceImpl implements ICuentaClienteService {
                 .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada con ID: " + id));
     }
 
+    // El saldo se relee con SELECT ... FOR UPDATE, igual que la aplicación por lote (bloquearPorIds): si la cuenta
+    // ya se cargó antes en esta transacción, una consulta con bloqueo devolvería la instancia sin actualizar su saldo
+    private CuentaClienteEntity bloquearEntidadPorId(Long id) {
+        CuentaClienteEntity cuenta = buscarEntidadPorId(id);
+        entityManager.refresh(cuenta, LockModeType.PESSIMISTIC_WRITE);
+        return cuenta;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public CuentaClienteEntity buscarEntidadPorUsuario(Long usuarioId) {
         return cuentaClienteRepository.findByUsuarioId(usuarioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cuenta no encontrada para usuario ID: " + usuarioId));
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CuentaClienteResponse> buscarPorIds(List<Long> ids) {
+        List<Long> idsUnicos = LoteUtils.normalizarIds(ids);
+        if (idsUnicos.isEmpty()) {
+            return List.of();
+        }
+
+        return LoteUtils.ordenarSegunIds(idsUnicos, cuentaClienteRepository.findAllById(idsUnicos),
+                CuentaClienteEntity::getId, cuentaClienteMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClienteBusquedaResponse> buscarClientes(String texto, int limite) {
+        // Con menos de 3 caracteres no hay trigramas y el índice no se puede usar
+        if (texto == null || texto.trim().length() < LONGITUD_MINIMA_BUSQUEDA) {
+            return List.of();
+        }
+
+        String termino = escaparLike(texto.trim());
+        int limiteFinal = Math.max(1, Math.min(limite, LIMITE_MAXIMO_BUSQUEDA));
+
+        return cuentaClienteRepository.buscarClientes("%" + termino + "%", termino + "%", limiteFinal).stream()
+                .map(cliente -> new ClienteBusquedaResponse(
+                        cliente.getUsuarioId(),
+                        cliente.getNombreCompleto(),
+                        cliente.getEmail(),
+                        cliente.getTelefono(),
+                        cliente.getDui(),
+                        cliente.getCuentaClienteId(),
+                        EstadoCuenta.valueOf(cliente.getEstadoCuenta()),
+                        cliente.getSaldoDisponible()))
+                .toList();
+    }
+
+    // Escapa los comodines de LIKE para que el texto se busque de forma literal
+    private String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Los montos recibidos deben respetar la escala de las columnas (dos decimales)
+    private void validarEscala(BigDecimal monto) {
+        if (monto.scale() > 2 && monto.stripTrailingZeros().scale() > 2) {
+            throw new InvalidAmountException("El monto debe tener como máximo dos decimales");
+        }
+    }
 }
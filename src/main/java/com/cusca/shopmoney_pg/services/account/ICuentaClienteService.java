@@ -2,6 +2,7 @@ package com.cusca.shopmoney_pg.services.account;
 
 import com.cusca.shopmoney_pg.models.dto.request.CuentaClienteRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateCuentaClienteRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ClienteBusquedaResponse;
 import com.cusca.shopmoney_pg.models.dto.response.CuentaClienteResponse;
 import com.cusca.shopmoney_pg.models.entities.CuentaClienteEntity;
 import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface ICuentaClienteService extends BaseService<CuentaClienteResponse, CuentaClienteRequest, UpdateCuentaClienteRequest> {
@@ -23,6 +25,12 @@ public interface ICuentaClienteService extends BaseService<CuentaClienteResponse
     Page<CuentaClienteResponse> buscarPorSaldoMenorIgual(BigDecimal saldo, Pageable pageable);
     Page<CuentaClienteResponse> buscarPorFechaApertura(LocalDate fechaInicio, LocalDate fechaFin, Pageable pageable);
 
+    // Consulta múltiple conservando el orden de los IDs
+    List<CuentaClienteResponse> buscarPorIds(List<Long> ids);
+
+    // Búsqueda rápida de clientes (type-ahead en caja)
+    List<ClienteBusquedaResponse> buscarClientes(String texto, int limite);
+
     // Búsquedas específicas
     Optional<CuentaClienteResponse> buscarPorUsuario(Long usuarioId);
     Optional<CuentaClienteResponse> buscarPorUsuarioEmail(String email);
@@ -0,0 +1,9 @@
+package com.cusca.shopmoney_pg.services.account;
+
+import com.cusca.shopmoney_pg.models.dto.request.OnboardingClientesRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
+
+public interface IOnboardingClienteService {
+    // Alta masiva de clientes: usuario, roles, cuenta de crédito y movimiento de saldo inicial
+    ImportacionResponse registrarClientes(OnboardingClientesRequest request);
+}
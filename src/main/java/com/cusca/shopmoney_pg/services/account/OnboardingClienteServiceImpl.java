@@ -0,0 +1,305 @@
+package com.cusca.shopmoney_pg.services.account;
+
+import com.cusca.shopmoney_pg.models.dto.request.ClienteOnboardingRequest;
+import com.cusca.shopmoney_pg.models.dto.request.OnboardingClientesRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
+import com.cusca.shopmoney_pg.models.entities.RolEntity;
+import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
+import com.cusca.shopmoney_pg.models.enums.EstadoUsuario;
+import com.cusca.shopmoney_pg.models.enums.TipoMovimiento;
+import com.cusca.shopmoney_pg.models.enums.TipoReferencia;
+import com.cusca.shopmoney_pg.repositories.RolRepository;
+import com.cusca.shopmoney_pg.repositories.UsuarioRepository;
+import com.cusca.shopmoney_pg.services.auth.UsuarioExistenciaFilter;
+import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OnboardingClienteServiceImpl implements IOnboardingClienteService {
+    private static final int TAMANO_LOTE = 200;
+    private static final String ROL_CLIENTE = "CLIENTE";
+
+    private final UsuarioRepository usuarioRepository;
+    private final RolRepository rolRepository;
+    private final UsuarioExistenciaFilter usuarioExistenciaFilter;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+
+    // Pool acotado para BCrypt: el hash es costoso en CPU y no debe competir con el pool @Async de correos
+    private final ExecutorService poolHash = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    @PreDestroy
+    public void cerrarPool() {
+        poolHash.shutdown();
+    }
+
+    @Override
+    public ImportacionResponse registrarClientes(OnboardingClientesRequest request) {
+        List<ClienteOnboardingRequest> clientes = request.getClientes();
+        ImportacionResponse resultado = new ImportacionResponse();
+        resultado.setTotalFilas(clientes.size());
+
+        // Roles referenciados resueltos una sola vez para toda la solicitud
+        Long rolClienteId = rolRepository.findByNombreIgnoreCase(ROL_CLIENTE)
+                .map(RolEntity::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("Rol " + ROL_CLIENTE + " no encontrado"));
+        Set<Long> rolesSolicitados = clientes.stream()
+                .filter(cliente -> cliente.getRolesIds() != null)
+                .flatMap(cliente -> cliente.getRolesIds().stream())
+                .collect(Collectors.toSet());
+        Set<Long> rolesExistentes = rolRepository.findAllById(rolesSolicitados).stream()
+                .map(RolEntity::getId)
+                .collect(Collectors.toSet());
+
+        List<FilaCliente> validas = validarFilas(clientes, rolesExistentes, rolClienteId, resultado);
+
+        for (int inicio = 0; inicio < validas.size(); inicio += TAMANO_LOTE) {
+            procesarLote(validas.subList(inicio, Math.min(inicio + TAMANO_LOTE, validas.size())), resultado);
+        }
+
+        resultado.getErrores().sort(Comparator.comparingInt(error -> error.getFila()));
+        return resultado;
+    }
+
+    private List<FilaCliente> validarFilas(List<ClienteOnboardingRequest> clientes, Set<Long> rolesExistentes,
+                                           Long rolClienteId, ImportacionResponse resultado) {
+        List<FilaCliente> validas = new ArrayList<>();
+        Set<String> emailsEnSolicitud = new HashSet<>();
+        Set<String> duisEnSolicitud = new HashSet<>();
+
+        for (int i = 0; i < clientes.size(); i++) {
+            int fila = i + 1;
+            ClienteOnboardingRequest cliente = clientes.get(i);
+
+            Set<ConstraintViolation<ClienteOnboardingRequest>> violaciones = validator.validate(cliente);
+            if (!violaciones.isEmpty()) {
+                resultado.agregarError(fila, violaciones.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+
+            // Igual que el alta individual (UserServiceImpl.crear): el email se guarda tal como se escribió
+            String email = cliente.getEmail();
+            String dui = cliente.getDui() != null && !cliente.getDui().isBlank() ? cliente.getDui().trim() : null;
+            if (!emailsEnSolicitud.add(email)) {
+                resultado.agregarError(fila, "Email duplicado en la solicitud: " + cliente.getEmail());
+                continue;
+            }
+            if (dui != null && !duisEnSolicitud.add(dui)) {
+                resultado.agregarError(fila, "DUI duplicado en la solicitud: " + dui);
+                continue;
+            }
+
+            List<Long> rolesIds = cliente.getRolesIds() == null || cliente.getRolesIds().isEmpty()
+                    ? List.of(rolClienteId)
+                    : cliente.getRolesIds().stream().distinct().toList();
+            Optional<Long> rolInexistente = rolesIds.stream().filter(id -> !rolesExistentes.contains(id) && !id.equals(rolClienteId)).findFirst();
+            if (rolInexistente.isPresent()) {
+                resultado.agregarError(fila, "Rol con ID " + rolInexistente.get() + " no encontrado");
+                continue;
+            }
+
+            validas.add(new FilaCliente(fila, cliente, email, dui, rolesIds));
+        }
+        return validas;
+    }
+
+    private void procesarLote(List<FilaCliente> lote, ImportacionResponse resultado) {
+        // Unicidad contra la base de datos: solo se consultan los valores que el filtro no descarta
+        Set<String> emailsExistentes = new HashSet<>(consultarSiHaceFalta(
+                lote.stream().map(FilaCliente::email).filter(usuarioExistenciaFilter::podriaExistirEmail).toList(),
+                usuarioRepository::findEmailsExistentes));
+        Set<String> duisExistentes = new HashSet<>(consultarSiHaceFalta(
+                lote.stream().map(FilaCliente::dui).filter(Objects::nonNull)
+                        .filter(usuarioExistenciaFilter::podriaExistirDui).toList(),
+                usuarioRepository::findDuisExistentes));
+
+        List<FilaCliente> nuevas = new ArrayList<>();
+        for (FilaCliente fila : lote) {
+            if (emailsExistentes.contains(fila.email())) {
+                resultado.agregarError(fila.numero(), "Ya existe un usuario con el email: " + fila.email());
+            } else if (fila.dui() != null && duisExistentes.contains(fila.dui())) {
+                resultado.agregarError(fila.numero(), "Ya existe un usuario con el DUI: " + fila.dui());
+            } else {
+                nuevas.add(fila);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+
+        // Hash de contraseñas en paralelo, fuera de la transacción
+        List<CompletableFuture<String>> hashes = nuevas.stream()
+                .map(fila -> CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(fila.request().getPassword()), poolHash))
+                .toList();
+        List<String> passwords = hashes.stream().map(CompletableFuture::join).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertarLote(nuevas, passwords));
+        } catch (DuplicateKeyException e) {
+            // Otro alta confirmó el mismo email o DUI después de la verificación: se reintenta fila por fila
+            log.warn("Lote de clientes con email o DUI ya registrado, se registra fila por fila: {}", e.getMessage());
+            insertarFilaPorFila(nuevas, passwords, resultado);
+            return;
+        } catch (DataAccessException e) {
+            log.error("Error registrando lote de clientes: {}", e.getMessage());
+            nuevas.forEach(fila -> resultado.agregarError(fila.numero(),
+                    "No se pudo registrar el lote: " + e.getMostSpecificCause().getMessage()));
+            return;
+        }
+
+        nuevas.forEach(fila -> usuarioExistenciaFilter.registrar(fila.email(), fila.dui()));
+        resultado.setImportados(resultado.getImportados() + nuevas.size());
+    }
+
+    // Cada fila en su propia transacción para reportar la violación de unicidad en la fila que la causa
+    private void insertarFilaPorFila(List<FilaCliente> filas, List<String> passwords, ImportacionResponse resultado) {
+        for (int i = 0; i < filas.size(); i++) {
+            FilaCliente fila = filas.get(i);
+            List<String> password = List.of(passwords.get(i));
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertarLote(List.of(fila), password));
+            } catch (DuplicateKeyException e) {
+                resultado.agregarError(fila.numero(), "Ya existe un usuario con el email " + fila.email()
+                        + (fila.dui() != null ? " o el DUI " + fila.dui() : ""));
+                continue;
+            } catch (DataAccessException e) {
+                log.error("Error registrando cliente de la fila {}: {}", fila.numero(), e.getMessage());
+                resultado.agregarError(fila.numero(), "No se pudo registrar: " + e.getMostSpecificCause().getMessage());
+                continue;
+            }
+            usuarioExistenciaFilter.registrar(fila.email(), fila.dui());
+            resultado.setImportados(resultado.getImportados() + 1);
+        }
+    }
+
+    private void insertarLote(List<FilaCliente> filas, List<String> passwords) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+
+        // 1. Usuarios: un solo INSERT multi-fila que devuelve los IDs generados
+        String sqlUsuarios = "INSERT INTO usuarios (nombre_completo, email, password, telefono, direccion, dui, " +
+                "fecha_nacimiento, estado, created_at, updated_at) VALUES " + marcadores(filas.size(), 10) +
+                " RETURNING id, email";
+        Map<String, Long> usuarioPorEmail = new HashMap<>();
+        jdbcTemplate.query(sqlUsuarios, ps -> {
+            int p = 1;
+            for (int i = 0; i < filas.size(); i++) {
+                ClienteOnboardingRequest cliente = filas.get(i).request();
+                ps.setString(p++, cliente.getNombreCompleto().trim());
+                ps.setString(p++, filas.get(i).email());
+                ps.setString(p++, passwords.get(i));
+                ps.setString(p++, cliente.getTelefono());
+                ps.setString(p++, cliente.getDireccion());
+                ps.setString(p++, filas.get(i).dui());
+                ps.setObject(p++, cliente.getFechaNacimiento());
+                ps.setString(p++, EstadoUsuario.ACTIVO.name());
+                ps.setTimestamp(p++, ahora);
+                ps.setTimestamp(p++, ahora);
+            }
+        }, rs -> {
+            usuarioPorEmail.put(rs.getString("email"), rs.getLong("id"));
+        });
+
+        // 2. Roles en batch
+        List<Object[]> roles = new ArrayList<>();
+        for (FilaCliente fila : filas) {
+            Long usuarioId = usuarioPorEmail.get(fila.email());
+            fila.rolesIds().forEach(rolId -> roles.add(new Object[]{usuarioId, rolId}));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO usuarios_roles (usuario_id, rol_id) VALUES (?, ?)", roles);
+
+        // 3. Cuentas: INSERT multi-fila que devuelve el ID de cada cuenta
+        String sqlCuentas = "INSERT INTO cuentas_cliente (usuario_id, limite_credito, saldo_actual, fecha_apertura, estado) " +
+                "VALUES " + marcadores(filas.size(), 5) + " RETURNING id, usuario_id";
+        Map<Long, Long> cuentaPorUsuario = new HashMap<>();
+        jdbcTemplate.query(sqlCuentas, ps -> {
+            int p = 1;
+            for (FilaCliente fila : filas) {
+                ps.setLong(p++, usuarioPorEmail.get(fila.email()));
+                ps.setBigDecimal(p++, fila.request().getLimiteCredito());
+                ps.setBigDecimal(p++, saldoInicial(fila));
+                ps.setObject(p++, fila.request().getFechaApertura() != null ? fila.request().getFechaApertura() : LocalDate.now());
+                ps.setString(p++, EstadoCuenta.ACTIVA.name());
+            }
+        }, rs -> {
+            cuentaPorUsuario.put(rs.getLong("usuario_id"), rs.getLong("id"));
+        });
+
+        // 4. Movimiento de saldo inicial (igual que CuentaClienteServiceImpl.crear) en batch
+        List<FilaCliente> conSaldo = filas.stream()
+                .filter(fila -> saldoInicial(fila).compareTo(BigDecimal.ZERO) > 0)
+                .toList();
+        if (!conSaldo.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO movimientos_cuenta (cuenta_cliente_id, tipo_movimiento, concepto, monto, " +
+                            "saldo_anterior, saldo_nuevo, referencia_tipo, referencia_id, fecha_movimiento, usuario_id, " +
+                            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, NULL, ?, ?, ?, ?)",
+                    conSaldo, conSaldo.size(), (PreparedStatement ps, FilaCliente fila) -> {
+                        Long usuarioId = usuarioPorEmail.get(fila.email());
+                        setMovimientoInicial(ps, cuentaPorUsuario.get(usuarioId), usuarioId, saldoInicial(fila), ahora);
+                    });
+        }
+    }
+
+    private void setMovimientoInicial(PreparedStatement ps, Long cuentaId, Long usuarioId,
+                                      BigDecimal saldo, Timestamp ahora) throws SQLException {
+        ps.setLong(1, cuentaId);
+        ps.setString(2, TipoMovimiento.CARGO.name());
+        ps.setString(3, "Saldo inicial");
+        ps.setBigDecimal(4, saldo);
+        ps.setBigDecimal(5, BigDecimal.ZERO);
+        ps.setBigDecimal(6, saldo);
+        ps.setString(7, TipoReferencia.AJUSTE.name());
+        ps.setTimestamp(8, ahora);
+        ps.setLong(9, usuarioId);
+        ps.setTimestamp(10, ahora);
+        ps.setTimestamp(11, ahora);
+    }
+
+    private BigDecimal saldoInicial(FilaCliente fila) {
+        return fila.request().getSaldoInicial() != null ? fila.request().getSaldoInicial() : BigDecimal.ZERO;
+    }
+
+    private List<String> consultarSiHaceFalta(List<String> valores,
+                                              java.util.function.Function<Collection<String>, List<String>> consulta) {
+        return valores.isEmpty() ? List.of() : consulta.apply(valores);
+    }
+
+    // "(?, ?, ?), (?, ?, ?)" para un INSERT multi-fila
+    private String marcadores(int filas, int columnas) {
+        String fila = "(" + String.join(", ", Collections.nCopies(columnas, "?")) + ")";
+        return String.join(", ", Collections.nCopies(filas, fila));
+    }
+
+    private record FilaCliente(int numero, ClienteOnboardingRequest request, String email, String dui,
+                               List<Long> rolesIds) {
+    }
+}
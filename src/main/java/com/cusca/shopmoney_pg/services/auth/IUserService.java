@@ -12,7 +12,8 @@ import org.springframework.data.domain.Pageable;
 import java.util.Optional;
 
 public interface IUserService extends BaseService<UsuarioResponse, UsuarioRequest, UpdateUsuarioRequest> {
-    // Validaciones
+    // Validaciones. Un "false" se apoya en el filtro de existencia de esta instancia y puede quedar
+    // desactualizado unos segundos frente a altas hechas en otra; el INSERT puede fallar igualmente por unicidad
     boolean existsByEmail(String email);
     boolean existsByDui(String dui);
 
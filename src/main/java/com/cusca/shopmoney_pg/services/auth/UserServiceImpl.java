@@ -2,6 +2,7 @@ package com.cusca.shopmoney_pg.services.auth;
 
 import com.cusca.shopmoney_pg.models.dto.request.UsuarioRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateUsuarioRequest;
+import com.cusca.shopmoney_pg.models.dto.response.RolResponse;
 import com.cusca.shopmoney_pg.models.dto.response.UsuarioResponse;
 import com.cusca.shopmoney_pg.models.entities.RolEntity;
 import com.cusca.shopmoney_pg.models.entities.UsuarioEntity;
@@ -18,7 +19,9 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +30,7 @@ public class UserServiceImpl implements IUserService {
     private final IRolService rolService;
     private final UsuarioMapper usuarioMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UsuarioExistenciaFilter usuarioExistenciaFilter;
 
     @Override
     public UsuarioResponse crear(UsuarioRequest request) {
@@ -44,6 +48,7 @@ public class UserServiceImpl implements IUserService {
         }
 
         UsuarioEntity usuarioGuardado = usuarioRepository.save(usuario);
+        usuarioExistenciaFilter.registrar(usuarioGuardado.getEmail(), usuarioGuardado.getDui());
         return usuarioMapper.toResponse(usuarioGuardado);
     }
 
@@ -67,6 +72,7 @@ public class UserServiceImpl implements IUserService {
         usuario.getCreateUpdateStamp().setUpdatedAt(LocalDateTime.now());
 
         UsuarioEntity usuarioActualizado = usuarioRepository.save(usuario);
+        usuarioExistenciaFilter.registrar(usuarioActualizado.getEmail(), usuarioActualizado.getDui());
         return usuarioMapper.toResponse(usuarioActualizado);
     }
 
@@ -91,38 +97,50 @@ public class UserServiceImpl implements IUserService {
 
     @Override
     public Page<UsuarioResponse> listarTodos(Pageable pageable) {
-        return usuarioRepository.findAll(pageable)
-                .map(usuarioMapper::toResponse);
+        return mapearResumenes(usuarioRepository.findResumenes(pageable));
     }
 
     @Override
     public Page<UsuarioResponse> buscarPorNombreContaining(String nombre, Pageable pageable) {
-        return usuarioRepository.findByNombreCompletoContainingIgnoreCase(nombre, pageable)
-                .map(usuarioMapper::toResponse);
+        return mapearResumenes(usuarioRepository.findResumenesPorNombre(nombre, pageable));
     }
 
     @Override
     public Page<UsuarioResponse> buscarPorEstado(EstadoUsuario estado, Pageable pageable) {
-        return usuarioRepository.findByEstado(estado, pageable)
-                .map(usuarioMapper::toResponse);
+        return mapearResumenes(usuarioRepository.findResumenesPorEstado(estado, pageable));
     }
 
     @Override
     public Page<UsuarioResponse> buscarPorRolNombre(String nombreRol, Pageable pageable) {
-        return usuarioRepository.findByRolNombre(nombreRol, pageable)
-                .map(usuarioMapper::toResponse);
+        return mapearResumenes(usuarioRepository.findResumenesPorRol(nombreRol, pageable));
     }
 
     @Override
     public Page<UsuarioResponse> buscarUsuariosConCuenta(Pageable pageable) {
-        return usuarioRepository.findUsuariosConCuenta(pageable)
-                .map(usuarioMapper::toResponse);
+        return mapearResumenes(usuarioRepository.findResumenesConCuenta(pageable));
     }
 
     @Override
     public Page<UsuarioResponse> buscarUsuariosSinCuenta(Pageable pageable) {
-        return usuarioRepository.findUsuariosSinCuenta(pageable)
-                .map(usuarioMapper::toResponse);
+        return mapearResumenes(usuarioRepository.findResumenesSinCuenta(pageable));
+    }
+
+    // Una consulta para la página y otra para los roles de todos sus usuarios
+    private Page<UsuarioResponse> mapearResumenes(Page<UsuarioRepository.UsuarioResumen> resumenes) {
+        if (resumenes.isEmpty()) {
+            return resumenes.map(usuarioMapper::resumenToResponse);
+        }
+
+        List<Long> ids = resumenes.stream().map(UsuarioRepository.UsuarioResumen::getId).toList();
+        Map<Long, List<RolResponse>> rolesPorUsuario = usuarioRepository.findRolesDeUsuarios(ids).stream()
+                .collect(Collectors.groupingBy(UsuarioRepository.RolDeUsuario::getUsuarioId,
+                        Collectors.mapping(rol -> new RolResponse(rol.getId(), rol.getNombre()), Collectors.toList())));
+
+        return resumenes.map(resumen -> {
+            UsuarioResponse response = usuarioMapper.resumenToResponse(resumen);
+            response.setRoles(rolesPorUsuario.getOrDefault(resumen.getId(), new ArrayList<>()));
+            return response;
+        });
     }
 
     @Override
@@ -140,11 +158,18 @@ public class UserServiceImpl implements IUserService {
 
     @Override
     public boolean existsByEmail(String email) {
+        // El filtro descarta sin consultar la base de datos los emails que seguro son nuevos
+        if (!usuarioExistenciaFilter.podriaExistirEmail(email)) {
+            return false;
+        }
         return usuarioRepository.existsByEmail(email);
     }
 
     @Override
     public boolean existsByDui(String dui) {
+        if (!usuarioExistenciaFilter.podriaExistirDui(dui)) {
+            return false;
+        }
         return usuarioRepository.existsByDui(dui);
     }
 
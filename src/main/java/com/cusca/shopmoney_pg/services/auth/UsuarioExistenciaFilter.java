@@ -0,0 +1,132 @@
+package com.cusca.shopmoney_pg.services.auth;
+
+import com.cusca.shopmoney_pg.utils.bloom.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Filtros de Bloom con los emails y DUIs registrados.
+// Permiten responder "no existe" sin consultar la base de datos; ante un posible
+// positivo el llamador debe confirmar con la consulta exists de siempre.
+// Cada instancia tiene su propio filtro: los usuarios creados o modificados en otra instancia se
+// incorporan en la siguiente sincronización (app.usuarios.filtro.sincronizacion-ms). Dentro de ese
+// intervalo un "no existe" puede ser falso, así que la garantía de unicidad sigue siendo la restricción
+// UNIQUE de la tabla y quien inserta debe manejar su violación.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UsuarioExistenciaFilter {
+    private static final double PROBABILIDAD_FALSO_POSITIVO = 0.01;
+    private static final long CAPACIDAD_MINIMA = 10_000;
+    // Solapamiento entre sincronizaciones: cubre transacciones que confirman después de fijar su updated_at
+    private static final Duration SOLAPAMIENTO = Duration.ofMinutes(2);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile BloomFilter emails;
+    private volatile BloomFilter duis;
+
+    // Valores registrados mientras se reconstruyen los filtros
+    private List<String[]> pendientesReconstruccion;
+    // Mayor updated_at ya incorporado a los filtros
+    private volatile LocalDateTime sincronizadoHasta;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.usuarios.filtro.reconstruccion-ms:3600000}",
+            initialDelayString = "${app.usuarios.filtro.reconstruccion-ms:3600000}")
+    public void reconstruir() {
+        synchronized (this) {
+            pendientesReconstruccion = new ArrayList<>();
+        }
+
+        LocalDateTime inicio = LocalDateTime.now();
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuarios", Long.class);
+        // Margen para crecer hasta la próxima reconstrucción sin degradar la tasa de falsos positivos
+        long capacidad = Math.max(CAPACIDAD_MINIMA, (total != null ? total : 0) * 2);
+        BloomFilter nuevosEmails = new BloomFilter(capacidad, PROBABILIDAD_FALSO_POSITIVO);
+        BloomFilter nuevosDuis = new BloomFilter(capacidad, PROBABILIDAD_FALSO_POSITIVO);
+
+        jdbcTemplate.query("SELECT email, dui FROM usuarios", rs -> {
+            agregarSiExiste(nuevosEmails, rs.getString(1));
+            agregarSiExiste(nuevosDuis, rs.getString(2));
+        });
+
+        synchronized (this) {
+            for (String[] pendiente : pendientesReconstruccion) {
+                agregarSiExiste(nuevosEmails, pendiente[0]);
+                agregarSiExiste(nuevosDuis, pendiente[1]);
+            }
+            pendientesReconstruccion = null;
+            emails = nuevosEmails;
+            duis = nuevosDuis;
+            sincronizadoHasta = inicio;
+        }
+        log.info("Filtro de existencia de usuarios cargado ({} usuarios)", total);
+    }
+
+    // Incorpora los usuarios creados o modificados desde la última sincronización, incluidos los de otras instancias
+    @Scheduled(fixedDelayString = "${app.usuarios.filtro.sincronizacion-ms:10000}",
+            initialDelayString = "${app.usuarios.filtro.sincronizacion-ms:10000}")
+    public void sincronizar() {
+        LocalDateTime desde = sincronizadoHasta;
+        if (desde == null) {
+            return; // Todavía no hay filtro: se responde "podría existir" y se consulta la base de datos
+        }
+        LocalDateTime[] hasta = {desde};
+        jdbcTemplate.query("SELECT email, dui, updated_at FROM usuarios WHERE updated_at > ?", rs -> {
+            registrar(rs.getString(1), rs.getString(2));
+            Timestamp actualizado = rs.getTimestamp(3);
+            if (actualizado.toLocalDateTime().isAfter(hasta[0])) {
+                hasta[0] = actualizado.toLocalDateTime();
+            }
+        }, Timestamp.valueOf(desde.minus(SOLAPAMIENTO)));
+        synchronized (this) {
+            // Una reconstrucción terminada mientras tanto ya fijó su propia marca
+            if (sincronizadoHasta == desde) {
+                sincronizadoHasta = hasta[0];
+            }
+        }
+    }
+
+    // Registrar antes del commit: un rollback solo deja un falso positivo, nunca un falso negativo
+    public synchronized void registrar(String email, String dui) {
+        if (emails != null) {
+            agregarSiExiste(emails, email);
+            agregarSiExiste(duis, dui);
+        }
+        if (pendientesReconstruccion != null) {
+            pendientesReconstruccion.add(new String[]{email, dui});
+        }
+    }
+
+    public boolean podriaExistirEmail(String email) {
+        BloomFilter filtro = emails;
+        return filtro == null || filtro.podriaContener(normalizar(email));
+    }
+
+    public boolean podriaExistirDui(String dui) {
+        BloomFilter filtro = duis;
+        return filtro == null || filtro.podriaContener(normalizar(dui));
+    }
+
+    private void agregarSiExiste(BloomFilter filtro, String valor) {
+        if (valor != null && !valor.isBlank()) {
+            filtro.agregar(normalizar(valor));
+        }
+    }
+
+    private String normalizar(String valor) {
+        return valor.trim().toLowerCase(Locale.ROOT);
+    }
+}
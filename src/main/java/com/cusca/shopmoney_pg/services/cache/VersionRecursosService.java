@@ -0,0 +1,101 @@
+package com.cusca.shopmoney_pg.services.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Versiones de recursos usadas para generar ETags fuertes.
+// Se guardan en versiones_recursos y se incrementan en la misma transacción que el cambio: el ETag es el
+// mismo en todas las instancias, sobrevive a reinicios y nunca apunta a datos no confirmados.
+@Service
+@RequiredArgsConstructor
+public class VersionRecursosService {
+    private static final String CATALOGO = "catalogo";
+
+    private static final String SQL_VERSION = "SELECT version FROM versiones_recursos WHERE recurso = ?";
+    private static final String SQL_INCREMENTAR = """
+            INSERT INTO versiones_recursos (recurso, version) VALUES (?, 1)
+            ON CONFLICT (recurso) DO UPDATE SET version = versiones_recursos.version + 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Cambios confirmados en esta instancia; solo sirve para invalidar caches en memoria locales
+    private final Map<Long, Long> versionesLocalesCuenta = new ConcurrentHashMap<>();
+
+    // Catálogo (productos y categorías)
+    public String etagCatalogo() {
+        return "\"catalogo-" + version(CATALOGO) + "\"";
+    }
+
+    // Versión compartida por todas las instancias; las caches locales del catálogo la comparan para recargar
+    public long versionCatalogo() {
+        return version(CATALOGO);
+    }
+
+    public void incrementarCatalogo() {
+        incrementar(CATALOGO);
+    }
+
+    // Cuentas de cliente (movimientos y estado de cuenta)
+    public String etagCuenta(Long cuentaClienteId) {
+        return "\"cuenta-" + cuentaClienteId + "-" + version(recursoCuenta(cuentaClienteId)) + "\"";
+    }
+
+    // Permite a otras caches en memoria saber si una cuenta cambió en esta instancia desde que la leyeron;
+    // no ve los cambios hechos en otras instancias
+    public long versionCuenta(Long cuentaClienteId) {
+        return versionesLocalesCuenta.getOrDefault(cuentaClienteId, 0L);
+    }
+
+    public void incrementarCuenta(Long cuentaClienteId) {
+        incrementar(recursoCuenta(cuentaClienteId));
+        despuesDelCommit(() -> versionesLocalesCuenta.merge(cuentaClienteId, 1L, Long::sum));
+    }
+
+    // Cambios masivos (p. ej. el cierre mensual); en orden de ID para bloquear las filas siempre en el mismo orden
+    public void incrementarCuentas(Collection<Long> cuentasClienteIds) {
+        List<Long> ordenadas = cuentasClienteIds.stream().sorted().toList();
+        if (ordenadas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(SQL_INCREMENTAR, ordenadas.stream()
+                .map(id -> new Object[]{recursoCuenta(id)})
+                .toList());
+        despuesDelCommit(() -> ordenadas.forEach(id -> versionesLocalesCuenta.merge(id, 1L, Long::sum)));
+    }
+
+    private long version(String recurso) {
+        List<Long> versiones = jdbcTemplate.queryForList(SQL_VERSION, Long.class, recurso);
+        return versiones.isEmpty() ? 0L : versiones.get(0);
+    }
+
+    // Bloquea la fila del recurso hasta el commit: dos cambios concurrentes del mismo recurso se serializan
+    private void incrementar(String recurso) {
+        jdbcTemplate.update(SQL_INCREMENTAR, recurso);
+    }
+
+    private static String recursoCuenta(Long cuentaClienteId) {
+        return "cuenta:" + cuentaClienteId;
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.cusca.shopmoney_pg.services.catalog;
+
+import com.cusca.shopmoney_pg.models.dto.response.CategoriaMenuResponse;
+import com.cusca.shopmoney_pg.models.enums.EstadoProducto;
+import com.cusca.shopmoney_pg.repositories.CategoriaRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Vista en memoria de las categorías con sus conteos de productos.
+// Los cambios de esta instancia se aplican como deltas después de cada commit; los de otras instancias
+// (incluidas las importaciones masivas) se recogen al cambiar la versión compartida del catálogo.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoriaCacheService {
+    private static final long SIN_CARGAR = -1L;
+
+    private final CategoriaRepository categoriaRepository;
+    private final VersionRecursosService versionRecursosService;
+
+    // Se reemplaza completo al recargar: los lectores nunca ven un mapa vacío a medio cargar
+    private volatile Map<Long, NodoCategoria> categorias = new ConcurrentHashMap<>();
+    private volatile long versionCargada = SIN_CARGAR;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recargar() {
+        // La versión se lee antes que los conteos: un cambio confirmado en medio provoca otra recarga
+        long version = versionRecursosService.versionCatalogo();
+        Map<Long, NodoCategoria> nuevas = new ConcurrentHashMap<>();
+        categoriaRepository.contarProductosPorCategoria(EstadoProducto.DISPONIBLE)
+                .forEach(conteo -> nuevas.put(conteo.getId(),
+                        new NodoCategoria(conteo.getId(), conteo.getNombre(), conteo.getTotal(), conteo.getDisponibles())));
+
+        categorias = nuevas;
+        versionCargada = version;
+        log.info("Cache de categorías cargada con {} categorías", nuevas.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.categorias.sincronizacion-ms:30000}",
+            initialDelayString = "${app.categorias.sincronizacion-ms:30000}")
+    public void sincronizar() {
+        if (versionRecursosService.versionCatalogo() != versionCargada) {
+            recargar();
+        }
+    }
+
+    public List<CategoriaMenuResponse> obtenerMenu() {
+        if (versionCargada == SIN_CARGAR) {
+            recargar();
+        }
+
+        return categorias.values().stream()
+                .sorted(Comparator.comparing(nodo -> nodo.nombre, String.CASE_INSENSITIVE_ORDER))
+                .map(nodo -> new CategoriaMenuResponse(nodo.id, nodo.nombre, nodo.total.get(), nodo.disponibles.get()))
+                .toList();
+    }
+
+    // Cambios de categorías
+    public void registrarCategoria(Long id, String nombre) {
+        despuesDelCommit(() -> categorias.compute(id, (clave, nodo) -> {
+            if (nodo == null) {
+                return new NodoCategoria(id, nombre, 0, 0);
+            }
+            nodo.nombre = nombre;
+            return nodo;
+        }));
+    }
+
+    public void eliminarCategoria(Long id) {
+        despuesDelCommit(() -> categorias.remove(id));
+    }
+
+    // Cambios de productos
+    public void registrarAltaProducto(Long categoriaId, EstadoProducto estado) {
+        despuesDelCommit(() -> aplicarDelta(categoriaId, estado, 1));
+    }
+
+    public void registrarBajaProducto(Long categoriaId, EstadoProducto estado) {
+        despuesDelCommit(() -> aplicarDelta(categoriaId, estado, -1));
+    }
+
+    public void registrarCambioProducto(Long categoriaAnterior, EstadoProducto estadoAnterior,
+                                        Long categoriaNueva, EstadoProducto estadoNuevo) {
+        if (Objects.equals(categoriaAnterior, categoriaNueva) && estadoAnterior == estadoNuevo) {
+            return;
+        }
+        despuesDelCommit(() -> {
+            aplicarDelta(categoriaAnterior, estadoAnterior, -1);
+            aplicarDelta(categoriaNueva, estadoNuevo, 1);
+        });
+    }
+
+    private void aplicarDelta(Long categoriaId, EstadoProducto estado, int delta) {
+        if (categoriaId == null) {
+            return;
+        }
+        NodoCategoria nodo = categorias.get(categoriaId);
+        if (nodo == null) {
+            return;
+        }
+        nodo.total.addAndGet(delta);
+        if (estado == EstadoProducto.DISPONIBLE) {
+            nodo.disponibles.addAndGet(delta);
+        }
+    }
+
+    // Los deltas solo se aplican si la transacción confirma
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private static class NodoCategoria {
+        private final Long id;
+        private volatile String nombre;
+        private final AtomicLong total;
+        private final AtomicLong disponibles;
+
+        private NodoCategoria(Long id, String nombre, long total, long disponibles) {
+            this.id = id;
+            this.nombre = nombre;
+            this.total = new AtomicLong(total);
+            this.disponibles = new AtomicLong(disponibles);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.cusca.shopmoney_pg.services.catalog;
 
 import com.cusca.shopmoney_pg.models.dto.request.CategoriaRequest;
+import com.cusca.shopmoney_pg.models.dto.response.CategoriaMenuResponse;
 import com.cusca.shopmoney_pg.models.dto.response.CategoriaResponse;
 import com.cusca.shopmoney_pg.models.entities.CategoriaEntity;
 import com.cusca.shopmoney_pg.repositories.CategoriaRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.services.pricing.CatalogoPreciosCache;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceAlreadyExistsException;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
 import com.cusca.shopmoney_pg.utils.mappers.CategoriaMapper;
@@ -13,6 +16,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -20,6 +24,9 @@ import java.util.Optional;
 public class CategoriaServiceImpl implements ICategoriaService {
     private final CategoriaRepository categoriaRepository;
     private final CategoriaMapper categoriaMapper;
+    private final CategoriaCacheService categoriaCacheService;
+    private final VersionRecursosService versionRecursosService;
+    private final CatalogoPreciosCache catalogoPreciosCache;
 
     @Override
     public CategoriaResponse crear(CategoriaRequest request) {
@@ -30,6 +37,8 @@ public class CategoriaServiceImpl implements ICategoriaService {
 
         CategoriaEntity categoria = categoriaMapper.toEntity(request);
         CategoriaEntity categoriaGuardada = categoriaRepository.save(categoria);
+        categoriaCacheService.registrarCategoria(categoriaGuardada.getId(), categoriaGuardada.getNombre());
+        versionRecursosService.incrementarCatalogo();
 
         return categoriaMapper.toResponse(categoriaGuardada);
     }
@@ -47,6 +56,8 @@ public class CategoriaServiceImpl implements ICategoriaService {
 
         categoriaMapper.updateEntity(categoria, request);
         CategoriaEntity categoriaActualizada = categoriaRepository.save(categoria);
+        categoriaCacheService.registrarCategoria(categoriaActualizada.getId(), categoriaActualizada.getNombre());
+        versionRecursosService.incrementarCatalogo();
 
         return categoriaMapper.toResponse(categoriaActualizada);
     }
@@ -55,6 +66,9 @@ public class CategoriaServiceImpl implements ICategoriaService {
     public void eliminar(Long id) {
         buscarPorId(id);
         categoriaRepository.deleteById(id);
+        categoriaCacheService.eliminarCategoria(id);
+        catalogoPreciosCache.invalidarTodo();
+        versionRecursosService.incrementarCatalogo();
     }
 
     @Override
@@ -85,4 +99,10 @@ public class CategoriaServiceImpl implements ICategoriaService {
     public boolean existePorNombre(String nombre) {
         return categoriaRepository.existsByNombreIgnoreCase(nombre);
     }
+
+    @Override
+    public List<CategoriaMenuResponse> obtenerMenu() {
+        // Se atiende desde la cache, sin consultar la base de datos
+        return categoriaCacheService.obtenerMenu();
+    }
 }
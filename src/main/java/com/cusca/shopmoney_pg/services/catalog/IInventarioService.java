@@ -0,0 +1,16 @@
+package com.cusca.shopmoney_pg.services.catalog;
+
+import com.cusca.shopmoney_pg.models.dto.request.AjusteExistenciasRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ExistenciasProductoResponse;
+
+import java.util.Map;
+
+public interface IInventarioService {
+    // Descuenta todo o nada dentro de la transacción en curso; lanza InsufficientStockException si falta
+    void descontar(Map<Long, Integer> cantidadesPorProducto);
+    void reponer(Map<Long, Integer> cantidadesPorProducto);
+
+    ExistenciasProductoResponse consultar(Long productoId);
+    ExistenciasProductoResponse ajustar(Long productoId, AjusteExistenciasRequest request);
+    void eliminarControl(Long productoId);
+}
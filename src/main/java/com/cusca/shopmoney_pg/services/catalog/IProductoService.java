@@ -4,6 +4,7 @@ import com.cusca.shopmoney_pg.models.dto.request.ProductoImagenRequest;
 import com.cusca.shopmoney_pg.models.dto.request.ProductoRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateProductoRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateProductoImagen;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
 import com.cusca.shopmoney_pg.models.dto.response.ProductoResponse;
 import com.cusca.shopmoney_pg.models.enums.EstadoProducto;
 import com.cusca.shopmoney_pg.services.base.BaseService;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface IProductoService extends BaseService<ProductoResponse, ProductoRequest, UpdateProductoRequest> {
     Page<ProductoResponse> buscarPorNombreContaining(String nombre, Pageable pageable);
@@ -21,7 +23,13 @@ public interface IProductoService extends BaseService<ProductoResponse, Producto
     Page<ProductoResponse> obtenerProductosMasVendidos(Pageable pageable);
     boolean existePorNombre(String nombre);
 
+    // Consulta múltiple conservando el orden de los IDs
+    List<ProductoResponse> buscarPorIds(List<Long> ids);
+
     // Nuevos metodos para producto con imagen
     ProductoResponse crearConImagen(ProductoImagenRequest request, MultipartFile imagen);
     ProductoResponse actualizarConImagen(Long id, UpdateProductoImagen request, MultipartFile imagen);
+
+    // Importación masiva desde CSV o NDJSON
+    ImportacionResponse importarProductos(MultipartFile archivo);
 }
@@ -0,0 +1,16 @@
+package com.cusca.shopmoney_pg.services.catalog;
+
+import com.cusca.shopmoney_pg.models.dto.request.ReservaCarritoRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ReservaCarritoResponse;
+
+import java.util.Map;
+
+public interface IReservaExistenciasService {
+    ReservaCarritoResponse reservar(String carrito, ReservaCarritoRequest request);
+    ReservaCarritoResponse consultar(String carrito);
+    void liberar(String carrito);
+
+    // Convierte la reserva vigente del carrito en el descuento de la venta, dentro de la transacción en curso;
+    // solo la diferencia no reservada pasa por el descuento condicional del inventario
+    void confirmar(String carrito, Map<Long, Integer> cantidadesPorProducto);
+}
@@ -0,0 +1,163 @@
+package com.cusca.shopmoney_pg.services.catalog;
+
+import com.cusca.shopmoney_pg.models.dto.request.AjusteExistenciasRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ExistenciasProductoResponse;
+import com.cusca.shopmoney_pg.utils.exceptions.InsufficientStockException;
+import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InventarioServiceImpl implements IInventarioService {
+    /*
+     * Camino rápido: un UPDATE condicional sobre un fragmento al azar con existencias suficientes.
+     * SKIP LOCKED salta los fragmentos que otra caja tiene bloqueados, así las ventas del mismo
+     * producto avanzan en paralelo hasta el número de fragmentos.
+     */
+    private static final String SQL_DESCONTAR_FRAGMENTO_LIBRE = "UPDATE existencias_producto SET cantidad = cantidad - ? " +
+            "WHERE id = (SELECT id FROM existencias_producto WHERE producto_id = ? AND cantidad >= ? " +
+            "ORDER BY random() LIMIT 1 FOR UPDATE SKIP LOCKED)";
+    private static final String SQL_BLOQUEAR_FRAGMENTOS = "SELECT id, cantidad FROM existencias_producto " +
+            "WHERE producto_id = ? ORDER BY fragmento FOR UPDATE";
+    private static final String SQL_DESCONTAR_FRAGMENTO = "UPDATE existencias_producto SET cantidad = cantidad - ? WHERE id = ?";
+    private static final String SQL_REPONER_FRAGMENTO_LIBRE = "UPDATE existencias_producto SET cantidad = cantidad + ? " +
+            "WHERE id = (SELECT id FROM existencias_producto WHERE producto_id = ? " +
+            "ORDER BY random() LIMIT 1 FOR UPDATE SKIP LOCKED)";
+    private static final String SQL_REPONER_PRIMER_FRAGMENTO = "UPDATE existencias_producto SET cantidad = cantidad + ? " +
+            "WHERE id = (SELECT id FROM existencias_producto WHERE producto_id = ? ORDER BY fragmento LIMIT 1)";
+    private static final String SQL_RESUMEN = "SELECT COUNT(*) AS fragmentos, COALESCE(SUM(cantidad), 0) AS disponible " +
+            "FROM existencias_producto WHERE producto_id = ?";
+    private static final String SQL_EXISTE_PRODUCTO = "SELECT COUNT(*) FROM productos WHERE id = ?";
+    private static final String SQL_BLOQUEAR_PRODUCTO = "SELECT id FROM productos WHERE id = ? FOR UPDATE";
+    private static final String SQL_ELIMINAR_FRAGMENTOS = "DELETE FROM existencias_producto WHERE producto_id = ?";
+    private static final String SQL_INSERTAR_FRAGMENTO = "INSERT INTO existencias_producto (producto_id, fragmento, cantidad) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.inventario.fragmentos-por-defecto:1}")
+    private int fragmentosPorDefecto;
+
+    // noRollbackFor: la falta de existencias no marca la transacción del llamador; lo ya descontado se repone
+    // antes de relanzar, así que quien capture la excepción (p. ej. la sincronización por lotes) puede continuar
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = InsufficientStockException.class)
+    public void descontar(Map<Long, Integer> cantidadesPorProducto) {
+        // Orden de producto fijo para que dos ventas con los mismos productos no se bloqueen en cruz
+        Map<Long, Integer> descontados = new TreeMap<>();
+        try {
+            for (Map.Entry<Long, Integer> linea : new TreeMap<>(cantidadesPorProducto).entrySet()) {
+                descontarProducto(linea.getKey(), linea.getValue());
+                descontados.put(linea.getKey(), linea.getValue());
+            }
+        } catch (InsufficientStockException e) {
+            // Todo o nada: devuelve lo descontado en esta llamada antes de informar la falta
+            reponer(descontados);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = InsufficientStockException.class)
+    public void reponer(Map<Long, Integer> cantidadesPorProducto) {
+        for (Map.Entry<Long, Integer> linea : new TreeMap<>(cantidadesPorProducto).entrySet()) {
+            if (jdbcTemplate.update(SQL_REPONER_FRAGMENTO_LIBRE, linea.getValue(), linea.getKey()) == 0) {
+                // Todos los fragmentos ocupados (o ninguno): espera por el primero; sin filas no hay control
+                jdbcTemplate.update(SQL_REPONER_PRIMER_FRAGMENTO, linea.getValue(), linea.getKey());
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExistenciasProductoResponse consultar(Long productoId) {
+        verificarProducto(productoId);
+        return resumen(productoId);
+    }
+
+    @Override
+    public ExistenciasProductoResponse ajustar(Long productoId, AjusteExistenciasRequest request) {
+        bloquearProducto(productoId);
+        int fragmentos = request.getFragmentos() != null ? request.getFragmentos() : fragmentosPorDefecto;
+
+        // Reparte la cantidad en partes iguales; el residuo va a los primeros fragmentos
+        jdbcTemplate.update(SQL_ELIMINAR_FRAGMENTOS, productoId);
+        List<Object[]> filas = new ArrayList<>(fragmentos);
+        for (int fragmento = 0; fragmento < fragmentos; fragmento++) {
+            int cantidad = request.getCantidad() / fragmentos + (fragmento < request.getCantidad() % fragmentos ? 1 : 0);
+            filas.add(new Object[]{productoId, fragmento, cantidad});
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERTAR_FRAGMENTO, filas);
+
+        return new ExistenciasProductoResponse(productoId, true, request.getCantidad(), fragmentos);
+    }
+
+    @Override
+    public void eliminarControl(Long productoId) {
+        bloquearProducto(productoId);
+        jdbcTemplate.update(SQL_ELIMINAR_FRAGMENTOS, productoId);
+    }
+
+    private void descontarProducto(Long productoId, int cantidad) {
+        if (jdbcTemplate.update(SQL_DESCONTAR_FRAGMENTO_LIBRE, cantidad, productoId, cantidad) == 1) {
+            return;
+        }
+
+        // Camino lento: ningún fragmento libre alcanza solo; se bloquean todos en orden y se reparte el descuento
+        List<long[]> fragmentos = jdbcTemplate.query(SQL_BLOQUEAR_FRAGMENTOS,
+                (rs, n) -> new long[]{rs.getLong("id"), rs.getInt("cantidad")}, productoId);
+        if (fragmentos.isEmpty()) {
+            return; // Producto sin control de inventario
+        }
+
+        long disponible = fragmentos.stream().mapToLong(fragmento -> fragmento[1]).sum();
+        if (disponible < cantidad) {
+            throw new InsufficientStockException(String.format(
+                    "Existencias insuficientes para el producto #%d: disponibles %d, solicitadas %d",
+                    productoId, disponible, cantidad));
+        }
+
+        List<Object[]> descuentos = new ArrayList<>();
+        long restante = cantidad;
+        for (long[] fragmento : fragmentos) {
+            long tomar = Math.min(fragmento[1], restante);
+            if (tomar > 0) {
+                descuentos.add(new Object[]{tomar, fragmento[0]});
+                restante -= tomar;
+            }
+            if (restante == 0) {
+                break;
+            }
+        }
+        jdbcTemplate.batchUpdate(SQL_DESCONTAR_FRAGMENTO, descuentos);
+    }
+
+    private ExistenciasProductoResponse resumen(Long productoId) {
+        return jdbcTemplate.queryForObject(SQL_RESUMEN, (rs, n) -> new ExistenciasProductoResponse(productoId,
+                rs.getInt("fragmentos") > 0, rs.getInt("disponible"), rs.getInt("fragmentos")), productoId);
+    }
+
+    private void verificarProducto(Long productoId) {
+        Integer existe = jdbcTemplate.queryForObject(SQL_EXISTE_PRODUCTO, Integer.class, productoId);
+        if (existe == null || existe == 0) {
+            throw new ResourceNotFoundException("Producto no encontrado con ID: " + productoId);
+        }
+    }
+
+    // Serializa los ajustes del mismo producto; las ventas no bloquean la fila del producto
+    private void bloquearProducto(Long productoId) {
+        if (jdbcTemplate.queryForList(SQL_BLOQUEAR_PRODUCTO, Long.class, productoId).isEmpty()) {
+            throw new ResourceNotFoundException("Producto no encontrado con ID: " + productoId);
+        }
+    }
+}
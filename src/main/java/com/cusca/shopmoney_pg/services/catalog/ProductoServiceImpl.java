@@ -4,34 +4,77 @@ import com.cusca.shopmoney_pg.models.dto.request.ProductoImagenRequest;
 import com.cusca.shopmoney_pg.models.dto.request.ProductoRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateProductoRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateProductoImagen;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
 import com.cusca.shopmoney_pg.models.dto.response.ProductoResponse;
 import com.cusca.shopmoney_pg.models.entities.CategoriaEntity;
 import com.cusca.shopmoney_pg.models.entities.ProductoEntity;
 import com.cusca.shopmoney_pg.models.enums.EstadoProducto;
 import com.cusca.shopmoney_pg.repositories.CategoriaRepository;
 import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
 import com.cusca.shopmoney_pg.services.images.CloudinaryService;
+import com.cusca.shopmoney_pg.services.images.ImagenPendienteService;
+import com.cusca.shopmoney_pg.services.pricing.CatalogoPreciosCache;
+import com.cusca.shopmoney_pg.utils.csv.CsvUtils;
+import com.cusca.shopmoney_pg.utils.exceptions.InvalidImportFileException;
+import com.cusca.shopmoney_pg.utils.lotes.LoteUtils;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceAlreadyExistsException;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
 import com.cusca.shopmoney_pg.utils.mappers.ProductoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class ProductoServiceImpl implements IProductoService {
+    private static final int TAMANO_LOTE_IMPORTACION = 500;
+    private static final String SQL_INSERTAR_PRODUCTO = "INSERT INTO productos " +
+            "(nombre, descripcion, imagen_url, precio_unitario, estado, categoria_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final ProductoRepository productoRepository;
     private final CategoriaRepository categoriaRepository;
     private final ProductoMapper productoMapper;
     private final CloudinaryService cloudinaryService;
+    private final ImagenPendienteService imagenPendienteService;
+    private final CategoriaCacheService categoriaCacheService;
+    private final VersionRecursosService versionRecursosService;
+    private final CatalogoPreciosCache catalogoPreciosCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Override
     public ProductoResponse crear(ProductoRequest request) {
@@ -53,6 +96,8 @@ public class ProductoServiceImpl implements IProductoService {
         }
 
         ProductoEntity productoGuardado = productoRepository.save(producto);
+        categoriaCacheService.registrarAltaProducto(categoria.getId(), productoGuardado.getEstado());
+        versionRecursosService.incrementarCatalogo();
 
         return productoMapper.toResponse(productoGuardado);
     }
@@ -61,6 +106,8 @@ public class ProductoServiceImpl implements IProductoService {
     public ProductoResponse actualizar(Long id, UpdateProductoRequest request) {
         ProductoEntity producto = productoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con ID: " + id));
+        Long categoriaAnterior = obtenerCategoriaId(producto);
+        EstadoProducto estadoAnterior = producto.getEstado();
 
         // Verificar que no exista otro producto con el mismo nombre (solo si se proporciona nombre)
         if (request.getNombre() != null) {
@@ -81,6 +128,10 @@ public class ProductoServiceImpl implements IProductoService {
         productoMapper.updateEntity(request, producto);
 
         ProductoEntity productoActualizado = productoRepository.save(producto);
+        categoriaCacheService.registrarCambioProducto(categoriaAnterior, estadoAnterior,
+                obtenerCategoriaId(productoActualizado), productoActualizado.getEstado());
+        catalogoPreciosCache.invalidar(id);
+        versionRecursosService.incrementarCatalogo();
 
         return productoMapper.toResponse(productoActualizado);
     }
@@ -90,12 +141,13 @@ public class ProductoServiceImpl implements IProductoService {
         ProductoEntity producto = productoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado"));
 
-        // Eliminar imagen de Cloudinary si existe
-        if (producto.getImagenUrl() != null) {
-            cloudinaryService.deleteImage(producto.getImagenUrl());
-        }
-
         productoRepository.deleteById(id);
+        categoriaCacheService.registrarBajaProducto(obtenerCategoriaId(producto), producto.getEstado());
+        catalogoPreciosCache.invalidar(id);
+        versionRecursosService.incrementarCatalogo();
+
+        // La imagen se elimina de Cloudinary después del commit, en segundo plano
+        imagenPendienteService.programarEliminacion(producto.getImagenUrl());
     }
 
     @Override
@@ -186,6 +238,8 @@ public class ProductoServiceImpl implements IProductoService {
         }
 
         ProductoEntity productoGuardado = productoRepository.save(producto);
+        categoriaCacheService.registrarAltaProducto(categoria.getId(), productoGuardado.getEstado());
+        versionRecursosService.incrementarCatalogo();
         return productoMapper.toResponse(productoGuardado);
     }
 
@@ -193,6 +247,8 @@ public class ProductoServiceImpl implements IProductoService {
     public ProductoResponse actualizarConImagen(Long id, UpdateProductoImagen request, MultipartFile imagen) {
         ProductoEntity producto = productoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con ID: " + id));
+        Long categoriaAnterior = obtenerCategoriaId(producto);
+        EstadoProducto estadoAnterior = producto.getEstado();
 
         if (request.getNombre() != null) {
             Optional<ProductoEntity> productoExistente = productoRepository.findByNombreIgnoreCase(request.getNombre());
@@ -214,10 +270,8 @@ public class ProductoServiceImpl implements IProductoService {
 
         // Manejar imagen (esto sobrescribe cualquier imagenUrl del request)
         if (imagen != null && !imagen.isEmpty()) {
-            // Eliminar imagen anterior si existe
-            if (imagenAnterior != null) {
-                cloudinaryService.deleteImage(imagenAnterior);
-            }
+            // Programar eliminación de la imagen anterior (se ejecuta tras el commit)
+            imagenPendienteService.programarEliminacion(imagenAnterior);
 
             // Subir nueva imagen y FORZAR la nueva URL
             String nuevaImagenUrl = cloudinaryService.uploadImage(imagen);
@@ -229,6 +283,215 @@ public class ProductoServiceImpl implements IProductoService {
         }
 
         ProductoEntity productoActualizado = productoRepository.save(producto);
+        categoriaCacheService.registrarCambioProducto(categoriaAnterior, estadoAnterior,
+                obtenerCategoriaId(productoActualizado), productoActualizado.getEstado());
+        catalogoPreciosCache.invalidar(id);
+        versionRecursosService.incrementarCatalogo();
         return productoMapper.toResponse(productoActualizado);
     }
-}
\ No newline at end of file
+
+    // Cada lote se confirma en su propia transacción: un lote fallido no revierte los ya importados
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportacionResponse importarProductos(MultipartFile archivo) {
+        boolean esCsv = esArchivoCsv(archivo);
+        ImportacionResponse resultado = new ImportacionResponse();
+        Set<String> nombresEnArchivo = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(archivo.getInputStream(), StandardCharsets.UTF_8))) {
+            Map<String, Integer> encabezados = null;
+            int numeroFila = 0;
+
+            if (esCsv) {
+                String lineaEncabezados = reader.readLine();
+                if (lineaEncabezados == null) {
+                    throw new InvalidImportFileException("El archivo CSV está vacío");
+                }
+                encabezados = CsvUtils.indexarEncabezados(lineaEncabezados);
+                numeroFila++;
+            }
+
+            // Procesar por lotes para no cargar todo el archivo en memoria
+            List<FilaProducto> lote = new ArrayList<>(TAMANO_LOTE_IMPORTACION);
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                numeroFila++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+
+                resultado.setTotalFilas(resultado.getTotalFilas() + 1);
+                try {
+                    ProductoRequest request = esCsv
+                            ? leerFilaCsv(linea, encabezados)
+                            : objectMapper.readValue(linea, ProductoRequest.class);
+                    lote.add(new FilaProducto(numeroFila, request));
+                } catch (Exception e) {
+                    resultado.agregarError(numeroFila, "Formato inválido: " + e.getMessage());
+                }
+
+                if (lote.size() == TAMANO_LOTE_IMPORTACION) {
+                    importarLote(lote, nombresEnArchivo, resultado);
+                    lote.clear();
+                }
+            }
+
+            if (!lote.isEmpty()) {
+                importarLote(lote, nombresEnArchivo, resultado);
+            }
+        } catch (IOException e) {
+            throw new InvalidImportFileException("No se pudo leer el archivo: " + e.getMessage());
+        }
+
+        resultado.getErrores().sort(Comparator.comparingInt(error -> error.getFila()));
+        return resultado;
+    }
+
+    private void importarLote(List<FilaProducto> lote, Set<String> nombresEnArchivo, ImportacionResponse resultado) {
+        // Validaciones de formato por fila (mismas reglas que el endpoint individual)
+        List<FilaProducto> validas = new ArrayList<>();
+        for (FilaProducto fila : lote) {
+            Set<ConstraintViolation<ProductoRequest>> violaciones = validator.validate(fila.request());
+            if (!violaciones.isEmpty()) {
+                resultado.agregarError(fila.numero(), violaciones.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            if (!nombresEnArchivo.add(normalizarNombre(fila.request().getNombre()))) {
+                resultado.agregarError(fila.numero(), "Nombre duplicado en el archivo: " + fila.request().getNombre());
+                continue;
+            }
+            validas.add(fila);
+        }
+
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        // Rechazos por fila detectados dentro de la transacción; se reportan aunque el lote falle después
+        Map<Integer, String> rechazos = new LinkedHashMap<>();
+        try {
+            int importados = transactionTemplate.execute(status -> insertarLote(validas, rechazos));
+            resultado.setImportados(resultado.getImportados() + importados);
+        } catch (DataAccessException e) {
+            log.error("Error al importar un lote de productos: {}", e.getMostSpecificCause().getMessage());
+            marcarNoRegistradas(validas, rechazos, "No se pudo registrar el lote: " + e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+            // Cualquier otro fallo revierte solo este lote; los lotes anteriores ya confirmados se conservan
+            log.error("Error inesperado al importar un lote de productos", e);
+            marcarNoRegistradas(validas, rechazos, "No se pudo registrar el lote: " + e.getMessage());
+        }
+        rechazos.forEach(resultado::agregarError);
+    }
+
+    private void marcarNoRegistradas(List<FilaProducto> filas, Map<Integer, String> rechazos, String mensaje) {
+        filas.forEach(fila -> rechazos.putIfAbsent(fila.numero(), mensaje));
+    }
+
+    private int insertarLote(List<FilaProducto> validas, Map<Integer, String> rechazos) {
+        // Una consulta para nombres existentes y otra para categorías en todo el lote
+        Set<String> nombresExistentes = new HashSet<>(productoRepository.findNombresExistentes(
+                validas.stream().map(fila -> normalizarNombre(fila.request().getNombre())).toList()));
+        Set<Long> categoriasExistentes = categoriaRepository.findAllById(
+                        validas.stream().map(fila -> fila.request().getCategoriaId()).collect(Collectors.toSet()))
+                .stream()
+                .map(CategoriaEntity::getId)
+                .collect(Collectors.toSet());
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>(validas.size());
+        for (FilaProducto fila : validas) {
+            ProductoRequest request = fila.request();
+            if (nombresExistentes.contains(normalizarNombre(request.getNombre()))) {
+                rechazos.put(fila.numero(), "Ya existe un producto con el nombre: " + request.getNombre());
+                continue;
+            }
+            if (!categoriasExistentes.contains(request.getCategoriaId())) {
+                rechazos.put(fila.numero(), "Categoría no encontrada con ID: " + request.getCategoriaId());
+                continue;
+            }
+
+            EstadoProducto estado = request.getEstado() != null ? request.getEstado() : EstadoProducto.DISPONIBLE;
+            inserts.add(new Object[]{
+                    request.getNombre().trim(),
+                    request.getDescripcion(),
+                    request.getImagenUrl(),
+                    request.getPrecioUnitario(),
+                    estado.name(),
+                    request.getCategoriaId(),
+                    ahora,
+                    ahora
+            });
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR_PRODUCTO, inserts);
+            inserts.forEach(fila -> categoriaCacheService.registrarAltaProducto(
+                    (Long) fila[5], EstadoProducto.valueOf((String) fila[4])));
+            versionRecursosService.incrementarCatalogo();
+        }
+        return inserts.size();
+    }
+
+    private boolean esArchivoCsv(MultipartFile archivo) {
+        if (archivo == null || archivo.isEmpty()) {
+            throw new InvalidImportFileException("Debe proporcionar un archivo para importar");
+        }
+
+        String nombre = archivo.getOriginalFilename() != null ? archivo.getOriginalFilename().toLowerCase() : "";
+        String contentType = archivo.getContentType() != null ? archivo.getContentType() : "";
+
+        if (nombre.endsWith(".csv") || contentType.equals("text/csv")) {
+            return true;
+        }
+        if (nombre.endsWith(".ndjson") || nombre.endsWith(".jsonl")
+                || contentType.equals("application/x-ndjson") || contentType.equals("application/jsonl")) {
+            return false;
+        }
+        throw new InvalidImportFileException("Formato no soportado, use CSV o NDJSON");
+    }
+
+    private ProductoRequest leerFilaCsv(String linea, Map<String, Integer> encabezados) {
+        List<String> campos = CsvUtils.dividirLinea(linea);
+
+        ProductoRequest request = new ProductoRequest();
+        request.setNombre(CsvUtils.valor(campos, encabezados, "nombre"));
+        request.setDescripcion(CsvUtils.valor(campos, encabezados, "descripcion"));
+        request.setImagenUrl(CsvUtils.valor(campos, encabezados, "imagenUrl"));
+
+        String precio = CsvUtils.valor(campos, encabezados, "precioUnitario");
+        request.setPrecioUnitario(precio != null ? new BigDecimal(precio) : null);
+
+        String estado = CsvUtils.valor(campos, encabezados, "estado");
+        request.setEstado(estado != null ? EstadoProducto.valueOf(estado.toUpperCase()) : null);
+
+        String categoriaId = CsvUtils.valor(campos, encabezados, "categoriaId");
+        request.setCategoriaId(categoriaId != null ? Long.valueOf(categoriaId) : null);
+        return request;
+    }
+
+    private Long obtenerCategoriaId(ProductoEntity producto) {
+        return producto.getCategoria() != null ? producto.getCategoria().getId() : null;
+    }
+
+    private String normalizarNombre(String nombre) {
+        return nombre.trim().toLowerCase();
+    }
+
+    private record FilaProducto(int numero, ProductoRequest request) {
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductoResponse> buscarPorIds(List<Long> ids) {
+        List<Long> idsUnicos = LoteUtils.normalizarIds(ids);
+        if (idsUnicos.isEmpty()) {
+            return List.of();
+        }
+
+        return LoteUtils.ordenarSegunIds(idsUnicos, productoRepository.findAllByIdConCategoria(idsUnicos),
+                ProductoEntity::getId, productoMapper::toResponse);
+    }
+}
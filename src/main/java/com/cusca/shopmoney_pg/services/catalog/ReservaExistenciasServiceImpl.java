@@ -0,0 +1,435 @@
+package com.cusca.shopmoney_pg.services.catalog;
+
+import com.cusca.shopmoney_pg.models.dto.request.DetalleVentaRequest;
+import com.cusca.shopmoney_pg.models.dto.request.ReservaCarritoRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ReservaCarritoResponse;
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.utils.bloqueos.BloqueoAsesor;
+import com.cusca.shopmoney_pg.utils.exceptions.ResourceAlreadyExistsException;
+import com.cusca.shopmoney_pg.utils.exceptions.ReservationLimitExceededException;
+import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
+import com.cusca.shopmoney_pg.utils.tiempo.RuedaTemporizadores;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Reservas de existencias por carrito. Reservar descuenta del inventario en el momento, así que otra
+ * caja ya no puede vender lo apartado; al confirmar la venta la reserva se convierte en el descuento
+ * sin volver a verificar existencias. Los carritos vigentes se guardan en memoria y en la tabla
+ * reservas_existencias; una rueda de temporizadores entrega los carritos vencidos y se liberan en
+ * bloque, sin recorrer la tabla. Si la instancia que tenía el carrito en su rueda se cae, un barrido
+ * poco frecuente (una sola instancia a la vez) libera lo vencido hace rato. La tabla decide: liberar y confirmar borran las filas, y solo quien
+ * las borra devuelve o usa las existencias.
+ *
+ * Para que un usuario no acapare existencias se limitan las unidades por producto, los carritos
+ * vigentes por usuario (salvo administradores) y la vida total del carrito: renovar no pasa de
+ * duracion-maxima-minutos contados desde la primera reserva.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ReservaExistenciasServiceImpl implements IReservaExistenciasService {
+    private static final int LOTE_LIBERACION = 500;
+    // Advisory lock del barrido de respaldo, compartido por todas las instancias
+    private static final long CLAVE_BLOQUEO_BARRIDO = 380_003L;
+    // El barrido solo toma lo que la rueda de la instancia dueña ya debió liberar
+    private static final long GRACIA_BARRIDO_MINUTOS = 1;
+    // Espacio de advisory locks (clave de dos enteros) que serializa la creación de carritos por usuario
+    private static final int ESPACIO_BLOQUEO_PROPIETARIO = 380_002;
+    private static final String SQL_BLOQUEAR_CARRITO = "SELECT propietario, producto_id, cantidad, fecha_creacion, " +
+            "expira_en FROM reservas_existencias WHERE carrito = ? ORDER BY producto_id FOR UPDATE";
+    private static final String SQL_BUSCAR_CARRITO = "SELECT propietario, producto_id, cantidad, fecha_creacion, " +
+            "expira_en FROM reservas_existencias WHERE carrito = ?";
+    private static final String SQL_BLOQUEAR_PROPIETARIO = "SELECT pg_advisory_xact_lock(?, hashtext(?))";
+    private static final String SQL_CONTAR_CARRITOS = "SELECT COUNT(DISTINCT carrito) FROM reservas_existencias " +
+            "WHERE propietario = ? AND expira_en > ? AND carrito <> ?";
+    private static final String SQL_ELIMINAR_CARRITO = "DELETE FROM reservas_existencias WHERE carrito = ?";
+    private static final String SQL_INSERTAR = "INSERT INTO reservas_existencias (carrito, propietario, producto_id, " +
+            "cantidad, fecha_creacion, expira_en) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_CONSUMIR = "DELETE FROM reservas_existencias WHERE carrito = ? AND expira_en > ? " +
+            "RETURNING producto_id, cantidad";
+    private static final String SQL_LIBERAR_VENCIDAS = "DELETE FROM reservas_existencias " +
+            "WHERE carrito = ANY(?) AND expira_en <= ? RETURNING carrito, producto_id, cantidad";
+    // SKIP LOCKED: no espera a un carrito que se está renovando o confirmando en ese momento
+    private static final String SQL_BARRER_VENCIDAS = "DELETE FROM reservas_existencias WHERE id IN (" +
+            "SELECT id FROM reservas_existencias WHERE expira_en <= ? ORDER BY expira_en LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING carrito, producto_id, cantidad";
+    private static final String SQL_CARGAR = "SELECT carrito, propietario, producto_id, cantidad, expira_en FROM reservas_existencias";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IInventarioService inventarioService;
+    private final ProductoRepository productoRepository;
+    private final BloqueoAsesor bloqueoAsesor;
+
+    @Value("${app.reservas.duracion-minutos:15}")
+    private long duracionMinutos;
+
+    @Value("${app.reservas.ranuras:512}")
+    private int ranuras;
+
+    @Value("${app.reservas.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${app.reservas.max-cantidad-por-producto:50}")
+    private int maxCantidadPorProducto;
+
+    @Value("${app.reservas.max-carritos-por-usuario:3}")
+    private int maxCarritosPorUsuario;
+
+    @Value("${app.reservas.duracion-maxima-minutos:60}")
+    private long duracionMaximaMinutos;
+
+    // Carritos vigentes creados o cargados por esta instancia
+    private final Map<String, ReservaCarrito> carritos = new ConcurrentHashMap<>();
+    private RuedaTemporizadores<String> rueda;
+
+    @PostConstruct
+    void inicializar() {
+        rueda = new RuedaTemporizadores<>(ranuras, tickMs, System.currentTimeMillis());
+    }
+
+    // Las reservas que quedaron al reiniciar vuelven a la rueda; las ya vencidas se liberan en el primer tick
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        Map<String, ReservaCarrito> cargados = new HashMap<>();
+        jdbcTemplate.query(SQL_CARGAR, rs -> {
+            String carrito = rs.getString("carrito");
+            ReservaCarrito reserva = cargados.get(carrito);
+            if (reserva == null) {
+                reserva = new ReservaCarrito(rs.getString("propietario"), new TreeMap<>(),
+                        rs.getObject("expira_en", LocalDateTime.class));
+                cargados.put(carrito, reserva);
+            }
+            reserva.cantidades().put(rs.getLong("producto_id"), rs.getInt("cantidad"));
+        });
+        cargados.forEach(this::registrar);
+        log.info("Reservas de existencias cargadas: {} carritos", cargados.size());
+    }
+
+    @Override
+    public ReservaCarritoResponse reservar(String carrito, ReservaCarritoRequest request) {
+        Map<Long, Integer> solicitadas = new TreeMap<>();
+        for (DetalleVentaRequest linea : request.getLineas()) {
+            solicitadas.merge(linea.getProductoId(), linea.getCantidad(), Integer::sum);
+        }
+        solicitadas.forEach((productoId, cantidad) -> {
+            if (cantidad > maxCantidadPorProducto) {
+                throw new ReservationLimitExceededException("No se pueden reservar más de " + maxCantidadPorProducto +
+                        " unidades del producto " + productoId);
+            }
+        });
+        verificarProductos(solicitadas.keySet());
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<FilaReserva> actuales = jdbcTemplate.query(SQL_BLOQUEAR_CARRITO, this::mapearFila, carrito);
+        String propietario = usuarioActual();
+        LocalDateTime fechaCreacion = ahora;
+        if (!actuales.isEmpty()) {
+            if (!puedeModificar(actuales.get(0).propietario())) {
+                throw new ResourceAlreadyExistsException("El identificador de carrito ya está en uso: " + carrito);
+            }
+            propietario = actuales.get(0).propietario();
+            fechaCreacion = actuales.get(0).fechaCreacion();
+        }
+        LocalDateTime limite = fechaCreacion.plusMinutes(duracionMaximaMinutos);
+        if (!solicitadas.isEmpty()) {
+            if (!limite.isAfter(ahora)) {
+                throw new ReservationLimitExceededException("El carrito " + carrito + " alcanzó el tiempo máximo de " +
+                        "reserva; libérelo antes de volver a reservar");
+            }
+            if (actuales.isEmpty() || !actuales.get(0).expiraEn().isAfter(ahora)) {
+                verificarCarritosActivos(propietario, carrito, ahora);
+            }
+        }
+
+        // Solo se mueve la diferencia contra lo ya reservado (aunque la reserva anterior haya vencido sin liberarse)
+        Map<Long, Integer> reservadas = sumarPorProducto(actuales);
+        Map<Long, Integer> aumentos = new HashMap<>();
+        Map<Long, Integer> disminuciones = new HashMap<>();
+        Set<Long> productos = new HashSet<>(solicitadas.keySet());
+        productos.addAll(reservadas.keySet());
+        for (Long productoId : productos) {
+            int diferencia = solicitadas.getOrDefault(productoId, 0) - reservadas.getOrDefault(productoId, 0);
+            if (diferencia > 0) {
+                aumentos.put(productoId, diferencia);
+            } else if (diferencia < 0) {
+                disminuciones.put(productoId, -diferencia);
+            }
+        }
+        inventarioService.reponer(disminuciones);
+        inventarioService.descontar(aumentos);
+
+        jdbcTemplate.update(SQL_ELIMINAR_CARRITO, carrito);
+        if (solicitadas.isEmpty()) {
+            despuesDelCommit(() -> quitar(carrito));
+            return new ReservaCarritoResponse(carrito, Map.of(), null);
+        }
+
+        LocalDateTime renovacion = ahora.plusMinutes(duracionMinutos);
+        LocalDateTime expiraEn = renovacion.isBefore(limite) ? renovacion : limite;
+        List<Object[]> filas = new ArrayList<>(solicitadas.size());
+        for (Map.Entry<Long, Integer> linea : solicitadas.entrySet()) {
+            filas.add(new Object[]{carrito, propietario, linea.getKey(), linea.getValue(),
+                    Timestamp.valueOf(fechaCreacion), Timestamp.valueOf(expiraEn)});
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERTAR, filas);
+
+        ReservaCarrito reserva = new ReservaCarrito(propietario, solicitadas, expiraEn);
+        despuesDelCommit(() -> registrar(carrito, reserva));
+        return respuesta(carrito, reserva);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservaCarritoResponse consultar(String carrito) {
+        ReservaCarrito reserva = carritos.get(carrito);
+        if (reserva == null) {
+            // Carrito creado por otra instancia
+            List<FilaReserva> filas = jdbcTemplate.query(SQL_BUSCAR_CARRITO, this::mapearFila, carrito);
+            reserva = filas.isEmpty() ? null
+                    : new ReservaCarrito(filas.get(0).propietario(), sumarPorProducto(filas), filas.get(0).expiraEn());
+        }
+        if (reserva == null || reserva.vencida(LocalDateTime.now()) || !puedeModificar(reserva.propietario())) {
+            throw new ResourceNotFoundException("Reserva no encontrada para el carrito: " + carrito);
+        }
+        return respuesta(carrito, reserva);
+    }
+
+    @Override
+    public void liberar(String carrito) {
+        List<FilaReserva> actuales = jdbcTemplate.query(SQL_BLOQUEAR_CARRITO, this::mapearFila, carrito);
+        if (actuales.isEmpty() || !puedeModificar(actuales.get(0).propietario())) {
+            throw new ResourceNotFoundException("Reserva no encontrada para el carrito: " + carrito);
+        }
+        jdbcTemplate.update(SQL_ELIMINAR_CARRITO, carrito);
+        inventarioService.reponer(sumarPorProducto(actuales));
+        despuesDelCommit(() -> quitar(carrito));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void confirmar(String carrito, Map<Long, Integer> cantidadesPorProducto) {
+        Map<Long, Integer> reservadas = new HashMap<>();
+        if (carrito != null) {
+            jdbcTemplate.query(SQL_CONSUMIR, rs -> {
+                reservadas.merge(rs.getLong("producto_id"), rs.getInt("cantidad"), Integer::sum);
+            }, carrito, Timestamp.valueOf(LocalDateTime.now()));
+        }
+        if (!reservadas.isEmpty()) {
+            despuesDelCommit(() -> quitar(carrito));
+        }
+
+        // Lo reservado ya salió del inventario; se descuenta lo que falte y se devuelve lo que sobre
+        Map<Long, Integer> faltantes = new HashMap<>();
+        Map<Long, Integer> sobrantes = new HashMap<>();
+        Set<Long> productos = new HashSet<>(cantidadesPorProducto.keySet());
+        productos.addAll(reservadas.keySet());
+        for (Long productoId : productos) {
+            int diferencia = cantidadesPorProducto.getOrDefault(productoId, 0) - reservadas.getOrDefault(productoId, 0);
+            if (diferencia > 0) {
+                faltantes.put(productoId, diferencia);
+            } else if (diferencia < 0) {
+                sobrantes.put(productoId, -diferencia);
+            }
+        }
+        inventarioService.reponer(sobrantes);
+        inventarioService.descontar(faltantes);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservas.tick-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void liberarVencidas() {
+        long ahoraMs = System.currentTimeMillis();
+        List<String> vencidos = rueda.avanzar(ahoraMs);
+        for (int inicio = 0; inicio < vencidos.size(); inicio += LOTE_LIBERACION) {
+            List<String> lote = vencidos.subList(inicio, Math.min(inicio + LOTE_LIBERACION, vencidos.size()));
+            try {
+                liberarLote(lote, LocalDateTime.ofInstant(Instant.ofEpochMilli(ahoraMs), ZoneId.systemDefault()));
+            } catch (RuntimeException e) {
+                // Se reintenta en el siguiente tick
+                log.error("Error liberando {} reservas vencidas: {}", lote.size(), e.getMessage());
+                lote.forEach(carrito -> rueda.programar(carrito, ahoraMs));
+            }
+        }
+    }
+
+    // Respaldo de la rueda: carritos cuya instancia dueña se cayó antes de liberarlos
+    @Scheduled(fixedDelayString = "${app.reservas.barrido-ms:300000}",
+            initialDelayString = "${app.reservas.barrido-ms:300000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void barrerVencidas() {
+        if (!bloqueoAsesor.ejecutarSiDisponible(CLAVE_BLOQUEO_BARRIDO, this::barrerLotes)) {
+            log.debug("Barrido de reservas vencidas en ejecución en otra instancia, se omite");
+        }
+    }
+
+    private void barrerLotes() {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime limite = ahora.minusMinutes(GRACIA_BARRIDO_MINUTOS);
+        Set<String> liberados = new TreeSet<>();
+        int filas;
+        do {
+            Map<Long, Integer> devoluciones = new TreeMap<>();
+            filas = transactionTemplate.execute(status -> {
+                int[] borradas = {0};
+                jdbcTemplate.query(SQL_BARRER_VENCIDAS, rs -> {
+                    borradas[0]++;
+                    liberados.add(rs.getString("carrito"));
+                    devoluciones.merge(rs.getLong("producto_id"), rs.getInt("cantidad"), Integer::sum);
+                }, Timestamp.valueOf(limite), LOTE_LIBERACION);
+                inventarioService.reponer(devoluciones);
+                return borradas[0];
+            });
+        } while (filas == LOTE_LIBERACION);
+
+        liberados.forEach(carrito -> carritos.computeIfPresent(carrito,
+                (clave, reserva) -> reserva.vencida(ahora) ? null : reserva));
+        if (!liberados.isEmpty()) {
+            log.warn("Barrido de respaldo liberó {} carritos vencidos que ninguna rueda liberó", liberados.size());
+        }
+    }
+
+    private void liberarLote(List<String> lote, LocalDateTime ahora) {
+        Set<String> liberados = new TreeSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Integer> devoluciones = new TreeMap<>();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_LIBERAR_VENCIDAS);
+                Array carritosVencidos = con.createArrayOf("varchar", lote.toArray());
+                ps.setArray(1, carritosVencidos);
+                ps.setTimestamp(2, Timestamp.valueOf(ahora));
+                return ps;
+            }, rs -> {
+                liberados.add(rs.getString("carrito"));
+                devoluciones.merge(rs.getLong("producto_id"), rs.getInt("cantidad"), Integer::sum);
+            });
+            inventarioService.reponer(devoluciones);
+        });
+
+        // Un carrito renovado mientras tanto conserva su nueva reserva
+        lote.forEach(carrito -> carritos.computeIfPresent(carrito,
+                (clave, reserva) -> reserva.vencida(ahora) ? null : reserva));
+        if (!liberados.isEmpty()) {
+            log.info("Reservas vencidas liberadas: {} carritos", liberados.size());
+        }
+    }
+
+    private void registrar(String carrito, ReservaCarrito reserva) {
+        carritos.put(carrito, reserva);
+        rueda.programar(carrito, reserva.expiraEn().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void quitar(String carrito) {
+        carritos.remove(carrito);
+        rueda.cancelar(carrito);
+    }
+
+    // El advisory lock evita que dos solicitudes simultáneas del mismo usuario pasen el conteo a la vez
+    private void verificarCarritosActivos(String propietario, String carrito, LocalDateTime ahora) {
+        if (esAdministrador()) {
+            return;
+        }
+        jdbcTemplate.query(SQL_BLOQUEAR_PROPIETARIO, rs -> {
+        }, ESPACIO_BLOQUEO_PROPIETARIO, propietario);
+        Long activos = jdbcTemplate.queryForObject(SQL_CONTAR_CARRITOS, Long.class, propietario,
+                Timestamp.valueOf(ahora), carrito);
+        if (activos != null && activos >= maxCarritosPorUsuario) {
+            throw new ReservationLimitExceededException("Ya tiene " + activos + " carritos con reservas vigentes; " +
+                    "el máximo es " + maxCarritosPorUsuario);
+        }
+    }
+
+    private void verificarProductos(Set<Long> productosIds) {
+        if (productoRepository.findAllById(productosIds).size() != productosIds.size()) {
+            throw new ResourceNotFoundException("Uno o más productos del carrito no existen");
+        }
+    }
+
+    private boolean puedeModificar(String propietario) {
+        return propietario.equals(usuarioActual()) || esAdministrador();
+    }
+
+    private boolean esAdministrador() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null && autenticacion.getAuthorities().stream()
+                .anyMatch(autoridad -> "ROLE_ADMIN".equals(autoridad.getAuthority()));
+    }
+
+    private String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null ? autenticacion.getName() : "anonimo";
+    }
+
+    private FilaReserva mapearFila(ResultSet rs, int fila) throws SQLException {
+        return new FilaReserva(rs.getString("propietario"), rs.getLong("producto_id"), rs.getInt("cantidad"),
+                rs.getObject("fecha_creacion", LocalDateTime.class), rs.getObject("expira_en", LocalDateTime.class));
+    }
+
+    private static Map<Long, Integer> sumarPorProducto(List<FilaReserva> filas) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        filas.forEach(fila -> cantidades.merge(fila.productoId(), fila.cantidad(), Integer::sum));
+        return cantidades;
+    }
+
+    private static ReservaCarritoResponse respuesta(String carrito, ReservaCarrito reserva) {
+        return new ReservaCarritoResponse(carrito, Collections.unmodifiableMap(reserva.cantidades()), reserva.expiraEn());
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private record FilaReserva(String propietario, Long productoId, int cantidad, LocalDateTime fechaCreacion,
+                               LocalDateTime expiraEn) {
+    }
+
+    private record ReservaCarrito(String propietario, Map<Long, Integer> cantidades, LocalDateTime expiraEn) {
+        boolean vencida(LocalDateTime ahora) {
+            return !expiraEn.isAfter(ahora);
+        }
+    }
+}
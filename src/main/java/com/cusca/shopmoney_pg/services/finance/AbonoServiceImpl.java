@@ -1,33 +1,63 @@
 package com.cusca.shopmoney_pg.services.finance;
 
 import com.cusca.shopmoney_pg.models.dto.request.AbonoRequest;
+import com.cusca.shopmoney_pg.models.dto.request.AplicarAbonosLoteRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateAbonoRequest;
 import com.cusca.shopmoney_pg.models.dto.response.AbonoResponse;
+import com.cusca.shopmoney_pg.models.dto.response.AplicacionAbonosLoteResponse;
+import com.cusca.shopmoney_pg.models.dto.response.AsignacionAbonoResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ErrorAbonoLoteResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
 import com.cusca.shopmoney_pg.models.entities.AbonoEntity;
 import com.cusca.shopmoney_pg.models.entities.CuentaClienteEntity;
 import com.cusca.shopmoney_pg.models.enums.EstadoAbono;
+import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
 import com.cusca.shopmoney_pg.models.enums.MetodoPago;
+import com.cusca.shopmoney_pg.models.enums.TipoMovimiento;
 import com.cusca.shopmoney_pg.models.enums.TipoReferencia;
 import com.cusca.shopmoney_pg.repositories.AbonoRepository;
 import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository;
 import com.cusca.shopmoney_pg.services.account.ICuentaClienteService;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.utils.csv.CsvUtils;
+import com.cusca.shopmoney_pg.utils.exceptions.InvalidImportFileException;
 import com.cusca.shopmoney_pg.utils.exceptions.InvalidSaleStateException;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
 import com.cusca.shopmoney_pg.utils.mappers.AbonoMapper;
 import com.cusca.shopmoney_pg.services.notification.NotificacionServiceImpl;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class AbonoServiceImpl implements IAbonoService {
     private final AbonoRepository abonoRepository;
@@ -35,6 +65,21 @@ public class AbonoServiceImpl implements IAbonoService {
     private final ICuentaClienteService cuentaClienteService;
     private final AbonoMapper abonoMapper;
     private final NotificacionServiceImpl notificacionService;
+    private final VersionRecursosService versionRecursosService;
+    private final JdbcTemplate jdbcTemplate;
+    private final AsignacionPagosService asignacionPagosService;
+    private final TransactionTemplate transactionTemplate;
+    private final MaquinaEstadosAbono maquinaEstadosAbono;
+
+    private static final int MAX_ABONOS_POR_LOTE = 1000;
+    private static final String SQL_INSERTAR_MOVIMIENTO = "INSERT INTO movimientos_cuenta (cuenta_cliente_id, tipo_movimiento, " +
+            "concepto, monto, saldo_anterior, saldo_nuevo, referencia_tipo, referencia_id, fecha_movimiento, usuario_id, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int TAMANO_LOTE_IMPORTACION = 500;
+    // Un número de cuenta con más dígitos ya no cabe en un BIGINT
+    private static final int MAX_DIGITOS_CUENTA = 18;
+    private static final String SQL_INSERTAR_ABONO = "INSERT INTO abonos (cuenta_cliente_id, monto, fecha_abono, " +
+            "metodo_pago, observaciones, estado, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
     @Override
     public AbonoResponse crear(AbonoRequest request) {
@@ -59,13 +104,13 @@ public class AbonoServiceImpl implements IAbonoService {
             cuentaClienteService.abonarSaldoConReferencia(cuentaCliente.getId(), abono.getMonto(),
                     "Abono #" + abonoGuardado.getId(), cuentaCliente.getUsuario().getId(),
                     TipoReferencia.ABONO, abonoGuardado.getId());
+            asignacionPagosService.asignarAbono(cuentaCliente.getId(), abonoGuardado.getId(), abonoGuardado.getMonto());
 
-            // NOTIFICACIÓN DE ABONO POR CORREO
-            notificacionService.enviarNotificacionAbono(
-                    cuentaCliente.getUsuario().getId(),
-                    "Pago recibido - Abono #" + abonoGuardado.getId(),
-                    abonoGuardado.getMonto().toString()
-            );
+            // NOTIFICACIÓN DE ABONO POR CORREO, solo si el abono llega a confirmarse
+            Long usuarioId = cuentaCliente.getUsuario().getId();
+            String asunto = "Pago recibido - Abono #" + abonoGuardado.getId();
+            String monto = abonoGuardado.getMonto().toString();
+            despuesDelCommit(() -> notificacionService.enviarNotificacionAbono(usuarioId, asunto, monto));
         }
 
         return abonoMapper.toResponse(abonoGuardado);
@@ -76,7 +121,7 @@ public class AbonoServiceImpl implements IAbonoService {
         AbonoEntity abono = buscarEntidadPorId(id);
 
         // Validar que el abono se puede modificar
-        if (!puedeModificar(id)) {
+        if (!maquinaEstadosAbono.esModificable(abono)) {
             throw new InvalidSaleStateException("El abono no se puede modificar en su estado actual: " + abono.getEstado());
         }
 
@@ -168,46 +213,31 @@ public class AbonoServiceImpl implements IAbonoService {
     @Override
     @Transactional(readOnly = true)
     public boolean puedeModificar(Long abonoId) {
-        AbonoEntity abono = buscarEntidadPorId(abonoId);
-        // Solo se pueden modificar abonos PENDIENTES
-        return abono.getEstado() == EstadoAbono.PENDIENTE;
+        return maquinaEstadosAbono.esModificable(buscarEntidadPorId(abonoId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean puedeAplicar(Long abonoId) {
-        AbonoEntity abono = buscarEntidadPorId(abonoId);
-        // Solo se pueden aplicar abonos PENDIENTES
-        return abono.getEstado() == EstadoAbono.PENDIENTE;
+        return maquinaEstadosAbono.permite(buscarEntidadPorId(abonoId), EstadoAbono.APLICADO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean puedeRechazar(Long abonoId) {
-        AbonoEntity abono = buscarEntidadPorId(abonoId);
-        // Solo se pueden rechazar abonos PENDIENTES
-        return abono.getEstado() == EstadoAbono.PENDIENTE;
+        return maquinaEstadosAbono.permite(buscarEntidadPorId(abonoId), EstadoAbono.RECHAZADO);
     }
 
     @Override
     public AbonoResponse cambiarEstado(Long id, EstadoAbono nuevoEstado) {
-        AbonoEntity abono = buscarEntidadPorId(id);
-        EstadoAbono estadoAnterior = abono.getEstado();
-
-        // Validar transiciones de estado válidas
-        validarTransicionEstado(estadoAnterior, nuevoEstado);
-
-        abono.setEstado(nuevoEstado);
-        AbonoEntity abonoActualizado = abonoRepository.save(abono);
-
-        return abonoMapper.toResponse(abonoActualizado);
+        return aplicarTransicion(maquinaEstadosAbono.cargar(id), nuevoEstado);
     }
 
     @Override
     public AbonoResponse aplicar(Long id) {
-        AbonoEntity abono = buscarEntidadPorId(id);
+        AbonoEntity abono = maquinaEstadosAbono.cargar(id);
 
-        if (!puedeAplicar(id)) {
+        if (!maquinaEstadosAbono.permite(abono, EstadoAbono.APLICADO)) {
             throw new InvalidSaleStateException("El abono no se puede aplicar en su estado actual: " + abono.getEstado());
         }
 
@@ -215,15 +245,313 @@ public class AbonoServiceImpl implements IAbonoService {
         cuentaClienteService.abonarSaldoConReferencia(abono.getCuentaCliente().getId(), abono.getMonto(),
                 "Aplicación abono #" + abono.getId(), abono.getCuentaCliente().getUsuario().getId(),
                 TipoReferencia.ABONO, abono.getId());
+        asignacionPagosService.asignarAbono(abono.getCuentaCliente().getId(), abono.getId(), abono.getMonto());
+
+        // NOTIFICACIÓN DE ABONO POR CORREO (APLICACIÓN MANUAL), solo si la transición llega a confirmarse
+        Long usuarioId = abono.getCuentaCliente().getUsuario().getId();
+        String asunto = "Abono aplicado - Abono #" + abono.getId();
+        String monto = abono.getMonto().toString();
+        despuesDelCommit(() -> notificacionService.enviarNotificacionAbono(usuarioId, asunto, monto));
+
+        return aplicarTransicion(abono, EstadoAbono.APLICADO);
+    }
+
+    @Override
+    public AplicacionAbonosLoteResponse aplicarLote(AplicarAbonosLoteRequest request) {
+        List<Long> solicitados = seleccionarAbonos(request);
+        AplicacionAbonosLoteResponse resultado = new AplicacionAbonosLoteResponse();
+        resultado.setSolicitados(solicitados.size());
+        if (solicitados.isEmpty()) {
+            return resultado;
+        }
+
+        // Primero las cuentas (en orden de ID) y luego los abonos; los cargos y abonos individuales también
+        // bloquean la cuenta (CuentaClienteServiceImpl.bloquearEntidadPorId), así que se serializan con el lote
+        Map<Long, CuentaClienteEntity> cuentas = cuentaClienteRepository
+                .bloquearPorIds(abonoRepository.findCuentasDeAbonos(solicitados)).stream()
+                .collect(Collectors.toMap(CuentaClienteEntity::getId, cuenta -> cuenta));
+        List<AbonoEntity> pendientes = abonoRepository.bloquearPorIdsYEstado(solicitados, EstadoAbono.PENDIENTE);
+
+        Set<Long> encontrados = pendientes.stream().map(AbonoEntity::getId).collect(Collectors.toSet());
+        solicitados.stream()
+                .filter(id -> !encontrados.contains(id))
+                .forEach(id -> resultado.agregarError(id, "El abono no existe o no está PENDIENTE"));
+
+        Map<Long, List<AbonoEntity>> porCuenta = pendientes.stream()
+                .collect(Collectors.groupingBy(abono -> abono.getCuentaCliente().getId(), TreeMap::new, Collectors.toList()));
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> movimientos = new ArrayList<>();
+        List<Long> aplicados = new ArrayList<>();
+        Map<Long, List<AbonoEntity>> aplicadosPorUsuario = new LinkedHashMap<>();
+
+        for (Map.Entry<Long, List<AbonoEntity>> grupo : porCuenta.entrySet()) {
+            CuentaClienteEntity cuenta = cuentas.get(grupo.getKey());
+            Long usuarioId = cuenta.getUsuario().getId();
+            BigDecimal saldo = cuenta.getSaldoActual();
+            List<AsignacionPagosService.PagoPorAsignar> pagos = new ArrayList<>();
+
+            for (AbonoEntity abono : grupo.getValue()) {
+                // Misma regla que abonarSaldoConReferencia: el saldo no puede quedar negativo
+                if (abono.getMonto().compareTo(saldo) > 0) {
+                    resultado.agregarError(abono.getId(), "El abono no puede ser mayor que el saldo actual de la cuenta");
+                    continue;
+                }
+                BigDecimal saldoNuevo = saldo.subtract(abono.getMonto());
+                movimientos.add(new Object[]{cuenta.getId(), TipoMovimiento.ABONO.name(), "Aplicación abono #" + abono.getId(),
+                        abono.getMonto(), saldo, saldoNuevo, TipoReferencia.ABONO.name(), abono.getId(), ahora, usuarioId,
+                        ahora, ahora});
+                saldo = saldoNuevo;
+
+                abono.setEstado(EstadoAbono.APLICADO);
+                pagos.add(new AsignacionPagosService.PagoPorAsignar(abono.getId(), abono.getMonto()));
+                aplicados.add(abono.getId());
+                aplicadosPorUsuario.computeIfAbsent(usuarioId, clave -> new ArrayList<>()).add(abono);
+                resultado.setMontoAplicado(resultado.getMontoAplicado().add(abono.getMonto()));
+            }
+
+            // Un solo UPDATE de saldo por cuenta
+            if (saldo.compareTo(cuenta.getSaldoActual()) != 0) {
+                cuenta.setSaldoActual(saldo);
+                resultado.setCuentasActualizadas(resultado.getCuentasActualizadas() + 1);
+                versionRecursosService.incrementarCuenta(cuenta.getId());
+            }
+            // Una sola pasada de asignación por cuenta para todos sus abonos del lote
+            if (!pagos.isEmpty()) {
+                asignacionPagosService.asignarAbonos(cuenta.getId(), pagos);
+            }
+        }
+
+        if (!movimientos.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR_MOVIMIENTO, movimientos);
+        }
+        resultado.setAplicados(aplicados.size());
+        resultado.getErrores().sort(Comparator.comparing(error -> error.getAbonoId()));
+
+        // Un solo correo resumen por cliente, solo si la transacción se confirma
+        despuesDelCommit(() -> aplicadosPorUsuario.forEach(this::notificarResumen));
+        return resultado;
+    }
+
+    /*
+     * Columnas del CSV: referencia (número de cuenta o DUI del titular con guion), monto, y opcionales
+     * fecha (yyyy-MM-dd), metodo_pago y observaciones. Cada lote de filas se resuelve, inserta y
+     * (opcionalmente) aplica en su propia transacción; el archivo se lee línea a línea.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportacionResponse importarExtractoBancario(MultipartFile archivo, boolean aplicar) {
+        if (archivo == null || archivo.isEmpty()) {
+            throw new InvalidImportFileException("Debe proporcionar un archivo para importar");
+        }
+        ImportacionResponse resultado = new ImportacionResponse();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(archivo.getInputStream(), StandardCharsets.UTF_8))) {
+            String lineaEncabezados = reader.readLine();
+            if (lineaEncabezados == null) {
+                throw new InvalidImportFileException("El archivo CSV está vacío");
+            }
+            Map<String, Integer> encabezados = CsvUtils.indexarEncabezados(lineaEncabezados);
+            if (!encabezados.containsKey("referencia") || !encabezados.containsKey("monto")) {
+                throw new InvalidImportFileException("El archivo debe incluir las columnas referencia y monto");
+            }
+
+            List<FilaExtracto> lote = new ArrayList<>(TAMANO_LOTE_IMPORTACION);
+            int numeroFila = 1;
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                numeroFila++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+
+                resultado.setTotalFilas(resultado.getTotalFilas() + 1);
+                try {
+                    lote.add(leerFilaExtracto(numeroFila, CsvUtils.dividirLinea(linea), encabezados));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    resultado.agregarError(numeroFila, "Formato inválido: " + e.getMessage());
+                }
+
+                if (lote.size() == TAMANO_LOTE_IMPORTACION) {
+                    importarLoteExtracto(lote, aplicar, resultado);
+                    lote.clear();
+                }
+            }
+
+            if (!lote.isEmpty()) {
+                importarLoteExtracto(lote, aplicar, resultado);
+            }
+        } catch (IOException e) {
+            throw new InvalidImportFileException("No se pudo leer el archivo: " + e.getMessage());
+        }
+
+        resultado.getErrores().sort(Comparator.comparingInt(error -> error.getFila()));
+        return resultado;
+    }
+
+    private FilaExtracto leerFilaExtracto(int numero, List<String> campos, Map<String, Integer> encabezados) {
+        String referencia = CsvUtils.valor(campos, encabezados, "referencia");
+        String monto = CsvUtils.valor(campos, encabezados, "monto");
+        if (referencia == null || monto == null) {
+            throw new IllegalArgumentException("referencia y monto son obligatorios");
+        }
+        if (referencia.length() > MAX_DIGITOS_CUENTA && referencia.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("referencia numérica fuera de rango: " + referencia);
+        }
 
-        // OTIFICACIÓN DE ABONO POR CORREO (APLICACIÓN MANUAL)
-        notificacionService.enviarNotificacionAbono(
-                abono.getCuentaCliente().getUsuario().getId(),
-                "Abono aplicado - Abono #" + abono.getId(),
-                abono.getMonto().toString()
-        );
+        BigDecimal valorMonto = new BigDecimal(monto);
+        if (valorMonto.signum() <= 0 || valorMonto.scale() > 2) {
+            throw new IllegalArgumentException("monto debe ser positivo y con máximo 2 decimales");
+        }
 
-        return cambiarEstado(id, EstadoAbono.APLICADO);
+        String fecha = CsvUtils.valor(campos, encabezados, "fecha");
+        String metodo = CsvUtils.valor(campos, encabezados, "metodo_pago");
+        return new FilaExtracto(numero, referencia,
+                valorMonto,
+                fecha != null ? LocalDate.parse(fecha).atStartOfDay() : LocalDateTime.now(),
+                metodo != null ? MetodoPago.valueOf(metodo.toUpperCase()) : MetodoPago.TRANSFERENCIA,
+                CsvUtils.valor(campos, encabezados, "observaciones"));
+    }
+
+    private void importarLoteExtracto(List<FilaExtracto> lote, boolean aplicar, ImportacionResponse resultado) {
+        // Una sola consulta resuelve todas las referencias del lote
+        Set<Long> ids = new HashSet<>();
+        Set<String> duis = new HashSet<>();
+        for (FilaExtracto fila : lote) {
+            if (fila.referencia().chars().allMatch(Character::isDigit)) {
+                ids.add(Long.valueOf(fila.referencia()));
+            } else {
+                duis.add(fila.referencia());
+            }
+        }
+        List<CuentaClienteRepository.CuentaReferencia> cuentas;
+        try {
+            // Valores centinela: IN con colecciones vacías no es válido en todas las bases
+            cuentas = cuentaClienteRepository.findPorIdsODuis(
+                    ids.isEmpty() ? List.of(-1L) : ids, duis.isEmpty() ? List.of("") : duis);
+        } catch (RuntimeException e) {
+            // Los lotes anteriores ya se confirmaron; este se reporta fila por fila y se sigue con el siguiente
+            log.error("Error al resolver las referencias de un lote del extracto", e);
+            lote.forEach(fila -> resultado.agregarError(fila.numero(),
+                    "No se pudieron resolver las referencias del lote: " + e.getMessage()));
+            return;
+        }
+
+        Map<String, CuentaClienteRepository.CuentaReferencia> porReferencia = new HashMap<>();
+        for (CuentaClienteRepository.CuentaReferencia cuenta : cuentas) {
+            if (ids.contains(cuenta.getCuentaId())) {
+                porReferencia.put(cuenta.getCuentaId().toString(), cuenta);
+            }
+            if (cuenta.getDui() != null && duis.contains(cuenta.getDui())) {
+                porReferencia.put(cuenta.getDui(), cuenta);
+            }
+        }
+
+        List<FilaExtracto> validas = new ArrayList<>();
+        List<Long> cuentasValidas = new ArrayList<>();
+        for (FilaExtracto fila : lote) {
+            CuentaClienteRepository.CuentaReferencia cuenta = porReferencia.get(fila.referencia());
+            if (cuenta == null) {
+                resultado.agregarError(fila.numero(), "Referencia sin cuenta asociada: " + fila.referencia());
+            } else if (cuenta.getEstado() == EstadoCuenta.CERRADA) {
+                resultado.agregarError(fila.numero(), "La cuenta " + cuenta.getCuentaId() + " está cerrada");
+            } else {
+                validas.add(fila);
+                cuentasValidas.add(cuenta.getCuentaId());
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        try {
+            // Conteo y errores de aplicación se registran solo si el lote se confirma
+            List<ErrorAbonoLoteResponse> erroresAplicacion = new ArrayList<>();
+            List<Long> abonosIds = transactionTemplate.execute(status -> {
+                List<Long> insertados = insertarAbonos(validas, cuentasValidas);
+                if (aplicar) {
+                    AplicarAbonosLoteRequest aplicacion = new AplicarAbonosLoteRequest();
+                    aplicacion.setAbonosIds(insertados);
+                    erroresAplicacion.addAll(aplicarLote(aplicacion).getErrores());
+                }
+                return insertados;
+            });
+
+            resultado.setImportados(resultado.getImportados() + abonosIds.size());
+            Map<Long, Integer> filaPorAbono = new HashMap<>();
+            for (int i = 0; i < abonosIds.size(); i++) {
+                filaPorAbono.put(abonosIds.get(i), validas.get(i).numero());
+            }
+            for (ErrorAbonoLoteResponse error : erroresAplicacion) {
+                resultado.agregarError(filaPorAbono.get(error.getAbonoId()),
+                        "Abono #" + error.getAbonoId() + " registrado como PENDIENTE: " + error.getMensaje());
+            }
+        } catch (DataAccessException e) {
+            validas.forEach(fila -> resultado.agregarError(fila.numero(),
+                    "No se pudo registrar el lote: " + e.getMostSpecificCause().getMessage()));
+        } catch (RuntimeException e) {
+            // Cualquier otro fallo revierte solo este lote; los lotes anteriores ya confirmados se conservan
+            log.error("Error inesperado al importar un lote del extracto", e);
+            validas.forEach(fila -> resultado.agregarError(fila.numero(),
+                    "No se pudo registrar el lote: " + e.getMessage()));
+        }
+    }
+
+    // Inserción por lote JDBC; las claves generadas vuelven en el mismo orden de las filas
+    private List<Long> insertarAbonos(List<FilaExtracto> filas, List<Long> cuentasIds) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(SQL_INSERTAR_ABONO, new String[]{"id"})) {
+                for (int i = 0; i < filas.size(); i++) {
+                    FilaExtracto fila = filas.get(i);
+                    ps.setLong(1, cuentasIds.get(i));
+                    ps.setBigDecimal(2, fila.monto());
+                    ps.setTimestamp(3, Timestamp.valueOf(fila.fecha()));
+                    ps.setString(4, fila.metodoPago().name());
+                    ps.setString(5, fila.observaciones());
+                    ps.setString(6, EstadoAbono.PENDIENTE.name());
+                    ps.setTimestamp(7, ahora);
+                    ps.setTimestamp(8, ahora);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(filas.size());
+                try (ResultSet claves = ps.getGeneratedKeys()) {
+                    while (claves.next()) {
+                        ids.add(claves.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    private List<Long> seleccionarAbonos(AplicarAbonosLoteRequest request) {
+        if (request.getAbonosIds() != null && !request.getAbonosIds().isEmpty()) {
+            return request.getAbonosIds().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+        }
+
+        LocalDateTime desde = request.getFechaInicio() != null
+                ? request.getFechaInicio().atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime hasta = request.getFechaFin() != null
+                ? request.getFechaFin().plusDays(1).atStartOfDay() : LocalDateTime.now().plusDays(1);
+        return abonoRepository.findIdsPorFiltro(EstadoAbono.PENDIENTE, request.getCuentaClienteId(),
+                request.getMetodoPago(), desde, hasta, PageRequest.of(0, MAX_ABONOS_POR_LOTE));
+    }
+
+    private void notificarResumen(Long usuarioId, List<AbonoEntity> abonos) {
+        BigDecimal total = abonos.stream().map(AbonoEntity::getMonto).reduce(BigDecimal.ZERO, BigDecimal::add);
+        String concepto = abonos.size() == 1
+                ? "Abono aplicado - Abono #" + abonos.get(0).getId()
+                : "Abonos aplicados (" + abonos.size() + ") - " + abonos.stream()
+                        .map(abono -> "#" + abono.getId())
+                        .collect(Collectors.joining(", "));
+        notificacionService.enviarNotificacionAbono(usuarioId, concepto, total.toString());
     }
 
     @Override
@@ -233,18 +561,17 @@ public class AbonoServiceImpl implements IAbonoService {
 
     @Override
     public AbonoResponse rechazar(Long id, String motivo) {
-        AbonoEntity abono = buscarEntidadPorId(id);
+        AbonoEntity abono = maquinaEstadosAbono.cargar(id);
 
-        if (!puedeRechazar(id)) {
+        if (!maquinaEstadosAbono.permite(abono, EstadoAbono.RECHAZADO)) {
             throw new InvalidSaleStateException("El abono no se puede rechazar en su estado actual: " + abono.getEstado());
         }
 
         // Agregar motivo de rechazo a las observaciones
         String observacionesActuales = abono.getObservaciones() != null ? abono.getObservaciones() : "";
         abono.setObservaciones(observacionesActuales + "\nRECHAZADO: " + motivo);
-        abonoRepository.save(abono);
 
-        return cambiarEstado(id, EstadoAbono.RECHAZADO);
+        return aplicarTransicion(abono, EstadoAbono.RECHAZADO);
     }
 
     // OPERACIONES DE ABONO
@@ -318,26 +645,41 @@ public class AbonoServiceImpl implements IAbonoService {
                 .map(abonoMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AsignacionAbonoResponse> buscarAsignaciones(Long abonoId) {
+        buscarEntidadPorId(abonoId);
+        return asignacionPagosService.buscarPorAbono(abonoId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public AbonoEntity buscarEntidadPorId(Long id) {
-        return abonoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Abono no encontrado con ID: " + id));
+        return maquinaEstadosAbono.cargar(id);
     }
 
     // MÉTODOS AUXILIARES PRIVADOS
 
-    private void validarTransicionEstado(EstadoAbono estadoActual, EstadoAbono nuevoEstado) {
-        // Definir transiciones válidas
-        boolean transicionValida = switch (estadoActual) {
-            case PENDIENTE -> nuevoEstado == EstadoAbono.APLICADO || nuevoEstado == EstadoAbono.RECHAZADO;
-            case APLICADO -> false; // Los abonos aplicados no se pueden cambiar
-            case RECHAZADO -> nuevoEstado == EstadoAbono.PENDIENTE; // Se puede reactivar un abono rechazado
-        };
-
-        if (!transicionValida) {
-            throw new InvalidSaleStateException(String.format("No se puede cambiar el estado de %s a %s",
-                    estadoActual, nuevoEstado));
+    // Una lectura (ya hecha por el llamador) y una escritura; el flush verifica la versión dentro del servicio
+    private AbonoResponse aplicarTransicion(AbonoEntity abono, EstadoAbono nuevoEstado) {
+        maquinaEstadosAbono.transicionar(abono, nuevoEstado);
+        return abonoMapper.toResponse(abonoRepository.saveAndFlush(abono));
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
         }
     }
+
+    private record FilaExtracto(int numero, String referencia, BigDecimal monto, LocalDateTime fecha,
+                                MetodoPago metodoPago, String observaciones) {
+    }
 }
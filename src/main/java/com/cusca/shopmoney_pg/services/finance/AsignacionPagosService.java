@@ -0,0 +1,138 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.dto.response.AsignacionAbonoResponse;
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.repositories.AsignacionAbonoRepository;
+import com.cusca.shopmoney_pg.services.sales.ResumenVentasDiarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reparte los abonos aplicados entre las ventas a crédito abiertas de la cuenta, de la más antigua
+ * a la más reciente. Por cuenta se ejecutan a lo sumo cuatro sentencias sin importar cuántas ventas
+ * abiertas tenga: lectura con bloqueo, inserción por lote de asignaciones y dos UPDATE de estado.
+ */
+@Service
+@RequiredArgsConstructor
+public class AsignacionPagosService {
+    private static final String SQL_VENTAS_ABIERTAS = """
+            SELECT v.id, v.total,
+                   (SELECT COALESCE(SUM(a.monto), 0) FROM asignaciones_abono a WHERE a.venta_id = v.id) AS asignado
+            FROM ventas v
+            WHERE v.cuenta_cliente_id = ? AND v.tipo_venta = 'CREDITO' AND v.estado IN ('PENDIENTE', 'PARCIAL')
+            ORDER BY v.fecha_venta, v.id
+            FOR UPDATE OF v
+            """;
+    private static final String SQL_INSERTAR_ASIGNACION = "INSERT INTO asignaciones_abono (abono_id, venta_id, monto, fecha_asignacion) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String SQL_ACTUALIZAR_ESTADO = "UPDATE ventas SET estado = ?, version = version + 1 WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AsignacionAbonoRepository asignacionAbonoRepository;
+    private final ResumenVentasDiarioService resumenVentasDiarioService;
+
+    // Debe ejecutarse dentro de la transacción que aplica el abono al saldo
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal asignarAbono(Long cuentaClienteId, Long abonoId, BigDecimal monto) {
+        return asignarAbonos(cuentaClienteId, List.of(new PagoPorAsignar(abonoId, monto)));
+    }
+
+    // Los pagos se asignan en el orden recibido; retorna el monto que no encontró ventas abiertas
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal asignarAbonos(Long cuentaClienteId, List<PagoPorAsignar> pagos) {
+        List<VentaAbierta> ventas = jdbcTemplate.query(SQL_VENTAS_ABIERTAS, (rs, n) -> new VentaAbierta(
+                rs.getLong("id"), rs.getBigDecimal("total").subtract(rs.getBigDecimal("asignado"))), cuentaClienteId);
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> asignaciones = new ArrayList<>();
+        BigDecimal sinAsignar = BigDecimal.ZERO;
+        int indice = 0;
+
+        for (PagoPorAsignar pago : pagos) {
+            BigDecimal restante = pago.monto();
+            while (restante.signum() > 0 && indice < ventas.size()) {
+                VentaAbierta venta = ventas.get(indice);
+                BigDecimal monto = restante.min(venta.pendiente);
+                if (monto.signum() > 0) {
+                    asignaciones.add(new Object[]{pago.abonoId(), venta.id, monto, ahora});
+                    venta.pendiente = venta.pendiente.subtract(monto);
+                    venta.modificada = true;
+                    restante = restante.subtract(monto);
+                }
+                if (venta.pendiente.signum() <= 0) {
+                    indice++;
+                }
+            }
+            sinAsignar = sinAsignar.add(restante);
+        }
+
+        if (asignaciones.isEmpty()) {
+            return sinAsignar;
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERTAR_ASIGNACION, asignaciones);
+
+        List<Long> pagadas = new ArrayList<>();
+        List<Long> parciales = new ArrayList<>();
+        for (VentaAbierta venta : ventas) {
+            if (!venta.modificada) {
+                continue;
+            }
+            (venta.pendiente.signum() <= 0 ? pagadas : parciales).add(venta.id);
+        }
+        actualizarEstado(EstadoVenta.PAGADA, pagadas);
+        actualizarEstado(EstadoVenta.PARCIAL, parciales);
+        return sinAsignar;
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal montoAsignadoAVenta(Long ventaId) {
+        return asignacionAbonoRepository.sumarMontoPorVenta(ventaId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AsignacionAbonoResponse> buscarPorAbono(Long abonoId) {
+        return asignacionAbonoRepository.findResumenPorAbono(abonoId).stream()
+                .map(asignacion -> new AsignacionAbonoResponse(asignacion.getAbonoId(), asignacion.getVentaId(),
+                        asignacion.getMonto(), asignacion.getFechaAsignacion()))
+                .toList();
+    }
+
+    private void actualizarEstado(EstadoVenta estado, List<Long> ventasIds) {
+        if (ventasIds.isEmpty()) {
+            return;
+        }
+        // Las ventas ya están bloqueadas por SQL_VENTAS_ABIERTAS, el estado anterior no cambia en medio
+        resumenVentasDiarioService.cambiarEstado(ventasIds, estado);
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(SQL_ACTUALIZAR_ESTADO);
+            Array ids = con.createArrayOf("bigint", ventasIds.toArray());
+            ps.setString(1, estado.name());
+            ps.setArray(2, ids);
+            return ps;
+        });
+    }
+
+    public record PagoPorAsignar(Long abonoId, BigDecimal monto) {
+    }
+
+    private static class VentaAbierta {
+        private final long id;
+        private BigDecimal pendiente;
+        private boolean modificada;
+
+        VentaAbierta(long id, BigDecimal pendiente) {
+            this.id = id;
+            this.pendiente = pendiente;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.repositories.CierreMensualCuentaRepository;
+import com.cusca.shopmoney_pg.repositories.MovimientoCuentaRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CierreMensualService {
+    private final CierreMensualCuentaRepository cierreMensualCuentaRepository;
+    private final MovimientoCuentaRepository movimientoCuentaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final VersionRecursosService versionRecursosService;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+
+    // Al arrancar se recuperan los meses que quedaron sin cerrar (primer despliegue o servidor apagado)
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        cerrarPeriodosPendientes();
+    }
+
+    @Scheduled(cron = "${app.estados-cuenta.cierre-cron:0 15 0 1 * *}")
+    public void cerrarPeriodosPendientes() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            YearMonth ultimoCerrable = YearMonth.now().minusMonths(1);
+            YearMonth periodo = primerPeriodoPendiente();
+            // Los meses se cierran en orden: cada cierre toma el saldo final del anterior
+            while (periodo != null && !periodo.isAfter(ultimoCerrable)) {
+                cerrarPeriodo(periodo);
+                periodo = periodo.plusMonths(1);
+            }
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    private YearMonth primerPeriodoPendiente() {
+        LocalDate ultimoCerrado = cierreMensualCuentaRepository.findUltimoPeriodoCerrado();
+        if (ultimoCerrado != null) {
+            return YearMonth.from(ultimoCerrado).plusMonths(1);
+        }
+
+        LocalDateTime primerMovimiento = movimientoCuentaRepository.findFechaPrimerMovimiento();
+        return primerMovimiento != null ? YearMonth.from(primerMovimiento) : null;
+    }
+
+    private void cerrarPeriodo(YearMonth periodo) {
+        // Precisión de la columna: la fecha de cierre identifica las filas insertadas por esta ejecución
+        LocalDateTime fechaCierre = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Integer cuentas = transactionTemplate.execute(status -> {
+            int cerradas = cierreMensualCuentaRepository.cerrarPeriodo(
+                    periodo.atDay(1),
+                    periodo.minusMonths(1).atDay(1),
+                    periodo.atDay(1).atStartOfDay(),
+                    periodo.plusMonths(1).atDay(1).atStartOfDay(),
+                    fechaCierre);
+            // El estado de cuenta mensual de esas cuentas cambia: sus ETags deben dejar de coincidir
+            if (cerradas > 0) {
+                List<Long> cuentasCerradas = cierreMensualCuentaRepository.findCuentasCerradas(periodo.atDay(1), fechaCierre);
+                versionRecursosService.incrementarCuentas(cuentasCerradas);
+            }
+            return cerradas;
+        });
+        log.info("Cierre mensual {} registrado para {} cuentas", periodo, cuentas);
+    }
+}
@@ -0,0 +1,255 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.dto.response.DiferenciaConciliacionResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ReporteConciliacionResponse;
+import com.cusca.shopmoney_pg.models.enums.TipoDiferenciaConciliacion;
+import com.cusca.shopmoney_pg.utils.bloqueos.BloqueoAsesor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConciliacionService {
+    // Cuentas por rango hoja: cada rango se lee en una sola consulta con cursor
+    private static final long CUENTAS_POR_RANGO = 500;
+    private static final int TAMANO_CURSOR = 1000;
+    private static final int MAX_DIFERENCIAS = 1000;
+    // Clave del advisory lock compartida por todas las instancias
+    private static final long CLAVE_BLOQUEO = 380_004L;
+
+    private static final String SQL_MOVIMIENTOS = """
+            SELECT c.id AS cuenta_id, c.saldo_actual, m.id AS movimiento_id, m.tipo_movimiento, m.monto,
+                   m.saldo_anterior, m.saldo_nuevo
+            FROM cuentas_cliente c
+            LEFT JOIN movimientos_cuenta m ON m.cuenta_cliente_id = c.id
+            WHERE c.id BETWEEN ? AND ?
+            ORDER BY c.id, m.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BloqueoAsesor bloqueoAsesor;
+
+    @Value("${app.conciliacion.paralelismo:4}")
+    private int paralelismo;
+
+    private final AtomicReference<ReporteConciliacionResponse> ultimoReporte = new AtomicReference<>();
+
+    @Scheduled(cron = "${app.conciliacion.cron:0 30 2 * * *}")
+    public void conciliacionProgramada() {
+        ReporteConciliacionResponse reporte = conciliar();
+        if (reporte == null) {
+            log.info("Conciliación en ejecución en otra instancia, se omite");
+        } else if (reporte.getCuentasConDiferencias() > 0) {
+            log.warn("Conciliación: {} cuentas con diferencias entre saldo y movimientos", reporte.getCuentasConDiferencias());
+        }
+    }
+
+    // Retorna null si ya hay una conciliación en curso en cualquier instancia
+    public ReporteConciliacionResponse conciliar() {
+        AtomicReference<ReporteConciliacionResponse> reporte = new AtomicReference<>();
+        bloqueoAsesor.ejecutarSiDisponible(CLAVE_BLOQUEO, () -> reporte.set(ejecutarConciliacion()));
+        return reporte.get();
+    }
+
+    private ReporteConciliacionResponse ejecutarConciliacion() {
+        Long[] limites = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM cuentas_cliente",
+                (rs, n) -> new Long[]{(Long) rs.getObject(1), (Long) rs.getObject(2)});
+        long inicio = System.currentTimeMillis();
+        ResultadoConciliacion resultado = new ResultadoConciliacion();
+
+        if (limites != null && limites[0] != null) {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, paralelismo));
+            try {
+                pool.invoke(new TareaConciliacion(limites[0], limites[1], resultado, transaccionLectura()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        ReporteConciliacionResponse reporte = resultado.aReporte(System.currentTimeMillis() - inicio);
+        ultimoReporte.set(reporte);
+        log.info("Conciliación completada: {} cuentas, {} movimientos, {} con diferencias en {} ms",
+                reporte.getCuentasRevisadas(), reporte.getMovimientosRevisados(),
+                reporte.getCuentasConDiferencias(), reporte.getDuracionMs());
+        return reporte;
+    }
+
+    public ReporteConciliacionResponse obtenerUltimoReporte() {
+        return ultimoReporte.get();
+    }
+
+    /*
+     * REPEATABLE READ da a cada rango una foto consistente: el cargo/abono y la actualización de
+     * saldo_actual se confirman en la misma transacción, así que el tráfico concurrente no genera
+     * falsos positivos y la lectura no bloquea escrituras.
+     */
+    private TransactionTemplate transaccionLectura() {
+        TransactionTemplate lectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        lectura.setReadOnly(true);
+        lectura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return lectura;
+    }
+
+    private class TareaConciliacion extends RecursiveAction {
+        private final long desde;
+        private final long hasta;
+        private final ResultadoConciliacion resultado;
+        private final TransactionTemplate lectura;
+
+        TareaConciliacion(long desde, long hasta, ResultadoConciliacion resultado, TransactionTemplate lectura) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.resultado = resultado;
+            this.lectura = lectura;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde < CUENTAS_POR_RANGO) {
+                lectura.executeWithoutResult(status -> conciliarRango(desde, hasta, resultado));
+                return;
+            }
+            long medio = desde + (hasta - desde) / 2;
+            invokeAll(new TareaConciliacion(desde, medio, resultado, lectura),
+                    new TareaConciliacion(medio + 1, hasta, resultado, lectura));
+        }
+    }
+
+    private void conciliarRango(long desde, long hasta, ResultadoConciliacion resultado) {
+        ReproduccionCuentas reproduccion = new ReproduccionCuentas(resultado);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_MOVIMIENTOS);
+            ps.setFetchSize(TAMANO_CURSOR);
+            ps.setLong(1, desde);
+            ps.setLong(2, hasta);
+            return ps;
+        }, reproduccion);
+        reproduccion.cerrarCuenta();
+    }
+
+    // Reproduce los movimientos de cada cuenta en centavos; solo guarda el estado de la cuenta en curso
+    private static class ReproduccionCuentas implements RowCallbackHandler {
+        private final ResultadoConciliacion resultado;
+
+        private long cuentaId = -1;
+        private long saldoActual;
+        private long saldoReproducido;
+        private boolean conDiferencias;
+
+        ReproduccionCuentas(ResultadoConciliacion resultado) {
+            this.resultado = resultado;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("cuenta_id");
+            if (id != cuentaId) {
+                cerrarCuenta();
+                cuentaId = id;
+                saldoActual = aCentavos(rs.getBigDecimal("saldo_actual"));
+                saldoReproducido = 0;
+                conDiferencias = false;
+            }
+
+            long movimientoId = rs.getLong("movimiento_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            resultado.movimientos.increment();
+
+            long monto = aCentavos(rs.getBigDecimal("monto"));
+            long saldoAnterior = aCentavos(rs.getBigDecimal("saldo_anterior"));
+            long saldoNuevo = aCentavos(rs.getBigDecimal("saldo_nuevo"));
+
+            // El saldo anterior de cada movimiento debe ser el saldo nuevo del movimiento previo
+            if (saldoAnterior != saldoReproducido) {
+                registrar(movimientoId, TipoDiferenciaConciliacion.CADENA_ROTA, saldoReproducido, saldoAnterior);
+            }
+
+            long esperado = switch (rs.getString("tipo_movimiento")) {
+                case "CARGO" -> saldoAnterior + monto;
+                case "ABONO" -> saldoAnterior - monto;
+                // Los ajustes no tienen signo en el monto: la variación registrada debe medir exactamente el monto
+                default -> saldoNuevo >= saldoAnterior ? saldoAnterior + monto : saldoAnterior - monto;
+            };
+            if (esperado != saldoNuevo) {
+                registrar(movimientoId, TipoDiferenciaConciliacion.CALCULO_INCORRECTO, esperado, saldoNuevo);
+            }
+            saldoReproducido = saldoNuevo;
+        }
+
+        void cerrarCuenta() {
+            if (cuentaId < 0) {
+                return;
+            }
+            if (saldoReproducido != saldoActual) {
+                registrar(null, TipoDiferenciaConciliacion.SALDO_ACTUAL, saldoReproducido, saldoActual);
+            }
+            resultado.cuentas.increment();
+            if (conDiferencias) {
+                resultado.cuentasConDiferencias.increment();
+            }
+            cuentaId = -1;
+        }
+
+        private void registrar(Long movimientoId, TipoDiferenciaConciliacion tipo, long esperado, long registrado) {
+            conDiferencias = true;
+            resultado.agregar(new DiferenciaConciliacionResponse(cuentaId, movimientoId, tipo,
+                    aMonto(esperado), aMonto(registrado)));
+        }
+    }
+
+    // Acumulado compartido entre los hilos del pool
+    private static class ResultadoConciliacion {
+        private final LongAdder cuentas = new LongAdder();
+        private final LongAdder movimientos = new LongAdder();
+        private final LongAdder cuentasConDiferencias = new LongAdder();
+        private final AtomicInteger totalDiferencias = new AtomicInteger();
+        private final ConcurrentLinkedQueue<DiferenciaConciliacionResponse> diferencias = new ConcurrentLinkedQueue<>();
+
+        void agregar(DiferenciaConciliacionResponse diferencia) {
+            if (totalDiferencias.getAndIncrement() < MAX_DIFERENCIAS) {
+                diferencias.add(diferencia);
+            }
+        }
+
+        ReporteConciliacionResponse aReporte(long duracionMs) {
+            List<DiferenciaConciliacionResponse> detalle = new ArrayList<>(diferencias);
+            detalle.sort(Comparator.comparing(DiferenciaConciliacionResponse::getCuentaClienteId));
+            return new ReporteConciliacionResponse(LocalDateTime.now(), duracionMs, cuentas.sum(), movimientos.sum(),
+                    cuentasConDiferencias.sum(), totalDiferencias.get() > MAX_DIFERENCIAS, detalle);
+        }
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        return monto.movePointRight(2).longValue();
+    }
+
+    private static BigDecimal aMonto(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
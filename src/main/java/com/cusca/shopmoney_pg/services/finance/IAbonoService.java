@@ -1,17 +1,23 @@
 package com.cusca.shopmoney_pg.services.finance;
 
 import com.cusca.shopmoney_pg.models.dto.request.AbonoRequest;
+import com.cusca.shopmoney_pg.models.dto.request.AplicarAbonosLoteRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateAbonoRequest;
 import com.cusca.shopmoney_pg.models.dto.response.AbonoResponse;
+import com.cusca.shopmoney_pg.models.dto.response.AplicacionAbonosLoteResponse;
+import com.cusca.shopmoney_pg.models.dto.response.AsignacionAbonoResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
 import com.cusca.shopmoney_pg.models.entities.AbonoEntity;
 import com.cusca.shopmoney_pg.models.enums.EstadoAbono;
 import com.cusca.shopmoney_pg.models.enums.MetodoPago;
 import com.cusca.shopmoney_pg.services.base.BaseService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface IAbonoService extends BaseService<AbonoResponse, AbonoRequest, UpdateAbonoRequest> {
@@ -34,9 +40,12 @@ public interface IAbonoService extends BaseService<AbonoResponse, AbonoRequest,
     AbonoResponse aplicar(Long id);
     AbonoResponse marcarComoPendiente(Long id);
     AbonoResponse rechazar(Long id, String motivo);
+    AplicacionAbonosLoteResponse aplicarLote(AplicarAbonosLoteRequest request);
 
     // Operaciones de abono
     AbonoResponse procesarAbono(AbonoRequest request);
+    List<AsignacionAbonoResponse> buscarAsignaciones(Long abonoId);
+    ImportacionResponse importarExtractoBancario(MultipartFile archivo, boolean aplicar);
 
     // Métodos específicos para clientes
     Optional<AbonoResponse> buscarMiAbonoPorId(Long abonoId, String emailUsuario);
@@ -1,5 +1,6 @@
 package com.cusca.shopmoney_pg.services.finance;
 
+import com.cusca.shopmoney_pg.models.dto.response.EstadoCuentaMensualResponse;
 import com.cusca.shopmoney_pg.models.dto.response.MovimientoCuentaResponse;
 import com.cusca.shopmoney_pg.models.entities.MovimientoCuentaEntity;
 import com.cusca.shopmoney_pg.models.enums.TipoMovimiento;
@@ -9,6 +10,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Optional;
 
 public interface IMovimientoCuentaService {
@@ -27,6 +29,7 @@ public interface IMovimientoCuentaService {
     // Estados de cuenta y consultas de saldo
     BigDecimal obtenerSaldoActual(Long cuentaClienteId);
     Page<MovimientoCuentaResponse> obtenerEstadoCuenta(Long cuentaClienteId, LocalDate fechaInicio, LocalDate fechaFin, Pageable pageable);
+    EstadoCuentaMensualResponse obtenerEstadoCuentaMensual(Long cuentaClienteId, YearMonth periodo, Pageable pageable);
 
     // Estadísticas y reportes
     BigDecimal obtenerTotalCargosDelDia();
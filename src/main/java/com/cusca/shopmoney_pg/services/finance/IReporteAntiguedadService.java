@@ -0,0 +1,8 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.dto.response.ReporteAntiguedadResponse;
+
+public interface IReporteAntiguedadService {
+    // Antigüedad de saldos (0-30 / 31-60 / 61-90 / 90+) de las cuentas con saldo pendiente
+    ReporteAntiguedadResponse generarReporte();
+}
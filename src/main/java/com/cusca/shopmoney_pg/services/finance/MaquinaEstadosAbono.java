@@ -0,0 +1,45 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.entities.AbonoEntity;
+import com.cusca.shopmoney_pg.models.enums.EstadoAbono;
+import com.cusca.shopmoney_pg.repositories.AbonoRepository;
+import com.cusca.shopmoney_pg.utils.estados.TablaTransiciones;
+import com.cusca.shopmoney_pg.utils.exceptions.InvalidSaleStateException;
+import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Carga el abono una sola vez y valida/aplica las transiciones en memoria, protegidas por @Version
+@Component
+@RequiredArgsConstructor
+public class MaquinaEstadosAbono {
+    private static final TablaTransiciones<EstadoAbono> TRANSICIONES = TablaTransiciones.para(EstadoAbono.class)
+            .desde(EstadoAbono.PENDIENTE, EstadoAbono.APLICADO, EstadoAbono.RECHAZADO)
+            .desde(EstadoAbono.RECHAZADO, EstadoAbono.PENDIENTE) // Se puede reactivar un abono rechazado
+            .construir(); // Los abonos aplicados no se pueden cambiar
+
+    private final AbonoRepository abonoRepository;
+
+    public AbonoEntity cargar(Long id) {
+        return abonoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Abono no encontrado con ID: " + id));
+    }
+
+    public boolean permite(AbonoEntity abono, EstadoAbono nuevoEstado) {
+        return TRANSICIONES.permite(abono.getEstado(), nuevoEstado);
+    }
+
+    public void validar(AbonoEntity abono, EstadoAbono nuevoEstado) {
+        TRANSICIONES.validar(abono.getEstado(), nuevoEstado, InvalidSaleStateException::new);
+    }
+
+    public void transicionar(AbonoEntity abono, EstadoAbono nuevoEstado) {
+        validar(abono, nuevoEstado);
+        abono.setEstado(nuevoEstado);
+    }
+
+    // Solo se pueden modificar abonos PENDIENTES
+    public boolean esModificable(AbonoEntity abono) {
+        return abono.getEstado() == EstadoAbono.PENDIENTE;
+    }
+}
@@ -1,12 +1,17 @@
 package com.cusca.shopmoney_pg.services.finance;
 
+import com.cusca.shopmoney_pg.models.dto.response.EstadoCuentaMensualResponse;
 import com.cusca.shopmoney_pg.models.dto.response.MovimientoCuentaResponse;
+import com.cusca.shopmoney_pg.models.entities.CierreMensualCuentaEntity;
 import com.cusca.shopmoney_pg.models.entities.MovimientoCuentaEntity;
 import com.cusca.shopmoney_pg.models.enums.TipoMovimiento;
 import com.cusca.shopmoney_pg.models.enums.TipoReferencia;
+import com.cusca.shopmoney_pg.repositories.CierreMensualCuentaRepository;
 import com.cusca.shopmoney_pg.repositories.MovimientoCuentaRepository;
 import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository;
 import com.cusca.shopmoney_pg.repositories.UsuarioRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.utils.exceptions.InvalidPeriodException;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
 import com.cusca.shopmoney_pg.utils.mappers.MovimientoCuentaMapper;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +23,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.Optional;
 
 @Service
@@ -28,6 +35,8 @@ public class MovimientoCuentaServiceImpl implements IMovimientoCuentaService {
     private final CuentaClienteRepository cuentaClienteRepository;
     private final UsuarioRepository usuarioRepository;
     private final MovimientoCuentaMapper movimientoCuentaMapper;
+    private final VersionRecursosService versionRecursosService;
+    private final CierreMensualCuentaRepository cierreMensualCuentaRepository;
 
     @Override
     public Optional<MovimientoCuentaResponse> buscarPorId(Long id) {
@@ -105,6 +114,60 @@ public class MovimientoCuentaServiceImpl implements IMovimientoCuentaService {
         return buscarPorClienteYFecha(cuentaClienteId, fechaInicio, fechaFin, pageable);
     }
 
+    @Override
+    public EstadoCuentaMensualResponse obtenerEstadoCuentaMensual(Long cuentaClienteId, YearMonth periodo, Pageable pageable) {
+        var cuenta = cuentaClienteRepository.findById(cuentaClienteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cuenta de cliente no encontrada con ID: " + cuentaClienteId));
+        if (periodo.isAfter(YearMonth.now())) {
+            throw new InvalidPeriodException("No se puede generar el estado de cuenta de un periodo futuro: " + periodo);
+        }
+
+        LocalDateTime inicio = periodo.atDay(1).atStartOfDay();
+        LocalDateTime fin = periodo.plusMonths(1).atDay(1).atStartOfDay();
+        Page<MovimientoCuentaResponse> movimientos = movimientoCuentaRepository
+                .findByClienteAndFechaRange(cuentaClienteId, inicio, periodo.atEndOfMonth().atTime(LocalTime.MAX), pageable)
+                .map(movimientoCuentaMapper::toResponse);
+
+        EstadoCuentaMensualResponse estadoCuenta = new EstadoCuentaMensualResponse();
+        estadoCuenta.setCuentaClienteId(cuentaClienteId);
+        estadoCuenta.setPeriodo(periodo);
+        estadoCuenta.setMovimientos(movimientos);
+
+        // Mes cerrado: todos los totales salen del snapshot
+        Optional<CierreMensualCuentaEntity> cierre = cierreMensualCuentaRepository
+                .findByCuentaClienteIdAndPeriodo(cuentaClienteId, periodo.atDay(1));
+        if (cierre.isPresent()) {
+            CierreMensualCuentaEntity snapshot = cierre.get();
+            estadoCuenta.setCerrado(true);
+            estadoCuenta.setSaldoInicial(snapshot.getSaldoInicial());
+            estadoCuenta.setTotalCargos(snapshot.getTotalCargos());
+            estadoCuenta.setTotalAbonos(snapshot.getTotalAbonos());
+            estadoCuenta.setTotalAjustes(snapshot.getTotalAjustes());
+            estadoCuenta.setSaldoFinal(snapshot.getSaldoFinal());
+            estadoCuenta.setCantidadMovimientos(snapshot.getCantidadMovimientos());
+            return estadoCuenta;
+        }
+
+        // Mes abierto (o aún sin cerrar): totales del periodo y saldo inicial del cierre anterior
+        MovimientoCuentaRepository.ResumenMovimientos resumen =
+                movimientoCuentaRepository.resumirPorCuentaYRango(cuentaClienteId, inicio, fin);
+        BigDecimal saldoInicial = cierreMensualCuentaRepository
+                .findByCuentaClienteIdAndPeriodo(cuentaClienteId, periodo.minusMonths(1).atDay(1))
+                .map(CierreMensualCuentaEntity::getSaldoFinal)
+                // Sin cierre previo se reconstruye desde el saldo actual descontando lo ocurrido desde el inicio del mes
+                .orElseGet(() -> cuenta.getSaldoActual().subtract(movimientoCuentaRepository
+                        .resumirPorCuentaYRango(cuentaClienteId, inicio, LocalDateTime.now().plusDays(1)).getNeto()));
+
+        estadoCuenta.setCerrado(false);
+        estadoCuenta.setSaldoInicial(saldoInicial);
+        estadoCuenta.setTotalCargos(resumen.getTotalCargos());
+        estadoCuenta.setTotalAbonos(resumen.getTotalAbonos());
+        estadoCuenta.setTotalAjustes(resumen.getTotalAjustes());
+        estadoCuenta.setSaldoFinal(saldoInicial.add(resumen.getNeto()));
+        estadoCuenta.setCantidadMovimientos(resumen.getCantidad());
+        return estadoCuenta;
+    }
+
     // ESTADÍSTICAS Y REPORTES
 
     @Override
@@ -208,6 +271,7 @@ public class MovimientoCuentaServiceImpl implements IMovimientoCuentaService {
                 .build();
 
         MovimientoCuentaEntity movimientoGuardado = movimientoCuentaRepository.save(movimiento);
+        versionRecursosService.incrementarCuenta(cuentaClienteId);
         return movimientoCuentaMapper.toResponse(movimientoGuardado);
     }
 
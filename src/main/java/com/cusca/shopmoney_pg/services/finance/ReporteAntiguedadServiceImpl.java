@@ -0,0 +1,140 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.dto.response.AntiguedadCuentaResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ReporteAntiguedadResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@RequiredArgsConstructor
+public class ReporteAntiguedadServiceImpl implements IReporteAntiguedadService {
+    private static final int TAMANO_CURSOR = 1000;
+    private static final int TRAMOS = 4;
+
+    /*
+     * Cargos de cada cuenta con saldo, del más reciente al más antiguo. Los abonos se aplican a la deuda
+     * más antigua, así que el saldo actual corresponde a los cargos más recientes: se reparte recorriendo
+     * los cargos hacia atrás hasta agotarlo. Se omiten los cargos de ventas ya pagadas o canceladas.
+     * LEFT JOIN: toda cuenta con saldo aparece aunque no tenga cargos que lo respalden (ajustes, cargos de
+     * ventas ya marcadas PAGADA); en ese caso llega una fila con monto NULL y el saldo va al tramo más antiguo.
+     */
+    private static final String SQL_CARGOS = """
+            SELECT c.id AS cuenta_id, u.nombre_completo, c.saldo_actual, m.monto, CAST(m.fecha_movimiento AS DATE) AS fecha
+            FROM cuentas_cliente c
+            JOIN usuarios u ON u.id = c.usuario_id
+            LEFT JOIN (movimientos_cuenta m
+                       LEFT JOIN ventas v ON m.referencia_tipo = 'VENTA' AND v.id = m.referencia_id)
+                   ON m.cuenta_cliente_id = c.id AND m.tipo_movimiento = 'CARGO'
+                  AND (v.id IS NULL OR v.estado IN ('PENDIENTE', 'PARCIAL'))
+            WHERE c.saldo_actual > 0
+            ORDER BY c.id, m.fecha_movimiento DESC NULLS LAST, m.id DESC
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // readOnly mantiene la conexión fuera de autocommit, requisito de PostgreSQL para usar cursor con fetchSize
+    @Override
+    @Transactional(readOnly = true)
+    public ReporteAntiguedadResponse generarReporte() {
+        LocalDate fechaCorte = LocalDate.now();
+        AcumuladorAntiguedad acumulador = new AcumuladorAntiguedad(fechaCorte);
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_CARGOS);
+            ps.setFetchSize(TAMANO_CURSOR);
+            return ps;
+        }, acumulador);
+
+        return acumulador.finalizar();
+    }
+
+    // Recorre el cursor manteniendo en memoria solo la cuenta en curso y los totales, en centavos
+    private static class AcumuladorAntiguedad implements RowCallbackHandler {
+        private final LocalDate fechaCorte;
+        private final ReporteAntiguedadResponse reporte = new ReporteAntiguedadResponse();
+        private final long[] totales = new long[TRAMOS];
+        private final long[] tramosCuenta = new long[TRAMOS];
+
+        private long cuentaId = -1;
+        private String nombreCliente;
+        private long saldoCuenta;
+        private long saldoPorAsignar;
+
+        AcumuladorAntiguedad(LocalDate fechaCorte) {
+            this.fechaCorte = fechaCorte;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("cuenta_id");
+            if (id != cuentaId) {
+                cerrarCuenta();
+                cuentaId = id;
+                nombreCliente = rs.getString("nombre_completo");
+                saldoCuenta = aCentavos(rs.getBigDecimal("saldo_actual"));
+                saldoPorAsignar = saldoCuenta;
+            }
+            BigDecimal montoCargo = rs.getBigDecimal("monto");
+            if (montoCargo == null || saldoPorAsignar <= 0) {
+                return; // Cuenta sin cargos pendientes: el saldo se asigna al cerrar la cuenta
+            }
+
+            long monto = Math.min(aCentavos(montoCargo), saldoPorAsignar);
+            long dias = ChronoUnit.DAYS.between(rs.getDate("fecha").toLocalDate(), fechaCorte);
+            tramosCuenta[tramo(dias)] += monto;
+            saldoPorAsignar -= monto;
+        }
+
+        private void cerrarCuenta() {
+            if (cuentaId < 0) {
+                return;
+            }
+            // Saldo sin cargo pendiente que lo respalde (ajustes manuales, ventas ya pagadas): se considera la deuda más antigua
+            tramosCuenta[TRAMOS - 1] += Math.max(saldoPorAsignar, 0);
+
+            reporte.getCuentas().add(new AntiguedadCuentaResponse(cuentaId, nombreCliente, aMonto(saldoCuenta),
+                    aMonto(tramosCuenta[0]), aMonto(tramosCuenta[1]), aMonto(tramosCuenta[2]), aMonto(tramosCuenta[3])));
+            for (int i = 0; i < TRAMOS; i++) {
+                totales[i] += tramosCuenta[i];
+                tramosCuenta[i] = 0;
+            }
+        }
+
+        ReporteAntiguedadResponse finalizar() {
+            cerrarCuenta();
+            reporte.setFechaCorte(fechaCorte);
+            reporte.setTotalCuentas(reporte.getCuentas().size());
+            reporte.setSaldoTotal(aMonto(totales[0] + totales[1] + totales[2] + totales[3]));
+            reporte.setDe0a30Dias(aMonto(totales[0]));
+            reporte.setDe31a60Dias(aMonto(totales[1]));
+            reporte.setDe61a90Dias(aMonto(totales[2]));
+            reporte.setMasDe90Dias(aMonto(totales[3]));
+            return reporte;
+        }
+
+        private static int tramo(long dias) {
+            if (dias <= 30) return 0;
+            if (dias <= 60) return 1;
+            if (dias <= 90) return 2;
+            return 3;
+        }
+
+        private static long aCentavos(BigDecimal monto) {
+            return monto.movePointRight(2).longValue();
+        }
+
+        private static BigDecimal aMonto(long centavos) {
+            return BigDecimal.valueOf(centavos, 2);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.cusca.shopmoney_pg.services.idempotency;
+
+import com.cusca.shopmoney_pg.repositories.SolicitudIdempotenteRepository;
+import com.cusca.shopmoney_pg.utils.exceptions.IdempotencyConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Soporte para el encabezado Idempotency-Key en operaciones POST que crean registros.
+ * Una clave repetida devuelve la respuesta guardada sin volver a ejecutar la operación. Los duplicados
+ * concurrentes esperan a la primera solicitud: en la misma instancia sobre un CompletableFuture y entre
+ * instancias sobre el índice único de la tabla, porque la reserva de la clave, la operación y la respuesta
+ * se confirman en una sola transacción.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotenciaService {
+    public static final String ENCABEZADO = "Idempotency-Key";
+    public static final String ENCABEZADO_REPETIDA = "Idempotent-Replayed";
+
+    private static final String SQL_ELIMINAR_EXPIRADA = "DELETE FROM solicitudes_idempotentes WHERE clave = ? AND expira_en < ?";
+    private static final String SQL_RESERVAR = "INSERT INTO solicitudes_idempotentes (clave, huella, fecha_creacion, expira_en) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (clave) DO NOTHING";
+    private static final String SQL_BUSCAR = "SELECT huella, codigo_estado, cuerpo, expira_en FROM solicitudes_idempotentes WHERE clave = ?";
+    private static final String SQL_GUARDAR_RESPUESTA = "UPDATE solicitudes_idempotentes SET codigo_estado = ?, cuerpo = ? WHERE clave = ?";
+    private static final String SQL_LIBERAR = "DELETE FROM solicitudes_idempotentes WHERE clave = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SolicitudIdempotenteRepository solicitudIdempotenteRepository;
+
+    @Value("${app.idempotencia.ttl-horas:24}")
+    private long ttlHoras;
+
+    @Value("${app.idempotencia.max-en-memoria:10000}")
+    private int maxEnMemoria;
+
+    @Value("${app.idempotencia.espera-maxima-ms:30000}")
+    private long esperaMaximaMs;
+
+    // LRU acotado con las respuestas más recientes; la tabla es la fuente de verdad
+    private Map<String, RespuestaGuardada> recientes;
+    private final ConcurrentHashMap<String, CompletableFuture<RespuestaGuardada>> enCurso = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void inicializar() {
+        recientes = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RespuestaGuardada> masAntigua) {
+                return size() > maxEnMemoria;
+            }
+        });
+    }
+
+    // Sin clave la operación se ejecuta normalmente
+    public <T> ResponseEntity<T> ejecutar(String operacion, String claveCliente, Object solicitud,
+                                          Class<T> tipoRespuesta, Supplier<ResponseEntity<T>> accion) {
+        if (claveCliente == null || claveCliente.isBlank()) {
+            return accion.get();
+        }
+
+        String clave = operacion + ":" + usuarioActual() + ":" + sha256(claveCliente.getBytes(StandardCharsets.UTF_8));
+        String huella = sha256(serializarBytes(solicitud));
+
+        while (true) {
+            RespuestaGuardada guardada = recientes.get(clave);
+            if (guardada != null && guardada.vigente()) {
+                return repetir(guardada, huella, tipoRespuesta);
+            }
+
+            CompletableFuture<RespuestaGuardada> propia = new CompletableFuture<>();
+            CompletableFuture<RespuestaGuardada> existente = enCurso.putIfAbsent(clave, propia);
+            if (existente != null) {
+                RespuestaGuardada resultado = esperar(existente);
+                if (resultado != null) {
+                    return repetir(resultado, huella, tipoRespuesta);
+                }
+                continue; // La primera solicitud falló: esta toma su lugar
+            }
+
+            RespuestaGuardada resultado = null;
+            try {
+                Ejecucion<T> ejecucion = transactionTemplate.execute(status ->
+                        ejecutarEnTransaccion(clave, huella, tipoRespuesta, accion));
+                resultado = ejecucion.guardada();
+                if (resultado != null) {
+                    recientes.put(clave, resultado);
+                }
+                return ejecucion.respuesta() != null ? ejecucion.respuesta() : repetir(resultado, huella, tipoRespuesta);
+            } finally {
+                enCurso.remove(clave, propia);
+                propia.complete(resultado);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.idempotencia.limpieza-cron:0 0 * * * *}")
+    public void eliminarExpiradas() {
+        synchronized (recientes) {
+            recientes.values().removeIf(respuesta -> !respuesta.vigente());
+        }
+        Integer eliminadas = transactionTemplate.execute(status ->
+                solicitudIdempotenteRepository.eliminarExpiradas(LocalDateTime.now()));
+        if (eliminadas != null && eliminadas > 0) {
+            log.info("Claves de idempotencia expiradas eliminadas: {}", eliminadas);
+        }
+    }
+
+    private <T> Ejecucion<T> ejecutarEnTransaccion(String clave, String huella, Class<T> tipoRespuesta,
+                                                   Supplier<ResponseEntity<T>> accion) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime expiraEn = ahora.plusHours(ttlHoras);
+        jdbcTemplate.update(SQL_ELIMINAR_EXPIRADA, clave, ahora);
+
+        // Si otra instancia tiene la misma clave en una transacción abierta, este INSERT espera a que termine
+        if (jdbcTemplate.update(SQL_RESERVAR, clave, huella, ahora, expiraEn) == 0) {
+            List<RespuestaGuardada> existentes = jdbcTemplate.query(SQL_BUSCAR, (rs, n) -> new RespuestaGuardada(
+                    rs.getString("huella"), rs.getInt("codigo_estado"), rs.getString("cuerpo"),
+                    rs.getObject("expira_en", LocalDateTime.class)), clave);
+            if (existentes.isEmpty()) {
+                throw new IdempotencyConflictException("La solicitud con esta Idempotency-Key no pudo completarse; reintente");
+            }
+            return new Ejecucion<>(existentes.get(0), null);
+        }
+
+        ResponseEntity<T> respuesta = accion.get();
+
+        // Solo se guardan respuestas exitosas; un error permite reintentar con la misma clave
+        if (!respuesta.getStatusCode().is2xxSuccessful()) {
+            jdbcTemplate.update(SQL_LIBERAR, clave);
+            return new Ejecucion<>(null, respuesta);
+        }
+
+        String cuerpo = new String(serializarBytes(respuesta.getBody()), StandardCharsets.UTF_8);
+        int codigoEstado = respuesta.getStatusCode().value();
+        jdbcTemplate.update(SQL_GUARDAR_RESPUESTA, codigoEstado, cuerpo, clave);
+        return new Ejecucion<>(new RespuestaGuardada(huella, codigoEstado, cuerpo, expiraEn), respuesta);
+    }
+
+    private <T> ResponseEntity<T> repetir(RespuestaGuardada guardada, String huella, Class<T> tipoRespuesta) {
+        if (!guardada.huella().equals(huella)) {
+            throw new IdempotencyConflictException("La Idempotency-Key ya se usó con una solicitud distinta");
+        }
+        try {
+            return ResponseEntity.status(guardada.codigoEstado())
+                    .header(ENCABEZADO_REPETIDA, "true")
+                    .body(objectMapper.readValue(guardada.cuerpo(), tipoRespuesta));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada", e);
+        }
+    }
+
+    private RespuestaGuardada esperar(CompletableFuture<RespuestaGuardada> enProceso) {
+        try {
+            return enProceso.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("Una solicitud con la misma Idempotency-Key sigue en proceso; reintente más tarde");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Se interrumpió la espera de la solicitud original");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null ? autenticacion.getName() : "anonimo";
+    }
+
+    private byte[] serializarBytes(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la solicitud", e);
+        }
+    }
+
+    private static String sha256(byte[] datos) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(datos));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record RespuestaGuardada(String huella, int codigoEstado, String cuerpo, LocalDateTime expiraEn) {
+        boolean vigente() {
+            return expiraEn.isAfter(LocalDateTime.now());
+        }
+    }
+
+    private record Ejecucion<T>(RespuestaGuardada guardada, ResponseEntity<T> respuesta) {
+    }
+}
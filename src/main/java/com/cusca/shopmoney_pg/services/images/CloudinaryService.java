@@ -8,7 +8,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -89,10 +92,38 @@ public class CloudinaryService {
         }
     }
 
-    private String extractPublicIdFromUrl(String url) {
+    // Eliminación masiva (máximo 100 public_id por llamada según la API de Cloudinary).
+    // Retorna los public_id que ya no existen en Cloudinary, eliminados ahora o antes.
+    public Set<String> deleteImages(List<String> publicIds) {
+        Set<String> procesados = new HashSet<>();
+        if (publicIds == null || publicIds.isEmpty()) {
+            return procesados;
+        }
+
+        try {
+            Map<?, ?> result = cloudinary.api().deleteResources(publicIds, Map.of());
+            Object deleted = result.get("deleted");
+            if (deleted instanceof Map<?, ?> estados) {
+                estados.forEach((publicId, estado) -> {
+                    if ("deleted".equals(estado) || "not_found".equals(estado)) {
+                        procesados.add(String.valueOf(publicId));
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.error("Error deleting images from Cloudinary: ", e);
+        }
+
+        return procesados;
+    }
+
+    public String extractPublicIdFromUrl(String url) {
         // Extrae el public_id de la URL de Cloudinary
         // Ej: https://res.cloudinary.com/cloud/image/upload/v123/productos/abc123.jpg
-        // Retorna: productos/abc123
+        // Retorna: productos/abc123. Nunca lanza: una URL inesperada retorna "" (nada que borrar)
+        if (url == null || url.isBlank()) {
+            return "";
+        }
         String[] parts = url.split("/");
         int uploadIndex = -1;
         for (int i = 0; i < parts.length; i++) {
@@ -105,8 +136,9 @@ public class CloudinaryService {
         if (uploadIndex != -1 && uploadIndex + 2 < parts.length) {
             String fileName = parts[parts.length - 1];
             String folderPath = String.join("/", Arrays.copyOfRange(parts, uploadIndex + 2, parts.length - 1));
-            String fileNameWithoutExtension = fileName.substring(0, fileName.lastIndexOf('.'));
-            return folderPath + "/" + fileNameWithoutExtension;
+            int punto = fileName.lastIndexOf('.');
+            String fileNameWithoutExtension = punto > 0 ? fileName.substring(0, punto) : fileName;
+            return folderPath.isEmpty() ? fileNameWithoutExtension : folderPath + "/" + fileNameWithoutExtension;
         }
 
         return "";
@@ -0,0 +1,102 @@
+package com.cusca.shopmoney_pg.services.images;
+
+import com.cusca.shopmoney_pg.models.entities.ImagenPendienteEntity;
+import com.cusca.shopmoney_pg.repositories.ImagenPendienteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EliminacionImagenesWorker {
+    // Límite de public_id por llamada a delete_resources de Cloudinary
+    private static final int TAMANO_LOTE = 100;
+    private static final int MAX_INTENTOS = 5;
+    // Espera antes del reintento n: 1, 2, 4, 8 minutos; los fallidos no vuelven a leerse en el mismo barrido
+    private static final Duration ESPERA_BASE = Duration.ofMinutes(1);
+
+    private final ImagenPendienteRepository imagenPendienteRepository;
+    private final CloudinaryService cloudinaryService;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+
+    @Async
+    public void procesarAsync() {
+        procesarPendientes();
+    }
+
+    // Respaldo periódico para jobs que quedaron pendientes (reinicios, fallos de Cloudinary)
+    @Scheduled(fixedDelayString = "${app.imagenes.eliminacion.intervalo-ms:300000}",
+            initialDelayString = "${app.imagenes.eliminacion.intervalo-ms:300000}")
+    public void procesarPendientes() {
+        // Evitar dos barridos simultáneos en el mismo nodo
+        if (!enEjecucion.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<ImagenPendienteEntity> lote;
+            do {
+                lote = imagenPendienteRepository.findListasParaProcesar(
+                        MAX_INTENTOS, LocalDateTime.now(), PageRequest.of(0, TAMANO_LOTE));
+                if (!lote.isEmpty() && !procesarLote(lote)) {
+                    break;
+                }
+            } while (lote.size() == TAMANO_LOTE);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    // Retorna false si ningún elemento del lote pudo eliminarse, para no insistir en este ciclo
+    private boolean procesarLote(List<ImagenPendienteEntity> lote) {
+        List<String> publicIds = lote.stream()
+                .map(ImagenPendienteEntity::getPublicId)
+                .filter(publicId -> !publicId.isEmpty())
+                .distinct()
+                .toList();
+
+        // Llamada a Cloudinary fuera de cualquier transacción de base de datos
+        Set<String> eliminados = cloudinaryService.deleteImages(publicIds);
+
+        List<Long> completados = new ArrayList<>();
+        Map<Integer, List<Long>> fallidosPorIntentos = new TreeMap<>();
+        for (ImagenPendienteEntity imagen : lote) {
+            // Un public_id vacío significa que la URL no era de Cloudinary: no hay nada que borrar
+            if (imagen.getPublicId().isEmpty() || eliminados.contains(imagen.getPublicId())) {
+                completados.add(imagen.getId());
+            } else {
+                fallidosPorIntentos.computeIfAbsent(imagen.getIntentos(), intentos -> new ArrayList<>()).add(imagen.getId());
+            }
+        }
+
+        if (!completados.isEmpty()) {
+            imagenPendienteRepository.deleteAllByIdInBatch(completados);
+        }
+        if (!fallidosPorIntentos.isEmpty()) {
+            LocalDateTime ahora = LocalDateTime.now();
+            int fallidos = 0;
+            for (Map.Entry<Integer, List<Long>> grupo : fallidosPorIntentos.entrySet()) {
+                LocalDateTime proximoIntento = ahora.plus(ESPERA_BASE.multipliedBy(1L << Math.min(grupo.getKey(), MAX_INTENTOS)));
+                imagenPendienteRepository.incrementarIntentos(grupo.getValue(), proximoIntento);
+                fallidos += grupo.getValue().size();
+            }
+            log.warn("No se pudieron eliminar {} imágenes de Cloudinary, se reintentará", fallidos);
+        }
+
+        return !completados.isEmpty();
+    }
+}
@@ -0,0 +1,41 @@
+package com.cusca.shopmoney_pg.services.images;
+
+import com.cusca.shopmoney_pg.models.entities.ImagenPendienteEntity;
+import com.cusca.shopmoney_pg.repositories.ImagenPendienteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+public class ImagenPendienteService {
+    private final ImagenPendienteRepository imagenPendienteRepository;
+    private final CloudinaryService cloudinaryService;
+    private final EliminacionImagenesWorker eliminacionImagenesWorker;
+
+    // Registra la imagen como pendiente dentro de la transacción actual.
+    // Si la transacción hace rollback el registro desaparece y la imagen se conserva.
+    @Transactional
+    public void programarEliminacion(String imagenUrl) {
+        if (imagenUrl == null || imagenUrl.isBlank()) {
+            return;
+        }
+
+        imagenPendienteRepository.save(ImagenPendienteEntity.builder()
+                .imagenUrl(imagenUrl)
+                .publicId(cloudinaryService.extractPublicIdFromUrl(imagenUrl))
+                .build());
+
+        // Despertar al worker una vez confirmada la transacción
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eliminacionImagenesWorker.procesarAsync();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.cusca.shopmoney_pg.services.notification;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envío de lotes de correos con límite de velocidad. Corre en el hilo que lo invoca (jobs programados),
+ * así no ocupa el pool @Async que usan las facturas y notificaciones en línea ni satura el servidor SMTP.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EnvioMasivoCorreos {
+    private final EmailService emailService;
+
+    @Value("${app.mail.masivo.correos-por-segundo:5}")
+    private int correosPorSegundo;
+
+    // Retorna los correos enviados correctamente; un fallo individual no detiene el lote
+    public List<CorreoPendiente> enviarLote(List<CorreoPendiente> correos) {
+        long intervaloNanos = 1_000_000_000L / Math.max(1, correosPorSegundo);
+        List<CorreoPendiente> enviados = new ArrayList<>();
+        long siguienteEnvio = System.nanoTime();
+
+        for (CorreoPendiente correo : correos) {
+            long espera = siguienteEnvio - System.nanoTime();
+            if (espera > 0 && !esperar(espera)) {
+                break;
+            }
+            siguienteEnvio = System.nanoTime() + intervaloNanos;
+
+            try {
+                emailService.enviarEmail(correo.destinatario(), correo.asunto(), correo.template(), correo.variables());
+                enviados.add(correo);
+            } catch (Exception e) {
+                log.error("Error en envío masivo a {}: {}", correo.destinatario(), e.getMessage());
+            }
+        }
+        return enviados;
+    }
+
+    private boolean esperar(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public record CorreoPendiente(Long usuarioId, String destinatario, String asunto, String mensaje,
+                                  String template, Map<String, Object> variables) {
+    }
+}
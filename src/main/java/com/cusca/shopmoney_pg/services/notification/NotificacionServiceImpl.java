@@ -55,7 +55,8 @@ public class NotificacionServiceImpl implements INotificacionService {
             variables.put("numeroCuenta", venta.getCuentaCliente().getId());
             variables.put("total", venta.getTotal().toString());
             variables.put("subtotalFactura", venta.getSubtotal().toString());
-            variables.put("descuento", "0.00");
+            variables.put("descuento", venta.getDescuento() != null ? venta.getDescuento().toString() : "0.00");
+            variables.put("impuesto", venta.getImpuesto() != null ? venta.getImpuesto().toString() : "0.00");
 
             // Crear lista de productos para la factura
             List<Map<String, Object>> productos = venta.getDetalleVentas().stream()
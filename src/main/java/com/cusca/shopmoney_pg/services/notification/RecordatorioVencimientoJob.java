@@ -0,0 +1,168 @@
+package com.cusca.shopmoney_pg.services.notification;
+
+import com.cusca.shopmoney_pg.models.enums.TipoNotificacion;
+import com.cusca.shopmoney_pg.utils.bloqueos.BloqueoAsesor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecordatorioVencimientoJob {
+    // Clave del advisory lock compartida por todas las instancias
+    private static final long CLAVE_BLOQUEO = 380_001L;
+    private static final int TAMANO_LOTE = 500;
+    private static final String ASUNTO = "Recordatorio de pago - ShopMoney";
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Cuentas con saldo en orden de ID (keyset), con la fecha de su último abono y último recordatorio
+    private static final String SQL_CUENTAS = """
+            SELECT c.id AS cuenta_id, c.saldo_actual, c.fecha_apertura, u.id AS usuario_id, u.email, u.nombre_completo,
+                   (SELECT MAX(m.fecha_movimiento) FROM movimientos_cuenta m
+                     WHERE m.cuenta_cliente_id = c.id AND m.tipo_movimiento = 'ABONO') AS ultimo_abono,
+                   (SELECT MAX(n.fecha_envio) FROM notificaciones n
+                     WHERE n.usuario_id = u.id AND n.tipo = 'VENCIMIENTO') AS ultimo_recordatorio
+            FROM cuentas_cliente c
+            JOIN usuarios u ON u.id = c.usuario_id
+            WHERE c.id > ? AND c.saldo_actual > 0 AND c.estado = 'ACTIVA' AND u.estado = 'ACTIVO'
+            ORDER BY c.id
+            LIMIT ?
+            """;
+
+    private static final String SQL_NOTIFICACION = "INSERT INTO notificaciones (usuario_id, tipo, asunto, mensaje, fecha_envio) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BloqueoAsesor bloqueoAsesor;
+    private final EnvioMasivoCorreos envioMasivoCorreos;
+
+    @Value("${app.recordatorios.dias-sin-pago:30}")
+    private int diasSinPago;
+
+    @Value("${app.recordatorios.dias-entre-recordatorios:7}")
+    private int diasEntreRecordatorios;
+
+    @Value("${app.recordatorios.pausa-entre-lotes-ms:200}")
+    private long pausaEntreLotesMs;
+
+    @Scheduled(cron = "${app.recordatorios.cron:0 0 9 * * *}")
+    public void enviarRecordatorios() {
+        if (!bloqueoAsesor.ejecutarSiDisponible(CLAVE_BLOQUEO, this::recorrerCuentas)) {
+            log.info("Recordatorios de vencimiento en ejecución en otra instancia, se omite");
+        }
+    }
+
+    private void recorrerCuentas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime limitePago = ahora.minusDays(diasSinPago);
+        LocalDateTime limiteRecordatorio = ahora.minusDays(diasEntreRecordatorios);
+        long ultimoId = 0;
+        int revisadas = 0;
+        int enviados = 0;
+
+        while (true) {
+            // Cada lote es una consulta corta en autocommit: no se retienen transacciones ni bloqueos de filas
+            List<CuentaPorRecordar> lote = jdbcTemplate.query(SQL_CUENTAS, (rs, n) -> new CuentaPorRecordar(
+                    rs.getLong("cuenta_id"),
+                    rs.getBigDecimal("saldo_actual"),
+                    rs.getDate("fecha_apertura").toLocalDate().atStartOfDay(),
+                    rs.getLong("usuario_id"),
+                    rs.getString("email"),
+                    rs.getString("nombre_completo"),
+                    aFecha(rs.getTimestamp("ultimo_abono")),
+                    aFecha(rs.getTimestamp("ultimo_recordatorio"))), ultimoId, TAMANO_LOTE);
+            if (lote.isEmpty()) {
+                break;
+            }
+            ultimoId = lote.get(lote.size() - 1).cuentaId();
+            revisadas += lote.size();
+
+            List<EnvioMasivoCorreos.CorreoPendiente> correos = lote.stream()
+                    .filter(cuenta -> requiereRecordatorio(cuenta, limitePago, limiteRecordatorio))
+                    .map(this::crearCorreo)
+                    .toList();
+            if (!correos.isEmpty()) {
+                List<EnvioMasivoCorreos.CorreoPendiente> enviadosLote = envioMasivoCorreos.enviarLote(correos);
+                registrarNotificaciones(enviadosLote);
+                enviados += enviadosLote.size();
+            }
+
+            if (lote.size() < TAMANO_LOTE || !pausar()) {
+                break;
+            }
+        }
+
+        log.info("Recordatorios de vencimiento: {} cuentas con saldo revisadas, {} correos enviados", revisadas, enviados);
+    }
+
+    // Sin abonos desde hace diasSinPago (o desde la apertura) y sin recordatorio reciente
+    private boolean requiereRecordatorio(CuentaPorRecordar cuenta, LocalDateTime limitePago, LocalDateTime limiteRecordatorio) {
+        LocalDateTime referenciaPago = cuenta.ultimoAbono() != null ? cuenta.ultimoAbono() : cuenta.fechaApertura();
+        if (referenciaPago.isAfter(limitePago)) {
+            return false;
+        }
+        return cuenta.ultimoRecordatorio() == null || cuenta.ultimoRecordatorio().isBefore(limiteRecordatorio);
+    }
+
+    private EnvioMasivoCorreos.CorreoPendiente crearCorreo(CuentaPorRecordar cuenta) {
+        String mensaje = cuenta.ultimoAbono() != null
+                ? String.format("Tu cuenta presenta un saldo pendiente de $%s. Tu último abono fue el %s.",
+                        cuenta.saldoActual(), cuenta.ultimoAbono().format(FORMATO_FECHA))
+                : String.format("Tu cuenta presenta un saldo pendiente de $%s y aún no registra abonos.",
+                        cuenta.saldoActual());
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("nombreCliente", cuenta.nombreCliente());
+        variables.put("mensaje", mensaje);
+        variables.put("fechaNotificacion", LocalDateTime.now().format(FORMATO_FECHA));
+
+        return new EnvioMasivoCorreos.CorreoPendiente(cuenta.usuarioId(), cuenta.email(), ASUNTO, mensaje,
+                "email-vencimiento", variables);
+    }
+
+    private void registrarNotificaciones(List<EnvioMasivoCorreos.CorreoPendiente> enviados) {
+        if (enviados.isEmpty()) {
+            return;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> filas = new ArrayList<>();
+        for (EnvioMasivoCorreos.CorreoPendiente correo : enviados) {
+            filas.add(new Object[]{correo.usuarioId(), TipoNotificacion.VENCIMIENTO.name(), correo.asunto(),
+                    correo.mensaje(), ahora});
+        }
+        jdbcTemplate.batchUpdate(SQL_NOTIFICACION, filas);
+    }
+
+    // Respiro entre lotes para no competir con el tráfico en línea por conexiones y CPU de la base
+    private boolean pausar() {
+        try {
+            Thread.sleep(pausaEntreLotesMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static LocalDateTime aFecha(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private record CuentaPorRecordar(long cuentaId, BigDecimal saldoActual, LocalDateTime fechaApertura, long usuarioId,
+                                     String email, String nombreCliente, LocalDateTime ultimoAbono,
+                                     LocalDateTime ultimoRecordatorio) {
+    }
+}
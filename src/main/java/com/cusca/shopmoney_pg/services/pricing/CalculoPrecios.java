@@ -0,0 +1,77 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.models.entities.ProductoEntity;
+import com.cusca.shopmoney_pg.utils.dinero.Dinero;
+
+// Precios de una venta calculados en una pasada; las líneas siguen el orden de los detalles recibidos.
+// Las cotizaciones no cargan entidades: en ese caso producto(linea) devuelve null.
+public final class CalculoPrecios {
+    private final long[] productosIds;
+    private final ProductoEntity[] productos;
+    private final int[] cantidades;
+    private final long[] preciosUnitarios;
+    private final long[] subtotales;
+    private final long[] descuentos;
+    private final long subtotal;
+    private final long descuento;
+    private final long impuesto;
+
+    CalculoPrecios(long[] productosIds, ProductoEntity[] productos, int[] cantidades, long[] preciosUnitarios, long[] subtotales,
+                   long[] descuentos, long subtotal, long descuento, long impuesto) {
+        this.productosIds = productosIds;
+        this.productos = productos;
+        this.cantidades = cantidades;
+        this.preciosUnitarios = preciosUnitarios;
+        this.subtotales = subtotales;
+        this.descuentos = descuentos;
+        this.subtotal = subtotal;
+        this.descuento = descuento;
+        this.impuesto = impuesto;
+    }
+
+    public int lineas() {
+        return productosIds.length;
+    }
+
+    public long productoId(int linea) {
+        return productosIds[linea];
+    }
+
+    public ProductoEntity producto(int linea) {
+        return productos != null ? productos[linea] : null;
+    }
+
+    public int cantidad(int linea) {
+        return cantidades[linea];
+    }
+
+    public Dinero precioUnitario(int linea) {
+        return Dinero.deCentavos(preciosUnitarios[linea]);
+    }
+
+    // Precio por cantidad, antes del descuento
+    public Dinero subtotalLinea(int linea) {
+        return Dinero.deCentavos(subtotales[linea]);
+    }
+
+    public Dinero descuentoLinea(int linea) {
+        return Dinero.deCentavos(descuentos[linea]);
+    }
+
+    public Dinero subtotal() {
+        return Dinero.deCentavos(subtotal);
+    }
+
+    public Dinero descuento() {
+        return Dinero.deCentavos(descuento);
+    }
+
+    public Dinero impuesto() {
+        return Dinero.deCentavos(impuesto);
+    }
+
+    // Subtotal - descuento + impuesto
+    public Dinero total() {
+        return Dinero.deCentavos(subtotal - descuento + impuesto);
+    }
+}
@@ -0,0 +1,87 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Precio y categoría de cada producto en memoria, para cotizar sin consultar la base de datos.
+// Los productos nuevos (incluidos los importados por lote) se leen la primera vez que se cotizan;
+// los cambios y bajas invalidan la entrada después del commit.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogoPreciosCache {
+    private final ProductoRepository productoRepository;
+
+    private final Map<Long, PrecioProducto> precios = new ConcurrentHashMap<>();
+
+    // El intervalo cubre cambios hechos desde otra instancia
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.precios.recarga-ms:300000}",
+            initialDelayString = "${app.precios.recarga-ms:300000}")
+    public void recargar() {
+        Map<Long, PrecioProducto> nuevos = new HashMap<>();
+        productoRepository.findTodosLosPrecios().forEach(producto -> nuevos.put(producto.getId(),
+                PrecioProducto.de(producto.getId(), producto.getCategoriaId(), producto.getPrecioUnitario())));
+        precios.keySet().retainAll(nuevos.keySet());
+        precios.putAll(nuevos);
+        log.info("Cache de precios cargada con {} productos", nuevos.size());
+    }
+
+    // Los IDs que no existen no aparecen en el resultado
+    public Map<Long, PrecioProducto> obtener(Collection<Long> productosIds) {
+        Map<Long, PrecioProducto> encontrados = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : productosIds) {
+            PrecioProducto precio = precios.get(id);
+            if (precio != null) {
+                encontrados.put(id, precio);
+            } else {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            productoRepository.findPreciosPorIds(faltantes).forEach(producto -> {
+                PrecioProducto precio = PrecioProducto.de(producto.getId(), producto.getCategoriaId(), producto.getPrecioUnitario());
+                precios.put(precio.productoId(), precio);
+                encontrados.put(precio.productoId(), precio);
+            });
+        }
+        return encontrados;
+    }
+
+    public void invalidar(Long productoId) {
+        despuesDelCommit(() -> precios.remove(productoId));
+    }
+
+    // Borrados en cascada (p. ej. al eliminar una categoría)
+    public void invalidarTodo() {
+        despuesDelCommit(precios::clear);
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
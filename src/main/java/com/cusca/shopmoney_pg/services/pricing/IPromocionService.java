@@ -0,0 +1,11 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.models.dto.request.PromocionRequest;
+import com.cusca.shopmoney_pg.models.dto.response.PromocionResponse;
+import com.cusca.shopmoney_pg.services.base.BaseService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface IPromocionService extends BaseService<PromocionResponse, PromocionRequest, PromocionRequest> {
+    Page<PromocionResponse> buscarPorActiva(Boolean activa, Pageable pageable);
+}
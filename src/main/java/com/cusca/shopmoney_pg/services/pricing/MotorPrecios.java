@@ -0,0 +1,174 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.models.dto.request.DetalleVentaRequest;
+import com.cusca.shopmoney_pg.models.entities.ProductoEntity;
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.repositories.PromocionRepository;
+import com.cusca.shopmoney_pg.utils.dinero.Dinero;
+import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * Precios de venta con promociones e IVA. Las promociones se compilan en una TablaPromociones inmutable
+ * que se reemplaza completa al recargar, así el cálculo nunca ve una tabla a medio construir ni
+ * consulta la base de datos. Los montos se calculan en centavos (long) sin BigDecimal dentro del ciclo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MotorPrecios {
+    private final PromocionRepository promocionRepository;
+    private final ProductoRepository productoRepository;
+    private final CatalogoPreciosCache catalogoPreciosCache;
+
+    @Value("${app.precios.iva-porcentaje:0}")
+    private BigDecimal ivaPorcentaje;
+
+    private int ivaPuntosBase;
+    private volatile TablaPromociones tabla = TablaPromociones.VACIA;
+
+    @PostConstruct
+    void inicializar() {
+        ivaPuntosBase = ivaPorcentaje.movePointRight(2).intValueExact();
+    }
+
+    // El intervalo cubre cambios hechos desde otra instancia
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.precios.recarga-ms:300000}",
+            initialDelayString = "${app.precios.recarga-ms:300000}")
+    public synchronized void recargar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        TablaPromociones nueva = TablaPromociones.compilar(promocionRepository.findNoVencidas(ahora), ahora);
+        tabla = nueva;
+        log.info("Promociones compiladas: {} tablas de descuento", nueva.totalTablas());
+    }
+
+    // Recompila cuando se confirme el cambio de promociones en curso
+    public void invalidar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recargar();
+                }
+            });
+        } else {
+            recargar();
+        }
+    }
+
+    public CalculoPrecios calcular(List<DetalleVentaRequest> detalles) {
+        Set<Long> productosIds = new HashSet<>();
+        for (DetalleVentaRequest detalle : detalles) {
+            productosIds.add(detalle.getProductoId());
+        }
+        Map<Long, ProductoEntity> productos = productoRepository.findAllByIdConCategoria(productosIds).stream()
+                .collect(Collectors.toMap(ProductoEntity::getId, Function.identity()));
+        return calcular(detalles, productos);
+    }
+
+    // Para llamadores que ya cargaron los productos (p. ej. sincronización por lotes)
+    public CalculoPrecios calcular(List<DetalleVentaRequest> detalles, Map<Long, ProductoEntity> productos) {
+        ProductoEntity[] productosLinea = new ProductoEntity[detalles.size()];
+        CalculoPrecios calculo = calcular(detalles, productoId -> {
+            ProductoEntity producto = productos.get(productoId);
+            return producto != null ? PrecioProducto.de(producto) : null;
+        }, productosLinea);
+        for (int i = 0; i < productosLinea.length; i++) {
+            productosLinea[i] = productos.get(calculo.productoId(i));
+        }
+        return calculo;
+    }
+
+    // Cotización con los precios en memoria: no abre transacción ni carga entidades
+    public CalculoPrecios cotizar(List<DetalleVentaRequest> detalles) {
+        Set<Long> productosIds = new HashSet<>();
+        for (DetalleVentaRequest detalle : detalles) {
+            productosIds.add(detalle.getProductoId());
+        }
+        Map<Long, PrecioProducto> precios = catalogoPreciosCache.obtener(productosIds);
+        return calcular(detalles, precios::get, null);
+    }
+
+    private CalculoPrecios calcular(List<DetalleVentaRequest> detalles, Function<Long, PrecioProducto> buscarPrecio,
+                                    ProductoEntity[] productosLinea) {
+        TablaPromociones promociones = tablaVigente();
+        int lineas = detalles.size();
+        long[] productosIds = new long[lineas];
+        int[] cantidades = new int[lineas];
+        long[] precios = new long[lineas];
+        long[] subtotales = new long[lineas];
+        long[] descuentos = new long[lineas];
+        long subtotal = 0;
+        long descuento = 0;
+
+        for (int i = 0; i < lineas; i++) {
+            DetalleVentaRequest detalle = detalles.get(i);
+            PrecioProducto producto = buscarPrecio.apply(detalle.getProductoId());
+            if (producto == null) {
+                throw new ResourceNotFoundException("Producto no encontrado con ID: " + detalle.getProductoId());
+            }
+            int cantidad = detalle.getCantidad();
+            long precio = producto.precioCentavos();
+            long bruto = Math.multiplyExact(precio, cantidad);
+            long rebaja = porcentaje(bruto, promociones.puntosBase(producto.productoId(), producto.categoriaId(), cantidad));
+
+            productosIds[i] = producto.productoId();
+            cantidades[i] = cantidad;
+            precios[i] = precio;
+            subtotales[i] = bruto;
+            descuentos[i] = rebaja;
+            subtotal = Math.addExact(subtotal, bruto);
+            descuento = Math.addExact(descuento, rebaja);
+        }
+
+        long impuesto = porcentaje(subtotal - descuento, ivaPuntosBase);
+        return new CalculoPrecios(productosIds, productosLinea, cantidades, precios, subtotales, descuentos,
+                subtotal, descuento, impuesto);
+    }
+
+    // IVA sobre una base ya descontada (recalcular totales de una venta existente)
+    public Dinero calcularImpuesto(Dinero base) {
+        return Dinero.deCentavos(porcentaje(base.getCentavos(), ivaPuntosBase));
+    }
+
+    private TablaPromociones tablaVigente() {
+        TablaPromociones actual = tabla;
+        if (!actual.vigente(LocalDateTime.now())) {
+            // Una promoción empezó o terminó: solo el primer hilo recompila, los demás ven la tabla nueva
+            synchronized (this) {
+                if (tabla == actual) {
+                    recargar();
+                }
+                actual = tabla;
+            }
+        }
+        return actual;
+    }
+
+    // Redondeo al centavo más cercano (mitades hacia arriba)
+    private static long porcentaje(long centavos, int puntosBase) {
+        if (puntosBase == 0 || centavos == 0) {
+            return 0;
+        }
+        return (Math.multiplyExact(centavos, puntosBase) + 5_000) / 10_000;
+    }
+}
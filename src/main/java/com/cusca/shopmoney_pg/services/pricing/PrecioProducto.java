@@ -0,0 +1,18 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.models.entities.ProductoEntity;
+import com.cusca.shopmoney_pg.utils.dinero.Dinero;
+
+import java.math.BigDecimal;
+
+// Lo único que el motor de precios necesita de un producto
+public record PrecioProducto(Long productoId, Long categoriaId, long precioCentavos) {
+    static PrecioProducto de(ProductoEntity producto) {
+        return de(producto.getId(), producto.getCategoria() != null ? producto.getCategoria().getId() : null,
+                producto.getPrecioUnitario());
+    }
+
+    static PrecioProducto de(Long productoId, Long categoriaId, BigDecimal precioUnitario) {
+        return new PrecioProducto(productoId, categoriaId, Dinero.de(precioUnitario).getCentavos());
+    }
+}
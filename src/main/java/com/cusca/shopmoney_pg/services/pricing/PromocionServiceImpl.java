@@ -0,0 +1,112 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.models.dto.request.PromocionRequest;
+import com.cusca.shopmoney_pg.models.dto.response.PromocionResponse;
+import com.cusca.shopmoney_pg.models.entities.PromocionEntity;
+import com.cusca.shopmoney_pg.models.enums.AlcancePromocion;
+import com.cusca.shopmoney_pg.repositories.CategoriaRepository;
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.repositories.PromocionRepository;
+import com.cusca.shopmoney_pg.utils.exceptions.InvalidPromotionException;
+import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
+import com.cusca.shopmoney_pg.utils.mappers.PromocionMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PromocionServiceImpl implements IPromocionService {
+    private final PromocionRepository promocionRepository;
+    private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final PromocionMapper promocionMapper;
+    private final MotorPrecios motorPrecios;
+
+    @Override
+    public PromocionResponse crear(PromocionRequest request) {
+        PromocionEntity promocion = promocionMapper.toEntity(request);
+        aplicarDatos(promocion, request);
+
+        PromocionEntity promocionGuardada = promocionRepository.save(promocion);
+        motorPrecios.invalidar();
+
+        return promocionMapper.toResponse(promocionGuardada);
+    }
+
+    @Override
+    public PromocionResponse actualizar(Long id, PromocionRequest request) {
+        PromocionEntity promocion = buscarEntidad(id);
+        promocionMapper.updateEntity(promocion, request);
+        aplicarDatos(promocion, request);
+
+        PromocionEntity promocionActualizada = promocionRepository.save(promocion);
+        motorPrecios.invalidar();
+
+        return promocionMapper.toResponse(promocionActualizada);
+    }
+
+    @Override
+    public void eliminar(Long id) {
+        buscarEntidad(id);
+        promocionRepository.deleteById(id);
+        motorPrecios.invalidar();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PromocionResponse> buscarPorId(Long id) {
+        return Optional.of(promocionMapper.toResponse(buscarEntidad(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PromocionResponse> listarTodos(Pageable pageable) {
+        return promocionRepository.findAll(pageable)
+                .map(promocionMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PromocionResponse> buscarPorActiva(Boolean activa, Pageable pageable) {
+        return promocionRepository.findByActiva(activa, pageable)
+                .map(promocionMapper::toResponse);
+    }
+
+    private PromocionEntity buscarEntidad(Long id) {
+        return promocionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Promoción no encontrada con ID: " + id));
+    }
+
+    // Valida el destino según el alcance y completa los valores por defecto
+    private void aplicarDatos(PromocionEntity promocion, PromocionRequest request) {
+        if (request.getFechaInicio() != null && request.getFechaFin() != null
+                && !request.getFechaFin().isAfter(request.getFechaInicio())) {
+            throw new InvalidPromotionException("La fecha de fin debe ser posterior a la fecha de inicio");
+        }
+
+        promocion.setProducto(null);
+        promocion.setCategoria(null);
+        if (request.getAlcance() == AlcancePromocion.PRODUCTO) {
+            if (request.getProductoId() == null) {
+                throw new InvalidPromotionException("Las promociones por producto requieren el producto");
+            }
+            promocion.setProducto(productoRepository.findById(request.getProductoId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con ID: " + request.getProductoId())));
+        } else if (request.getAlcance() == AlcancePromocion.CATEGORIA) {
+            if (request.getCategoriaId() == null) {
+                throw new InvalidPromotionException("Las promociones por categoría requieren la categoría");
+            }
+            promocion.setCategoria(categoriaRepository.findById(request.getCategoriaId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Categoría no encontrada con ID: " + request.getCategoriaId())));
+        }
+
+        promocion.setCantidadMinima(request.getCantidadMinima() != null ? request.getCantidadMinima() : 1);
+        promocion.setActiva(request.getActiva() == null || request.getActiva());
+    }
+}
@@ -0,0 +1,119 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.repositories.PromocionRepository.ReglaPromocion;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Promociones vigentes compiladas en tablas de consulta inmutables. Cada producto, categoría y la tienda
+ * completa tienen una escalera de tramos (cantidad mínima -> mejor descuento) ya resuelta al compilar,
+ * así que el precio de una línea son dos búsquedas en mapas y una búsqueda binaria por tabla.
+ * Las promociones no se acumulan: la línea recibe el mayor descuento que le aplique.
+ */
+final class TablaPromociones {
+    static final TablaPromociones VACIA = new TablaPromociones(Map.of(), Map.of(), null, null);
+
+    private final Map<Long, Tramos> porProducto;
+    private final Map<Long, Tramos> porCategoria;
+    private final Tramos general;
+    // Próximo inicio o fin de alguna promoción; a partir de ahí la tabla debe recompilarse
+    private final LocalDateTime vigenteHasta;
+
+    private TablaPromociones(Map<Long, Tramos> porProducto, Map<Long, Tramos> porCategoria, Tramos general,
+                             LocalDateTime vigenteHasta) {
+        this.porProducto = porProducto;
+        this.porCategoria = porCategoria;
+        this.general = general;
+        this.vigenteHasta = vigenteHasta;
+    }
+
+    static TablaPromociones compilar(List<ReglaPromocion> reglas, LocalDateTime ahora) {
+        Map<Long, TreeMap<Integer, Integer>> productos = new HashMap<>();
+        Map<Long, TreeMap<Integer, Integer>> categorias = new HashMap<>();
+        TreeMap<Integer, Integer> tienda = new TreeMap<>();
+        LocalDateTime proximoCambio = null;
+
+        for (ReglaPromocion regla : reglas) {
+            if (regla.getFechaInicio() != null && regla.getFechaInicio().isAfter(ahora)) {
+                proximoCambio = masCercano(proximoCambio, regla.getFechaInicio());
+                continue;
+            }
+            if (regla.getFechaFin() != null) {
+                // El fin es exclusivo, igual que en findNoVencidas
+                if (!regla.getFechaFin().isAfter(ahora)) {
+                    continue;
+                }
+                proximoCambio = masCercano(proximoCambio, regla.getFechaFin());
+            }
+
+            TreeMap<Integer, Integer> destino = switch (regla.getAlcance()) {
+                case PRODUCTO -> productos.computeIfAbsent(regla.getProductoId(), id -> new TreeMap<>());
+                case CATEGORIA -> categorias.computeIfAbsent(regla.getCategoriaId(), id -> new TreeMap<>());
+                case GENERAL -> tienda;
+            };
+            destino.merge(regla.getCantidadMinima(), regla.getPorcentaje().movePointRight(2).intValueExact(), Math::max);
+        }
+
+        Map<Long, Tramos> porProducto = new HashMap<>(productos.size() * 2);
+        productos.forEach((id, escalera) -> porProducto.put(id, Tramos.de(escalera)));
+        Map<Long, Tramos> porCategoria = new HashMap<>(categorias.size() * 2);
+        categorias.forEach((id, escalera) -> porCategoria.put(id, Tramos.de(escalera)));
+        return new TablaPromociones(porProducto, porCategoria, tienda.isEmpty() ? null : Tramos.de(tienda), proximoCambio);
+    }
+
+    // Descuento en puntos base (1 % = 100) para la cantidad de una línea
+    int puntosBase(long productoId, Long categoriaId, int cantidad) {
+        int mejor = 0;
+        Tramos tramos = porProducto.get(productoId);
+        if (tramos != null) {
+            mejor = tramos.puntosBase(cantidad);
+        }
+        if (categoriaId != null && (tramos = porCategoria.get(categoriaId)) != null) {
+            mejor = Math.max(mejor, tramos.puntosBase(cantidad));
+        }
+        if (general != null) {
+            mejor = Math.max(mejor, general.puntosBase(cantidad));
+        }
+        return mejor;
+    }
+
+    boolean vigente(LocalDateTime ahora) {
+        return vigenteHasta == null || ahora.isBefore(vigenteHasta);
+    }
+
+    int totalTablas() {
+        return porProducto.size() + porCategoria.size() + (general != null ? 1 : 0);
+    }
+
+    private static LocalDateTime masCercano(LocalDateTime actual, LocalDateTime candidato) {
+        return actual == null || candidato.isBefore(actual) ? candidato : actual;
+    }
+
+    // Cantidades mínimas ascendentes con el mejor descuento acumulado hasta cada una
+    private record Tramos(int[] cantidadesMinimas, int[] puntosBase) {
+        static Tramos de(TreeMap<Integer, Integer> escalera) {
+            int[] cantidades = new int[escalera.size()];
+            int[] descuentos = new int[escalera.size()];
+            int i = 0;
+            int mejor = 0;
+            for (Map.Entry<Integer, Integer> tramo : escalera.entrySet()) {
+                mejor = Math.max(mejor, tramo.getValue());
+                cantidades[i] = tramo.getKey();
+                descuentos[i] = mejor;
+                i++;
+            }
+            return new Tramos(cantidades, descuentos);
+        }
+
+        int puntosBase(int cantidad) {
+            int posicion = Arrays.binarySearch(cantidadesMinimas, cantidad);
+            int tramo = posicion >= 0 ? posicion : -posicion - 2;
+            return tramo >= 0 ? puntosBase[tramo] : 0;
+        }
+    }
+}
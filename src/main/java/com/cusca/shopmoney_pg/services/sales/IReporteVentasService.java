@@ -0,0 +1,17 @@
+package com.cusca.shopmoney_pg.services.sales;
+
+import com.cusca.shopmoney_pg.models.dto.response.ResumenVentasDiarioResponse;
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.models.enums.TipoVenta;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IReporteVentasService {
+    // Ventas por día desde ventas_resumen_diario; tipoVenta y estado son filtros opcionales
+    List<ResumenVentasDiarioResponse> resumenDiario(LocalDate fechaInicio, LocalDate fechaFin, TipoVenta tipoVenta,
+                                                    EstadoVenta estado, boolean porCategoria);
+
+    // Recalcula el resumen del rango desde ventas y detalle_ventas (carga inicial o corrección)
+    void reconstruirResumenDiario(LocalDate fechaInicio, LocalDate fechaFin);
+}
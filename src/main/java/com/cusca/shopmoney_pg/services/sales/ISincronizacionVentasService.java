@@ -0,0 +1,9 @@
+package com.cusca.shopmoney_pg.services.sales;
+
+import com.cusca.shopmoney_pg.models.dto.request.SincronizacionVentasRequest;
+import com.cusca.shopmoney_pg.models.dto.response.SincronizacionVentasResponse;
+
+public interface ISincronizacionVentasService {
+    // Registra las ventas acumuladas sin conexión por un punto de venta, ignorando las ya sincronizadas
+    SincronizacionVentasResponse sincronizar(SincronizacionVentasRequest request);
+}
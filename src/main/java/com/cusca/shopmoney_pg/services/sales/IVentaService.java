@@ -2,6 +2,7 @@ package com.cusca.shopmoney_pg.services.sales;
 
 import com.cusca.shopmoney_pg.models.dto.request.VentaRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateVentaRequest;
+import com.cusca.shopmoney_pg.models.dto.response.CotizacionVentaResponse;
 import com.cusca.shopmoney_pg.models.dto.response.VentaResponse;
 import com.cusca.shopmoney_pg.models.entities.VentaEntity;
 import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface IVentaService extends BaseService<VentaResponse, VentaRequest, UpdateVentaRequest> {
@@ -26,6 +28,9 @@ public interface IVentaService extends BaseService<VentaResponse, VentaRequest,
     Page<VentaResponse> buscarPorClienteYEstado(Long cuentaClienteId, EstadoVenta estado, Pageable pageable);
     Page<VentaResponse> buscarPorClienteYFecha(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, Pageable pageable);
 
+    // Consulta múltiple conservando el orden de los IDs
+    List<VentaResponse> buscarPorIds(List<Long> ids);
+
     // Validaciones
     boolean puedeModificar(Long ventaId);
     boolean puedeAnular(Long ventaId);
@@ -38,6 +43,7 @@ public interface IVentaService extends BaseService<VentaResponse, VentaRequest,
 
     // Operaciones de venta
     VentaResponse recalcularTotales(Long id);
+    CotizacionVentaResponse cotizar(VentaRequest request);
 
     // Metodo específico para clientes - verificar y obtener su propia venta
     Optional<VentaResponse> buscarMiVentaPorId(Long ventaId, String emailUsuario);
@@ -0,0 +1,56 @@
+package com.cusca.shopmoney_pg.services.sales;
+
+import com.cusca.shopmoney_pg.models.entities.VentaEntity;
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.repositories.VentaRepository;
+import com.cusca.shopmoney_pg.utils.estados.TablaTransiciones;
+import com.cusca.shopmoney_pg.utils.exceptions.InvalidSaleStateException;
+import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Carga la venta una sola vez y valida/aplica las transiciones en memoria.
+// La escritura la protege la columna @Version: una transición concurrente falla al hacer flush en vez de bloquear.
+@Component
+@RequiredArgsConstructor
+public class MaquinaEstadosVenta {
+    private static final TablaTransiciones<EstadoVenta> TRANSICIONES = TablaTransiciones.para(EstadoVenta.class)
+            .desde(EstadoVenta.PENDIENTE, EstadoVenta.PAGADA, EstadoVenta.PARCIAL, EstadoVenta.CANCELADA)
+            .desde(EstadoVenta.PARCIAL, EstadoVenta.PAGADA, EstadoVenta.CANCELADA)
+            .construir(); // PAGADA y CANCELADA son estados finales
+
+    private final VentaRepository ventaRepository;
+    private final ResumenVentasDiarioService resumenVentasDiarioService;
+
+    public VentaEntity cargar(Long id) {
+        return ventaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Venta no encontrada con ID: " + id));
+    }
+
+    public boolean permite(VentaEntity venta, EstadoVenta nuevoEstado) {
+        return TRANSICIONES.permite(venta.getEstado(), nuevoEstado);
+    }
+
+    // Valida antes de cualquier efecto secundario para no tocar saldos si la transición no procede
+    public void validar(VentaEntity venta, EstadoVenta nuevoEstado) {
+        TRANSICIONES.validar(venta.getEstado(), nuevoEstado, InvalidSaleStateException::new);
+    }
+
+    public void transicionar(VentaEntity venta, EstadoVenta nuevoEstado) {
+        validar(venta, nuevoEstado);
+        resumenVentasDiarioService.cambiarEstado(List.of(venta.getId()), nuevoEstado);
+        venta.setEstado(nuevoEstado);
+    }
+
+    // Solo se pueden modificar ventas PENDIENTES
+    public boolean esModificable(VentaEntity venta) {
+        return venta.getEstado() == EstadoVenta.PENDIENTE;
+    }
+
+    // Se pueden anular ventas PENDIENTES y PARCIALES
+    public boolean esAnulable(VentaEntity venta) {
+        return permite(venta, EstadoVenta.CANCELADA);
+    }
+}
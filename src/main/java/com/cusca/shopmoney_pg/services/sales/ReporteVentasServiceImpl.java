@@ -0,0 +1,115 @@
+package com.cusca.shopmoney_pg.services.sales;
+
+import com.cusca.shopmoney_pg.models.dto.response.ResumenVentasDiarioResponse;
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.models.enums.TipoVenta;
+import com.cusca.shopmoney_pg.utils.exceptions.InvalidPeriodException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ReporteVentasServiceImpl implements IReporteVentasService {
+    // Lee solo el resumen: a lo sumo días × tipos × estados filas por rango (× categorías en el desglose)
+    private static final String SQL_RESUMEN = """
+            SELECT r.fecha, r.tipo_venta, r.estado, r.categoria_id, c.nombre AS nombre_categoria,
+                   r.ventas, r.unidades, r.subtotal, r.descuento, r.impuesto, r.total
+            FROM ventas_resumen_diario r
+            LEFT JOIN categorias c ON c.id = r.categoria_id
+            WHERE r.fecha BETWEEN ? AND ? AND r.ventas <> 0
+            """;
+    private static final String ORDEN_RESUMEN = " ORDER BY r.fecha, r.tipo_venta, r.estado, r.categoria_id";
+
+    /*
+     * El bloqueo detiene los upserts de ventas en curso mientras se reconstruye: las que ya escribieron
+     * terminan antes (y quedan incluidas en la lectura), las demás esperan y suman sobre el resultado.
+     */
+    private static final String SQL_BLOQUEAR_RESUMEN = "LOCK TABLE ventas_resumen_diario IN SHARE ROW EXCLUSIVE MODE";
+    private static final String SQL_ELIMINAR_RANGO = "DELETE FROM ventas_resumen_diario WHERE fecha BETWEEN ? AND ?";
+    private static final String SQL_RECONSTRUIR = """
+            INSERT INTO ventas_resumen_diario (fecha, tipo_venta, estado, categoria_id, ventas, unidades,
+                                               subtotal, descuento, impuesto, total)
+            SELECT CAST(v.fecha_venta AS DATE), v.tipo_venta, v.estado, 0, COUNT(*),
+                   COALESCE(SUM(u.unidades), 0),
+                   SUM(v.subtotal), SUM(COALESCE(v.descuento, 0)), SUM(COALESCE(v.impuesto, 0)), SUM(v.total)
+            FROM ventas v
+            LEFT JOIN LATERAL (SELECT SUM(d.cantidad) AS unidades FROM detalle_ventas d WHERE d.venta_id = v.id) u ON TRUE
+            WHERE v.fecha_venta >= ? AND v.fecha_venta < ?
+            GROUP BY CAST(v.fecha_venta AS DATE), v.tipo_venta, v.estado
+            UNION ALL
+            SELECT CAST(v.fecha_venta AS DATE), v.tipo_venta, v.estado, COALESCE(p.categoria_id, -1),
+                   COUNT(DISTINCT v.id), SUM(d.cantidad), SUM(d.subtotal), SUM(COALESCE(d.descuento, 0)), 0, 0
+            FROM ventas v
+            JOIN detalle_ventas d ON d.venta_id = v.id
+            LEFT JOIN productos p ON p.id = d.producto_id
+            WHERE v.fecha_venta >= ? AND v.fecha_venta < ?
+            GROUP BY CAST(v.fecha_venta AS DATE), v.tipo_venta, v.estado, COALESCE(p.categoria_id, -1)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumenVentasDiarioResponse> resumenDiario(LocalDate fechaInicio, LocalDate fechaFin, TipoVenta tipoVenta,
+                                                           EstadoVenta estado, boolean porCategoria) {
+        validarRango(fechaInicio, fechaFin);
+
+        StringBuilder sql = new StringBuilder(SQL_RESUMEN);
+        List<Object> parametros = new ArrayList<>(List.of(Date.valueOf(fechaInicio), Date.valueOf(fechaFin)));
+        sql.append(porCategoria ? " AND r.categoria_id <> 0" : " AND r.categoria_id = 0");
+        if (tipoVenta != null) {
+            sql.append(" AND r.tipo_venta = ?");
+            parametros.add(tipoVenta.name());
+        }
+        if (estado != null) {
+            sql.append(" AND r.estado = ?");
+            parametros.add(estado.name());
+        }
+        sql.append(ORDEN_RESUMEN);
+
+        return jdbcTemplate.query(sql.toString(), (rs, n) -> {
+            long categoriaId = rs.getLong("categoria_id");
+            boolean totalVenta = categoriaId == ResumenVentasDiarioService.TOTAL_VENTA;
+            return new ResumenVentasDiarioResponse(
+                    rs.getDate("fecha").toLocalDate(),
+                    TipoVenta.valueOf(rs.getString("tipo_venta")),
+                    EstadoVenta.valueOf(rs.getString("estado")),
+                    categoriaId > 0 ? categoriaId : null,
+                    categoriaId == ResumenVentasDiarioService.SIN_CATEGORIA ? "Sin categoría" : rs.getString("nombre_categoria"),
+                    rs.getLong("ventas"),
+                    rs.getLong("unidades"),
+                    rs.getBigDecimal("subtotal"),
+                    rs.getBigDecimal("descuento"),
+                    totalVenta ? rs.getBigDecimal("impuesto") : null,
+                    totalVenta ? rs.getBigDecimal("total") : null);
+        }, parametros.toArray());
+    }
+
+    @Override
+    @Transactional
+    public void reconstruirResumenDiario(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRango(fechaInicio, fechaFin);
+        Date inicio = Date.valueOf(fechaInicio);
+        Date fin = Date.valueOf(fechaFin);
+        Timestamp desde = Timestamp.valueOf(fechaInicio.atStartOfDay());
+        Timestamp hasta = Timestamp.valueOf(fechaFin.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.execute(SQL_BLOQUEAR_RESUMEN);
+        jdbcTemplate.update(SQL_ELIMINAR_RANGO, inicio, fin);
+        jdbcTemplate.update(SQL_RECONSTRUIR, desde, hasta, desde, hasta);
+    }
+
+    private void validarRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new InvalidPeriodException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.cusca.shopmoney_pg.services.sales;
+
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantiene ventas_resumen_diario. Cada operación lee el desglose por categoría de las ventas afectadas
+ * y acumula los cambios en memoria; los upserts se escriben juntos justo antes del commit, en orden de
+ * llave, para que las filas del día (compartidas por todas las ventas) queden bloqueadas el menor tiempo
+ * posible y dos transacciones no se bloqueen en cruz.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumenVentasDiarioService {
+    public static final long TOTAL_VENTA = 0L;
+    public static final long SIN_CATEGORIA = -1L;
+
+    private static final String SQL_DESGLOSE = """
+            SELECT v.id, CAST(v.fecha_venta AS DATE) AS fecha, v.tipo_venta, v.estado,
+                   v.subtotal AS subtotal_venta, COALESCE(v.descuento, 0) AS descuento_venta,
+                   COALESCE(v.impuesto, 0) AS impuesto_venta, v.total AS total_venta,
+                   COALESCE(p.categoria_id, -1) AS categoria_id, COUNT(d.id) AS lineas,
+                   COALESCE(SUM(d.cantidad), 0) AS unidades, COALESCE(SUM(d.subtotal), 0) AS subtotal,
+                   COALESCE(SUM(d.descuento), 0) AS descuento
+            FROM ventas v
+            LEFT JOIN detalle_ventas d ON d.venta_id = v.id
+            LEFT JOIN productos p ON p.id = d.producto_id
+            WHERE v.id = ANY (?)
+            GROUP BY v.id, p.categoria_id
+            ORDER BY v.id
+            """;
+    private static final String SQL_UPSERT = """
+            INSERT INTO ventas_resumen_diario (fecha, tipo_venta, estado, categoria_id, ventas, unidades,
+                                               subtotal, descuento, impuesto, total)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (fecha, tipo_venta, estado, categoria_id) DO UPDATE SET
+                ventas = ventas_resumen_diario.ventas + EXCLUDED.ventas,
+                unidades = ventas_resumen_diario.unidades + EXCLUDED.unidades,
+                subtotal = ventas_resumen_diario.subtotal + EXCLUDED.subtotal,
+                descuento = ventas_resumen_diario.descuento + EXCLUDED.descuento,
+                impuesto = ventas_resumen_diario.impuesto + EXCLUDED.impuesto,
+                total = ventas_resumen_diario.total + EXCLUDED.total
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Ventas recién creadas, con los detalles ya insertados
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Collection<Long> ventasIds) {
+        acumular(ventasIds, null, 1);
+    }
+
+    // Antes de borrar las ventas o de cambiar sus montos
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void retirar(Collection<Long> ventasIds) {
+        acumular(ventasIds, null, -1);
+    }
+
+    // Debe llamarse antes de que el nuevo estado llegue a la base de datos: el estado anterior se lee de ventas
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cambiarEstado(Collection<Long> ventasIds, EstadoVenta nuevoEstado) {
+        acumular(ventasIds, null, -1);
+        acumular(ventasIds, nuevoEstado, 1);
+    }
+
+    private void acumular(Collection<Long> ventasIds, EstadoVenta estado, int signo) {
+        if (ventasIds.isEmpty()) {
+            return;
+        }
+        Map<Clave, Delta> deltas = deltasDeLaTransaccion();
+        long[] ventaEnCurso = {Long.MIN_VALUE};
+
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(SQL_DESGLOSE);
+            ps.setArray(1, con.createArrayOf("bigint", ventasIds.toArray()));
+            return ps;
+        }, rs -> {
+            LocalDate fecha = rs.getDate("fecha").toLocalDate();
+            String tipoVenta = rs.getString("tipo_venta");
+            String estadoFila = estado != null ? estado.name() : rs.getString("estado");
+
+            Delta venta = deltas.computeIfAbsent(new Clave(fecha, tipoVenta, estadoFila, TOTAL_VENTA), c -> new Delta());
+            long ventaId = rs.getLong("id");
+            if (ventaId != ventaEnCurso[0]) {
+                ventaEnCurso[0] = ventaId;
+                venta.ventas += signo;
+                venta.subtotal += signo * centavos(rs, "subtotal_venta");
+                venta.descuento += signo * centavos(rs, "descuento_venta");
+                venta.impuesto += signo * centavos(rs, "impuesto_venta");
+                venta.total += signo * centavos(rs, "total_venta");
+            }
+            if (rs.getLong("lineas") == 0) {
+                return; // Venta sin detalles: solo cuenta en la fila de la venta completa
+            }
+
+            long unidades = rs.getLong("unidades");
+            venta.unidades += signo * unidades;
+            Delta categoria = deltas.computeIfAbsent(
+                    new Clave(fecha, tipoVenta, estadoFila, rs.getLong("categoria_id")), c -> new Delta());
+            categoria.ventas += signo;
+            categoria.unidades += signo * unidades;
+            categoria.subtotal += signo * centavos(rs, "subtotal");
+            categoria.descuento += signo * centavos(rs, "descuento");
+        });
+    }
+
+    // Un acumulador por transacción; se escribe en beforeCommit y se libera al terminar
+    @SuppressWarnings("unchecked")
+    private Map<Clave, Delta> deltasDeLaTransaccion() {
+        Map<Clave, Delta> deltas = (Map<Clave, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (deltas != null) {
+            return deltas;
+        }
+        Map<Clave, Delta> nuevos = new TreeMap<>(Clave.ORDEN);
+        TransactionSynchronizationManager.bindResource(this, nuevos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                escribir(nuevos);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ResumenVentasDiarioService.this);
+            }
+        });
+        return nuevos;
+    }
+
+    private void escribir(Map<Clave, Delta> deltas) {
+        List<Object[]> filas = new ArrayList<>(deltas.size());
+        deltas.forEach((clave, delta) -> {
+            if (!delta.esCero()) {
+                filas.add(new Object[]{Date.valueOf(clave.fecha()), clave.tipoVenta(), clave.estado(), clave.categoriaId(),
+                        delta.ventas, delta.unidades, aMonto(delta.subtotal), aMonto(delta.descuento),
+                        aMonto(delta.impuesto), aMonto(delta.total)});
+            }
+        });
+        deltas.clear();
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_UPSERT, filas);
+        }
+    }
+
+    private static long centavos(ResultSet rs, String columna) throws SQLException {
+        return rs.getBigDecimal(columna).movePointRight(2).longValue();
+    }
+
+    private static BigDecimal aMonto(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    private record Clave(LocalDate fecha, String tipoVenta, String estado, long categoriaId) {
+        static final Comparator<Clave> ORDEN = Comparator.comparing(Clave::fecha)
+                .thenComparing(Clave::tipoVenta)
+                .thenComparing(Clave::estado)
+                .thenComparingLong(Clave::categoriaId);
+    }
+
+    private static class Delta {
+        long ventas;
+        long unidades;
+        long subtotal;
+        long descuento;
+        long impuesto;
+        long total;
+
+        boolean esCero() {
+            return ventas == 0 && unidades == 0 && subtotal == 0 && descuento == 0 && impuesto == 0 && total == 0;
+        }
+    }
+}
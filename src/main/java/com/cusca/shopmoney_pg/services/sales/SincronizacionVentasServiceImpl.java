@@ -0,0 +1,392 @@
+package com.cusca.shopmoney_pg.services.sales;
+
+import com.cusca.shopmoney_pg.models.dto.request.DetalleVentaRequest;
+import com.cusca.shopmoney_pg.models.dto.request.SincronizacionVentasRequest;
+import com.cusca.shopmoney_pg.models.dto.request.VentaOfflineRequest;
+import com.cusca.shopmoney_pg.models.dto.request.VentaRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ResultadoVentaOfflineResponse;
+import com.cusca.shopmoney_pg.models.dto.response.SincronizacionVentasResponse;
+import com.cusca.shopmoney_pg.models.entities.CuentaClienteEntity;
+import com.cusca.shopmoney_pg.models.entities.DetalleVentaEntity;
+import com.cusca.shopmoney_pg.models.entities.ProductoEntity;
+import com.cusca.shopmoney_pg.models.entities.VentaEntity;
+import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.models.enums.ResultadoSincronizacion;
+import com.cusca.shopmoney_pg.models.enums.TipoMovimiento;
+import com.cusca.shopmoney_pg.models.enums.TipoReferencia;
+import com.cusca.shopmoney_pg.models.enums.TipoVenta;
+import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository;
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.repositories.UsuarioRepository;
+import com.cusca.shopmoney_pg.repositories.VentaRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.services.catalog.IInventarioService;
+import com.cusca.shopmoney_pg.services.notification.NotificacionServiceImpl;
+import com.cusca.shopmoney_pg.services.pricing.CalculoPrecios;
+import com.cusca.shopmoney_pg.services.pricing.MotorPrecios;
+import com.cusca.shopmoney_pg.utils.dinero.Dinero;
+import com.cusca.shopmoney_pg.utils.exceptions.InsufficientStockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SincronizacionVentasServiceImpl implements ISincronizacionVentasService {
+    private static final int TAMANO_LOTE = 200;
+    private static final String SQL_INSERTAR_VENTA = "INSERT INTO ventas (cuenta_cliente_id, cliente_ocasional, fecha_venta, " +
+            "subtotal, descuento, impuesto, total, tipo_venta, estado, observaciones, id_externo, existencias_descontadas) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE)";
+    private static final String SQL_INSERTAR_DETALLE = "INSERT INTO detalle_ventas (venta_id, producto_id, cantidad, " +
+            "precio_unitario, subtotal, descuento) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERTAR_MOVIMIENTO = "INSERT INTO movimientos_cuenta (cuenta_cliente_id, tipo_movimiento, " +
+            "concepto, monto, saldo_anterior, saldo_nuevo, referencia_tipo, referencia_id, fecha_movimiento, usuario_id, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final VentaRepository ventaRepository;
+    private final ProductoRepository productoRepository;
+    private final CuentaClienteRepository cuentaClienteRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final VersionRecursosService versionRecursosService;
+    private final IInventarioService inventarioService;
+    private final MotorPrecios motorPrecios;
+    private final ResumenVentasDiarioService resumenVentasDiarioService;
+    private final NotificacionServiceImpl notificacionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public SincronizacionVentasResponse sincronizar(SincronizacionVentasRequest request) {
+        List<VentaOfflineRequest> ventas = request.getVentas();
+        ResultadoVentaOfflineResponse[] resultados = new ResultadoVentaOfflineResponse[ventas.size()];
+
+        // Deduplicar dentro del lote y contra sincronizaciones anteriores (reintentos del dispositivo)
+        Map<String, Long> yaSincronizadas = ventaRepository.findPorIdsExternos(ventas.stream()
+                        .map(VentaOfflineRequest::getIdExterno)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(VentaRepository.VentaSincronizada::getIdExterno,
+                        VentaRepository.VentaSincronizada::getId));
+        Set<String> vistos = new HashSet<>();
+        List<Integer> pendientes = new ArrayList<>();
+        for (int i = 0; i < ventas.size(); i++) {
+            String idExterno = ventas.get(i).getIdExterno();
+            Long ventaId = yaSincronizadas.get(idExterno);
+            if (ventaId != null) {
+                resultados[i] = resultado(idExterno, ResultadoSincronizacion.DUPLICADA, ventaId, null, "La venta ya estaba sincronizada");
+            } else if (!vistos.add(idExterno)) {
+                resultados[i] = resultado(idExterno, ResultadoSincronizacion.DUPLICADA, null, null, "Identificador repetido dentro del lote");
+            } else {
+                pendientes.add(i);
+            }
+        }
+
+        // Todos los productos del lote (con su categoría, para las promociones) en una sola consulta
+        Set<Long> productosIds = pendientes.stream()
+                .flatMap(i -> ventas.get(i).getVenta().getDetalleVentas().stream())
+                .map(DetalleVentaRequest::getProductoId)
+                .collect(Collectors.toSet());
+        Map<Long, ProductoEntity> productos = productoRepository.findAllByIdConCategoria(productosIds).stream()
+                .collect(Collectors.toMap(ProductoEntity::getId, Function.identity()));
+
+        for (int inicio = 0; inicio < pendientes.size(); inicio += TAMANO_LOTE) {
+            List<Integer> lote = pendientes.subList(inicio, Math.min(inicio + TAMANO_LOTE, pendientes.size()));
+            procesarLote(ventas, lote, productos, resultados);
+        }
+
+        SincronizacionVentasResponse respuesta = new SincronizacionVentasResponse();
+        respuesta.setRecibidas(ventas.size());
+        for (ResultadoVentaOfflineResponse resultado : resultados) {
+            switch (resultado.getResultado()) {
+                case CREADA -> respuesta.setCreadas(respuesta.getCreadas() + 1);
+                case DUPLICADA -> respuesta.setDuplicadas(respuesta.getDuplicadas() + 1);
+                case RECHAZADA -> respuesta.setRechazadas(respuesta.getRechazadas() + 1);
+            }
+            respuesta.getResultados().add(resultado);
+        }
+        return respuesta;
+    }
+
+    private void procesarLote(List<VentaOfflineRequest> ventas, List<Integer> lote, Map<Long, ProductoEntity> productos,
+                              ResultadoVentaOfflineResponse[] resultados) {
+        try {
+            List<VentaEntity> facturas = new ArrayList<>();
+            Map<Integer, ResultadoVentaOfflineResponse> resultadosLote = transactionTemplate.execute(status ->
+                    sincronizarLote(ventas, lote, productos, facturas));
+            resultadosLote.forEach((indice, resultado) -> resultados[indice] = resultado);
+
+            // El lote ya se confirmó: las facturas pueden salir
+            facturas.forEach(notificacionService::enviarFacturaVenta);
+        } catch (DuplicateKeyException e) {
+            // Otra sincronización concurrente registró alguna de estas ventas; al reintentar quedarán como DUPLICADA
+            marcarRechazadas(ventas, lote, resultados, "Otra sincronización registró ventas de este bloque; reintente");
+        } catch (DataAccessException e) {
+            log.error("Error al sincronizar bloque de ventas: {}", e.getMostSpecificCause().getMessage());
+            marcarRechazadas(ventas, lote, resultados, "No se pudo registrar el bloque: " + e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+            // Cualquier otro fallo revierte solo este bloque; los bloques anteriores ya confirmados conservan su resultado
+            log.error("Error inesperado al sincronizar bloque de ventas", e);
+            marcarRechazadas(ventas, lote, resultados, "No se pudo registrar el bloque: " + e.getMessage());
+        }
+    }
+
+    private Map<Integer, ResultadoVentaOfflineResponse> sincronizarLote(List<VentaOfflineRequest> ventas, List<Integer> lote,
+                                                                       Map<Long, ProductoEntity> productos,
+                                                                       List<VentaEntity> facturas) {
+        // Cuentas del bloque bloqueadas en orden de ID, igual que la aplicación de abonos por lote
+        Set<Long> cuentasIds = lote.stream()
+                .map(i -> ventas.get(i).getVenta().getCuentaClienteId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, CuentaClienteEntity> cuentas = cuentasIds.isEmpty() ? Map.of()
+                : cuentaClienteRepository.bloquearPorIds(cuentasIds).stream()
+                        .collect(Collectors.toMap(CuentaClienteEntity::getId, Function.identity()));
+        // Carga los titulares en una consulta para que las facturas no dependan de la sesión
+        usuarioRepository.findAllById(cuentas.values().stream().map(cuenta -> cuenta.getUsuario().getId()).toList());
+
+        Map<Integer, ResultadoVentaOfflineResponse> resultados = new HashMap<>();
+        Map<Long, Dinero> saldos = new HashMap<>();
+        List<VentaPreparada> aceptadas = new ArrayList<>();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // Autorización en el orden del dispositivo, acumulando el saldo de cada cuenta
+        for (int indice : lote) {
+            VentaOfflineRequest offline = ventas.get(indice);
+            VentaRequest venta = offline.getVenta();
+            CuentaClienteEntity cuenta = venta.getCuentaClienteId() != null ? cuentas.get(venta.getCuentaClienteId()) : null;
+
+            String error = null;
+            for (DetalleVentaRequest detalle : venta.getDetalleVentas()) {
+                if (!productos.containsKey(detalle.getProductoId())) {
+                    error = "Producto no encontrado con ID: " + detalle.getProductoId();
+                    break;
+                }
+            }
+            // Mismos precios y promociones que una venta en línea
+            CalculoPrecios precios = error == null ? motorPrecios.calcular(venta.getDetalleVentas(), productos) : null;
+            Dinero total = precios != null ? precios.total() : null;
+
+            if (error == null) {
+                error = validar(venta, cuenta, total, saldos);
+            }
+            if (error == null) {
+                error = descontarExistencias(precios);
+            }
+            if (error != null) {
+                resultados.put(indice, resultado(offline.getIdExterno(), ResultadoSincronizacion.RECHAZADA, null,
+                        total != null ? total.aBigDecimal() : null, error));
+                continue;
+            }
+
+            Dinero saldoAnterior = null;
+            Dinero saldoNuevo = null;
+            if (venta.getTipoVenta() == TipoVenta.CREDITO) {
+                saldoAnterior = saldos.computeIfAbsent(cuenta.getId(), id -> Dinero.de(cuenta.getSaldoActual()));
+                saldoNuevo = saldoAnterior.sumar(total);
+                saldos.put(cuenta.getId(), saldoNuevo);
+            }
+            // La fecha del dispositivo se respeta si no está en el futuro
+            LocalDateTime fechaVenta = offline.getFechaVenta() != null && !offline.getFechaVenta().isAfter(ahora)
+                    ? offline.getFechaVenta() : ahora;
+            aceptadas.add(new VentaPreparada(indice, offline, cuenta, precios, fechaVenta, saldoAnterior, saldoNuevo));
+        }
+
+        if (aceptadas.isEmpty()) {
+            return resultados;
+        }
+
+        List<Long> ventasIds = insertarVentas(aceptadas);
+        Timestamp marca = Timestamp.valueOf(ahora);
+        List<Object[]> detalles = new ArrayList<>();
+        List<Object[]> movimientos = new ArrayList<>();
+        for (int i = 0; i < aceptadas.size(); i++) {
+            VentaPreparada venta = aceptadas.get(i);
+            Long ventaId = ventasIds.get(i);
+            CalculoPrecios precios = venta.precios();
+            for (int linea = 0; linea < precios.lineas(); linea++) {
+                detalles.add(new Object[]{ventaId, precios.producto(linea).getId(), precios.cantidad(linea),
+                        precios.precioUnitario(linea).aBigDecimal(), precios.subtotalLinea(linea).aBigDecimal(),
+                        precios.descuentoLinea(linea).aBigDecimal()});
+            }
+            // El movimiento lleva la fecha de sincronización para no alterar meses ya cerrados
+            if (venta.saldoNuevo() != null) {
+                movimientos.add(new Object[]{venta.cuenta().getId(), TipoMovimiento.CARGO.name(), "Venta #" + ventaId,
+                        venta.total().aBigDecimal(), venta.saldoAnterior().aBigDecimal(), venta.saldoNuevo().aBigDecimal(),
+                        TipoReferencia.VENTA.name(), ventaId, marca, venta.cuenta().getUsuario().getId(), marca, marca});
+            }
+
+            resultados.put(venta.indice(), resultado(venta.offline().getIdExterno(), ResultadoSincronizacion.CREADA,
+                    ventaId, venta.total().aBigDecimal(), null));
+            if (venta.cuenta() != null) {
+                facturas.add(construirFactura(ventaId, venta));
+            }
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERTAR_DETALLE, detalles);
+        resumenVentasDiarioService.registrar(ventasIds);
+        if (!movimientos.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR_MOVIMIENTO, movimientos);
+        }
+
+        // Un solo UPDATE de saldo por cuenta
+        saldos.forEach((cuentaId, saldo) -> {
+            cuentas.get(cuentaId).setSaldoActual(saldo.aBigDecimal());
+            versionRecursosService.incrementarCuenta(cuentaId);
+        });
+        return resultados;
+    }
+
+    // Descuento todo o nada de la venta; si falta existencia se rechaza solo esta venta
+    private String descontarExistencias(CalculoPrecios precios) {
+        Map<Long, Integer> cantidades = new HashMap<>();
+        for (int linea = 0; linea < precios.lineas(); linea++) {
+            cantidades.merge(precios.producto(linea).getId(), precios.cantidad(linea), Integer::sum);
+        }
+        try {
+            inventarioService.descontar(cantidades);
+            return null;
+        } catch (InsufficientStockException e) {
+            return e.getMessage();
+        }
+    }
+
+    // Mismas reglas que VentaServiceImpl.crear, con el saldo acumulado de las ventas previas del bloque
+    private String validar(VentaRequest venta, CuentaClienteEntity cuenta, Dinero total, Map<Long, Dinero> saldos) {
+        if (venta.getTipoVenta() == TipoVenta.CREDITO) {
+            if (venta.getCuentaClienteId() == null) {
+                return "Para ventas a crédito se debe especificar una cuenta de cliente";
+            }
+            if (cuenta == null) {
+                return "Cuenta de cliente no encontrada";
+            }
+            Dinero saldo = saldos.getOrDefault(cuenta.getId(), Dinero.de(cuenta.getSaldoActual()));
+            Dinero disponible = Dinero.de(cuenta.getLimiteCredito()).restar(saldo);
+            if (cuenta.getEstado() != EstadoCuenta.ACTIVA || disponible.esMenorQue(total)) {
+                return "La cuenta no tiene crédito suficiente para realizar esta compra. Saldo disponible: $" + disponible;
+            }
+            return null;
+        }
+
+        if (venta.getCuentaClienteId() != null) {
+            return cuenta == null ? "Cuenta de cliente no encontrada" : null;
+        }
+        if (venta.getClienteOcasional() == null || venta.getClienteOcasional().trim().isEmpty()) {
+            return "Para ventas al contado sin cuenta se debe especificar el nombre del cliente";
+        }
+        return null;
+    }
+
+    // Inserción por lote JDBC; las claves generadas vuelven en el mismo orden de las ventas
+    private List<Long> insertarVentas(List<VentaPreparada> ventas) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(SQL_INSERTAR_VENTA, new String[]{"id"})) {
+                for (VentaPreparada venta : ventas) {
+                    VentaRequest datos = venta.offline().getVenta();
+                    if (venta.cuenta() != null) {
+                        ps.setLong(1, venta.cuenta().getId());
+                    } else {
+                        ps.setNull(1, Types.BIGINT);
+                    }
+                    ps.setString(2, venta.cuenta() != null ? null : datos.getClienteOcasional());
+                    ps.setTimestamp(3, Timestamp.valueOf(venta.fechaVenta()));
+                    ps.setBigDecimal(4, venta.precios().subtotal().aBigDecimal());
+                    ps.setBigDecimal(5, venta.precios().descuento().aBigDecimal());
+                    ps.setBigDecimal(6, venta.precios().impuesto().aBigDecimal());
+                    ps.setBigDecimal(7, venta.total().aBigDecimal());
+                    ps.setString(8, datos.getTipoVenta().name());
+                    ps.setString(9, estadoInicial(datos.getTipoVenta()).name());
+                    ps.setString(10, datos.getObservaciones());
+                    ps.setString(11, venta.offline().getIdExterno());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(ventas.size());
+                try (ResultSet claves = ps.getGeneratedKeys()) {
+                    while (claves.next()) {
+                        ids.add(claves.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    // Las ventas a crédito inician PENDIENTES y las de contado quedan PAGADAS
+    private EstadoVenta estadoInicial(TipoVenta tipoVenta) {
+        return tipoVenta == TipoVenta.CREDITO ? EstadoVenta.PENDIENTE : EstadoVenta.PAGADA;
+    }
+
+    private VentaEntity construirFactura(Long ventaId, VentaPreparada venta) {
+        VentaRequest datos = venta.offline().getVenta();
+        VentaEntity factura = VentaEntity.builder()
+                .id(ventaId)
+                .cuentaCliente(venta.cuenta())
+                .fechaVenta(venta.fechaVenta())
+                .subtotal(venta.precios().subtotal().aBigDecimal())
+                .descuento(venta.precios().descuento().aBigDecimal())
+                .impuesto(venta.precios().impuesto().aBigDecimal())
+                .total(venta.total().aBigDecimal())
+                .tipoVenta(datos.getTipoVenta())
+                .estado(estadoInicial(datos.getTipoVenta()))
+                .observaciones(datos.getObservaciones())
+                .idExterno(venta.offline().getIdExterno())
+                .build();
+        CalculoPrecios precios = venta.precios();
+        List<DetalleVentaEntity> detalles = new ArrayList<>(precios.lineas());
+        for (int linea = 0; linea < precios.lineas(); linea++) {
+            detalles.add(DetalleVentaEntity.builder()
+                    .venta(factura)
+                    .producto(precios.producto(linea))
+                    .cantidad(precios.cantidad(linea))
+                    .precioUnitario(precios.precioUnitario(linea).aBigDecimal())
+                    .subtotal(precios.subtotalLinea(linea).aBigDecimal())
+                    .descuento(precios.descuentoLinea(linea).aBigDecimal())
+                    .build());
+        }
+        factura.setDetalleVentas(detalles);
+        return factura;
+    }
+
+    private void marcarRechazadas(List<VentaOfflineRequest> ventas, List<Integer> lote,
+                                  ResultadoVentaOfflineResponse[] resultados, String mensaje) {
+        for (int indice : lote) {
+            resultados[indice] = resultado(ventas.get(indice).getIdExterno(), ResultadoSincronizacion.RECHAZADA,
+                    null, null, mensaje);
+        }
+    }
+
+    private ResultadoVentaOfflineResponse resultado(String idExterno, ResultadoSincronizacion resultado, Long ventaId,
+                                                    BigDecimal total, String mensaje) {
+        return new ResultadoVentaOfflineResponse(idExterno, resultado, ventaId, total, mensaje);
+    }
+
+    private record VentaPreparada(int indice, VentaOfflineRequest offline, CuentaClienteEntity cuenta,
+                                  CalculoPrecios precios, LocalDateTime fechaVenta,
+                                  Dinero saldoAnterior, Dinero saldoNuevo) {
+        Dinero total() {
+            return precios.total();
+        }
+    }
+}
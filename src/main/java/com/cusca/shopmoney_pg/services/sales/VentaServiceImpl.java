@@ -1,8 +1,9 @@
 package com.cusca.shopmoney_pg.services.sales;
 
-import com.cusca.shopmoney_pg.models.dto.request.DetalleVentaRequest;
 import com.cusca.shopmoney_pg.models.dto.request.VentaRequest;
 import com.cusca.shopmoney_pg.models.dto.request.update.UpdateVentaRequest;
+import com.cusca.shopmoney_pg.models.dto.response.CotizacionVentaResponse;
+import com.cusca.shopmoney_pg.models.dto.response.LineaCotizacionResponse;
 import com.cusca.shopmoney_pg.models.dto.response.VentaResponse;
 import com.cusca.shopmoney_pg.models.entities.CuentaClienteEntity;
 import com.cusca.shopmoney_pg.models.entities.DetalleVentaEntity;
@@ -12,59 +13,108 @@ import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
 import com.cusca.shopmoney_pg.models.enums.TipoReferencia;
 import com.cusca.shopmoney_pg.models.enums.TipoVenta;
 import com.cusca.shopmoney_pg.repositories.*;
+import com.cusca.shopmoney_pg.services.account.CreditoDisponibleCache;
 import com.cusca.shopmoney_pg.services.account.ICuentaClienteService;
+import com.cusca.shopmoney_pg.services.catalog.IInventarioService;
+import com.cusca.shopmoney_pg.services.catalog.IReservaExistenciasService;
+import com.cusca.shopmoney_pg.services.pricing.CalculoPrecios;
+import com.cusca.shopmoney_pg.services.pricing.MotorPrecios;
+import com.cusca.shopmoney_pg.utils.dinero.Dinero;
 import com.cusca.shopmoney_pg.utils.exceptions.InsufficientBalanceException;
 import com.cusca.shopmoney_pg.utils.exceptions.InvalidSaleStateException;
 import com.cusca.shopmoney_pg.utils.exceptions.InvalidSaleTypeException;
 import com.cusca.shopmoney_pg.utils.exceptions.ResourceNotFoundException;
-import com.cusca.shopmoney_pg.utils.mappers.DetalleVentaMapper;
+import com.cusca.shopmoney_pg.utils.lotes.LoteUtils;
 import com.cusca.shopmoney_pg.utils.mappers.VentaMapper;
+import com.cusca.shopmoney_pg.services.finance.AsignacionPagosService;
 import com.cusca.shopmoney_pg.services.notification.NotificacionServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class VentaServiceImpl implements IVentaService{
     private final VentaRepository ventaRepository;
-    private final ProductoRepository productoRepository;
     private final CuentaClienteRepository cuentaClienteRepository;
     private final ICuentaClienteService cuentaClienteService;
     private final VentaMapper ventaMapper;
-    private final DetalleVentaMapper detalleVentaMapper;
     private final NotificacionServiceImpl notificacionService;
     private final DetalleVentaRepository detalleVentaRepository;
+    private final AsignacionPagosService asignacionPagosService;
+    private final MaquinaEstadosVenta maquinaEstadosVenta;
+    private final IInventarioService inventarioService;
+    private final IReservaExistenciasService reservaExistenciasService;
+    private final MotorPrecios motorPrecios;
+    private final CreditoDisponibleCache creditoDisponibleCache;
+    private final ResumenVentasDiarioService resumenVentasDiarioService;
 
     @Override
     public VentaResponse crear(VentaRequest request) {
-        // Primero calcular totales basado en los productos y cantidades
-        BigDecimal totalCalculado = calcularTotalVenta(request.getDetalleVentas());
+        // Primero calcular precios, promociones e impuesto en una pasada sobre los productos
+        CalculoPrecios precios = motorPrecios.calcular(request.getDetalleVentas());
 
         // Determinar el tipo de venta y procesar según corresponda
         if (request.getTipoVenta() == TipoVenta.CREDITO) {
-            return procesarVentaCredito(request, totalCalculado);
+            return procesarVentaCredito(request, precios);
         } else {
-            return procesarVentaContado(request, totalCalculado);
+            return procesarVentaContado(request, precios);
         }
     }
 
-    private VentaResponse procesarVentaCredito(VentaRequest request, BigDecimal totalCalculado) {
+    // Solo lectura y sin transacción: precios y crédito salen de memoria, no se reservan existencias ni crédito
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CotizacionVentaResponse cotizar(VentaRequest request) {
+        CotizacionVentaResponse cotizacion = new CotizacionVentaResponse();
+        CalculoPrecios precios = motorPrecios.cotizar(request.getDetalleVentas());
+
+        List<LineaCotizacionResponse> lineas = new ArrayList<>(precios.lineas());
+        for (int linea = 0; linea < precios.lineas(); linea++) {
+            lineas.add(new LineaCotizacionResponse(precios.productoId(linea), precios.cantidad(linea),
+                    precios.precioUnitario(linea).aBigDecimal(), precios.subtotalLinea(linea).aBigDecimal(),
+                    precios.descuentoLinea(linea).aBigDecimal()));
+        }
+        cotizacion.setLineas(lineas);
+        cotizacion.setSubtotal(precios.subtotal().aBigDecimal());
+        cotizacion.setDescuento(precios.descuento().aBigDecimal());
+        cotizacion.setImpuesto(precios.impuesto().aBigDecimal());
+        cotizacion.setTotal(precios.total().aBigDecimal());
+
+        if (request.getTipoVenta() == TipoVenta.CREDITO) {
+            if (request.getCuentaClienteId() == null) {
+                throw new InvalidSaleTypeException("Para ventas a crédito se debe especificar una cuenta de cliente");
+            }
+            CreditoDisponibleCache.CreditoCuenta credito = creditoDisponibleCache.obtener(request.getCuentaClienteId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Cuenta de cliente no encontrada"));
+            cotizacion.setCreditoDisponible(credito.disponible().aBigDecimal());
+            cotizacion.setCreditoSuficiente(credito.cubre(precios.total()));
+        }
+        return cotizacion;
+    }
+
+    private VentaResponse procesarVentaCredito(VentaRequest request, CalculoPrecios precios) {
+        BigDecimal totalCalculado = precios.total().aBigDecimal();
+
         // Validar que se especifique una cuenta de cliente
         if (request.getCuentaClienteId() == null) {
             throw new InvalidSaleTypeException("Para ventas a crédito se debe especificar una cuenta de cliente");
         }
 
-        // Verificar que la cuenta existe y puede realizar la compra
-        CuentaClienteEntity cuenta = cuentaClienteRepository.findById(request.getCuentaClienteId())
+        // Cuenta bloqueada hasta el commit: la verificación de crédito y el cargo ven el mismo saldo
+        CuentaClienteEntity cuenta = cuentaClienteRepository.findByIdParaActualizar(request.getCuentaClienteId())
                 .orElseThrow(() -> new ResourceNotFoundException("Cuenta de cliente no encontrada"));
 
         // Verificar que la cuenta puede realizar la compra
@@ -74,26 +124,26 @@ public class VentaServiceImpl implements IVentaService{
         }
 
         // Crear la venta
-        VentaEntity venta = crearVentaBase(request, cuenta, null, totalCalculado);
+        VentaEntity venta = crearVentaBase(request, cuenta, null, precios);
         venta.setEstado(EstadoVenta.PENDIENTE); // Las ventas a crédito inician como PENDIENTE
 
         VentaEntity ventaGuardada = ventaRepository.save(venta);
 
         // Procesar detalles de venta
-        procesarDetallesVenta(ventaGuardada, request.getDetalleVentas());
+        procesarDetallesVenta(ventaGuardada, precios, request.getCarritoId());
 
         // Cargar el monto a la cuenta del cliente usando el ID de la venta como referencia
         cuentaClienteService.cargarSaldoConReferencia(cuenta.getId(), totalCalculado,
                 "Venta #" + ventaGuardada.getId(), cuenta.getUsuario().getId(),
                 TipoReferencia.VENTA, ventaGuardada.getId());
 
-        // FACTURA POR CORREO (VENTA A CRÉDITO)
-        notificacionService.enviarFacturaVenta(ventaGuardada);
+        // FACTURA POR CORREO (VENTA A CRÉDITO), solo cuando la venta quede confirmada
+        despuesDelCommit(() -> notificacionService.enviarFacturaVenta(ventaGuardada));
 
         return ventaMapper.toResponse(ventaGuardada);
     }
 
-    private VentaResponse procesarVentaContado(VentaRequest request, BigDecimal totalCalculado) {
+    private VentaResponse procesarVentaContado(VentaRequest request, CalculoPrecios precios) {
         CuentaClienteEntity cuenta = null;
         String clienteOcasional = null;
 
@@ -110,17 +160,17 @@ public class VentaServiceImpl implements IVentaService{
         }
 
         // Crear la venta
-        VentaEntity venta = crearVentaBase(request, cuenta, clienteOcasional, totalCalculado);
+        VentaEntity venta = crearVentaBase(request, cuenta, clienteOcasional, precios);
         venta.setEstado(EstadoVenta.PAGADA); // Las ventas al contado se marcan como PAGADA inmediatamente
 
         VentaEntity ventaGuardada = ventaRepository.save(venta);
 
         // Procesar detalles de venta
-        procesarDetallesVenta(ventaGuardada, request.getDetalleVentas());
+        procesarDetallesVenta(ventaGuardada, precios, request.getCarritoId());
 
         // FACTURA POR CORREO (VENTA DE CONTADO - SOLO SI TIENE CUENTA)
         if (cuenta != null) { // Solo enviar correo si el cliente tiene cuenta registrada
-            notificacionService.enviarFacturaVenta(ventaGuardada);
+            despuesDelCommit(() -> notificacionService.enviarFacturaVenta(ventaGuardada));
         }
 
         return ventaMapper.toResponse(ventaGuardada);
@@ -131,10 +181,14 @@ public class VentaServiceImpl implements IVentaService{
         VentaEntity venta = buscarEntidadPorId(id);
 
         // Validar que la venta se puede modificar
-        if (!puedeModificar(id)) {
+        if (!maquinaEstadosVenta.esModificable(venta)) {
             throw new InvalidSaleStateException("La venta no se puede modificar en su estado actual: " + venta.getEstado());
         }
 
+        // El mapeo puede cambiar el estado; el resumen diario se mueve antes de que llegue a la base de datos
+        if (request.getEstado() != null && request.getEstado() != venta.getEstado()) {
+            resumenVentasDiarioService.cambiarEstado(List.of(id), request.getEstado());
+        }
         ventaMapper.updateEntity(venta, request);
         VentaEntity ventaActualizada = ventaRepository.save(venta);
 
@@ -150,6 +204,7 @@ public class VentaServiceImpl implements IVentaService{
             throw new InvalidSaleStateException("Solo se pueden eliminar ventas canceladas");
         }
 
+        resumenVentasDiarioService.retirar(List.of(id));
         ventaRepository.deleteById(id);
     }
 
@@ -243,50 +298,37 @@ public class VentaServiceImpl implements IVentaService{
     @Override
     @Transactional(readOnly = true)
     public boolean puedeModificar(Long ventaId) {
-        VentaEntity venta = buscarEntidadPorId(ventaId);
-
-        // Solo se pueden modificar ventas PENDIENTES
-        return venta.getEstado() == EstadoVenta.PENDIENTE;
+        return maquinaEstadosVenta.esModificable(buscarEntidadPorId(ventaId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean puedeAnular(Long ventaId) {
-        VentaEntity venta = buscarEntidadPorId(ventaId);
-
-        // Se pueden anular ventas PENDIENTES y PARCIALES
-        return venta.getEstado() == EstadoVenta.PENDIENTE || venta.getEstado() == EstadoVenta.PARCIAL;
+        return maquinaEstadosVenta.esAnulable(buscarEntidadPorId(ventaId));
     }
 
     // GESTIÓN DE ESTADO
 
     @Override
     public VentaResponse cambiarEstado(Long id, EstadoVenta nuevoEstado) {
-        VentaEntity venta = buscarEntidadPorId(id);
-        EstadoVenta estadoAnterior = venta.getEstado();
-
-        // Validar transiciones de estado válidas
-        validarTransicionEstado(estadoAnterior, nuevoEstado);
-
-        venta.setEstado(nuevoEstado);
-        VentaEntity ventaActualizada = ventaRepository.save(venta);
-
-        return ventaMapper.toResponse(ventaActualizada);
+        return aplicarTransicion(maquinaEstadosVenta.cargar(id), nuevoEstado);
     }
 
     @Override
     public VentaResponse marcarComoPagada(Long id) {
-        VentaEntity venta = buscarEntidadPorId(id);
+        VentaEntity venta = maquinaEstadosVenta.cargar(id);
+        maquinaEstadosVenta.validar(venta, EstadoVenta.PAGADA);
 
-        // Si es venta a crédito, crear abono automático con referencia a la venta
-        if (venta.getTipoVenta() == TipoVenta.CREDITO && venta.getCuentaCliente() != null) {
+        // Si es venta a crédito, crear abono automático por lo que falte cubrir con abonos ya asignados
+        BigDecimal pendiente = venta.getTotal().subtract(asignacionPagosService.montoAsignadoAVenta(venta.getId()));
+        if (venta.getTipoVenta() == TipoVenta.CREDITO && venta.getCuentaCliente() != null && pendiente.signum() > 0) {
             cuentaClienteService.abonarSaldoConReferencia(venta.getCuentaCliente().getId(),
-                    venta.getTotal(), "Pago venta #" + venta.getId(),
+                    pendiente, "Pago venta #" + venta.getId(),
                     venta.getCuentaCliente().getUsuario().getId(),
                     TipoReferencia.VENTA, venta.getId());
         }
 
-        return cambiarEstado(id, EstadoVenta.PAGADA);
+        return aplicarTransicion(venta, EstadoVenta.PAGADA);
     }
 
     @Override
@@ -296,7 +338,8 @@ public class VentaServiceImpl implements IVentaService{
 
     @Override
     public VentaResponse cancelar(Long id) {
-        VentaEntity venta = buscarEntidadPorId(id);
+        VentaEntity venta = maquinaEstadosVenta.cargar(id);
+        maquinaEstadosVenta.validar(venta, EstadoVenta.CANCELADA);
 
         // Si es venta a crédito pendiente, revertir el cargo con referencia a la venta
         if (venta.getTipoVenta() == TipoVenta.CREDITO &&
@@ -309,7 +352,14 @@ public class VentaServiceImpl implements IVentaService{
                     TipoReferencia.VENTA, venta.getId());
         }
 
-        return cambiarEstado(id, EstadoVenta.CANCELADA);
+        // Devolver al inventario lo que la venta descontó
+        if (Boolean.TRUE.equals(venta.getExistenciasDescontadas())) {
+            inventarioService.reponer(venta.getDetalleVentas().stream()
+                    .collect(Collectors.toMap(detalle -> detalle.getProducto().getId(), DetalleVentaEntity::getCantidad, Integer::sum)));
+            venta.setExistenciasDescontadas(false);
+        }
+
+        return aplicarTransicion(venta, EstadoVenta.CANCELADA);
     }
 
     @Override
@@ -317,19 +367,30 @@ public class VentaServiceImpl implements IVentaService{
         VentaEntity venta = buscarEntidadPorId(id);
 
         // Solo se pueden recalcular ventas PENDIENTES
-        if (!puedeModificar(id)) {
+        if (!maquinaEstadosVenta.esModificable(venta)) {
             throw new InvalidSaleStateException("Solo se pueden recalcular totales de ventas PENDIENTES");
         }
+        resumenVentasDiarioService.retirar(List.of(id));
+
+        // Recalcular subtotal, descuento e impuesto basado en los detalles
+        Dinero nuevoSubtotal = Dinero.CERO;
+        Dinero nuevoDescuento = Dinero.CERO;
+        for (DetalleVentaEntity detalle : venta.getDetalleVentas()) {
+            nuevoSubtotal = nuevoSubtotal.sumar(Dinero.de(detalle.getSubtotal()));
+            if (detalle.getDescuento() != null) {
+                nuevoDescuento = nuevoDescuento.sumar(Dinero.de(detalle.getDescuento()));
+            }
+        }
+        Dinero nuevoImpuesto = motorPrecios.calcularImpuesto(nuevoSubtotal.restar(nuevoDescuento));
 
-        // Recalcular subtotal y total basado en los detalles
-        BigDecimal nuevoSubtotal = venta.getDetalleVentas().stream()
-                .map(DetalleVentaEntity::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        venta.setSubtotal(nuevoSubtotal);
-        venta.setTotal(nuevoSubtotal); // Por ahora sin impuestos adicionales
+        venta.setSubtotal(nuevoSubtotal.aBigDecimal());
+        venta.setDescuento(nuevoDescuento.aBigDecimal());
+        venta.setImpuesto(nuevoImpuesto.aBigDecimal());
+        venta.setTotal(nuevoSubtotal.restar(nuevoDescuento).sumar(nuevoImpuesto).aBigDecimal());
 
-        VentaEntity ventaActualizada = ventaRepository.save(venta);
+        // Flush para que el resumen diario lea los montos nuevos
+        VentaEntity ventaActualizada = ventaRepository.saveAndFlush(venta);
+        resumenVentasDiarioService.registrar(List.of(id));
 
         return ventaMapper.toResponse(ventaActualizada);
     }
@@ -337,8 +398,7 @@ public class VentaServiceImpl implements IVentaService{
     @Override
     @Transactional(readOnly = true)
     public VentaEntity buscarEntidadPorId(Long id) {
-        return ventaRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Venta no encontrada con ID: " + id));
+        return maquinaEstadosVenta.cargar(id);
     }
 
     @Override
@@ -410,13 +470,15 @@ public class VentaServiceImpl implements IVentaService{
 
     // MÉTODOS AUXILIARES
 
-    private VentaEntity crearVentaBase(VentaRequest request, CuentaClienteEntity cuenta, String clienteOcasional, BigDecimal totalCalculado) {
+    private VentaEntity crearVentaBase(VentaRequest request, CuentaClienteEntity cuenta, String clienteOcasional, CalculoPrecios precios) {
         VentaEntity venta = ventaMapper.toEntity(request);
         venta.setCuentaCliente(cuenta);
         venta.setClienteOcasional(clienteOcasional);
         venta.setFechaVenta(LocalDateTime.now());
-        venta.setTotal(totalCalculado);
-        venta.setSubtotal(totalCalculado); // Establecer el subtotal igual al total por ahora
+        venta.setSubtotal(precios.subtotal().aBigDecimal());
+        venta.setDescuento(precios.descuento().aBigDecimal());
+        venta.setImpuesto(precios.impuesto().aBigDecimal());
+        venta.setTotal(precios.total().aBigDecimal());
 
         // Establecer estado por defecto si no se proporciona
         if (venta.getEstado() == null) {
@@ -426,31 +488,35 @@ public class VentaServiceImpl implements IVentaService{
         return venta;
     }
 
-    private void procesarDetallesVenta(VentaEntity venta, List<DetalleVentaRequest> detallesRequest) {
-        List<DetalleVentaEntity> detalles = new ArrayList<>();
-        BigDecimal subtotalVenta = BigDecimal.ZERO;
-
-        for (DetalleVentaRequest detalleRequest : detallesRequest) {
-            // Verificar que el producto existe
-            ProductoEntity producto = productoRepository.findById(detalleRequest.getProductoId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con ID: " + detalleRequest.getProductoId()));
-
-            DetalleVentaEntity detalle = detalleVentaMapper.toEntity(detalleRequest);
-            detalle.setVenta(venta);
-            detalle.setProducto(producto);
-
-            // Establecer el precio unitario del producto automáticamente
-            detalle.setPrecioUnitario(producto.getPrecioUnitario());
-            detalle.setCantidad(detalleRequest.getCantidad());
+    private void procesarDetallesVenta(VentaEntity venta, CalculoPrecios precios, String carritoId) {
+        List<DetalleVentaEntity> detalles = new ArrayList<>(precios.lineas());
+        Map<Long, Integer> cantidadesPorProducto = new HashMap<>();
 
-            // Calcular subtotal automáticamente
-            BigDecimal subtotalDetalle = producto.getPrecioUnitario().multiply(BigDecimal.valueOf(detalleRequest.getCantidad()));
-            detalle.setSubtotal(subtotalDetalle);
+        // Los productos y montos de cada línea ya vienen del motor de precios
+        for (int linea = 0; linea < precios.lineas(); linea++) {
+            ProductoEntity producto = precios.producto(linea);
+            DetalleVentaEntity detalle = DetalleVentaEntity.builder()
+                    .venta(venta)
+                    .producto(producto)
+                    .cantidad(precios.cantidad(linea))
+                    .precioUnitario(precios.precioUnitario(linea).aBigDecimal())
+                    .subtotal(precios.subtotalLinea(linea).aBigDecimal())
+                    .descuento(precios.descuentoLinea(linea).aBigDecimal())
+                    .build();
 
-            subtotalVenta = subtotalVenta.add(subtotalDetalle);
             detalles.add(detalle);
+            cantidadesPorProducto.merge(producto.getId(), precios.cantidad(linea), Integer::sum);
         }
 
+        // Descontar inventario con UPDATE condicional; si falta existencia la venta completa se revierte.
+        // Con carrito, lo reservado ya está descontado y solo la diferencia pasa por el inventario
+        if (carritoId != null) {
+            reservaExistenciasService.confirmar(carritoId, cantidadesPorProducto);
+        } else {
+            inventarioService.descontar(cantidadesPorProducto);
+        }
+        venta.setExistenciasDescontadas(true);
+
         // Guardar todos los detalles en la base de datos para que obtengan sus IDs
         List<DetalleVentaEntity> detallesGuardados = new ArrayList<>();
         for (DetalleVentaEntity detalle : detalles) {
@@ -460,43 +526,41 @@ public class VentaServiceImpl implements IVentaService{
 
         // Actualizar la venta con los detalles guardados (que ya tienen IDs)
         venta.setDetalleVentas(detallesGuardados);
-        venta.setSubtotal(subtotalVenta);
 
         // Guardar la venta actualizada con los detalles
         ventaRepository.save(venta);
-    }
-
-    private void validarTransicionEstado(EstadoVenta estadoActual, EstadoVenta nuevoEstado) {
-        // Definir transiciones válidas
-        boolean transicionValida = switch (estadoActual) {
-            case PENDIENTE -> nuevoEstado == EstadoVenta.PAGADA ||
-                    nuevoEstado == EstadoVenta.PARCIAL ||
-                    nuevoEstado == EstadoVenta.CANCELADA;
-            case PARCIAL -> nuevoEstado == EstadoVenta.PAGADA ||
-                    nuevoEstado == EstadoVenta.CANCELADA;
-            case PAGADA -> false; // Las ventas pagadas no se pueden cambiar
-            case CANCELADA -> false; // Las ventas canceladas no se pueden cambiar
-        };
-
-        if (!transicionValida) {
-            throw new InvalidSaleStateException(String.format("No se puede cambiar el estado de %s a %s",
-                    estadoActual, nuevoEstado));
+        resumenVentasDiarioService.registrar(List.of(venta.getId()));
+    }
+
+    // La venta puede formar parte de una transacción mayor (p. ej. Idempotency-Key); el correo no debe salir si se revierte
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
         }
     }
 
-    private BigDecimal calcularTotalVenta(List<DetalleVentaRequest> detallesRequest) {
-        BigDecimal total = BigDecimal.ZERO;
-
-        for (DetalleVentaRequest detalleRequest : detallesRequest) {
-            // Obtener el producto para extraer su precio
-            ProductoEntity producto = productoRepository.findById(detalleRequest.getProductoId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con ID: " + detalleRequest.getProductoId()));
+    // Una lectura (ya hecha por el llamador) y una escritura; el flush verifica la versión dentro del servicio
+    private VentaResponse aplicarTransicion(VentaEntity venta, EstadoVenta nuevoEstado) {
+        maquinaEstadosVenta.transicionar(venta, nuevoEstado);
+        return ventaMapper.toResponse(ventaRepository.saveAndFlush(venta));
+    }
 
-            // Calcular subtotal usando el precio del producto
-            BigDecimal subtotal = producto.getPrecioUnitario().multiply(BigDecimal.valueOf(detalleRequest.getCantidad()));
-            total = total.add(subtotal);
+    @Override
+    @Transactional(readOnly = true)
+    public List<VentaResponse> buscarPorIds(List<Long> ids) {
+        List<Long> idsUnicos = LoteUtils.normalizarIds(ids);
+        if (idsUnicos.isEmpty()) {
+            return List.of();
         }
 
-        return total;
+        return LoteUtils.ordenarSegunIds(idsUnicos, ventaRepository.findAllByIdConDetalles(idsUnicos),
+                VentaEntity::getId, ventaMapper::toResponse);
     }
 }
@@ -0,0 +1,70 @@
+package com.cusca.shopmoney_pg.utils.bloom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom concurrente para cadenas.
+// "false" es definitivo (el valor nunca se agregó); "true" significa que podría existir.
+public class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcionesHash;
+
+    public BloomFilter(long elementosEsperados, double probabilidadFalsoPositivo) {
+        long n = Math.max(1, elementosEsperados);
+        long m = (long) Math.ceil(-n * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.totalBits = Math.max(64, m);
+        this.funcionesHash = Math.max(1, (int) Math.round((double) totalBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((totalBits + 63) / 64));
+    }
+
+    public void agregar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= funcionesHash; i++) {
+            long indice = Math.floorMod(h1 + (long) i * h2, totalBits);
+            establecerBit(indice);
+        }
+    }
+
+    public boolean podriaContener(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= funcionesHash; i++) {
+            long indice = Math.floorMod(h1 + (long) i * h2, totalBits);
+            if ((bits.get((int) (indice >>> 6)) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void establecerBit(long indice) {
+        int palabra = (int) (indice >>> 6);
+        long mascara = 1L << indice;
+        long actual;
+        do {
+            actual = bits.get(palabra);
+            if ((actual & mascara) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+    }
+
+    // FNV-1a de 64 bits con mezcla final (fmix64 de MurmurHash3)
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cusca.shopmoney_pg.utils.bloqueos;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Coordina jobs programados entre varias instancias con advisory locks de PostgreSQL.
+ * El bloqueo es de sesión: se mantiene en una conexión dedicada mientras corre la tarea,
+ * que puede usar otras conexiones y confirmar sus propias transacciones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BloqueoAsesor {
+    private final JdbcTemplate jdbcTemplate;
+
+    // Retorna false sin ejecutar la tarea si otra instancia tiene el bloqueo
+    public boolean ejecutarSiDisponible(long clave, Runnable tarea) {
+        Boolean ejecutada = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!consultar(con, "SELECT pg_try_advisory_lock(?)", clave)) {
+                return false;
+            }
+            try {
+                tarea.run();
+                return true;
+            } finally {
+                if (!consultar(con, "SELECT pg_advisory_unlock(?)", clave)) {
+                    log.warn("El advisory lock {} ya no estaba tomado al liberarlo", clave);
+                }
+            }
+        });
+        return Boolean.TRUE.equals(ejecutada);
+    }
+
+    private boolean consultar(Connection con, String sql, long clave) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, clave);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
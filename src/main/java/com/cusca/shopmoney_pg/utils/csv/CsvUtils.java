@@ -0,0 +1,64 @@
+package com.cusca.shopmoney_pg.utils.csv;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CsvUtils {
+
+    private CsvUtils() {
+    }
+
+    // Divide una línea CSV respetando comillas dobles ("a,b" y "" como comilla escapada)
+    public static List<String> dividirLinea(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString().trim());
+        return campos;
+    }
+
+    // Índice de cada columna del encabezado, sin distinguir mayúsculas
+    public static Map<String, Integer> indexarEncabezados(String lineaEncabezados) {
+        Map<String, Integer> indices = new HashMap<>();
+        List<String> encabezados = dividirLinea(lineaEncabezados.replace("\uFEFF", ""));
+        for (int i = 0; i < encabezados.size(); i++) {
+            indices.put(encabezados.get(i).toLowerCase(), i);
+        }
+        return indices;
+    }
+
+    // Valor de la columna o null si no existe o está vacía
+    public static String valor(List<String> campos, Map<String, Integer> indices, String columna) {
+        Integer indice = indices.get(columna.toLowerCase());
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice);
+        return valor.isEmpty() ? null : valor;
+    }
+}
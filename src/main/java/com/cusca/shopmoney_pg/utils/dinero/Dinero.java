@@ -0,0 +1,95 @@
+package com.cusca.shopmoney_pg.utils.dinero;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Monto inmutable respaldado por un long de centavos.
+// Todas las columnas monetarias son precision = 10, scale = 2, así que caben sin pérdida;
+// las operaciones no reservan objetos intermedios y fallan con ArithmeticException si desbordan.
+public final class Dinero implements Comparable<Dinero> {
+    public static final Dinero CERO = new Dinero(0);
+
+    private static final int ESCALA = 2;
+
+    private final long centavos;
+
+    private Dinero(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static Dinero deCentavos(long centavos) {
+        return centavos == 0 ? CERO : new Dinero(centavos);
+    }
+
+    // Conversión exacta: un monto con más de dos decimales significativos lanza ArithmeticException
+    public static Dinero de(BigDecimal monto) {
+        if (monto == null) {
+            return null;
+        }
+        return deCentavos(monto.setScale(ESCALA, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    public BigDecimal aBigDecimal() {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public Dinero sumar(Dinero otro) {
+        return deCentavos(Math.addExact(centavos, otro.centavos));
+    }
+
+    public Dinero restar(Dinero otro) {
+        return deCentavos(Math.subtractExact(centavos, otro.centavos));
+    }
+
+    public Dinero multiplicar(long factor) {
+        return deCentavos(Math.multiplyExact(centavos, factor));
+    }
+
+    public Dinero min(Dinero otro) {
+        return centavos <= otro.centavos ? this : otro;
+    }
+
+    public int signo() {
+        return Long.signum(centavos);
+    }
+
+    public boolean esCero() {
+        return centavos == 0;
+    }
+
+    public boolean esNegativo() {
+        return centavos < 0;
+    }
+
+    public boolean esMayorQue(Dinero otro) {
+        return centavos > otro.centavos;
+    }
+
+    public boolean esMenorQue(Dinero otro) {
+        return centavos < otro.centavos;
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        return Long.compare(centavos, otro.centavos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Dinero otro && centavos == otro.centavos);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    @Override
+    public String toString() {
+        return aBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.cusca.shopmoney_pg.utils.estados;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Tabla inmutable de transiciones permitidas entre los valores de un enum de estado
+public final class TablaTransiciones<E extends Enum<E>> {
+    private final Map<E, Set<E>> permitidas;
+
+    private TablaTransiciones(Map<E, Set<E>> permitidas) {
+        this.permitidas = permitidas;
+    }
+
+    public static <E extends Enum<E>> Constructor<E> para(Class<E> tipo) {
+        return new Constructor<>(tipo);
+    }
+
+    public boolean permite(E actual, E nuevo) {
+        return permitidas.get(actual).contains(nuevo);
+    }
+
+    public void validar(E actual, E nuevo, Function<String, ? extends RuntimeException> error) {
+        if (!permite(actual, nuevo)) {
+            throw error.apply(String.format("No se puede cambiar el estado de %s a %s", actual, nuevo));
+        }
+    }
+
+    public static final class Constructor<E extends Enum<E>> {
+        private final Class<E> tipo;
+        private final EnumMap<E, Set<E>> permitidas;
+
+        private Constructor(Class<E> tipo) {
+            this.tipo = tipo;
+            this.permitidas = new EnumMap<>(tipo);
+            for (E estado : tipo.getEnumConstants()) {
+                permitidas.put(estado, EnumSet.noneOf(tipo));
+            }
+        }
+
+        @SafeVarargs
+        public final Constructor<E> desde(E actual, E... destinos) {
+            permitidas.get(actual).addAll(Arrays.asList(destinos));
+            return this;
+        }
+
+        public TablaTransiciones<E> construir() {
+            EnumMap<E, Set<E>> copia = new EnumMap<>(tipo);
+            permitidas.forEach((estado, destinos) -> copia.put(estado, Set.copyOf(destinos)));
+            return new TablaTransiciones<>(copia);
+        }
+    }
+}
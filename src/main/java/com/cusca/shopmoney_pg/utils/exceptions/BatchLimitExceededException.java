@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.utils.exceptions;
+
+public class BatchLimitExceededException extends RuntimeException {
+    public BatchLimitExceededException(String message) {
+        super(message);
+    }
+}
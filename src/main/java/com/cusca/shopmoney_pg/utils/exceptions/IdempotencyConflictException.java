@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.utils.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
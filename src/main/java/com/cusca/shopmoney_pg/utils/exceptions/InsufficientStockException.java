@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.utils.exceptions;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
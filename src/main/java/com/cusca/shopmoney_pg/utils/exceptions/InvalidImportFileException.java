@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.utils.exceptions;
+
+public class InvalidImportFileException extends RuntimeException {
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.utils.exceptions;
+
+public class InvalidPeriodException extends RuntimeException {
+    public InvalidPeriodException(String message) {
+        super(message);
+    }
+}
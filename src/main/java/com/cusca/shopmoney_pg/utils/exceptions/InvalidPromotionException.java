@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.utils.exceptions;
+
+public class InvalidPromotionException extends RuntimeException {
+    public InvalidPromotionException(String message) {
+        super(message);
+    }
+}
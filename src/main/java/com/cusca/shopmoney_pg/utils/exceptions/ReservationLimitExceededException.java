@@ -0,0 +1,7 @@
+package com.cusca.shopmoney_pg.utils.exceptions;
+
+public class ReservationLimitExceededException extends RuntimeException {
+    public ReservationLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package com.cusca.shopmoney_pg.utils.http;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public final class EtagUtils {
+
+    private EtagUtils() {
+    }
+
+    // Responde 304 si el cliente ya tiene la versión actual; solo en caso contrario se cargan los datos.
+    // Un cuerpo null se responde como 404, igual que los endpoints que devuelven Optional.
+    public static <T> ResponseEntity<T> responder(HttpServletRequest request, String etag, Supplier<T> cargar) {
+        if (coincide(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        T cuerpo = cargar.get();
+        if (cuerpo == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(cuerpo);
+    }
+
+    private static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+
+        for (String candidato : ifNoneMatch.split(",")) {
+            // If-None-Match usa comparación débil: se ignora el prefijo W/.
+            // "*" no se trata como coincidencia: en un GET solo tiene sentido para PUT condicionales
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cusca.shopmoney_pg.utils.lotes;
+
+import com.cusca.shopmoney_pg.utils.exceptions.BatchLimitExceededException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public final class LoteUtils {
+    // Máximo de IDs aceptados por consulta múltiple
+    public static final int MAX_IDS_POR_CONSULTA = 100;
+
+    private LoteUtils() {
+    }
+
+    // Elimina nulos y duplicados conservando el orden de la petición
+    public static List<Long> normalizarIds(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+
+        List<Long> unicos = new ArrayList<>(ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        if (unicos.size() > MAX_IDS_POR_CONSULTA) {
+            throw new BatchLimitExceededException("Se permiten como máximo " + MAX_IDS_POR_CONSULTA + " IDs por consulta");
+        }
+        return unicos;
+    }
+
+    // Reordena los resultados según los IDs solicitados; los IDs inexistentes se omiten
+    public static <E, R> List<R> ordenarSegunIds(List<Long> ids, List<E> entidades,
+                                                 Function<E, Long> obtenerId, Function<E, R> mapear) {
+        Map<Long, E> porId = entidades.stream()
+                .collect(Collectors.toMap(obtenerId, Function.identity(), (a, b) -> a));
+
+        List<R> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            E entidad = porId.get(id);
+            if (entidad != null) {
+                resultado.add(mapear.apply(entidad));
+            }
+        }
+        return resultado;
+    }
+}
@@ -17,6 +17,7 @@ public interface AbonoMapper {
     @Mapping(target = "fechaAbono", ignore = true)
     @Mapping(target = "cuentaCliente", ignore = true)
     @Mapping(target = "createUpdateStamp", ignore = true)
+    @Mapping(target = "version", ignore = true)
     AbonoEntity toEntity(AbonoRequest request);
 
     @Mapping(source = "cuentaCliente.id", target = "cuentaClienteId")
@@ -29,5 +30,6 @@ public interface AbonoMapper {
     @Mapping(target = "cuentaCliente", ignore = true)
     @Mapping(target = "createUpdateStamp", ignore = true)
     @Mapping(target = "monto", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(@MappingTarget AbonoEntity entity, UpdateAbonoRequest request);
 }
@@ -0,0 +1,26 @@
+package com.cusca.shopmoney_pg.utils.mappers;
+
+import com.cusca.shopmoney_pg.models.dto.request.PromocionRequest;
+import com.cusca.shopmoney_pg.models.dto.response.PromocionResponse;
+import com.cusca.shopmoney_pg.models.entities.PromocionEntity;
+import org.mapstruct.*;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface PromocionMapper {
+    // De Request a Entity
+    @Mapping(target = "producto", ignore = true) // Se asignará manualmente en el service
+    @Mapping(target = "categoria", ignore = true) // Se asignará manualmente en el service
+    @Mapping(target = "id", ignore = true)
+    PromocionEntity toEntity(PromocionRequest request);
+
+    // De Entity a Response
+    @Mapping(target = "productoId", expression = "java(promocion.getProducto() != null ? promocion.getProducto().getId() : null)")
+    @Mapping(target = "categoriaId", expression = "java(promocion.getCategoria() != null ? promocion.getCategoria().getId() : null)")
+    PromocionResponse toResponse(PromocionEntity promocion);
+
+    // Para actualizar una entidad existente (reemplazo completo de la regla)
+    @Mapping(target = "producto", ignore = true)
+    @Mapping(target = "categoria", ignore = true)
+    @Mapping(target = "id", ignore = true)
+    void updateEntity(@MappingTarget PromocionEntity promocion, PromocionRequest request);
+}
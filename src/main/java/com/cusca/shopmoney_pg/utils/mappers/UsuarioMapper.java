@@ -5,6 +5,7 @@ import com.cusca.shopmoney_pg.models.dto.request.update.UpdateUsuarioRequest;
 import com.cusca.shopmoney_pg.models.dto.response.UsuarioResponse;
 import com.cusca.shopmoney_pg.models.entities.UsuarioEntity;
 import com.cusca.shopmoney_pg.models.stamp.CreateUpdateStamp;
+import com.cusca.shopmoney_pg.repositories.UsuarioRepository;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -21,6 +22,10 @@ public interface UsuarioMapper {
     @Mapping(target = "cuentaClienteId", expression = "java(usuario.getCuentaCliente() != null ? usuario.getCuentaCliente().getId() : null)")
     UsuarioResponse toResponse (UsuarioEntity usuario);
 
+    // Proyección de listados (los roles se asignan en el service)
+    @Mapping(target = "roles", ignore = true)
+    UsuarioResponse resumenToResponse(UsuarioRepository.UsuarioResumen resumen);
+
     // Request to Entity
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "roles", ignore = true)
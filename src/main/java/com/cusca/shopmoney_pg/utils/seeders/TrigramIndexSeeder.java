@@ -0,0 +1,40 @@
+package com.cusca.shopmoney_pg.utils.seeders;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Índices GIN de trigramas para la búsqueda rápida de clientes (ILIKE '%texto%').
+// ddl-auto=update no crea extensiones ni índices por expresión, por eso se crean aquí.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrigramIndexSeeder implements CommandLineRunner {
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final List<String> SENTENCIAS = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_usuarios_nombre_trgm ON usuarios USING gin (nombre_completo gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_usuarios_email_trgm ON usuarios USING gin (email gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_usuarios_telefono_trgm ON usuarios USING gin (telefono gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_usuarios_dui_trgm ON usuarios USING gin (dui gin_trgm_ops)"
+    );
+
+    @Override
+    public void run(String... args) {
+        for (String sentencia : SENTENCIAS) {
+            try {
+                jdbcTemplate.execute(sentencia);
+            } catch (Exception e) {
+                // Sin permisos para la extensión la búsqueda sigue funcionando, pero sin índice
+                log.warn("No se pudo ejecutar '{}': {}", sentencia, e.getMessage());
+                return;
+            }
+        }
+        log.info("Índices de trigramas para búsqueda de clientes verificados");
+    }
+}
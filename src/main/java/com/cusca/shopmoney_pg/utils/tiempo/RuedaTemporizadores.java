@@ -0,0 +1,71 @@
+package com.cusca.shopmoney_pg.utils.tiempo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Rueda de temporizadores (hashed timing wheel): programar y cancelar son O(1) y cada avance
+// revisa solo las ranuras de los ticks transcurridos, no todos los temporizadores pendientes.
+// Un vencimiento más lejano que una vuelta completa se queda en su ranura hasta la vuelta que le toca.
+public final class RuedaTemporizadores<K> {
+    private final List<Map<K, Long>> ranuras;
+    private final long resolucionMs;
+    // Vencimiento vigente de cada clave; las entradas de ranura que no coinciden son reprogramaciones viejas
+    private final Map<K, Long> vencimientos = new HashMap<>();
+    private long tickActual;
+
+    public RuedaTemporizadores(int numeroRanuras, long resolucionMs, long ahoraMs) {
+        if (numeroRanuras < 1 || resolucionMs < 1) {
+            throw new IllegalArgumentException("La rueda necesita al menos una ranura y una resolución positiva");
+        }
+        this.ranuras = new ArrayList<>(numeroRanuras);
+        for (int i = 0; i < numeroRanuras; i++) {
+            ranuras.add(new HashMap<>());
+        }
+        this.resolucionMs = resolucionMs;
+        this.tickActual = ahoraMs / resolucionMs;
+    }
+
+    // Reprogramar una clave reemplaza su vencimiento anterior
+    public synchronized void programar(K clave, long vencimientoMs) {
+        vencimientos.put(clave, vencimientoMs);
+        // Un vencimiento ya pasado se entrega en el siguiente avance
+        long tick = Math.max(vencimientoMs / resolucionMs, tickActual + 1);
+        ranuras.get((int) Math.floorMod(tick, (long) ranuras.size())).put(clave, vencimientoMs);
+    }
+
+    public synchronized void cancelar(K clave) {
+        vencimientos.remove(clave);
+    }
+
+    // Devuelve las claves vencidas hasta ahoraMs y las retira de la rueda
+    public synchronized List<K> avanzar(long ahoraMs) {
+        List<K> vencidas = new ArrayList<>();
+        long tickDestino = ahoraMs / resolucionMs;
+        // La ranura del tick actual se vuelve a revisar: puede tener claves que vencen más adelante en el
+        // mismo tick. Tras una pausa larga basta una vuelta completa para revisar todas las ranuras
+        long desde = Math.max(tickActual, tickDestino - ranuras.size() + 1);
+        for (long tick = desde; tick <= tickDestino; tick++) {
+            Iterator<Map.Entry<K, Long>> entradas = ranuras.get((int) Math.floorMod(tick, (long) ranuras.size()))
+                    .entrySet().iterator();
+            while (entradas.hasNext()) {
+                Map.Entry<K, Long> entrada = entradas.next();
+                if (!entrada.getValue().equals(vencimientos.get(entrada.getKey()))) {
+                    entradas.remove();
+                } else if (entrada.getValue() <= ahoraMs) {
+                    vencidas.add(entrada.getKey());
+                    vencimientos.remove(entrada.getKey());
+                    entradas.remove();
+                }
+            }
+        }
+        tickActual = Math.max(tickActual, tickDestino);
+        return vencidas;
+    }
+
+    public synchronized int pendientes() {
+        return vencimientos.size();
+    }
+}
@@ -0,0 +1,72 @@
+package com.cusca.shopmoney_pg.services.account;
+
+import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
+import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CreditoDisponibleCacheTest {
+    private static final long CUENTA = 7L;
+
+    private final CuentaClienteRepository cuentaClienteRepository = mock(CuentaClienteRepository.class);
+    private final VersionRecursosService versionRecursosService = mock(VersionRecursosService.class);
+    private final CreditoDisponibleCache cache = new CreditoDisponibleCache(cuentaClienteRepository, versionRecursosService);
+
+    @BeforeEach
+    void preparar() {
+        when(cuentaClienteRepository.findCreditoPorId(CUENTA)).thenReturn(Optional.of(credito("100.00", "40.00")));
+    }
+
+    @Test
+    void entradaVigenteNoVuelveAConsultarLaCuenta() {
+        ReflectionTestUtils.setField(cache, "vigenciaMs", 60_000L);
+
+        cache.obtener(CUENTA);
+        CreditoDisponibleCache.CreditoCuenta credito = cache.obtener(CUENTA).orElseThrow();
+
+        assertThat(credito.disponible().aBigDecimal()).isEqualByComparingTo("60.00");
+        verify(cuentaClienteRepository, times(1)).findCreditoPorId(CUENTA);
+    }
+
+    @Test
+    void entradaVencidaSeReleeAunqueLaVersionLocalNoCambie() {
+        // Un cargo hecho en otra instancia no incrementa la versión local
+        ReflectionTestUtils.setField(cache, "vigenciaMs", 0L);
+        cache.obtener(CUENTA);
+        when(cuentaClienteRepository.findCreditoPorId(CUENTA)).thenReturn(Optional.of(credito("100.00", "90.00")));
+
+        CreditoDisponibleCache.CreditoCuenta credito = cache.obtener(CUENTA).orElseThrow();
+
+        assertThat(credito.disponible().aBigDecimal()).isEqualByComparingTo("10.00");
+    }
+
+    private static CuentaClienteRepository.CreditoCuenta credito(String limite, String saldo) {
+        return new CuentaClienteRepository.CreditoCuenta() {
+            @Override
+            public BigDecimal getLimiteCredito() {
+                return new BigDecimal(limite);
+            }
+
+            @Override
+            public BigDecimal getSaldoActual() {
+                return new BigDecimal(saldo);
+            }
+
+            @Override
+            public EstadoCuenta getEstado() {
+                return EstadoCuenta.ACTIVA;
+            }
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package com.cusca.shopmoney_pg.services.account;
+
+import com.cusca.shopmoney_pg.models.dto.request.ClienteOnboardingRequest;
+import com.cusca.shopmoney_pg.models.dto.request.OnboardingClientesRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
+import com.cusca.shopmoney_pg.models.entities.RolEntity;
+import com.cusca.shopmoney_pg.repositories.RolRepository;
+import com.cusca.shopmoney_pg.repositories.UsuarioRepository;
+import com.cusca.shopmoney_pg.services.auth.UsuarioExistenciaFilter;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OnboardingClienteServiceImplTest {
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final RolRepository rolRepository = mock(RolRepository.class);
+    private final UsuarioExistenciaFilter usuarioExistenciaFilter = mock(UsuarioExistenciaFilter.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Validator validator = mock(Validator.class);
+    private OnboardingClienteServiceImpl servicio;
+
+    // Emails que la base de datos rechaza por unicidad aunque el filtro los haya dado por nuevos
+    private final Set<String> emailsRegistrados = Set.of("ya.existe@correo.com", "Marta.Diaz@Correo.com");
+    private final List<String> insertados = new ArrayList<>();
+
+    @BeforeEach
+    void preparar() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        RolEntity rolCliente = new RolEntity();
+        rolCliente.setId(1L);
+        when(rolRepository.findByNombreIgnoreCase("CLIENTE")).thenReturn(Optional.of(rolCliente));
+        when(validator.validate(any())).thenReturn(Set.of());
+
+        servicio = new OnboardingClienteServiceImpl(usuarioRepository, rolRepository, usuarioExistenciaFilter,
+                passwordEncoder, jdbcTemplate, new TransactionTemplate(transactionManager), validator);
+        simularInserts();
+    }
+
+    @AfterEach
+    void cerrar() {
+        servicio.cerrarPool();
+    }
+
+    @Test
+    void violacionDeUnicidadSeReportaEnLaFilaQueLaCausa() {
+        ImportacionResponse resultado = servicio.registrarClientes(new OnboardingClientesRequest(List.of(
+                cliente("nueva@correo.com"), cliente("ya.existe@correo.com"), cliente("otra@correo.com"))));
+
+        assertThat(resultado.getImportados()).isEqualTo(2);
+        assertThat(resultado.getErrores()).hasSize(1);
+        assertThat(resultado.getErrores().get(0).getFila()).isEqualTo(2);
+        assertThat(resultado.getErrores().get(0).getMensaje()).contains("ya.existe@correo.com");
+        assertThat(insertados).containsExactly("nueva@correo.com", "otra@correo.com");
+        verify(usuarioExistenciaFilter, never()).registrar("ya.existe@correo.com", null);
+    }
+
+    @Test
+    void emailExistenteConMayusculasSeRechazaSinIntentarElInsert() {
+        // El filtro lo da por posible y la consulta lo encuentra tal como está guardado
+        when(usuarioExistenciaFilter.podriaExistirEmail(anyString())).thenReturn(true);
+        when(usuarioRepository.findEmailsExistentes(any())).thenAnswer(invocacion ->
+                invocacion.<Collection<String>>getArgument(0).stream().filter(emailsRegistrados::contains).toList());
+
+        ImportacionResponse resultado = servicio.registrarClientes(new OnboardingClientesRequest(List.of(
+                cliente("Marta.Diaz@Correo.com"), cliente("marta.diaz@correo.com"))));
+
+        assertThat(resultado.getErrores()).hasSize(1);
+        assertThat(resultado.getErrores().get(0).getFila()).isEqualTo(1);
+        // La otra grafía es un email distinto, como en la restricción única de la columna
+        assertThat(insertados).containsExactly("marta.diaz@correo.com");
+        verify(jdbcTemplate, times(1)).query(startsWith("INSERT INTO usuarios"), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void emailDuplicadoEnLaSolicitudSeComparaTalComoSeEscribio() {
+        ImportacionResponse resultado = servicio.registrarClientes(new OnboardingClientesRequest(List.of(
+                cliente("nueva@correo.com"), cliente("Nueva@correo.com"), cliente("nueva@correo.com"))));
+
+        assertThat(resultado.getErrores()).extracting(error -> error.getFila()).containsExactly(3);
+        assertThat(insertados).containsExactly("nueva@correo.com", "Nueva@correo.com");
+    }
+
+    @Test
+    void emailSeGuardaTalComoSeEscribio() {
+        servicio.registrarClientes(new OnboardingClientesRequest(List.of(cliente("Ana.Lopez@Correo.com"))));
+
+        assertThat(insertados).containsExactly("Ana.Lopez@Correo.com");
+    }
+
+    // INSERT multi-fila: falla completo si alguna fila viola la unicidad, como en PostgreSQL
+    private void simularInserts() {
+        doAnswer(invocacion -> {
+            List<String> emails = emailsDelInsert(invocacion.getArgument(1));
+            if (emails.stream().anyMatch(emailsRegistrados::contains)) {
+                throw new DuplicateKeyException("duplicate key value violates unique constraint");
+            }
+            RowCallbackHandler handler = invocacion.getArgument(2);
+            for (String email : emails) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("email")).thenReturn(email);
+                when(rs.getLong("id")).thenReturn((long) insertados.size() + 100);
+                insertados.add(email);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("INSERT INTO usuarios"), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+    }
+
+    // Los emails son el 2.º de los 10 parámetros de cada fila
+    private static List<String> emailsDelInsert(PreparedStatementSetter setter) throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        List<String> emails = new ArrayList<>();
+        doAnswer(invocacion -> {
+            int indice = invocacion.getArgument(0);
+            if (indice % 10 == 2) {
+                emails.add(invocacion.getArgument(1));
+            }
+            return null;
+        }).when(ps).setString(any(Integer.class), any());
+        setter.setValues(ps);
+        return emails;
+    }
+
+    private static ClienteOnboardingRequest cliente(String email) {
+        ClienteOnboardingRequest cliente = new ClienteOnboardingRequest();
+        cliente.setNombreCompleto("Cliente " + email);
+        cliente.setEmail(email);
+        cliente.setPassword("secreta123");
+        cliente.setLimiteCredito(new BigDecimal("100.00"));
+        return cliente;
+    }
+}
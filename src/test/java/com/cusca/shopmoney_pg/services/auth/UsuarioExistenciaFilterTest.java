@@ -0,0 +1,48 @@
+package com.cusca.shopmoney_pg.services.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsuarioExistenciaFilterTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UsuarioExistenciaFilter filtro = new UsuarioExistenciaFilter(jdbcTemplate);
+
+    @BeforeEach
+    void preparar() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        filtro.reconstruir();
+    }
+
+    @Test
+    void usuarioCreadoEnOtraInstanciaSeVeTrasSincronizar() throws Exception {
+        assertThat(filtro.podriaExistirEmail("remota@correo.com")).isFalse();
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("remota@correo.com");
+        when(rs.getString(2)).thenReturn("01234567-8");
+        when(rs.getTimestamp(3)).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+        doAnswer(invocacion -> {
+            invocacion.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Timestamp.class));
+
+        filtro.sincronizar();
+
+        assertThat(filtro.podriaExistirEmail("remota@correo.com")).isTrue();
+        assertThat(filtro.podriaExistirDui("01234567-8")).isTrue();
+    }
+}
@@ -0,0 +1,83 @@
+package com.cusca.shopmoney_pg.services.catalog;
+
+import com.cusca.shopmoney_pg.models.dto.response.CategoriaMenuResponse;
+import com.cusca.shopmoney_pg.models.enums.EstadoProducto;
+import com.cusca.shopmoney_pg.repositories.CategoriaRepository;
+import com.cusca.shopmoney_pg.repositories.CategoriaRepository.ConteoProductosCategoria;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoriaCacheServiceTest {
+    private final CategoriaRepository categoriaRepository = mock(CategoriaRepository.class);
+    private final VersionRecursosService versionRecursosService = mock(VersionRecursosService.class);
+    private final CategoriaCacheService cache = new CategoriaCacheService(categoriaRepository, versionRecursosService);
+
+    @Test
+    void cambioConfirmadoEnOtraInstanciaSeVeAlSincronizar() {
+        when(versionRecursosService.versionCatalogo()).thenReturn(1L);
+        when(categoriaRepository.contarProductosPorCategoria(EstadoProducto.DISPONIBLE))
+                .thenReturn(List.of(new Conteo(1L, "Bebidas", 2, 2)));
+        cache.recargar();
+
+        // Importación en otra instancia: solo cambia la versión compartida y los conteos de la base
+        when(versionRecursosService.versionCatalogo()).thenReturn(2L);
+        when(categoriaRepository.contarProductosPorCategoria(EstadoProducto.DISPONIBLE))
+                .thenReturn(List.of(new Conteo(1L, "Bebidas", 502, 500)));
+        cache.sincronizar();
+
+        CategoriaMenuResponse bebidas = cache.obtenerMenu().get(0);
+        assertThat(bebidas.getTotalProductos()).isEqualTo(502);
+        assertThat(bebidas.getProductosDisponibles()).isEqualTo(500);
+    }
+
+    @Test
+    void sinCambioDeVersionNoSeRecarga() {
+        when(versionRecursosService.versionCatalogo()).thenReturn(7L);
+        when(categoriaRepository.contarProductosPorCategoria(any())).thenReturn(List.of(new Conteo(1L, "Bebidas", 2, 2)));
+        cache.recargar();
+
+        cache.sincronizar();
+        cache.sincronizar();
+
+        verify(categoriaRepository, times(1)).contarProductosPorCategoria(any());
+    }
+
+    @Test
+    void primeraConsultaCargaLaCache() {
+        when(categoriaRepository.contarProductosPorCategoria(any())).thenReturn(List.of(
+                new Conteo(2L, "snacks", 1, 0), new Conteo(1L, "Bebidas", 3, 1)));
+
+        assertThat(cache.obtenerMenu()).extracting(CategoriaMenuResponse::getNombre).containsExactly("Bebidas", "snacks");
+    }
+
+    private record Conteo(Long id, String nombre, long total, long disponibles) implements ConteoProductosCategoria {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getNombre() {
+            return nombre;
+        }
+
+        @Override
+        public Long getTotal() {
+            return total;
+        }
+
+        @Override
+        public Long getDisponibles() {
+            return disponibles;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cusca.shopmoney_pg.services.catalog;
+
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
+import com.cusca.shopmoney_pg.models.entities.CategoriaEntity;
+import com.cusca.shopmoney_pg.repositories.CategoriaRepository;
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.services.images.CloudinaryService;
+import com.cusca.shopmoney_pg.services.images.ImagenPendienteService;
+import com.cusca.shopmoney_pg.services.pricing.CatalogoPreciosCache;
+import com.cusca.shopmoney_pg.utils.mappers.ProductoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductoServiceImplTest {
+    private final ProductoRepository productoRepository = mock(ProductoRepository.class);
+    private final CategoriaRepository categoriaRepository = mock(CategoriaRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private ProductoServiceImpl servicio;
+
+    @BeforeEach
+    void preparar() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        Validator validator = mock(Validator.class);
+        when(validator.validate(any())).thenReturn(Set.of());
+        servicio = new ProductoServiceImpl(productoRepository, categoriaRepository, mock(ProductoMapper.class),
+                mock(CloudinaryService.class), mock(ImagenPendienteService.class), mock(CategoriaCacheService.class),
+                mock(VersionRecursosService.class), mock(CatalogoPreciosCache.class), jdbcTemplate,
+                new TransactionTemplate(transactionManager), new ObjectMapper(), validator);
+
+        CategoriaEntity categoria = new CategoriaEntity();
+        categoria.setId(1L);
+        when(categoriaRepository.findAllById(any())).thenReturn(List.of(categoria));
+        when(productoRepository.findNombresExistentes(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void loteFallidoSeReportaPorFilaYConservaLosLotesConfirmados() {
+        // 501 filas: el primer lote de 500 se confirma y el segundo viola una restricción
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenReturn(new int[500])
+                .thenThrow(new DataIntegrityViolationException("violates foreign key constraint"));
+
+        ImportacionResponse resultado = servicio.importarProductos(csv(501));
+
+        assertThat(resultado.getTotalFilas()).isEqualTo(501);
+        assertThat(resultado.getImportados()).isEqualTo(500);
+        assertThat(resultado.getErrores()).hasSize(1);
+        assertThat(resultado.getErrores().get(0).getFila()).isEqualTo(502);
+        assertThat(resultado.getErrores().get(0).getMensaje()).contains("foreign key");
+        verify(transactionManager).commit(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void rechazosPorFilaSeConservanAunqueElLoteFalle() {
+        when(productoRepository.findNombresExistentes(any())).thenReturn(List.of("producto 1"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("conexión cerrada"));
+
+        ImportacionResponse resultado = servicio.importarProductos(csv(2));
+
+        assertThat(resultado.getImportados()).isZero();
+        assertThat(resultado.getErrores()).extracting(error -> error.getMensaje()).containsExactly(
+                "Ya existe un producto con el nombre: Producto 1",
+                "No se pudo registrar el lote: conexión cerrada");
+    }
+
+    private static MockMultipartFile csv(int filas) {
+        StringBuilder contenido = new StringBuilder("nombre,precioUnitario,categoriaId\n");
+        for (int i = 1; i <= filas; i++) {
+            contenido.append("Producto ").append(i).append(",1.50,1\n");
+        }
+        return new MockMultipartFile("archivo", "productos.csv", "text/csv",
+                contenido.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
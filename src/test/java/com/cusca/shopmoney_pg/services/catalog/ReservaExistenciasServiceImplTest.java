@@ -0,0 +1,180 @@
+package com.cusca.shopmoney_pg.services.catalog;
+
+import com.cusca.shopmoney_pg.models.dto.request.DetalleVentaRequest;
+import com.cusca.shopmoney_pg.models.dto.request.ReservaCarritoRequest;
+import com.cusca.shopmoney_pg.models.dto.response.ReservaCarritoResponse;
+import com.cusca.shopmoney_pg.models.entities.ProductoEntity;
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.utils.bloqueos.BloqueoAsesor;
+import com.cusca.shopmoney_pg.utils.exceptions.ReservationLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservaExistenciasServiceImplTest {
+    private static final String CARRITO = "carrito-1";
+    private static final String USUARIO = "cliente@correo.com";
+    private static final long PRODUCTO = 7L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final IInventarioService inventarioService = mock(IInventarioService.class);
+    private final ProductoRepository productoRepository = mock(ProductoRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final BloqueoAsesor bloqueoAsesor = mock(BloqueoAsesor.class);
+    private final ReservaExistenciasServiceImpl servicio = new ReservaExistenciasServiceImpl(jdbcTemplate,
+            transactionTemplate, inventarioService, productoRepository, bloqueoAsesor);
+
+    @BeforeEach
+    void preparar() {
+        ReflectionTestUtils.setField(servicio, "duracionMinutos", 15L);
+        ReflectionTestUtils.setField(servicio, "ranuras", 8);
+        ReflectionTestUtils.setField(servicio, "tickMs", 1000L);
+        ReflectionTestUtils.setField(servicio, "maxCantidadPorProducto", 50);
+        ReflectionTestUtils.setField(servicio, "maxCarritosPorUsuario", 3);
+        ReflectionTestUtils.setField(servicio, "duracionMaximaMinutos", 60L);
+        servicio.inicializar();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(USUARIO, null,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+        when(productoRepository.findAllById(any())).thenReturn(List.of(ProductoEntity.builder().id(PRODUCTO).build()));
+    }
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cantidadPorProductoSeSumaEntreLineasYSeLimita() {
+        ReservaCarritoRequest request = new ReservaCarritoRequest(List.of(
+                new DetalleVentaRequest(PRODUCTO, 30), new DetalleVentaRequest(PRODUCTO, 21)));
+
+        assertThatThrownBy(() -> servicio.reservar(CARRITO, request))
+                .isInstanceOf(ReservationLimitExceededException.class);
+        verify(inventarioService, never()).descontar(any());
+    }
+
+    @Test
+    void carritoNuevoSeRechazaAlAlcanzarElMaximoDeCarritosActivos() {
+        carritoActual();
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT"), eq(Long.class), any(), any(), any()))
+                .thenReturn(3L);
+
+        assertThatThrownBy(() -> servicio.reservar(CARRITO, solicitud(2)))
+                .isInstanceOf(ReservationLimitExceededException.class);
+        verify(inventarioService, never()).descontar(any());
+    }
+
+    @Test
+    void renovarConservaLaFechaDeCreacionYNoPasaDelTiempoMaximo() {
+        LocalDateTime creado = LocalDateTime.now().minusMinutes(50);
+        carritoActual(new Fila(creado, LocalDateTime.now().plusMinutes(2)));
+
+        ReservaCarritoResponse respuesta = servicio.reservar(CARRITO, solicitud(2));
+
+        assertThat(respuesta.getExpiraEn()).isCloseTo(creado.plusMinutes(60), within(1, ChronoUnit.SECONDS));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> filas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), filas.capture());
+        assertThat(filas.getValue().get(0)[4]).isEqualTo(Timestamp.valueOf(creado));
+        verify(jdbcTemplate, never()).queryForObject(startsWith("SELECT COUNT"), eq(Long.class), any(), any(), any());
+    }
+
+    @Test
+    void carritoQueAlcanzoElTiempoMaximoNoSeRenueva() {
+        carritoActual(new Fila(LocalDateTime.now().minusMinutes(61), LocalDateTime.now().plusMinutes(1)));
+
+        assertThatThrownBy(() -> servicio.reservar(CARRITO, solicitud(1)))
+                .isInstanceOf(ReservationLimitExceededException.class);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void barridoDeRespaldoLiberaEnLotesHastaVaciarLoVencido() {
+        when(bloqueoAsesor.ejecutarSiDisponible(anyLong(), any())).thenAnswer(invocacion -> {
+            invocacion.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(transactionTemplate.execute(any())).thenAnswer(invocacion ->
+                invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        // Un lote completo (500 filas de 1 unidad) y luego uno parcial
+        int[] llamadas = {0};
+        doAnswer(invocacion -> {
+            RowCallbackHandler handler = invocacion.getArgument(1);
+            int filas = llamadas[0]++ == 0 ? 500 : 3;
+            for (int i = 0; i < filas; i++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("carrito")).thenReturn("carrito-" + i);
+                when(rs.getLong("producto_id")).thenReturn(PRODUCTO);
+                when(rs.getInt("cantidad")).thenReturn(1);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("DELETE"), any(RowCallbackHandler.class), any(), any());
+
+        servicio.barrerVencidas();
+
+        assertThat(llamadas[0]).isEqualTo(2);
+        verify(inventarioService).reponer(Map.of(PRODUCTO, 500));
+        verify(inventarioService).reponer(Map.of(PRODUCTO, 3));
+    }
+
+    private static ReservaCarritoRequest solicitud(int cantidad) {
+        return new ReservaCarritoRequest(List.of(new DetalleVentaRequest(PRODUCTO, cantidad)));
+    }
+
+    // Filas bloqueadas del carrito, mapeadas con el RowMapper del servicio
+    @SuppressWarnings("unchecked")
+    private void carritoActual(Fila... filas) {
+        when(jdbcTemplate.query(startsWith("SELECT propietario"), any(RowMapper.class), eq(CARRITO)))
+                .thenAnswer(invocacion -> {
+                    RowMapper<Object> mapper = invocacion.getArgument(1);
+                    List<Object> resultado = new ArrayList<>();
+                    for (Fila fila : filas) {
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getString("propietario")).thenReturn(USUARIO);
+                        when(rs.getLong("producto_id")).thenReturn(PRODUCTO);
+                        when(rs.getInt("cantidad")).thenReturn(1);
+                        when(rs.getObject("fecha_creacion", LocalDateTime.class)).thenReturn(fila.fechaCreacion());
+                        when(rs.getObject("expira_en", LocalDateTime.class)).thenReturn(fila.expiraEn());
+                        resultado.add(mapper.mapRow(rs, resultado.size()));
+                    }
+                    return resultado;
+                });
+    }
+
+    private record Fila(LocalDateTime fechaCreacion, LocalDateTime expiraEn) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.dto.response.ImportacionResponse;
+import com.cusca.shopmoney_pg.models.enums.EstadoCuenta;
+import com.cusca.shopmoney_pg.repositories.AbonoRepository;
+import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository;
+import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository.CuentaReferencia;
+import com.cusca.shopmoney_pg.services.account.ICuentaClienteService;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.services.notification.NotificacionServiceImpl;
+import com.cusca.shopmoney_pg.utils.mappers.AbonoMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AbonoServiceImplTest {
+    private static final long CUENTA = 5L;
+
+    private final CuentaClienteRepository cuentaClienteRepository = mock(CuentaClienteRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private AbonoServiceImpl servicio;
+
+    @BeforeEach
+    void preparar() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        servicio = new AbonoServiceImpl(mock(AbonoRepository.class), cuentaClienteRepository,
+                mock(ICuentaClienteService.class), mock(AbonoMapper.class), mock(NotificacionServiceImpl.class),
+                mock(VersionRecursosService.class), jdbcTemplate, mock(AsignacionPagosService.class),
+                new TransactionTemplate(transactionManager), mock(MaquinaEstadosAbono.class));
+        when(cuentaClienteRepository.findPorIdsODuis(any(), any())).thenReturn(List.of(new Cuenta(CUENTA)));
+    }
+
+    @Test
+    void falloInesperadoDeUnLoteSeReportaEnSusFilasYConservaLosAnteriores() {
+        // 501 filas: el primer lote de 500 se confirma y el segundo falla
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenReturn(LongStream.rangeClosed(1, 500).boxed().toList())
+                .thenThrow(new IllegalStateException("conexión cerrada"));
+
+        ImportacionResponse resultado = servicio.importarExtractoBancario(extracto(501), false);
+
+        assertThat(resultado.getImportados()).isEqualTo(500);
+        assertThat(resultado.getErrores()).hasSize(1);
+        assertThat(resultado.getErrores().get(0).getFila()).isEqualTo(502);
+        assertThat(resultado.getErrores().get(0).getMensaje()).contains("conexión cerrada");
+    }
+
+    @Test
+    void falloAlResolverReferenciasSeReportaEnCadaFilaDelLote() {
+        when(cuentaClienteRepository.findPorIdsODuis(any(), any())).thenThrow(new IllegalStateException("timeout"));
+
+        ImportacionResponse resultado = servicio.importarExtractoBancario(extracto(2), false);
+
+        assertThat(resultado.getImportados()).isZero();
+        assertThat(resultado.getErrores()).extracting(error -> error.getFila()).containsExactly(2, 3);
+    }
+
+    @Test
+    void referenciaNumericaFueraDeRangoSeReportaSoloEnSuFila() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of(1L));
+        String csv = "referencia,monto\n1234567890123456789012345,10.00\n" + CUENTA + ",10.00\n";
+
+        ImportacionResponse resultado = servicio.importarExtractoBancario(archivo(csv), false);
+
+        assertThat(resultado.getImportados()).isEqualTo(1);
+        assertThat(resultado.getErrores()).hasSize(1);
+        assertThat(resultado.getErrores().get(0).getFila()).isEqualTo(2);
+    }
+
+    private static MockMultipartFile extracto(int filas) {
+        StringBuilder csv = new StringBuilder("referencia,monto\n");
+        for (int i = 0; i < filas; i++) {
+            csv.append(CUENTA).append(",10.00\n");
+        }
+        return archivo(csv.toString());
+    }
+
+    private static MockMultipartFile archivo(String contenido) {
+        return new MockMultipartFile("archivo", "extracto.csv", "text/csv", contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Cuenta(Long cuentaId) implements CuentaReferencia {
+        @Override
+        public Long getCuentaId() {
+            return cuentaId;
+        }
+
+        @Override
+        public String getDui() {
+            return null;
+        }
+
+        @Override
+        public EstadoCuenta getEstado() {
+            return EstadoCuenta.ACTIVA;
+        }
+    }
+}
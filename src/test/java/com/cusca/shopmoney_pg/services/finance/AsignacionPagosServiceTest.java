@@ -0,0 +1,131 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.repositories.AsignacionAbonoRepository;
+import com.cusca.shopmoney_pg.services.finance.AsignacionPagosService.PagoPorAsignar;
+import com.cusca.shopmoney_pg.services.sales.ResumenVentasDiarioService;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsignacionPagosServiceTest {
+    private static final long CUENTA = 9L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ResumenVentasDiarioService resumenVentasDiarioService = mock(ResumenVentasDiarioService.class);
+    private final AsignacionPagosService servicio = new AsignacionPagosService(jdbcTemplate,
+            mock(AsignacionAbonoRepository.class), resumenVentasDiarioService);
+
+    @Test
+    void abonoCubrePrimeroLaVentaMasAntigua() {
+        ventasAbiertas(venta(1, "30.00", "0"), venta(2, "50.00", "0"));
+
+        BigDecimal sinAsignar = servicio.asignarAbono(CUENTA, 100L, new BigDecimal("40.00"));
+
+        assertThat(sinAsignar).isEqualByComparingTo("0");
+        assertThat(asignaciones()).containsExactly(
+                tuple(100L, 1L, new BigDecimal("30.00")),
+                tuple(100L, 2L, new BigDecimal("10.00")));
+        verify(resumenVentasDiarioService).cambiarEstado(List.of(1L), EstadoVenta.PAGADA);
+        verify(resumenVentasDiarioService).cambiarEstado(List.of(2L), EstadoVenta.PARCIAL);
+    }
+
+    @Test
+    void abonoParcialSoloCubreLoPendienteDeAsignacionesAnteriores() {
+        // 100.00 de total con 60.00 ya asignados
+        ventasAbiertas(venta(1, "100.00", "60.00"), venta(2, "20.00", "0"));
+
+        servicio.asignarAbono(CUENTA, 100L, new BigDecimal("25.00"));
+
+        assertThat(asignaciones()).containsExactly(tuple(100L, 1L, new BigDecimal("25.00")));
+        verify(resumenVentasDiarioService).cambiarEstado(List.of(1L), EstadoVenta.PARCIAL);
+        verify(resumenVentasDiarioService, never()).cambiarEstado(anyList(), eq(EstadoVenta.PAGADA));
+    }
+
+    @Test
+    void sobrantePorEncimaDeLoAdeudadoSeRetornaSinAsignar() {
+        ventasAbiertas(venta(1, "20.00", "5.00"), venta(2, "10.00", "0"));
+
+        BigDecimal sinAsignar = servicio.asignarAbono(CUENTA, 100L, new BigDecimal("50.00"));
+
+        assertThat(sinAsignar).isEqualByComparingTo("25.00");
+        assertThat(asignaciones()).containsExactly(
+                tuple(100L, 1L, new BigDecimal("15.00")),
+                tuple(100L, 2L, new BigDecimal("10.00")));
+        verify(resumenVentasDiarioService).cambiarEstado(List.of(1L, 2L), EstadoVenta.PAGADA);
+    }
+
+    @Test
+    void variosAbonosSeAsignanEnElOrdenRecibido() {
+        ventasAbiertas(venta(1, "25.00", "0"), venta(2, "25.00", "0"));
+
+        servicio.asignarAbonos(CUENTA, List.of(new PagoPorAsignar(100L, new BigDecimal("15.00")),
+                new PagoPorAsignar(101L, new BigDecimal("20.00"))));
+
+        assertThat(asignaciones()).containsExactly(
+                tuple(100L, 1L, new BigDecimal("15.00")),
+                tuple(101L, 1L, new BigDecimal("10.00")),
+                tuple(101L, 2L, new BigDecimal("10.00")));
+    }
+
+    @Test
+    void sinVentasAbiertasNoSeAsignaNada() {
+        ventasAbiertas();
+
+        BigDecimal sinAsignar = servicio.asignarAbono(CUENTA, 100L, new BigDecimal("12.34"));
+
+        assertThat(sinAsignar).isEqualByComparingTo("12.34");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(resumenVentasDiarioService, never()).cambiarEstado(anyList(), any());
+    }
+
+    // Ventas en el orden de SQL_VENTAS_ABIERTAS (fecha de venta, id), mapeadas con el RowMapper del servicio
+    @SuppressWarnings("unchecked")
+    private void ventasAbiertas(Venta... ventas) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(CUENTA))).thenAnswer(invocacion -> {
+            RowMapper<Object> mapper = invocacion.getArgument(1);
+            List<Object> resultado = new ArrayList<>();
+            for (Venta venta : ventas) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("id")).thenReturn(venta.id());
+                when(rs.getBigDecimal("total")).thenReturn(new BigDecimal(venta.total()));
+                when(rs.getBigDecimal("asignado")).thenReturn(new BigDecimal(venta.asignado()));
+                resultado.add(mapper.mapRow(rs, resultado.size()));
+            }
+            return resultado;
+        });
+    }
+
+    // (abono, venta, monto) de cada fila insertada en asignaciones_abono
+    @SuppressWarnings("unchecked")
+    private List<Tuple> asignaciones() {
+        ArgumentCaptor<List<Object[]>> filas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), filas.capture());
+        return filas.getValue().stream().map(fila -> tuple(fila[0], fila[1], fila[2])).toList();
+    }
+
+    private static Venta venta(long id, String total, String asignado) {
+        return new Venta(id, total, asignado);
+    }
+
+    private record Venta(long id, String total, String asignado) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.dto.response.DiferenciaConciliacionResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ReporteConciliacionResponse;
+import com.cusca.shopmoney_pg.models.enums.TipoDiferenciaConciliacion;
+import com.cusca.shopmoney_pg.utils.bloqueos.BloqueoAsesor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConciliacionServiceTest {
+    private static final long CUENTA = 1L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final BloqueoAsesor bloqueoAsesor = mock(BloqueoAsesor.class);
+    private ConciliacionService servicio;
+
+    @BeforeEach
+    void preparar() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        servicio = new ConciliacionService(jdbcTemplate, new TransactionTemplate(transactionManager), bloqueoAsesor);
+        ReflectionTestUtils.setField(servicio, "paralelismo", 1);
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class))).thenReturn(new Long[]{CUENTA, CUENTA});
+        when(bloqueoAsesor.ejecutarSiDisponible(anyLong(), any())).thenAnswer(invocacion -> {
+            invocacion.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    @Test
+    void ajusteSinCambioDeSaldoYMontoCeroEsValido() {
+        movimientos("15.00",
+                new Movimiento(1, "CARGO", "15.00", "0.00", "15.00"),
+                new Movimiento(2, "AJUSTE", "0.00", "15.00", "15.00"));
+
+        assertThat(servicio.conciliar().getDiferencias()).isEmpty();
+    }
+
+    @Test
+    void ajusteCuyaVariacionNoCoincideConElMontoSeReporta() {
+        movimientos("10.00",
+                new Movimiento(1, "CARGO", "15.00", "0.00", "15.00"),
+                new Movimiento(2, "AJUSTE", "2.00", "15.00", "10.00"));
+
+        ReporteConciliacionResponse reporte = servicio.conciliar();
+
+        assertThat(reporte.getCuentasConDiferencias()).isEqualTo(1);
+        DiferenciaConciliacionResponse diferencia = reporte.getDiferencias().get(0);
+        assertThat(diferencia.getMovimientoId()).isEqualTo(2L);
+        assertThat(diferencia.getTipo()).isEqualTo(TipoDiferenciaConciliacion.CALCULO_INCORRECTO);
+        assertThat(diferencia.getEsperado()).isEqualByComparingTo("13.00");
+        assertThat(diferencia.getRegistrado()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void conciliacionEnCursoEnOtraInstanciaNoSeEjecuta() {
+        doReturn(false).when(bloqueoAsesor).ejecutarSiDisponible(anyLong(), any());
+
+        assertThat(servicio.conciliar()).isNull();
+        verify(jdbcTemplate, never()).queryForObject(anyString(), any(RowMapper.class));
+    }
+
+    private void movimientos(String saldoActual, Movimiento... movimientos) {
+        doAnswer(invocacion -> {
+            RowCallbackHandler handler = invocacion.getArgument(1);
+            for (Movimiento movimiento : movimientos) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("cuenta_id")).thenReturn(CUENTA);
+                when(rs.getBigDecimal("saldo_actual")).thenReturn(new BigDecimal(saldoActual));
+                when(rs.getLong("movimiento_id")).thenReturn(movimiento.id());
+                when(rs.getString("tipo_movimiento")).thenReturn(movimiento.tipo());
+                when(rs.getBigDecimal("monto")).thenReturn(new BigDecimal(movimiento.monto()));
+                when(rs.getBigDecimal("saldo_anterior")).thenReturn(new BigDecimal(movimiento.saldoAnterior()));
+                when(rs.getBigDecimal("saldo_nuevo")).thenReturn(new BigDecimal(movimiento.saldoNuevo()));
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private record Movimiento(long id, String tipo, String monto, String saldoAnterior, String saldoNuevo) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.cusca.shopmoney_pg.services.finance;
+
+import com.cusca.shopmoney_pg.models.dto.response.AntiguedadCuentaResponse;
+import com.cusca.shopmoney_pg.models.dto.response.ReporteAntiguedadResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReporteAntiguedadServiceImplTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ReporteAntiguedadServiceImpl servicio = new ReporteAntiguedadServiceImpl(jdbcTemplate);
+
+    @Test
+    void cuentaSinCargosPendientesApareceConSuSaldoEnElTramoMasAntiguo() throws Exception {
+        filas(fila(1L, "Ana", "40.00", null, 0),
+                fila(2L, "Luis", "25.00", "10.00", 5),
+                fila(2L, "Luis", "25.00", "30.00", 45));
+
+        ReporteAntiguedadResponse reporte = servicio.generarReporte();
+
+        assertThat(reporte.getTotalCuentas()).isEqualTo(2);
+        AntiguedadCuentaResponse ana = reporte.getCuentas().get(0);
+        assertThat(ana.getSaldoActual()).isEqualByComparingTo("40.00");
+        assertThat(ana.getMasDe90Dias()).isEqualByComparingTo("40.00");
+        AntiguedadCuentaResponse luis = reporte.getCuentas().get(1);
+        assertThat(luis.getDe0a30Dias()).isEqualByComparingTo("10.00");
+        assertThat(luis.getDe31a60Dias()).isEqualByComparingTo("15.00");
+        // La suma de los tramos cuadra con la suma de los saldos
+        assertThat(reporte.getSaldoTotal()).isEqualByComparingTo("65.00");
+        assertThat(reporte.getMasDe90Dias()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void saldoMayorQueLosCargosPendientesLlevaElRestoAlTramoMasAntiguo() throws Exception {
+        filas(fila(3L, "Marta", "50.00", "20.00", 10));
+
+        AntiguedadCuentaResponse marta = servicio.generarReporte().getCuentas().get(0);
+
+        assertThat(marta.getDe0a30Dias()).isEqualByComparingTo("20.00");
+        assertThat(marta.getMasDe90Dias()).isEqualByComparingTo("30.00");
+    }
+
+    private void filas(ResultSet... filas) {
+        doAnswer(invocacion -> {
+            RowCallbackHandler handler = invocacion.getArgument(1);
+            for (ResultSet fila : filas) {
+                handler.processRow(fila);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet fila(long cuentaId, String nombre, String saldo, String monto, int diasAtras) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("cuenta_id")).thenReturn(cuentaId);
+        when(rs.getString("nombre_completo")).thenReturn(nombre);
+        when(rs.getBigDecimal("saldo_actual")).thenReturn(new BigDecimal(saldo));
+        when(rs.getBigDecimal("monto")).thenReturn(monto != null ? new BigDecimal(monto) : null);
+        when(rs.getDate("fecha")).thenReturn(monto != null ? Date.valueOf(LocalDate.now().minusDays(diasAtras)) : null);
+        return rs;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cusca.shopmoney_pg.services.images;
+
+import com.cloudinary.Cloudinary;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CloudinaryServiceTest {
+    private final CloudinaryService servicio = new CloudinaryService(mock(Cloudinary.class));
+
+    @Test
+    void extraePublicIdConCarpetaYExtension() {
+        assertThat(servicio.extractPublicIdFromUrl(
+                "https://res.cloudinary.com/cloud/image/upload/v123/productos/abc123.jpg")).isEqualTo("productos/abc123");
+    }
+
+    @Test
+    void urlSinExtensionNoLanza() {
+        assertThat(servicio.extractPublicIdFromUrl(
+                "https://res.cloudinary.com/cloud/image/upload/v123/productos/abc123")).isEqualTo("productos/abc123");
+        assertThat(servicio.extractPublicIdFromUrl(
+                "https://res.cloudinary.com/cloud/image/upload/v123/abc123")).isEqualTo("abc123");
+    }
+
+    @Test
+    void urlAjenaOVaciaRetornaVacio() {
+        assertThat(servicio.extractPublicIdFromUrl("https://example.com/imagen.png")).isEmpty();
+        assertThat(servicio.extractPublicIdFromUrl(null)).isEmpty();
+        assertThat(servicio.extractPublicIdFromUrl(" ")).isEmpty();
+    }
+}
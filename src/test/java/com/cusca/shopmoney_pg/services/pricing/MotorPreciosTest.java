@@ -0,0 +1,70 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.models.dto.request.DetalleVentaRequest;
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.repositories.PromocionRepository;
+import com.cusca.shopmoney_pg.repositories.PromocionRepository.ReglaPromocion;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static com.cusca.shopmoney_pg.services.pricing.TablaPromocionesTest.producto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MotorPreciosTest {
+    private static final long PRODUCTO = 10L;
+
+    private final PromocionRepository promocionRepository = mock(PromocionRepository.class);
+    private final CatalogoPreciosCache catalogoPreciosCache = mock(CatalogoPreciosCache.class);
+    private final MotorPrecios motor = new MotorPrecios(promocionRepository, mock(ProductoRepository.class),
+            catalogoPreciosCache);
+
+    @Test
+    void descuentoSeRedondeaAlCentavoConMitadesHaciaArriba() {
+        // 0.99 x 1 al 5 % = 4.95 centavos
+        preparar("0.99", "0", producto(PRODUCTO, "5.00", 1));
+
+        CalculoPrecios calculo = motor.cotizar(List.of(new DetalleVentaRequest(PRODUCTO, 1)));
+
+        assertThat(calculo.descuento().getCentavos()).isEqualTo(5);
+        assertThat(calculo.total().getCentavos()).isEqualTo(94);
+    }
+
+    @Test
+    void descuentoMenorQueMedioCentavoSeRedondeaHaciaAbajo() {
+        // 0.99 x 1 al 12.5 % = 12.375 centavos
+        preparar("0.99", "0", producto(PRODUCTO, "12.50", 1));
+
+        CalculoPrecios calculo = motor.cotizar(List.of(new DetalleVentaRequest(PRODUCTO, 1)));
+
+        assertThat(calculo.descuento().getCentavos()).isEqualTo(12);
+    }
+
+    @Test
+    void ivaSeCalculaSobreLaBaseYaDescontada() {
+        // 3 x 3.33 = 9.99; 10 % de descuento = 1.00 (0.999); IVA 13 % de 8.99 = 1.17 (1.1687)
+        preparar("3.33", "13", producto(PRODUCTO, "10.00", 3));
+
+        CalculoPrecios calculo = motor.cotizar(List.of(new DetalleVentaRequest(PRODUCTO, 3)));
+
+        assertThat(calculo.subtotal().getCentavos()).isEqualTo(999);
+        assertThat(calculo.descuento().getCentavos()).isEqualTo(100);
+        assertThat(calculo.impuesto().getCentavos()).isEqualTo(117);
+        assertThat(calculo.total().getCentavos()).isEqualTo(1016);
+    }
+
+    private void preparar(String precio, String iva, ReglaPromocion... reglas) {
+        ReflectionTestUtils.setField(motor, "ivaPorcentaje", new BigDecimal(iva));
+        motor.inicializar();
+        when(promocionRepository.findNoVencidas(any())).thenReturn(List.of(reglas));
+        motor.recargar();
+        when(catalogoPreciosCache.obtener(any())).thenReturn(Map.of(PRODUCTO,
+                PrecioProducto.de(PRODUCTO, null, new BigDecimal(precio))));
+    }
+}
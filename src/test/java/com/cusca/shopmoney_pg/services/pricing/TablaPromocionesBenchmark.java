@@ -0,0 +1,127 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.repositories.PromocionRepository.ReglaPromocion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.cusca.shopmoney_pg.services.pricing.TablaPromocionesTest.categoria;
+import static com.cusca.shopmoney_pg.services.pricing.TablaPromocionesTest.general;
+import static com.cusca.shopmoney_pg.services.pricing.TablaPromocionesTest.producto;
+import static com.cusca.shopmoney_pg.services.pricing.TablaPromocionesTest.vigencia;
+
+/*
+ * Descuento de las líneas de una venta con las promociones compiladas en TablaPromociones frente a
+ * recorrer todas las reglas por línea (filtrar por alcance, vigencia y cantidad mínima y quedarse con la mayor).
+ *
+ * Ejecutar con mvn test-compile y luego el método main, o con
+ * java -cp target/test-classes:target/classes:<classpath de test> org.openjdk.jmh.Main TablaPromocionesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TablaPromocionesBenchmark {
+    private static final int PRODUCTOS = 5_000;
+    private static final int CATEGORIAS = 50;
+    private static final int LINEAS = 20;
+
+    @Param({"10", "200", "2000"})
+    private int reglas;
+
+    private List<ReglaPromocion> promociones;
+    private TablaPromociones tabla;
+    private LocalDateTime ahora;
+    private long[] productosLinea;
+    private Long[] categoriasLinea;
+    private int[] cantidadesLinea;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        ahora = LocalDateTime.now();
+        promociones = new ArrayList<>(reglas);
+        for (int i = 0; i < reglas; i++) {
+            String porcentaje = (1 + random.nextInt(30)) + ".00";
+            int cantidadMinima = 1 + random.nextInt(10);
+            ReglaPromocion regla = switch (random.nextInt(10)) {
+                case 0 -> general(porcentaje, cantidadMinima);
+                case 1, 2, 3 -> categoria(random.nextInt(CATEGORIAS), porcentaje, cantidadMinima);
+                default -> producto(random.nextInt(PRODUCTOS), porcentaje, cantidadMinima);
+            };
+            promociones.add(vigencia(regla, ahora.minusDays(1), ahora.plusDays(1 + random.nextInt(30))));
+        }
+        tabla = TablaPromociones.compilar(promociones, ahora);
+
+        productosLinea = new long[LINEAS];
+        categoriasLinea = new Long[LINEAS];
+        cantidadesLinea = new int[LINEAS];
+        for (int i = 0; i < LINEAS; i++) {
+            productosLinea[i] = random.nextInt(PRODUCTOS);
+            categoriasLinea[i] = (long) random.nextInt(CATEGORIAS);
+            cantidadesLinea[i] = 1 + random.nextInt(12);
+        }
+    }
+
+    @Benchmark
+    public int tablaCompilada() {
+        int total = 0;
+        for (int i = 0; i < LINEAS; i++) {
+            total += tabla.puntosBase(productosLinea[i], categoriasLinea[i], cantidadesLinea[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int evaluacionPorLinea() {
+        int total = 0;
+        for (int i = 0; i < LINEAS; i++) {
+            total += mejorDescuento(productosLinea[i], categoriasLinea[i], cantidadesLinea[i]);
+        }
+        return total;
+    }
+
+    private int mejorDescuento(long productoId, Long categoriaId, int cantidad) {
+        int mejor = 0;
+        for (ReglaPromocion regla : promociones) {
+            if ((regla.getFechaInicio() != null && regla.getFechaInicio().isAfter(ahora))
+                    || (regla.getFechaFin() != null && !regla.getFechaFin().isAfter(ahora))
+                    || cantidad < regla.getCantidadMinima()) {
+                continue;
+            }
+            boolean aplica = switch (regla.getAlcance()) {
+                case PRODUCTO -> regla.getProductoId() == productoId;
+                case CATEGORIA -> Objects.equals(regla.getCategoriaId(), categoriaId);
+                case GENERAL -> true;
+            };
+            if (aplica) {
+                mejor = Math.max(mejor, regla.getPorcentaje().movePointRight(2).intValueExact());
+            }
+        }
+        return mejor;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TablaPromocionesBenchmark.class.getSimpleName()).build()).run();
+    }
+}
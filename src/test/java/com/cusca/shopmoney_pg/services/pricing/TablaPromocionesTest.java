@@ -0,0 +1,138 @@
+package com.cusca.shopmoney_pg.services.pricing;
+
+import com.cusca.shopmoney_pg.models.enums.AlcancePromocion;
+import com.cusca.shopmoney_pg.repositories.PromocionRepository.ReglaPromocion;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TablaPromocionesTest {
+    private static final LocalDateTime AHORA = LocalDateTime.of(2026, 3, 15, 12, 0);
+    private static final long PRODUCTO = 10L;
+    private static final long CATEGORIA = 3L;
+
+    @Test
+    void promocionesSuperpuestasNoSeAcumulanYGanaLaMayor() {
+        TablaPromociones tabla = TablaPromociones.compilar(List.of(
+                producto(PRODUCTO, "5.00", 1),
+                categoria(CATEGORIA, "12.50", 1),
+                general("8.00", 1),
+                producto(PRODUCTO, "3.00", 1)), AHORA);
+
+        assertThat(tabla.puntosBase(PRODUCTO, CATEGORIA, 1)).isEqualTo(1250);
+        // Sin la categoría, la general supera a la del producto
+        assertThat(tabla.puntosBase(PRODUCTO, null, 1)).isEqualTo(800);
+        assertThat(tabla.puntosBase(99L, null, 1)).isEqualTo(800);
+    }
+
+    @Test
+    void tramoDeMayorCantidadConservaElMejorDescuentoDeLosAnteriores() {
+        TablaPromociones tabla = TablaPromociones.compilar(List.of(
+                producto(PRODUCTO, "10.00", 1),
+                producto(PRODUCTO, "4.00", 5),
+                producto(PRODUCTO, "20.00", 10)), AHORA);
+
+        assertThat(tabla.puntosBase(PRODUCTO, null, 1)).isEqualTo(1000);
+        assertThat(tabla.puntosBase(PRODUCTO, null, 5)).isEqualTo(1000);
+        assertThat(tabla.puntosBase(PRODUCTO, null, 9)).isEqualTo(1000);
+        assertThat(tabla.puntosBase(PRODUCTO, null, 10)).isEqualTo(2000);
+    }
+
+    @Test
+    void cantidadMenorQueElPrimerTramoNoTieneDescuento() {
+        TablaPromociones tabla = TablaPromociones.compilar(List.of(producto(PRODUCTO, "10.00", 3)), AHORA);
+
+        assertThat(tabla.puntosBase(PRODUCTO, null, 2)).isZero();
+        assertThat(tabla.puntosBase(PRODUCTO, null, 3)).isEqualTo(1000);
+    }
+
+    @Test
+    void promocionQueEmpiezaAhoraAplicaYLaQueTerminaAhoraNo() {
+        TablaPromociones tabla = TablaPromociones.compilar(List.of(
+                vigencia(producto(PRODUCTO, "10.00", 1), AHORA, AHORA.plusDays(1)),
+                vigencia(producto(PRODUCTO, "30.00", 1), AHORA.minusDays(1), AHORA)), AHORA);
+
+        assertThat(tabla.puntosBase(PRODUCTO, null, 1)).isEqualTo(1000);
+    }
+
+    @Test
+    void tablaVenceAlPrimerInicioOFinPendiente() {
+        LocalDateTime fin = AHORA.plusHours(2);
+        LocalDateTime inicioFuturo = AHORA.plusHours(1);
+        TablaPromociones tabla = TablaPromociones.compilar(List.of(
+                vigencia(producto(PRODUCTO, "10.00", 1), null, fin),
+                vigencia(producto(PRODUCTO, "50.00", 1), inicioFuturo, null)), AHORA);
+
+        // La promoción futura todavía no aplica
+        assertThat(tabla.puntosBase(PRODUCTO, null, 1)).isEqualTo(1000);
+        assertThat(tabla.vigente(inicioFuturo.minusNanos(1))).isTrue();
+        assertThat(tabla.vigente(inicioFuturo)).isFalse();
+    }
+
+    @Test
+    void tablaSinFechasNoVence() {
+        TablaPromociones tabla = TablaPromociones.compilar(List.of(general("5.00", 1)), AHORA);
+
+        assertThat(tabla.vigente(AHORA.plusYears(10))).isTrue();
+        assertThat(tabla.totalTablas()).isEqualTo(1);
+    }
+
+    static ReglaPromocion producto(long productoId, String porcentaje, int cantidadMinima) {
+        return new Regla(AlcancePromocion.PRODUCTO, productoId, null, new BigDecimal(porcentaje), cantidadMinima, null, null);
+    }
+
+    static ReglaPromocion categoria(long categoriaId, String porcentaje, int cantidadMinima) {
+        return new Regla(AlcancePromocion.CATEGORIA, null, categoriaId, new BigDecimal(porcentaje), cantidadMinima, null, null);
+    }
+
+    static ReglaPromocion general(String porcentaje, int cantidadMinima) {
+        return new Regla(AlcancePromocion.GENERAL, null, null, new BigDecimal(porcentaje), cantidadMinima, null, null);
+    }
+
+    static ReglaPromocion vigencia(ReglaPromocion regla, LocalDateTime inicio, LocalDateTime fin) {
+        return new Regla(regla.getAlcance(), regla.getProductoId(), regla.getCategoriaId(), regla.getPorcentaje(),
+                regla.getCantidadMinima(), inicio, fin);
+    }
+
+    record Regla(AlcancePromocion alcance, Long productoId, Long categoriaId, BigDecimal porcentaje,
+                 Integer cantidadMinima, LocalDateTime fechaInicio, LocalDateTime fechaFin) implements ReglaPromocion {
+        @Override
+        public AlcancePromocion getAlcance() {
+            return alcance;
+        }
+
+        @Override
+        public Long getProductoId() {
+            return productoId;
+        }
+
+        @Override
+        public Long getCategoriaId() {
+            return categoriaId;
+        }
+
+        @Override
+        public BigDecimal getPorcentaje() {
+            return porcentaje;
+        }
+
+        @Override
+        public Integer getCantidadMinima() {
+            return cantidadMinima;
+        }
+
+        @Override
+        public LocalDateTime getFechaInicio() {
+            return fechaInicio;
+        }
+
+        @Override
+        public LocalDateTime getFechaFin() {
+            return fechaFin;
+        }
+    }
+}
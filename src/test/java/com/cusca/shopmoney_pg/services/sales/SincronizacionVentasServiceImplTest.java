@@ -0,0 +1,167 @@
+package com.cusca.shopmoney_pg.services.sales;
+
+import com.cusca.shopmoney_pg.models.dto.request.DetalleVentaRequest;
+import com.cusca.shopmoney_pg.models.dto.request.SincronizacionVentasRequest;
+import com.cusca.shopmoney_pg.models.dto.request.VentaOfflineRequest;
+import com.cusca.shopmoney_pg.models.dto.request.VentaRequest;
+import com.cusca.shopmoney_pg.models.dto.response.SincronizacionVentasResponse;
+import com.cusca.shopmoney_pg.models.entities.ProductoEntity;
+import com.cusca.shopmoney_pg.models.enums.ResultadoSincronizacion;
+import com.cusca.shopmoney_pg.models.enums.TipoVenta;
+import com.cusca.shopmoney_pg.repositories.CuentaClienteRepository;
+import com.cusca.shopmoney_pg.repositories.ProductoRepository;
+import com.cusca.shopmoney_pg.repositories.PromocionRepository;
+import com.cusca.shopmoney_pg.repositories.UsuarioRepository;
+import com.cusca.shopmoney_pg.repositories.VentaRepository;
+import com.cusca.shopmoney_pg.services.cache.VersionRecursosService;
+import com.cusca.shopmoney_pg.services.catalog.IInventarioService;
+import com.cusca.shopmoney_pg.services.catalog.InventarioServiceImpl;
+import com.cusca.shopmoney_pg.services.notification.NotificacionServiceImpl;
+import com.cusca.shopmoney_pg.services.pricing.CatalogoPreciosCache;
+import com.cusca.shopmoney_pg.services.pricing.MotorPrecios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ * El inventario corre detrás del proxy transaccional real y el gestor de transacciones es el de JDBC sobre
+ * una conexión simulada: así se verifica que una venta sin existencias no deje el bloque marcado para rollback.
+ */
+@SpringJUnitConfig
+class SincronizacionVentasServiceImplTest {
+    private static final long PRODUCTO_SIN_CONTROL = 1L;
+    private static final long PRODUCTO_AGOTADO = 2L;
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+        @Bean
+        Connection conexion() {
+            return mock(Connection.class);
+        }
+
+        @Bean
+        DataSource dataSource(Connection conexion) throws Exception {
+            DataSource dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenReturn(conexion);
+            return dataSource;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+
+        @Bean
+        JdbcTemplate jdbcInventario() {
+            return mock(JdbcTemplate.class);
+        }
+
+        @Bean
+        InventarioServiceImpl inventarioService(JdbcTemplate jdbcInventario) {
+            return new InventarioServiceImpl(jdbcInventario);
+        }
+    }
+
+    @Autowired
+    private IInventarioService inventarioService;
+    @Autowired
+    private JdbcTemplate jdbcInventario;
+    @Autowired
+    private Connection conexion;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final VentaRepository ventaRepository = mock(VentaRepository.class);
+    private final ProductoRepository productoRepository = mock(ProductoRepository.class);
+    private final JdbcTemplate jdbcVentas = mock(JdbcTemplate.class);
+    private SincronizacionVentasServiceImpl servicio;
+
+    @BeforeEach
+    void preparar() {
+        reset(jdbcInventario, conexion);
+        // Un solo fragmento con 1 unidad: pedir más obliga al camino lento y a la falta de existencias
+        when(jdbcInventario.query(anyString(), any(RowMapper.class), eq(PRODUCTO_AGOTADO)))
+                .thenReturn(List.of(new long[]{10L, 1L}));
+
+        when(ventaRepository.findPorIdsExternos(any())).thenReturn(List.of());
+        when(productoRepository.findAllByIdConCategoria(any())).thenReturn(List.of(
+                producto(PRODUCTO_SIN_CONTROL), producto(PRODUCTO_AGOTADO)));
+        when(jdbcVentas.execute(any(ConnectionCallback.class))).thenReturn(List.of(100L));
+
+        PromocionRepository promocionRepository = mock(PromocionRepository.class);
+        MotorPrecios motorPrecios = new MotorPrecios(promocionRepository, productoRepository,
+                mock(CatalogoPreciosCache.class));
+
+        servicio = new SincronizacionVentasServiceImpl(ventaRepository, productoRepository,
+                mock(CuentaClienteRepository.class), mock(UsuarioRepository.class), mock(VersionRecursosService.class),
+                inventarioService, motorPrecios, mock(ResumenVentasDiarioService.class),
+                mock(NotificacionServiceImpl.class), jdbcVentas, transactionTemplate);
+    }
+
+    @Test
+    void ventaSinExistenciasSeRechazaYElRestoDelBloqueSeConfirma() throws Exception {
+        SincronizacionVentasResponse respuesta = servicio.sincronizar(new SincronizacionVentasRequest(List.of(
+                ventaContado("pos-1", PRODUCTO_SIN_CONTROL, 2),
+                ventaContado("pos-2", PRODUCTO_AGOTADO, 5))));
+
+        assertThat(respuesta.getCreadas()).isEqualTo(1);
+        assertThat(respuesta.getRechazadas()).isEqualTo(1);
+        assertThat(respuesta.getResultados().get(0).getResultado()).isEqualTo(ResultadoSincronizacion.CREADA);
+        assertThat(respuesta.getResultados().get(0).getVentaId()).isEqualTo(100L);
+        assertThat(respuesta.getResultados().get(1).getResultado()).isEqualTo(ResultadoSincronizacion.RECHAZADA);
+        assertThat(respuesta.getResultados().get(1).getMensaje()).contains("Existencias insuficientes");
+        // El bloque se confirmó en vez de revertirse por rollback-only
+        verify(conexion).commit();
+    }
+
+    @Test
+    void bloqueConSoloVentasSinExistenciasNoFallaLaSolicitud() {
+        SincronizacionVentasResponse respuesta = servicio.sincronizar(new SincronizacionVentasRequest(List.of(
+                ventaContado("pos-3", PRODUCTO_AGOTADO, 2))));
+
+        assertThat(respuesta.getRechazadas()).isEqualTo(1);
+        assertThat(respuesta.getCreadas()).isZero();
+    }
+
+    private static ProductoEntity producto(long id) {
+        return ProductoEntity.builder().id(id).nombre("Producto " + id).precioUnitario(new BigDecimal("2.50")).build();
+    }
+
+    private static VentaOfflineRequest ventaContado(String idExterno, long productoId, int cantidad) {
+        VentaRequest venta = new VentaRequest();
+        venta.setTipoVenta(TipoVenta.CONTADO);
+        venta.setClienteOcasional("Cliente de mostrador");
+        venta.setDetalleVentas(List.of(new DetalleVentaRequest(productoId, cantidad)));
+        return new VentaOfflineRequest(idExterno, null, venta);
+    }
+}
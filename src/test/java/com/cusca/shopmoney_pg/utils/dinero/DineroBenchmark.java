@@ -0,0 +1,87 @@
+package com.cusca.shopmoney_pg.utils.dinero;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Suma de montos como la hacen los reductores de movimientos y de detalles de venta.
+ * - bigDecimal: BigDecimal.add sobre los valores de las entidades (lo que usan esos servicios).
+ * - dineroIdaYVuelta: convertir cada BigDecimal a Dinero y el resultado de vuelta; cuesta más que sumar
+ *   directamente, por eso solo se usa Dinero donde los montos ya viajan en centavos.
+ * - dinero: montos ya en Dinero (motor de precios, acumuladores por cursor).
+ *
+ * Ejecutar con mvn test-compile y luego el método main, o con
+ * java -cp target/test-classes:target/classes:<classpath de test> org.openjdk.jmh.Main DineroBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DineroBenchmark {
+    @Param({"10", "1000"})
+    private int montos;
+
+    private BigDecimal[] decimales;
+    private Dinero[] dineros;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        decimales = new BigDecimal[montos];
+        dineros = new Dinero[montos];
+        for (int i = 0; i < montos; i++) {
+            long centavos = 1 + random.nextInt(100_000);
+            decimales[i] = BigDecimal.valueOf(centavos, 2);
+            dineros[i] = Dinero.deCentavos(centavos);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal monto : decimales) {
+            total = total.add(monto);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal dineroIdaYVuelta() {
+        Dinero total = Dinero.CERO;
+        for (BigDecimal monto : decimales) {
+            total = total.sumar(Dinero.de(monto));
+        }
+        return total.aBigDecimal();
+    }
+
+    @Benchmark
+    public Dinero dinero() {
+        Dinero total = Dinero.CERO;
+        for (Dinero monto : dineros) {
+            total = total.sumar(monto);
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DineroBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.cusca.shopmoney_pg.utils.estados;
+
+import com.cusca.shopmoney_pg.models.entities.AbonoEntity;
+import com.cusca.shopmoney_pg.models.entities.VentaEntity;
+import com.cusca.shopmoney_pg.models.enums.EstadoAbono;
+import com.cusca.shopmoney_pg.models.enums.EstadoVenta;
+import com.cusca.shopmoney_pg.repositories.AbonoRepository;
+import com.cusca.shopmoney_pg.repositories.VentaRepository;
+import com.cusca.shopmoney_pg.services.finance.MaquinaEstadosAbono;
+import com.cusca.shopmoney_pg.services.sales.MaquinaEstadosVenta;
+import com.cusca.shopmoney_pg.services.sales.ResumenVentasDiarioService;
+import com.cusca.shopmoney_pg.utils.exceptions.InvalidSaleStateException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class TablaTransicionesTest {
+    private final MaquinaEstadosVenta maquinaVentas = new MaquinaEstadosVenta(mock(VentaRepository.class),
+            mock(ResumenVentasDiarioService.class));
+    private final MaquinaEstadosAbono maquinaAbonos = new MaquinaEstadosAbono(mock(AbonoRepository.class));
+
+    // Matriz completa: cualquier par que no esté permitido debe rechazarse, incluido quedarse en el mismo estado
+    @ParameterizedTest(name = "venta {0} -> {1}: {2}")
+    @CsvSource({
+            "PENDIENTE, PENDIENTE, false",
+            "PENDIENTE, PAGADA,    true",
+            "PENDIENTE, PARCIAL,   true",
+            "PENDIENTE, CANCELADA, true",
+            "PARCIAL,   PENDIENTE, false",
+            "PARCIAL,   PAGADA,    true",
+            "PARCIAL,   PARCIAL,   false",
+            "PARCIAL,   CANCELADA, true",
+            "PAGADA,    PENDIENTE, false",
+            "PAGADA,    PAGADA,    false",
+            "PAGADA,    PARCIAL,   false",
+            "PAGADA,    CANCELADA, false",
+            "CANCELADA, PENDIENTE, false",
+            "CANCELADA, PAGADA,    false",
+            "CANCELADA, PARCIAL,   false",
+            "CANCELADA, CANCELADA, false"
+    })
+    void transicionesDeVenta(EstadoVenta actual, EstadoVenta nuevo, boolean permitida) {
+        VentaEntity venta = new VentaEntity();
+        venta.setEstado(actual);
+
+        assertThat(maquinaVentas.permite(venta, nuevo)).isEqualTo(permitida);
+        if (permitida) {
+            assertThatCode(() -> maquinaVentas.validar(venta, nuevo)).doesNotThrowAnyException();
+        } else {
+            assertThatThrownBy(() -> maquinaVentas.validar(venta, nuevo))
+                    .isInstanceOf(InvalidSaleStateException.class)
+                    .hasMessage("No se puede cambiar el estado de " + actual + " a " + nuevo);
+        }
+    }
+
+    @ParameterizedTest(name = "abono {0} -> {1}: {2}")
+    @CsvSource({
+            "PENDIENTE, PENDIENTE, false",
+            "PENDIENTE, APLICADO,  true",
+            "PENDIENTE, RECHAZADO, true",
+            "APLICADO,  PENDIENTE, false",
+            "APLICADO,  APLICADO,  false",
+            "APLICADO,  RECHAZADO, false",
+            "RECHAZADO, PENDIENTE, true",
+            "RECHAZADO, APLICADO,  false",
+            "RECHAZADO, RECHAZADO, false"
+    })
+    void transicionesDeAbono(EstadoAbono actual, EstadoAbono nuevo, boolean permitida) {
+        AbonoEntity abono = new AbonoEntity();
+        abono.setEstado(actual);
+
+        assertThat(maquinaAbonos.permite(abono, nuevo)).isEqualTo(permitida);
+        if (permitida) {
+            maquinaAbonos.transicionar(abono, nuevo);
+            assertThat(abono.getEstado()).isEqualTo(nuevo);
+        } else {
+            assertThatThrownBy(() -> maquinaAbonos.transicionar(abono, nuevo))
+                    .isInstanceOf(InvalidSaleStateException.class);
+            assertThat(abono.getEstado()).isEqualTo(actual);
+        }
+    }
+
+    @Test
+    void tablaConstruidaNoCambiaAlSeguirUsandoElConstructor() {
+        TablaTransiciones.Constructor<EstadoAbono> constructor = TablaTransiciones.para(EstadoAbono.class)
+                .desde(EstadoAbono.PENDIENTE, EstadoAbono.APLICADO);
+        TablaTransiciones<EstadoAbono> tabla = constructor.construir();
+
+        constructor.desde(EstadoAbono.APLICADO, EstadoAbono.PENDIENTE);
+
+        assertThat(tabla.permite(EstadoAbono.APLICADO, EstadoAbono.PENDIENTE)).isFalse();
+        assertThat(tabla.permite(EstadoAbono.PENDIENTE, EstadoAbono.APLICADO)).isTrue();
+    }
+}
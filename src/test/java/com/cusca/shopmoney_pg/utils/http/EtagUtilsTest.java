@@ -0,0 +1,43 @@
+package com.cusca.shopmoney_pg.utils.http;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagUtilsTest {
+    private static final String ETAG = "\"catalogo-7\"";
+
+    @Test
+    void etagIgualRespondeNoModificado() {
+        ResponseEntity<String> respuesta = EtagUtils.responder(conIfNoneMatch("W/" + ETAG), ETAG, () -> "datos");
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(respuesta.getBody()).isNull();
+    }
+
+    @Test
+    void comodinNoEvitaCargarLosDatos() {
+        ResponseEntity<String> respuesta = EtagUtils.responder(conIfNoneMatch("*"), ETAG, () -> "datos");
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(respuesta.getBody()).isEqualTo("datos");
+    }
+
+    @Test
+    void etagDistintoDevuelveLosDatosConElEtagActual() {
+        ResponseEntity<String> respuesta = EtagUtils.responder(conIfNoneMatch("\"catalogo-6\""), ETAG, () -> "datos");
+
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(respuesta.getHeaders().getETag()).isEqualTo(ETAG);
+    }
+
+    private static MockHttpServletRequest conIfNoneMatch(String valor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, valor);
+        return request;
+    }
+}
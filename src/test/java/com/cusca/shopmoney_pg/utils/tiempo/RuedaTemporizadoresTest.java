@@ -0,0 +1,69 @@
+package com.cusca.shopmoney_pg.utils.tiempo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuedaTemporizadoresTest {
+    // 8 ranuras de 100 ms: una vuelta completa son 800 ms
+    private final RuedaTemporizadores<String> rueda = new RuedaTemporizadores<>(8, 100, 0);
+
+    @Test
+    void claveVenceAlLlegarASuVencimientoYNoAntes() {
+        rueda.programar("a", 350);
+
+        assertThat(rueda.avanzar(300)).isEmpty();
+        assertThat(rueda.avanzar(349)).isEmpty();
+        assertThat(rueda.avanzar(350)).containsExactly("a");
+        assertThat(rueda.pendientes()).isZero();
+    }
+
+    @Test
+    void vencimientoYaPasadoSeEntregaEnElSiguienteAvance() {
+        rueda.avanzar(500);
+        rueda.programar("a", 120);
+
+        assertThat(rueda.avanzar(550)).isEmpty();
+        assertThat(rueda.avanzar(600)).containsExactly("a");
+    }
+
+    @Test
+    void claveCanceladaNoVence() {
+        rueda.programar("a", 200);
+        rueda.cancelar("a");
+
+        assertThat(rueda.avanzar(1_000)).isEmpty();
+        assertThat(rueda.pendientes()).isZero();
+    }
+
+    @Test
+    void reprogramarReemplazaElVencimientoAnterior() {
+        rueda.programar("a", 200);
+        rueda.programar("a", 600);
+
+        assertThat(rueda.avanzar(300)).isEmpty();
+        assertThat(rueda.pendientes()).isEqualTo(1);
+        assertThat(rueda.avanzar(600)).containsExactly("a");
+    }
+
+    @Test
+    void vencimientoMasLejanoQueUnaVueltaEsperaSuVuelta() {
+        // Cae en la misma ranura que el tick 3, pero una vuelta después
+        rueda.programar("a", 1_100);
+
+        assertThat(rueda.avanzar(800)).isEmpty();
+        assertThat(rueda.avanzar(1_099)).isEmpty();
+        assertThat(rueda.avanzar(1_100)).containsExactly("a");
+    }
+
+    @Test
+    void pausaLargaEntregaTodoLoVencido() {
+        rueda.programar("a", 150);
+        rueda.programar("b", 720);
+        rueda.programar("c", 5_000);
+
+        assertThat(rueda.avanzar(3_000)).containsExactlyInAnyOrder("a", "b");
+        assertThat(rueda.pendientes()).isEqualTo(1);
+        assertThat(rueda.avanzar(5_000)).containsExactly("c");
+    }
+}